@@ -3,11 +3,15 @@ package com.dieg0code.junitapp.models;
 import java.math.BigDecimal;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public class Banco {
 
+    private static final Object EMPATE = new Object();
+
     private List<Cuenta> cuentas;
     private String nombre;
+    private final AtomicInteger totalTransferencias = new AtomicInteger();
 
     public Banco() {
         cuentas = new ArrayList<>();
@@ -34,8 +38,43 @@ public class Banco {
         this.nombre = nombre;
     }
 
+    public int getTotalTransferencias() {
+        return totalTransferencias.get();
+    }
+
+    // Se bloquean las dos cuentas, siempre en el mismo orden para que dos transferencias cruzadas
+    // (A -> B y B -> A) no se bloqueen mutuamente; si el orden empata se usa un lock común
     public void transferir(Cuenta origen, Cuenta destino, BigDecimal monto) {
+        int hashOrigen = System.identityHashCode(origen);
+        int hashDestino = System.identityHashCode(destino);
+
+        if (hashOrigen < hashDestino) {
+            synchronized (origen) {
+                synchronized (destino) {
+                    mover(origen, destino, monto);
+                }
+            }
+        } else if (hashOrigen > hashDestino) {
+            synchronized (destino) {
+                synchronized (origen) {
+                    mover(origen, destino, monto);
+                }
+            }
+        } else {
+            synchronized (EMPATE) {
+                synchronized (origen) {
+                    synchronized (destino) {
+                        mover(origen, destino, monto);
+                    }
+                }
+            }
+        }
+    }
+
+    private void mover(Cuenta origen, Cuenta destino, BigDecimal monto) {
         origen.debito(monto);
         destino.credito(monto);
+        // Transferencias entre otras cuentas no comparten los locks: el contador es atómico
+        totalTransferencias.incrementAndGet();
     }
 }
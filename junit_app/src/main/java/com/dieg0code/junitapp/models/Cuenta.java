@@ -23,11 +23,11 @@ public class Cuenta {
         this.persona = persona;
     }
 
-    public BigDecimal getSaldo() {
+    public synchronized BigDecimal getSaldo() {
         return saldo;
     }
 
-    public void setSaldo(BigDecimal saldo) {
+    public synchronized void setSaldo(BigDecimal saldo) {
         this.saldo = saldo;
     }
 
@@ -39,7 +39,8 @@ public class Cuenta {
         this.banco = banco;
     }
 
-    public void debito(BigDecimal monto) {
+    // Lectura y escritura del saldo en una sola operación; Banco.transferir además bloquea ambas cuentas
+    public synchronized void debito(BigDecimal monto) {
         BigDecimal nuevoSaldo = this.saldo.subtract(monto);
         if(nuevoSaldo.compareTo(BigDecimal.ZERO) < 0) {
             throw new DineroInsuficienteException("Dinero insuficiente");
@@ -47,7 +48,7 @@ public class Cuenta {
         this.saldo = nuevoSaldo;
     }
 
-    public void credito(BigDecimal monto) {
+    public synchronized void credito(BigDecimal monto) {
         this.saldo = this.saldo.add(monto);
     }
 
@@ -0,0 +1,85 @@
+package com.dieg0code.junitapp.models;
+
+import com.dieg0code.junitapp.exceptions.DineroInsuficienteException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Timeout;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BancoConcurrenciaTest {
+
+    static final int CUENTAS = 8;
+    static final long DURACION_MS = 1_000;
+    static final int MAX_POR_HILO = 200_000;
+
+    @ParameterizedTest(name = "[BANCO :: TEST] semilla {0}, {1} hilos")
+    @CsvSource({"1, 2", "7, 8", "42, 16", "2024, 32"})
+    @DisplayName("[BANCO :: TEST] Transferencias concurrentes")
+    @Timeout(value = 30, unit = TimeUnit.SECONDS)
+    void testTransferenciasConcurrentes(long semilla, int hilos) throws Exception {
+        Random random = new Random(semilla);
+        Banco banco = new Banco();
+        banco.setNombre("Banco del Estado");
+        BigDecimal totalInicial = BigDecimal.ZERO;
+        for (int i = 0; i < CUENTAS; i++) {
+            Cuenta cuenta = new Cuenta("Persona " + i, BigDecimal.valueOf(random.nextInt(100_000), 2));
+            banco.addCuenta(cuenta);
+            totalInicial = totalInicial.add(cuenta.getSaldo());
+        }
+
+        ExecutorService ejecutor = Executors.newFixedThreadPool(hilos);
+        long limite = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(DURACION_MS);
+        List<Future<Integer>> tareas = new ArrayList<>();
+        for (int h = 0; h < hilos; h++) {
+            Random aleatorio = new Random(semilla * 31 + h);
+            tareas.add(ejecutor.submit(() -> transferir(banco, aleatorio, limite)));
+        }
+        int confirmadas = 0;
+        try {
+            for (Future<Integer> tarea : tareas) {
+                confirmadas += tarea.get();
+            }
+        } finally {
+            ejecutor.shutdownNow();
+        }
+
+        BigDecimal inicial = totalInicial;
+        BigDecimal totalFinal = banco.getCuentas().stream().map(Cuenta::getSaldo).reduce(BigDecimal.ZERO, BigDecimal::add);
+        int transferencias = confirmadas;
+        assertAll(
+                () -> assertTrue(transferencias > 0, "No se confirmó ninguna transferencia"),
+                () -> assertEquals(0, inicial.compareTo(totalFinal), "El dinero total cambió: " + inicial + " -> " + totalFinal),
+                () -> assertTrue(banco.getCuentas().stream().allMatch(c -> c.getSaldo().signum() >= 0), "Hay saldos negativos"),
+                () -> assertEquals(transferencias, banco.getTotalTransferencias(), "El contador del banco no coincide con las transferencias confirmadas")
+        );
+    }
+
+    // Transferencias aleatorias entre cuentas distintas hasta el límite de tiempo; devuelve las confirmadas
+    private int transferir(Banco banco, Random aleatorio, long limite) {
+        List<Cuenta> cuentas = banco.getCuentas();
+        int confirmadas = 0;
+        for (int i = 0; i < MAX_POR_HILO && System.nanoTime() < limite; i++) {
+            int origen = aleatorio.nextInt(CUENTAS);
+            int destino = (origen + 1 + aleatorio.nextInt(CUENTAS - 1)) % CUENTAS;
+            BigDecimal monto = BigDecimal.valueOf(aleatorio.nextInt(1, 20_000), 2);
+            try {
+                banco.transferir(cuentas.get(origen), cuentas.get(destino), monto);
+                confirmadas++;
+            } catch (DineroInsuficienteException e) {
+                // Esperado: el saldo no alcanza y la transferencia no se aplica
+            }
+        }
+        return confirmadas;
+    }
+}
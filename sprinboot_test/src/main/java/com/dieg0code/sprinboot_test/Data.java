@@ -18,6 +18,6 @@ public class Data {
     }
 
     public static Optional<Banco> crearBanco() {
-        return Optional.of(new Banco(1L, "Banco de la Nación", 0));
+        return Optional.of(new Banco(1L, "Banco de la Nación"));
     }
 }
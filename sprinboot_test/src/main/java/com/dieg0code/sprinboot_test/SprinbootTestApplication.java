@@ -2,8 +2,10 @@ package com.dieg0code.sprinboot_test;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
 public class SprinbootTestApplication {
 
 	public static void main(String[] args) {
@@ -0,0 +1,69 @@
+package com.dieg0code.sprinboot_test.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.List;
+
+/**
+ * Ejecución de entrenamiento del perfil Maven {@code arranque-rapido}. Con
+ * {@code cuentas.arranque.entrenamiento=true}, al quedar lista la aplicación hace las peticiones
+ * más comunes para cargar las clases del primer request y termina; la JVM, lanzada con
+ * {@code -XX:ArchiveClassesAtExit}, guarda entonces todas las clases cargadas en el archivo AppCDS.
+ * <p>
+ * La propiedad se lee en tiempo de ejecución y no con una condición, porque con AOT las condiciones
+ * se evalúan al compilar.
+ */
+@Component
+public class EntrenamientoArranque {
+
+    private static final Logger log = LoggerFactory.getLogger(EntrenamientoArranque.class);
+
+    private static final List<String> RUTAS = List.of("/api/cuentas", "/api/cuentas/1", "/api/cuentas/1/movimientos",
+            "/api/bancos/1/resumen");
+
+    private final boolean activo;
+
+    public EntrenamientoArranque(@Value("${cuentas.arranque.entrenamiento:false}") boolean activo) {
+        this.activo = activo;
+    }
+
+    @EventListener
+    public void entrenar(ApplicationReadyEvent evento) {
+        if (!activo) {
+            return;
+        }
+
+        ConfigurableApplicationContext contexto = evento.getApplicationContext();
+        String puerto = contexto.getEnvironment().getProperty("local.server.port");
+        if (puerto != null) {
+            HttpClient cliente = HttpClient.newHttpClient();
+            for (String ruta : RUTAS) {
+                try {
+                    HttpResponse<Void> respuesta = cliente.send(
+                            HttpRequest.newBuilder(URI.create("http://localhost:" + puerto + ruta)).build(),
+                            HttpResponse.BodyHandlers.discarding());
+                    log.info("Entrenamiento: GET {} -> {}", ruta, respuesta.statusCode());
+                } catch (IOException e) {
+                    log.warn("Entrenamiento: GET {} falló", ruta, e);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+            }
+        }
+
+        System.exit(SpringApplication.exit(contexto));
+    }
+}
@@ -0,0 +1,54 @@
+package com.dieg0code.sprinboot_test.config;
+
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.annotation.AnnotatedBeanDefinition;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.BeanFactoryPostProcessor;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.context.EnvironmentAware;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Marca como perezosos los beans de los paquetes indicados en {@code cuentas.arranque.perezosos}
+ * (por ejemplo {@code org.springdoc}), para que no se creen al arrancar sino en su primer uso.
+ * A diferencia de {@code spring.main.lazy-initialization}, no afecta a los beans de la aplicación,
+ * que deben estar listos (jobs, oyentes, filtro de cuentas) antes de la primera petición.
+ * <p>
+ * Con AOT se evalúa al generar el código, así que la propiedad debe estar en el perfil con el que
+ * se procesa.
+ */
+@Component
+public class InicializacionPerezosa implements BeanFactoryPostProcessor, EnvironmentAware {
+
+    private List<String> paquetes = List.of();
+
+    @Override
+    public void setEnvironment(Environment environment) {
+        paquetes = List.of(environment.getProperty("cuentas.arranque.perezosos", String[].class, new String[0]));
+    }
+
+    @Override
+    public void postProcessBeanFactory(ConfigurableListableBeanFactory beanFactory) throws BeansException {
+        if (paquetes.isEmpty()) {
+            return;
+        }
+        for (String nombre : beanFactory.getBeanDefinitionNames()) {
+            BeanDefinition definicion = beanFactory.getBeanDefinition(nombre);
+            String clase = clase(definicion);
+            if (clase != null && paquetes.stream().anyMatch(clase::startsWith)) {
+                definicion.setLazyInit(true);
+            }
+        }
+    }
+
+    // Los beans de métodos @Bean no tienen clase propia: cuenta la clase de configuración que los declara
+    private static String clase(BeanDefinition definicion) {
+        if (definicion instanceof AnnotatedBeanDefinition anotada && anotada.getFactoryMethodMetadata() != null) {
+            return anotada.getFactoryMethodMetadata().getDeclaringClassName();
+        }
+        return definicion.getBeanClassName();
+    }
+}
@@ -0,0 +1,26 @@
+package com.dieg0code.sprinboot_test.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+
+/**
+ * Identifica a esta instancia de la aplicación cuando varias comparten la misma base de datos,
+ * por ejemplo para reclamar particiones de trabajo. Se puede fijar con {@code cuentas.nodo.id}.
+ */
+@Component
+public class Nodo {
+
+    private final String id;
+
+    public Nodo(@Value("${cuentas.nodo.id:}") String id) {
+        this.id = id == null || id.isBlank()
+                ? ProcessHandle.current().pid() + "-" + UUID.randomUUID().toString().substring(0, 8)
+                : id;
+    }
+
+    public String getId() {
+        return id;
+    }
+}
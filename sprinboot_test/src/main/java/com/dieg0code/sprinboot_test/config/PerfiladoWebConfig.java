@@ -0,0 +1,22 @@
+package com.dieg0code.sprinboot_test.config;
+
+import com.dieg0code.sprinboot_test.controllers.PerfiladoRespuestas;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+public class PerfiladoWebConfig implements WebMvcConfigurer {
+
+    private final PerfiladoRespuestas perfiladoRespuestas;
+
+    public PerfiladoWebConfig(PerfiladoRespuestas perfiladoRespuestas) {
+        this.perfiladoRespuestas = perfiladoRespuestas;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(perfiladoRespuestas)
+                .addPathPatterns("/api/cuentas/transferir", "/api/cuentas/transferir-multiple");
+    }
+}
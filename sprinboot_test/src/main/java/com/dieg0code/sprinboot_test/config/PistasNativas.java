@@ -0,0 +1,29 @@
+package com.dieg0code.sprinboot_test.config;
+
+import com.dieg0code.sprinboot_test.events.TransferenciaRealizadaEvent;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.ImportRuntimeHints;
+
+/**
+ * Pistas para una imagen nativa ({@code mvn -Pnative native:compile}) sobre lo que el análisis AOT
+ * de Spring no ve: los recursos que se leen por nombre y los tipos que se serializan con el
+ * {@code ObjectMapper} fuera de un controlador.
+ */
+@Configuration(proxyBeanMethods = false)
+@ImportRuntimeHints(PistasNativas.Registrador.class)
+public class PistasNativas {
+
+    static class Registrador implements RuntimeHintsRegistrar {
+
+        @Override
+        public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+            hints.resources().registerPattern("import.sql");
+            hints.resources().registerPattern("ehcache.xml");
+            // Los eventos del outbox se guardan como JSON
+            hints.reflection().registerType(TransferenciaRealizadaEvent.class, MemberCategory.values());
+        }
+    }
+}
@@ -0,0 +1,168 @@
+package com.dieg0code.sprinboot_test.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.Statement;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Registra en el log {@code cuentas.sql.lentas} las sentencias que tardan al menos
+ * {@code cuentas.sql.lentas.umbral-ms}, con el número de parámetros enlazados (por fila en un lote) y
+ * el tamaño del lote.
+ * Reemplaza al log de cada sentencia de {@code org.hibernate.SQL} en producción.
+ * <p>
+ * Envuelve el {@link DataSource} en proxies de JDBC que miden cada {@code execute*}; de una consulta
+ * se mide hasta que devuelve el {@code ResultSet}, sin la lectura de las filas. Para que una ráfaga
+ * de sentencias lentas no sature el log se emiten como mucho {@code cuentas.sql.lentas.max-por-segundo}
+ * por segundo y las demás se cuentan como omitidas. Con un umbral negativo (por defecto) no se
+ * envuelve nada.
+ * <p>
+ * Los proxies pasan por reflexión y asignan los arreglos de argumentos en cada llamada: del orden de
+ * 200 ns y 200 bytes por sentencia (ver {@code ConsultasLentasBenchmark}).
+ */
+@Component
+public class RegistroConsultasLentas implements BeanPostProcessor {
+
+    private static final Logger log = LoggerFactory.getLogger("cuentas.sql.lentas");
+
+    private final long umbralNanos;
+    private final int maxPorSegundo;
+
+    private final AtomicLong segundo = new AtomicLong();
+    private final AtomicInteger emitidas = new AtomicInteger();
+    private final AtomicLong omitidas = new AtomicLong();
+
+    public RegistroConsultasLentas(@Value("${cuentas.sql.lentas.umbral-ms:-1}") long umbralMs,
+                                   @Value("${cuentas.sql.lentas.max-por-segundo:10}") int maxPorSegundo) {
+        this.umbralNanos = umbralMs < 0 ? -1 : TimeUnit.MILLISECONDS.toNanos(umbralMs);
+        this.maxPorSegundo = maxPorSegundo;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (umbralNanos < 0 || !(bean instanceof DataSource dataSource)) {
+            return bean;
+        }
+        return proxy(DataSource.class, (instancia, method, args) -> {
+            Object resultado = invocar(dataSource, method, args);
+            return resultado instanceof Connection conexion ? proxy(Connection.class, new Conexion(conexion)) : resultado;
+        });
+    }
+
+    void registrar(String sql, long nanos, int parametros, int lote) {
+        if (!muestrear()) {
+            return;
+        }
+        long omitidasAntes = omitidas.getAndSet(0);
+        log.warn("SQL lenta: {} ms, {} parámetros{}{}: {}",
+                TimeUnit.NANOSECONDS.toMillis(nanos), parametros,
+                lote > 0 ? " por fila, lote de " + lote : "",
+                omitidasAntes > 0 ? " (" + omitidasAntes + " omitidas)" : "",
+                sql);
+    }
+
+    // Deja pasar hasta maxPorSegundo sentencias por segundo de reloj
+    private boolean muestrear() {
+        long ahora = System.nanoTime() / 1_000_000_000L;
+        long actual = segundo.get();
+        if (ahora != actual && segundo.compareAndSet(actual, ahora)) {
+            emitidas.set(0);
+        }
+        if (emitidas.incrementAndGet() <= maxPorSegundo) {
+            return true;
+        }
+        omitidas.incrementAndGet();
+        return false;
+    }
+
+    private class Conexion implements InvocationHandler {
+        private final Connection conexion;
+
+        private Conexion(Connection conexion) {
+            this.conexion = conexion;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            Object resultado = invocar(conexion, method, args);
+            if (resultado instanceof Statement sentencia && method.getReturnType().isInterface()) {
+                // prepareStatement y prepareCall reciben el SQL; createStatement lo recibe en cada execute
+                String sql = method.getName().startsWith("prepare") ? (String) args[0] : null;
+                return proxy(method.getReturnType(), new Sentencia(sentencia, sql));
+            }
+            return resultado;
+        }
+    }
+
+    private class Sentencia implements InvocationHandler {
+        private final Statement sentencia;
+        private final String sql;
+        // Parámetros de la fila en curso y de la última fila agregada al lote
+        private int parametros;
+        private int parametrosPorFila;
+        private int lote;
+
+        private Sentencia(Statement sentencia, String sql) {
+            this.sentencia = sentencia;
+            this.sql = sql;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String nombre = method.getName();
+            // Los setters de parámetros reciben índice (o nombre) y valor; los de configuración, un solo argumento
+            if (args != null && args.length >= 2 && nombre.startsWith("set")) {
+                parametros++;
+                return invocar(sentencia, method, args);
+            }
+            if (nombre.equals("addBatch")) {
+                lote++;
+                parametrosPorFila = parametros;
+                parametros = 0;
+                return invocar(sentencia, method, args);
+            }
+            if (!nombre.startsWith("execute")) {
+                return invocar(sentencia, method, args);
+            }
+
+            long inicio = System.nanoTime();
+            try {
+                return invocar(sentencia, method, args);
+            } finally {
+                long nanos = System.nanoTime() - inicio;
+                if (nanos >= umbralNanos) {
+                    String texto = sql != null ? sql : args != null && args.length > 0 && args[0] instanceof String s ? s : "(lote)";
+                    registrar(texto, nanos, lote > 0 ? parametrosPorFila : parametros, lote);
+                }
+                parametros = 0;
+                parametrosPorFila = 0;
+                lote = 0;
+            }
+        }
+    }
+
+    private static Object invocar(Object destino, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(destino, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> tipo, InvocationHandler manejador) {
+        return (T) Proxy.newProxyInstance(RegistroConsultasLentas.class.getClassLoader(), new Class<?>[]{tipo}, manejador);
+    }
+}
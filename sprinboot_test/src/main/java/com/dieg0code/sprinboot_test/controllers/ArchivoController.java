@@ -0,0 +1,50 @@
+package com.dieg0code.sprinboot_test.controllers;
+
+import com.dieg0code.sprinboot_test.jobs.ArchivoCuentasJob;
+import com.dieg0code.sprinboot_test.models.ReporteArchivo;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.Duration;
+import java.time.Instant;
+
+@RestController
+@RequestMapping("/api/archivo")
+public class ArchivoController {
+
+    private final ArchivoCuentasJob archivoJob;
+
+    public ArchivoController(ArchivoCuentasJob archivoJob) {
+        this.archivoJob = archivoJob;
+    }
+
+    // ***************************************************************************************
+    // ***************************************************************************************
+    // ***************************************************************************************
+
+    @Operation(
+            /* -------------------------------------------------------------------------- */
+            summary = "Archiva las cuentas inactivas",
+            description = "Mueve al archivo las cuentas con saldo cero y sin movimientos en los últimos días indicados (por defecto cuentas.archivo.inactividad-dias), en lotes con ritmo limitado"
+            /* -------------------------------------------------------------------------- */
+    )
+    @ApiResponse(
+            /* -------------------------------------------------------------------------- */
+            responseCode = "200",
+            description = "OK",
+            content = @Content(
+                    mediaType = "application/json",
+                    schema = @Schema(implementation = ReporteArchivo.class)
+            )
+            /* -------------------------------------------------------------------------- */
+    )
+    @PostMapping
+    @ResponseStatus(HttpStatus.OK)
+    public ReporteArchivo archivar(@RequestParam(name = "dias", required = false) Long dias) {
+        return dias == null ? archivoJob.ejecutar() : archivoJob.ejecutar(Instant.now().minus(Duration.ofDays(dias)));
+    }
+}
@@ -0,0 +1,71 @@
+package com.dieg0code.sprinboot_test.controllers;
+
+import com.dieg0code.sprinboot_test.models.ResumenBanco;
+import com.dieg0code.sprinboot_test.services.ResumenBancoService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/bancos")
+public class BancoController {
+
+    private final ResumenBancoService resumenService;
+
+    public BancoController(ResumenBancoService resumenService) {
+        this.resumenService = resumenService;
+    }
+
+    // ***************************************************************************************
+    // ***************************************************************************************
+    // ***************************************************************************************
+
+    @Operation(
+            /* -------------------------------------------------------------------------- */
+            summary = "Obtiene el resumen de un banco",
+            description = "Obtiene el número de cuentas, el saldo total, el número y el volumen de transferencias de un banco"
+            /* -------------------------------------------------------------------------- */
+    )
+    @ApiResponse(
+            /* -------------------------------------------------------------------------- */
+            responseCode = "200",
+            description = "OK",
+            content = @Content(
+                    mediaType = "application/json",
+                    schema = @Schema(implementation = ResumenBanco.class)
+            )
+            /* -------------------------------------------------------------------------- */
+    )
+    @GetMapping("/{id}/resumen")
+    public ResponseEntity<ResumenBanco> resumen(@PathVariable Long id) {
+        return ResponseEntity.ok(resumenService.findById(id));
+    }
+
+    // ***************************************************************************************
+    // ***************************************************************************************
+    // ***************************************************************************************
+
+    @Operation(
+            /* -------------------------------------------------------------------------- */
+            summary = "Reconstruye el resumen de un banco",
+            description = "Recalcula el resumen de un banco desde las cuentas y los movimientos, para reparar diferencias"
+            /* -------------------------------------------------------------------------- */
+    )
+    @ApiResponse(
+            /* -------------------------------------------------------------------------- */
+            responseCode = "200",
+            description = "OK",
+            content = @Content(
+                    mediaType = "application/json",
+                    schema = @Schema(implementation = ResumenBanco.class)
+            )
+            /* -------------------------------------------------------------------------- */
+    )
+    @PostMapping("/{id}/resumen/reconstruir")
+    public ResponseEntity<ResumenBanco> reconstruir(@PathVariable Long id) {
+        return ResponseEntity.ok(resumenService.reconstruir(id));
+    }
+}
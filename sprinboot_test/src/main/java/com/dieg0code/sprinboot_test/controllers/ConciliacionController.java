@@ -0,0 +1,49 @@
+package com.dieg0code.sprinboot_test.controllers;
+
+import com.dieg0code.sprinboot_test.jobs.ConciliacionJob;
+import com.dieg0code.sprinboot_test.models.ReporteConciliacion;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+
+@RestController
+@RequestMapping("/api/conciliaciones")
+public class ConciliacionController {
+
+    private final ConciliacionJob conciliacionJob;
+
+    public ConciliacionController(ConciliacionJob conciliacionJob) {
+        this.conciliacionJob = conciliacionJob;
+    }
+
+    // ***************************************************************************************
+    // ***************************************************************************************
+    // ***************************************************************************************
+
+    @Operation(
+            /* -------------------------------------------------------------------------- */
+            summary = "Ejecuta o reanuda una conciliación",
+            description = "Ejecuta la conciliación indicada (por defecto la del día). Si quedó interrumpida, procesa solo los rangos pendientes"
+            /* -------------------------------------------------------------------------- */
+    )
+    @ApiResponse(
+            /* -------------------------------------------------------------------------- */
+            responseCode = "200",
+            description = "OK",
+            content = @Content(
+                    mediaType = "application/json",
+                    schema = @Schema(implementation = ReporteConciliacion.class)
+            )
+            /* -------------------------------------------------------------------------- */
+    )
+    @PostMapping
+    @ResponseStatus(HttpStatus.OK)
+    public ReporteConciliacion ejecutar(@RequestParam(name = "ejecucion", required = false) String ejecucion) {
+        return conciliacionJob.ejecutar(ejecucion == null ? LocalDate.now().toString() : ejecucion);
+    }
+}
@@ -1,7 +1,14 @@
 package com.dieg0code.sprinboot_test.controllers;
 
+import com.dieg0code.sprinboot_test.jfr.EventosTransferencia;
+import com.dieg0code.sprinboot_test.jfr.TransferenciaRecibidaEvent;
 import com.dieg0code.sprinboot_test.models.Cuenta;
+import com.dieg0code.sprinboot_test.models.CuentaDTO;
+import com.dieg0code.sprinboot_test.models.PaginaCuentas;
+import com.dieg0code.sprinboot_test.models.PaginaMovimientos;
+import com.dieg0code.sprinboot_test.models.SaldoDTO;
 import com.dieg0code.sprinboot_test.models.TransactionDTO;
+import com.dieg0code.sprinboot_test.models.TransferenciaMultipleDTO;
 import com.dieg0code.sprinboot_test.services.CuentaService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -13,11 +20,12 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.math.BigDecimal;
+import java.time.Instant;
 import java.time.LocalDate;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.NoSuchElementException;
 
 @RestController
 @RequestMapping("/api/cuentas")
@@ -43,7 +51,7 @@ public class CuentaController {
             description = "OK",
             content = @Content(
                     mediaType = "application/json",
-                    schema = @Schema(type = "array", implementation = Cuenta.class),
+                    schema = @Schema(type = "array", implementation = CuentaDTO.class),
                     /* -------------------------------------------------------------------------- */
                     examples = {
                             @ExampleObject(
@@ -60,8 +68,8 @@ public class CuentaController {
     )
     @GetMapping
     @ResponseStatus(HttpStatus.OK)
-    public List<Cuenta> listar() {
-        return cuentaService.findAll();
+    public List<CuentaDTO> listar() {
+        return cuentaService.listar();
     }
 
     // ***************************************************************************************
@@ -81,22 +89,182 @@ public class CuentaController {
             description = "OK",
             content = @Content(
                     mediaType = "application/json",
-                    schema = @Schema(implementation = Cuenta.class)
+                    schema = @Schema(implementation = CuentaDTO.class)
             )
             /* ---------------------------------------------------- */
     )
     @GetMapping("/{id}")
     public ResponseEntity<?> details(@PathVariable(name = "id") Long id) {
+        return ResponseEntity.ok(cuentaService.detalle(id));
+    }
 
-        Cuenta cuenta = null;
+    // ***************************************************************************************
+    // ***************************************************************************************
+    // ***************************************************************************************
 
-        try {
-            cuenta = cuentaService.findById(id);
-        } catch (NoSuchElementException e) {
-            return ResponseEntity.notFound().build();
-        }
 
-        return ResponseEntity.ok(cuenta);
+    @Operation(
+            /* -------------------------------------------------------------------------- */
+            summary = "Retorna los saldos de varias cuentas",
+            description = "Retorna un mapa id -> saldo de las cuentas indicadas, leyendo solo el saldo de cada una"
+            /* -------------------------------------------------------------------------- */
+    )
+    @ApiResponse(
+            /* -------------------------------------------------------------------------- */
+            responseCode = "200",
+            description = "OK",
+            content = @Content(
+                    mediaType = "application/json",
+                    /* -------------------------------------------------------------------------- */
+                    examples = {
+                            @ExampleObject(
+                                    name = "Example",
+                                    value = "{'1':1000, '2':2000}",
+                                    summary = "Example Response"
+                            )
+                    }
+                    /* -------------------------------------------------------------------------- */
+            )
+            /* -------------------------------------------------------------------------- */
+    )
+    @GetMapping("/saldos")
+    @ResponseStatus(HttpStatus.OK)
+    public Map<Long, BigDecimal> saldos(@RequestParam(name = "ids") List<Long> ids) {
+        return cuentaService.revisarSaldos(ids);
+    }
+
+    @Operation(
+            /* -------------------------------------------------------------------------- */
+            summary = "Retorna los saldos de un conjunto grande de cuentas",
+            description = "Variante POST de /saldos para listas de ids que no caben en la URL"
+            /* -------------------------------------------------------------------------- */
+    )
+    @PostMapping("/saldos")
+    @ResponseStatus(HttpStatus.OK)
+    public Map<Long, BigDecimal> saldosPost(@RequestBody List<Long> ids) {
+        return cuentaService.revisarSaldos(ids);
+    }
+
+    // ***************************************************************************************
+    // ***************************************************************************************
+    // ***************************************************************************************
+
+    @Operation(
+            /* -------------------------------------------------------------------------- */
+            summary = "Retorna las cuentas con mayor saldo",
+            description = "Retorna las n cuentas con mayor saldo (máximo 100) desde un ranking que se mantiene en memoria"
+            /* -------------------------------------------------------------------------- */
+    )
+    @ApiResponse(
+            /* -------------------------------------------------------------------------- */
+            responseCode = "200",
+            description = "OK",
+            content = @Content(
+                    mediaType = "application/json",
+                    schema = @Schema(implementation = SaldoDTO.class)
+            )
+            /* -------------------------------------------------------------------------- */
+    )
+    @GetMapping("/top")
+    public ResponseEntity<?> top(@RequestParam(name = "n", defaultValue = "100") int n) {
+        return ResponseEntity.ok(cuentaService.top(n));
+    }
+
+    // ***************************************************************************************
+    // ***************************************************************************************
+    // ***************************************************************************************
+
+    @Operation(
+            /* -------------------------------------------------------------------------- */
+            summary = "Busca cuentas por rango de saldo",
+            description = "Retorna las cuentas con desde <= saldo < hasta ordenadas por saldo; sin 'desde' retorna las cuentas bajo el umbral 'hasta'. Para pedir la página siguiente se envía el cursor 'siguiente' de la respuesta anterior"
+            /* -------------------------------------------------------------------------- */
+    )
+    @ApiResponse(
+            /* -------------------------------------------------------------------------- */
+            responseCode = "200",
+            description = "OK",
+            content = @Content(
+                    mediaType = "application/json",
+                    schema = @Schema(implementation = PaginaCuentas.class)
+            )
+            /* -------------------------------------------------------------------------- */
+    )
+    @GetMapping("/por-saldo")
+    public ResponseEntity<?> porSaldo(@RequestParam(name = "desde", required = false) BigDecimal desde,
+                                      @RequestParam(name = "hasta") BigDecimal hasta,
+                                      @RequestParam(name = "cursor", required = false) String cursor,
+                                      @RequestParam(name = "tamano", defaultValue = "50") int tamano) {
+        return ResponseEntity.ok(cuentaService.buscarPorSaldo(desde, hasta, cursor, tamano));
+    }
+
+    // ***************************************************************************************
+    // ***************************************************************************************
+    // ***************************************************************************************
+
+
+    @Operation(
+            /* -------------------------------------------------------------------------- */
+            summary = "Retorna el saldo de una cuenta en una fecha",
+            description = "Retorna el saldo que tenía la cuenta en la fecha indicada (ISO-8601, por ejemplo 2024-01-31T23:59:59Z)"
+            /* -------------------------------------------------------------------------- */
+    )
+    @ApiResponse(
+            /* -------------------------------------------------------------------------- */
+            responseCode = "200",
+            description = "OK",
+            content = @Content(
+                    mediaType = "application/json",
+                    /* -------------------------------------------------------------------------- */
+                    examples = {
+                            @ExampleObject(
+                                    name = "Example",
+                                    value = "{'cuentaId':1, 'fecha':'2024-01-31T23:59:59Z', 'saldo':1000}",
+                                    summary = "Example Response"
+                            )
+                    }
+                    /* -------------------------------------------------------------------------- */
+            )
+            /* -------------------------------------------------------------------------- */
+    )
+    @GetMapping("/{id}/saldo")
+    public ResponseEntity<?> saldoEn(@PathVariable(name = "id") Long id, @RequestParam(name = "fecha") Instant fecha) {
+        BigDecimal saldo = cuentaService.revisarSaldoEn(id, fecha);
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("cuentaId", id);
+        response.put("fecha", fecha.toString());
+        response.put("saldo", saldo);
+
+        return ResponseEntity.ok(response);
+    }
+
+    // ***************************************************************************************
+    // ***************************************************************************************
+    // ***************************************************************************************
+
+
+    @Operation(
+            /* -------------------------------------------------------------------------- */
+            summary = "Retorna el historial de movimientos de una cuenta",
+            description = "Retorna los movimientos más recientes primero. Para pedir la página siguiente se envía el cursor 'siguiente' de la respuesta anterior"
+            /* -------------------------------------------------------------------------- */
+    )
+    @ApiResponse(
+            /* -------------------------------------------------------------------------- */
+            responseCode = "200",
+            description = "OK",
+            content = @Content(
+                    mediaType = "application/json",
+                    schema = @Schema(implementation = PaginaMovimientos.class)
+            )
+            /* -------------------------------------------------------------------------- */
+    )
+    @GetMapping("/{id}/movimientos")
+    public ResponseEntity<?> movimientos(@PathVariable(name = "id") Long id,
+                                         @RequestParam(name = "cursor", required = false) String cursor,
+                                         @RequestParam(name = "tamano", defaultValue = "50") int tamano) {
+        return ResponseEntity.ok(cuentaService.listarMovimientos(id, cursor, tamano));
     }
 
     // ***************************************************************************************
@@ -150,7 +318,43 @@ public class CuentaController {
     )
     @PostMapping("/transferir")
     public ResponseEntity<?> transferir(@RequestBody TransactionDTO dto) {
-        cuentaService.transferir(dto.getCuentaOrigenId(), dto.getCuentaDestinoId(), dto.getMonto(), dto.getBancoId());
+        perfilar(dto.getCuentaOrigenId(), dto.getCuentaDestinoId(), 1, dto.getBancoId(),
+                () -> cuentaService.transferir(dto.getCuentaOrigenId(), dto.getCuentaDestinoId(), dto.getMonto(), dto.getBancoId()));
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("date", LocalDate.now().toString());
+        response.put("status", "OK");
+        response.put("message", "Transferencia realizada con éxito");
+        response.put("transaction", dto);
+
+        return ResponseEntity.ok(response);
+    }
+
+    // ***************************************************************************************
+    // ***************************************************************************************
+    // ***************************************************************************************
+
+    @Operation(
+            /* -------------------------------------------------------------------------- */
+            summary = "Reparte una transferencia entre varias cuentas",
+            description = "Debita una vez el total de la cuenta origen y acredita a cada destino su monto, todo en una sola transacción"
+            /* -------------------------------------------------------------------------- */
+    )
+    @ApiResponse(
+            /* -------------------------------------------------------------------------- */
+            responseCode = "200",
+            description = "OK",
+            content = @Content(
+                    mediaType = "application/json",
+                    schema = @Schema(implementation = TransferenciaMultipleDTO.class)
+            )
+            /* -------------------------------------------------------------------------- */
+    )
+    @PostMapping("/transferir-multiple")
+    public ResponseEntity<?> transferirMultiple(@RequestBody TransferenciaMultipleDTO dto) {
+        int destinos = dto.getDestinos() == null ? 0 : dto.getDestinos().size();
+        perfilar(dto.getCuentaOrigenId(), EventosTransferencia.VARIOS_DESTINOS, destinos, dto.getBancoId(),
+                () -> cuentaService.transferirMultiple(dto.getCuentaOrigenId(), dto.getDestinos(), dto.getBancoId()));
 
         Map<String, Object> response = new HashMap<>();
         response.put("date", LocalDate.now().toString());
@@ -182,4 +386,48 @@ public class CuentaController {
     public void delete(@PathVariable(name = "id") Long id) {
         cuentaService.deleteById(id);
     }
+
+    // ***************************************************************************************
+    // ***************************************************************************************
+    // ***************************************************************************************
+
+    @Operation(
+            /* -------------------------------------------------------------------------- */
+            summary = "Elimina varias cuentas",
+            description = "Elimina hasta 1000 cuentas por solicitud en una sola transacción; las cuentas eliminadas quedan en el archivo. Los ids que no existen se ignoran. Con más ids responde 400 sin eliminar nada"
+            /* -------------------------------------------------------------------------- */
+    )
+    @ApiResponse(
+            /* -------------------------------------------------------------------------- */
+            responseCode = "200",
+            description = "OK"
+            /* -------------------------------------------------------------------------- */
+    )
+    @DeleteMapping
+    public Map<String, Integer> deleteAll(@RequestParam(name = "ids") List<Long> ids) {
+        return Map.of("eliminadas", cuentaService.deleteAllById(ids));
+    }
+
+    // Registra la transferencia como TransferenciaRecibidaEvent cuando hay una grabación JFR que lo habilita
+    private void perfilar(Long cuentaOrigenId, Long cuentaDestinoId, int destinos, Long bancoId, Runnable transferencia) {
+        TransferenciaRecibidaEvent evento = new TransferenciaRecibidaEvent();
+        evento.begin();
+        String resultado = "OK";
+        try {
+            transferencia.run();
+        } catch (RuntimeException e) {
+            resultado = e.getClass().getSimpleName();
+            throw e;
+        } finally {
+            evento.end();
+            if (evento.shouldCommit()) {
+                evento.cuentaOrigenId = cuentaOrigenId == null ? 0 : cuentaOrigenId;
+                evento.cuentaDestinoId = cuentaDestinoId == null ? 0 : cuentaDestinoId;
+                evento.destinos = destinos;
+                evento.bancoId = bancoId == null ? 0 : bancoId;
+                evento.resultado = resultado;
+                evento.commit();
+            }
+        }
+    }
 }
@@ -0,0 +1,89 @@
+package com.dieg0code.sprinboot_test.controllers;
+
+import com.dieg0code.sprinboot_test.exceptions.SolicitudInvalidaException;
+import com.dieg0code.sprinboot_test.models.SaldoVersionDTO;
+import com.dieg0code.sprinboot_test.services.CuentaService;
+import com.dieg0code.sprinboot_test.services.SaldoNotificador;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.HashSet;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/cuentas")
+public class CuentaStreamController {
+
+    private final CuentaService cuentaService;
+    private final SaldoNotificador saldoNotificador;
+
+    public CuentaStreamController(CuentaService cuentaService, SaldoNotificador saldoNotificador) {
+        this.cuentaService = cuentaService;
+        this.saldoNotificador = saldoNotificador;
+    }
+
+    // ***************************************************************************************
+    // ***************************************************************************************
+    // ***************************************************************************************
+
+    @Operation(
+            /* -------------------------------------------------------------------------- */
+            summary = "Stream de saldo de una cuenta",
+            description = "Envía por Server-Sent Events el saldo actual de la cuenta y cada cambio confirmado"
+            /* -------------------------------------------------------------------------- */
+    )
+    @ApiResponse(
+            /* -------------------------------------------------------------------------- */
+            responseCode = "200",
+            description = "OK"
+            /* -------------------------------------------------------------------------- */
+    )
+    @GetMapping(value = "/{id}/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> stream(@PathVariable(name = "id") Long id) {
+        return suscribir(List.of(id));
+    }
+
+    // ***************************************************************************************
+    // ***************************************************************************************
+    // ***************************************************************************************
+
+    @Operation(
+            /* -------------------------------------------------------------------------- */
+            summary = "Stream de saldos de varias cuentas",
+            description = "Envía por Server-Sent Events los cambios de saldo de todas las cuentas indicadas"
+            /* -------------------------------------------------------------------------- */
+    )
+    @ApiResponse(
+            /* -------------------------------------------------------------------------- */
+            responseCode = "200",
+            description = "OK"
+            /* -------------------------------------------------------------------------- */
+    )
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamMultiple(@RequestParam(name = "ids") List<Long> ids) {
+        return suscribir(ids);
+    }
+
+    private ResponseEntity<SseEmitter> suscribir(List<Long> ids) {
+        // Se valida antes de consultar: una lista enorme no llega a la base de datos
+        if (new HashSet<>(ids).size() > saldoNotificador.getMaxCuentas()) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        List<SaldoVersionDTO> saldos = cuentaService.revisarSaldosVersionados(ids);
+
+        if (saldos.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+
+        try {
+            return ResponseEntity.ok(saldoNotificador.suscribir(saldos));
+        } catch (SolicitudInvalidaException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+}
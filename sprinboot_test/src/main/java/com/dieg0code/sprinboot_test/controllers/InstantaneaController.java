@@ -0,0 +1,92 @@
+package com.dieg0code.sprinboot_test.controllers;
+
+import com.dieg0code.sprinboot_test.instantanea.InstantaneaCuentas;
+import com.dieg0code.sprinboot_test.models.ResumenInstantanea;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/instantanea")
+public class InstantaneaController {
+
+    private final InstantaneaCuentas instantaneaCuentas;
+
+    public InstantaneaController(InstantaneaCuentas instantaneaCuentas) {
+        this.instantaneaCuentas = instantaneaCuentas;
+    }
+
+    // ***************************************************************************************
+    // ***************************************************************************************
+    // ***************************************************************************************
+
+    @Operation(
+            /* -------------------------------------------------------------------------- */
+            summary = "Descarga una instantánea binaria de las cuentas",
+            description = "Exporta cuentas, bancos y contadores de transferencias en formato binario compacto, para restaurarlos en otro entorno con POST /api/instantanea"
+            /* -------------------------------------------------------------------------- */
+    )
+    @ApiResponse(
+            /* -------------------------------------------------------------------------- */
+            responseCode = "200",
+            description = "OK",
+            content = @Content(mediaType = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+            /* -------------------------------------------------------------------------- */
+    )
+    @GetMapping
+    public void exportar(HttpServletResponse response) throws IOException {
+        Path archivo = Files.createTempFile("cuentas-", ".cts");
+        try {
+            ResumenInstantanea resumen = instantaneaCuentas.exportar(archivo);
+            response.setContentType(MediaType.APPLICATION_OCTET_STREAM_VALUE);
+            response.setContentLengthLong(resumen.bytes());
+            response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"cuentas.cts\"");
+            instantaneaCuentas.enviar(archivo, Channels.newChannel(response.getOutputStream()));
+        } finally {
+            Files.deleteIfExists(archivo);
+        }
+    }
+
+    // ***************************************************************************************
+    // ***************************************************************************************
+    // ***************************************************************************************
+
+    @Operation(
+            /* -------------------------------------------------------------------------- */
+            summary = "Restaura una instantánea binaria de las cuentas",
+            description = "Reemplaza cuentas y bancos por los de la instantánea enviada en el cuerpo y deja los contadores de transferencias en cero, porque la instantánea no trae el historial de movimientos. Responde 400 sin cambiar nada si la instantánea es inválida o está cortada"
+            /* -------------------------------------------------------------------------- */
+    )
+    @ApiResponse(
+            /* -------------------------------------------------------------------------- */
+            responseCode = "200",
+            description = "OK",
+            content = @Content(
+                    mediaType = "application/json",
+                    schema = @Schema(implementation = ResumenInstantanea.class)
+            )
+            /* -------------------------------------------------------------------------- */
+    )
+    @PostMapping(consumes = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    public ResponseEntity<?> importar(HttpServletRequest request) throws IOException {
+        try {
+            return ResponseEntity.ok(instantaneaCuentas.importar(Channels.newChannel(request.getInputStream())));
+        } catch (IllegalStateException | EOFException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.dieg0code.sprinboot_test.controllers;
+
+import com.dieg0code.sprinboot_test.jobs.InteresJob;
+import com.dieg0code.sprinboot_test.models.ReporteInteres;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.YearMonth;
+
+@RestController
+@RequestMapping("/api/intereses")
+public class InteresController {
+
+    private final InteresJob interesJob;
+
+    public InteresController(InteresJob interesJob) {
+        this.interesJob = interesJob;
+    }
+
+    // ***************************************************************************************
+    // ***************************************************************************************
+    // ***************************************************************************************
+
+    @Operation(
+            /* -------------------------------------------------------------------------- */
+            summary = "Abona los intereses de un periodo",
+            description = "Abona el interés mensual (periodo con formato AAAA-MM, por defecto el mes anterior). Si el abono quedó interrumpido, continúa con los lotes pendientes"
+            /* -------------------------------------------------------------------------- */
+    )
+    @ApiResponse(
+            /* -------------------------------------------------------------------------- */
+            responseCode = "200",
+            description = "OK",
+            content = @Content(
+                    mediaType = "application/json",
+                    schema = @Schema(implementation = ReporteInteres.class)
+            )
+            /* -------------------------------------------------------------------------- */
+    )
+    @PostMapping
+    @ResponseStatus(HttpStatus.OK)
+    public ReporteInteres abonar(@RequestParam(name = "periodo", required = false) YearMonth periodo) {
+        return interesJob.ejecutar(periodo == null ? YearMonth.now().minusMonths(1) : periodo);
+    }
+}
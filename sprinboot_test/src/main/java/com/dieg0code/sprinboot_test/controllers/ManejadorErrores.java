@@ -0,0 +1,46 @@
+package com.dieg0code.sprinboot_test.controllers;
+
+import com.dieg0code.sprinboot_test.exceptions.DineroInsuficienteException;
+import com.dieg0code.sprinboot_test.exceptions.LimiteVelocidadExcedidoException;
+import com.dieg0code.sprinboot_test.exceptions.SolicitudInvalidaException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+
+/**
+ * Traduce las excepciones de negocio a códigos HTTP para todos los controladores.
+ */
+@RestControllerAdvice
+public class ManejadorErrores {
+
+    @ExceptionHandler(NoSuchElementException.class)
+    public ResponseEntity<Void> noEncontrado(NoSuchElementException e) {
+        return ResponseEntity.notFound().build();
+    }
+
+    // Solo la excepción de dominio: un IllegalArgumentException de otro origen es un error interno y queda en 500
+    @ExceptionHandler(SolicitudInvalidaException.class)
+    public ResponseEntity<Map<String, String>> solicitudInvalida(SolicitudInvalidaException e) {
+        return ResponseEntity.badRequest().body(cuerpo(e));
+    }
+
+    @ExceptionHandler(DineroInsuficienteException.class)
+    public ResponseEntity<Map<String, String>> dineroInsuficiente(DineroInsuficienteException e) {
+        return ResponseEntity.status(HttpStatus.UNPROCESSABLE_ENTITY).body(cuerpo(e));
+    }
+
+    @ExceptionHandler(LimiteVelocidadExcedidoException.class)
+    public ResponseEntity<Map<String, String>> limiteExcedido(LimiteVelocidadExcedidoException e) {
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).body(cuerpo(e));
+    }
+
+    // Map.of no admite null y muchas excepciones no traen mensaje
+    private static Map<String, String> cuerpo(RuntimeException e) {
+        return Map.of("message", Objects.requireNonNullElse(e.getMessage(), e.getClass().getSimpleName()));
+    }
+}
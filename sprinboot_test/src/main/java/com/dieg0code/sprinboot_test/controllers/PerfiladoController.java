@@ -0,0 +1,114 @@
+package com.dieg0code.sprinboot_test.controllers;
+
+import com.dieg0code.sprinboot_test.services.GrabacionJfr;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Map;
+
+// Apagado por defecto: sin autenticación, cualquiera podría grabar y descargar datos del proceso
+@RestController
+@RequestMapping("/api/perfilado")
+@ConditionalOnProperty(name = "cuentas.perfilado.habilitado", havingValue = "true")
+public class PerfiladoController {
+
+    private final GrabacionJfr grabacionJfr;
+
+    public PerfiladoController(GrabacionJfr grabacionJfr) {
+        this.grabacionJfr = grabacionJfr;
+    }
+
+    // ***************************************************************************************
+    // ***************************************************************************************
+    // ***************************************************************************************
+
+    @Operation(
+            /* -------------------------------------------------------------------------- */
+            summary = "Inicia una grabación JFR",
+            description = "Inicia una grabación JFR con los eventos de transferencia, que se detiene sola al cumplir la duración. Los eventos más cortos que el umbral no se registran. Responde 409 si ya hay una en curso"
+            /* -------------------------------------------------------------------------- */
+    )
+    @ApiResponse(
+            /* -------------------------------------------------------------------------- */
+            responseCode = "200",
+            description = "OK"
+            /* -------------------------------------------------------------------------- */
+    )
+    @PostMapping("/grabacion")
+    public ResponseEntity<Map<String, String>> iniciar(@RequestParam(name = "segundos", defaultValue = "300") long segundos,
+                                                       @RequestParam(name = "umbralMs", defaultValue = "0") long umbralMs) {
+        if (!grabacionJfr.iniciar(Duration.ofSeconds(segundos), Duration.ofMillis(umbralMs))) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("estado", grabacionJfr.estado()));
+        }
+        return ResponseEntity.ok(Map.of("estado", grabacionJfr.estado()));
+    }
+
+    // ***************************************************************************************
+    // ***************************************************************************************
+    // ***************************************************************************************
+
+    @Operation(
+            /* -------------------------------------------------------------------------- */
+            summary = "Detiene la grabación JFR",
+            description = "Detiene la grabación en curso. Sus datos se pueden descargar hasta que se inicie otra. Responde 409 si no había una en curso"
+            /* -------------------------------------------------------------------------- */
+    )
+    @ApiResponse(
+            /* -------------------------------------------------------------------------- */
+            responseCode = "200",
+            description = "OK"
+            /* -------------------------------------------------------------------------- */
+    )
+    @PostMapping("/grabacion/detener")
+    public ResponseEntity<Map<String, String>> detener() {
+        if (!grabacionJfr.detener()) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("estado", grabacionJfr.estado()));
+        }
+        return ResponseEntity.ok(Map.of("estado", grabacionJfr.estado()));
+    }
+
+    // ***************************************************************************************
+    // ***************************************************************************************
+    // ***************************************************************************************
+
+    @Operation(
+            /* -------------------------------------------------------------------------- */
+            summary = "Descarga la grabación JFR",
+            description = "Vuelca la grabación actual, en curso o detenida, como archivo .jfr para JDK Mission Control o jfr print. Responde 404 si no hay grabación"
+            /* -------------------------------------------------------------------------- */
+    )
+    @ApiResponse(
+            /* -------------------------------------------------------------------------- */
+            responseCode = "200",
+            description = "OK",
+            content = @Content(mediaType = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+            /* -------------------------------------------------------------------------- */
+    )
+    @GetMapping("/grabacion")
+    public ResponseEntity<StreamingResponseBody> volcar() {
+        Path archivo = grabacionJfr.volcar();
+        // Se copia del archivo a la respuesta por bloques y se borra al terminar, también si el cliente corta
+        StreamingResponseBody contenido = salida -> {
+            try {
+                Files.copy(archivo, salida);
+            } finally {
+                GrabacionJfr.borrar(archivo);
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"cuentas.jfr\"")
+                .body(contenido);
+    }
+}
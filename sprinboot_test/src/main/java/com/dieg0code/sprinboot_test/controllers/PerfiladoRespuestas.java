@@ -0,0 +1,76 @@
+package com.dieg0code.sprinboot_test.controllers;
+
+import com.dieg0code.sprinboot_test.jfr.EventosTransferencia;
+import com.dieg0code.sprinboot_test.jfr.RespuestaEscritaEvent;
+import com.dieg0code.sprinboot_test.models.TransactionDTO;
+import com.dieg0code.sprinboot_test.models.TransferenciaMultipleDTO;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+import java.util.Map;
+
+/**
+ * Mide la escritura de las respuestas de transferencia como {@link RespuestaEscritaEvent}: el evento
+ * empieza justo antes de serializar el cuerpo y termina cuando la petición se completa. Como
+ * interceptor se registra en {@link com.dieg0code.sprinboot_test.config.PerfiladoWebConfig}.
+ */
+@ControllerAdvice(assignableTypes = CuentaController.class)
+public class PerfiladoRespuestas implements ResponseBodyAdvice<Object>, HandlerInterceptor {
+
+    private static final String ATRIBUTO_EVENTO = PerfiladoRespuestas.class.getName() + ".evento";
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return returnType.getMethod() != null && returnType.getMethod().getName().startsWith("transferir");
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        RespuestaEscritaEvent evento = new RespuestaEscritaEvent();
+        if (!evento.isEnabled() || !(request instanceof ServletServerHttpRequest servletRequest)) {
+            return body;
+        }
+
+        // Las respuestas de transferencia llevan la solicitud en "transaction"
+        if (body instanceof Map<?, ?> respuesta) {
+            Object solicitud = respuesta.get("transaction");
+            if (solicitud instanceof TransactionDTO dto) {
+                evento.cuentaOrigenId = id(dto.getCuentaOrigenId());
+                evento.cuentaDestinoId = id(dto.getCuentaDestinoId());
+            } else if (solicitud instanceof TransferenciaMultipleDTO dto) {
+                evento.cuentaOrigenId = id(dto.getCuentaOrigenId());
+                evento.cuentaDestinoId = EventosTransferencia.VARIOS_DESTINOS;
+            }
+        }
+
+        evento.begin();
+        servletRequest.getServletRequest().setAttribute(ATRIBUTO_EVENTO, evento);
+        return body;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        if (request.getAttribute(ATRIBUTO_EVENTO) instanceof RespuestaEscritaEvent evento) {
+            evento.end();
+            if (evento.shouldCommit()) {
+                evento.estado = response.getStatus();
+                evento.commit();
+            }
+        }
+    }
+
+    private static long id(Long id) {
+        return id == null ? 0 : id;
+    }
+}
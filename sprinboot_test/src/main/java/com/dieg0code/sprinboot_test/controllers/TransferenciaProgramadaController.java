@@ -0,0 +1,97 @@
+package com.dieg0code.sprinboot_test.controllers;
+
+import com.dieg0code.sprinboot_test.models.TransferenciaProgramada;
+import com.dieg0code.sprinboot_test.services.TransferenciaProgramadaService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/transferencias-programadas")
+public class TransferenciaProgramadaController {
+
+    private final TransferenciaProgramadaService programadaService;
+
+    public TransferenciaProgramadaController(TransferenciaProgramadaService programadaService) {
+        this.programadaService = programadaService;
+    }
+
+    // ***************************************************************************************
+    // ***************************************************************************************
+    // ***************************************************************************************
+
+    @Operation(
+            /* -------------------------------------------------------------------------- */
+            summary = "Programa una transferencia",
+            description = "Programa una transferencia única o recurrente (UNICA, DIARIA, SEMANAL, MENSUAL) a partir de proximaEjecucion"
+            /* -------------------------------------------------------------------------- */
+    )
+    @ApiResponse(
+            /* -------------------------------------------------------------------------- */
+            responseCode = "201",
+            description = "Created",
+            content = @Content(
+                    mediaType = "application/json",
+                    schema = @Schema(implementation = TransferenciaProgramada.class)
+            )
+            /* -------------------------------------------------------------------------- */
+    )
+    @PostMapping
+    public ResponseEntity<TransferenciaProgramada> programar(@RequestBody TransferenciaProgramada transferencia) {
+        return ResponseEntity.status(HttpStatus.CREATED).body(programadaService.programar(transferencia));
+    }
+
+    // ***************************************************************************************
+    // ***************************************************************************************
+    // ***************************************************************************************
+
+    @Operation(
+            /* -------------------------------------------------------------------------- */
+            summary = "Obtiene una transferencia programada",
+            description = "Obtiene el estado, la próxima ejecución y el último error de una transferencia programada"
+            /* -------------------------------------------------------------------------- */
+    )
+    @ApiResponse(
+            /* -------------------------------------------------------------------------- */
+            responseCode = "200",
+            description = "OK",
+            content = @Content(
+                    mediaType = "application/json",
+                    schema = @Schema(implementation = TransferenciaProgramada.class)
+            )
+            /* -------------------------------------------------------------------------- */
+    )
+    @GetMapping("/{id}")
+    public ResponseEntity<TransferenciaProgramada> details(@PathVariable Long id) {
+        return ResponseEntity.ok(programadaService.findById(id));
+    }
+
+    // ***************************************************************************************
+    // ***************************************************************************************
+    // ***************************************************************************************
+
+    @Operation(
+            /* -------------------------------------------------------------------------- */
+            summary = "Cancela una transferencia programada",
+            description = "Cancela las ejecuciones pendientes de una transferencia programada"
+            /* -------------------------------------------------------------------------- */
+    )
+    @ApiResponse(
+            /* -------------------------------------------------------------------------- */
+            responseCode = "200",
+            description = "OK",
+            content = @Content(
+                    mediaType = "application/json",
+                    schema = @Schema(implementation = TransferenciaProgramada.class)
+            )
+            /* -------------------------------------------------------------------------- */
+    )
+    @DeleteMapping("/{id}")
+    public ResponseEntity<TransferenciaProgramada> cancelar(@PathVariable Long id) {
+        return ResponseEntity.ok(programadaService.cancelar(id));
+    }
+}
@@ -0,0 +1,55 @@
+package com.dieg0code.sprinboot_test.events;
+
+import com.dieg0code.sprinboot_test.models.EventoOutbox;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * Agrega los eventos a un archivo JSON Lines. Cada lote se escribe con una sola escritura y un
+ * {@code force}, así que el costo de sincronizar con el disco se paga una vez por lote. Es el
+ * destino por defecto.
+ */
+@Component
+@ConditionalOnProperty(name = "cuentas.outbox.destino", havingValue = "archivo", matchIfMissing = true)
+public class ArchivoEventos implements DestinoEventos {
+
+    private final Path archivo;
+
+    public ArchivoEventos(@Value("${cuentas.outbox.archivo:outbox-eventos.jsonl}") String archivo) {
+        this.archivo = Path.of(archivo);
+    }
+
+    @Override
+    public synchronized void publicar(List<EventoOutbox> eventos) {
+        StringBuilder lineas = new StringBuilder(eventos.size() * 256);
+        for (EventoOutbox evento : eventos) {
+            // El payload ya es JSON y el tipo es el nombre simple de una clase, así que no hace falta escaparlos
+            lineas.append("{\"id\":").append(evento.getId())
+                    .append(",\"tipo\":\"").append(evento.getTipo())
+                    .append("\",\"creado\":\"").append(evento.getCreado())
+                    .append("\",\"payload\":").append(evento.getPayload())
+                    .append("}\n");
+        }
+
+        try (FileChannel canal = FileChannel.open(archivo, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.APPEND)) {
+            ByteBuffer buffer = ByteBuffer.wrap(lineas.toString().getBytes(StandardCharsets.UTF_8));
+            while (buffer.hasRemaining()) {
+                canal.write(buffer);
+            }
+            canal.force(false);
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo escribir en " + archivo, e);
+        }
+    }
+}
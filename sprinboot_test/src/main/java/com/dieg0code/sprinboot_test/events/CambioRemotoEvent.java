@@ -0,0 +1,12 @@
+package com.dieg0code.sprinboot_test.events;
+
+import com.dieg0code.sprinboot_test.models.TipoEntidad;
+
+import java.math.BigDecimal;
+
+/**
+ * Otra instancia confirmó un cambio de la entidad. Para una cuenta, {@code saldo} y {@code version}
+ * son los leídos al recibir el cambio; {@code saldo} es {@code null} si la cuenta ya no existe.
+ */
+public record CambioRemotoEvent(TipoEntidad tipo, Long entidadId, BigDecimal saldo, long version) {
+}
@@ -0,0 +1,48 @@
+package com.dieg0code.sprinboot_test.events;
+
+import com.dieg0code.sprinboot_test.models.EventoOutbox;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Destino en memoria, para pruebas y para consumidores dentro del mismo proceso. Si la cola no
+ * tiene espacio para el lote completo, no publica nada y el lote se reintenta más tarde.
+ * <p>
+ * Nada en la aplicación la consume, así que solo se usa si se elige con
+ * {@code cuentas.outbox.destino=cola} y quien la elige la vacía con {@link #tomar} o {@link #drenar}.
+ */
+@Component
+@ConditionalOnProperty(name = "cuentas.outbox.destino", havingValue = "cola")
+public class ColaEventos implements DestinoEventos {
+
+    private final BlockingQueue<EventoOutbox> cola;
+
+    public ColaEventos(@Value("${cuentas.outbox.cola.capacidad:100000}") int capacidad) {
+        this.cola = new ArrayBlockingQueue<>(capacidad);
+    }
+
+    @Override
+    public synchronized void publicar(List<EventoOutbox> eventos) {
+        if (cola.remainingCapacity() < eventos.size()) {
+            throw new IllegalStateException("La cola de eventos está llena");
+        }
+        cola.addAll(eventos);
+    }
+
+    public EventoOutbox tomar(long timeout, TimeUnit unidad) throws InterruptedException {
+        return cola.poll(timeout, unidad);
+    }
+
+    public List<EventoOutbox> drenar() {
+        List<EventoOutbox> eventos = new ArrayList<>(cola.size());
+        cola.drainTo(eventos);
+        return eventos;
+    }
+}
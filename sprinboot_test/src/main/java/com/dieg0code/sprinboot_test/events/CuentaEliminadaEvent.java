@@ -0,0 +1,4 @@
+package com.dieg0code.sprinboot_test.events;
+
+public record CuentaEliminadaEvent(Long cuentaId) {
+}
@@ -0,0 +1,17 @@
+package com.dieg0code.sprinboot_test.events;
+
+import com.dieg0code.sprinboot_test.models.EventoOutbox;
+
+import java.util.List;
+
+/**
+ * Hacia dónde publica el relay del outbox. Se elige con {@code cuentas.outbox.destino}; sin
+ * valor se usa {@link ArchivoEventos}.
+ * <p>
+ * Si {@link #publicar} lanza una excepción el lote completo se reintenta cuando vence su arriendo,
+ * así que los destinos deben tolerar eventos repetidos (se pueden descartar por {@code id}).
+ */
+public interface DestinoEventos {
+
+    void publicar(List<EventoOutbox> eventos);
+}
@@ -0,0 +1,11 @@
+package com.dieg0code.sprinboot_test.events;
+
+import java.math.BigDecimal;
+
+/**
+ * El saldo de la cuenta quedó en {@code saldo}. Los oyentes posteriores al commit pueden recibir
+ * los eventos de transacciones concurrentes desordenados: {@code version} es la de la cuenta tras el
+ * cambio y permite descartar los atrasados.
+ */
+public record SaldoActualizadoEvent(Long cuentaId, BigDecimal saldo, long version) {
+}
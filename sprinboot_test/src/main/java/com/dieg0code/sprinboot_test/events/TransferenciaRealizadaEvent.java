@@ -0,0 +1,8 @@
+package com.dieg0code.sprinboot_test.events;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+public record TransferenciaRealizadaEvent(Long cuentaOrigenId, Long cuentaDestinoId, BigDecimal monto,
+                                          Long bancoId, Instant fecha) {
+}
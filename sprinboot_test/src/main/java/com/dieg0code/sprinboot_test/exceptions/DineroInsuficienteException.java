@@ -1,7 +1,14 @@
 package com.dieg0code.sprinboot_test.exceptions;
 
+/**
+ * Se lanza en el camino normal de {@code transferir}, así que no captura stack trace; con el
+ * mensaje por defecto se reutiliza {@link #INSTANCIA}.
+ */
 public class DineroInsuficienteException extends RuntimeException {
+
+    public static final DineroInsuficienteException INSTANCIA = new DineroInsuficienteException("Dinero insuficiente");
+
     public DineroInsuficienteException(String message) {
-        super(message);
+        super(message, null, false, false);
     }
 }
@@ -0,0 +1,7 @@
+package com.dieg0code.sprinboot_test.exceptions;
+
+public class LimiteVelocidadExcedidoException extends RuntimeException {
+    public LimiteVelocidadExcedidoException(String message) {
+        super(message, null, false, false);
+    }
+}
@@ -0,0 +1,18 @@
+package com.dieg0code.sprinboot_test.exceptions;
+
+import java.util.NoSuchElementException;
+
+/**
+ * {@link NoSuchElementException} sin stack trace para las búsquedas por id que no encuentran nada.
+ */
+public class RecursoNoEncontradoException extends NoSuchElementException {
+
+    public RecursoNoEncontradoException(String message) {
+        super(message);
+    }
+
+    @Override
+    public synchronized Throwable fillInStackTrace() {
+        return this;
+    }
+}
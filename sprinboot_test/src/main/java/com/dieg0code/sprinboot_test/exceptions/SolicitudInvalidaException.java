@@ -0,0 +1,16 @@
+package com.dieg0code.sprinboot_test.exceptions;
+
+/**
+ * Datos de una petición que no se pueden procesar: se responde con 400. Las validaciones corren en
+ * el camino normal de las peticiones, así que no captura stack trace.
+ */
+public class SolicitudInvalidaException extends RuntimeException {
+
+    public SolicitudInvalidaException(String message) {
+        super(message, null, false, false);
+    }
+
+    public SolicitudInvalidaException(String message, Throwable cause) {
+        super(message, cause, false, false);
+    }
+}
@@ -0,0 +1,114 @@
+package com.dieg0code.sprinboot_test.instantanea;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
+import static com.dieg0code.sprinboot_test.instantanea.FormatoInstantanea.*;
+
+/**
+ * Escribe una instantánea ({@link FormatoInstantanea}) en un canal a través de un buffer directo:
+ * el canal recibe bloques de {@value FormatoInstantanea#TAMANO_BUFFER} bytes sin la copia
+ * intermedia que la JDK hace con los buffers del heap.
+ * <p>
+ * No es thread-safe. {@link #terminar()} escribe el registro final y vacía el buffer; el canal lo
+ * cierra quien lo abrió.
+ */
+public class EscritorInstantanea {
+
+    private final WritableByteChannel canal;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(TAMANO_BUFFER);
+    private final Map<String, Integer> diccionario = new HashMap<>();
+    private long cuentas;
+    private long bancos;
+    private long bytes;
+
+    public EscritorInstantanea(WritableByteChannel canal) throws IOException {
+        this.canal = canal;
+        reservar(TAMANO_CABECERA);
+        buffer.putInt(MAGICO).putShort(VERSION).putShort(ESCALA);
+    }
+
+    public void banco(long id, String nombre, int totalTransferencias) throws IOException {
+        if (cuentas > 0) {
+            throw new IllegalStateException("Los bancos se escriben antes que las cuentas");
+        }
+        int indice = indice(nombre);
+        reservar(TAMANO_BANCO);
+        buffer.put(BANCO).putLong(id).putInt(indice).putInt(totalTransferencias);
+        bancos++;
+    }
+
+    /**
+     * @throws IllegalArgumentException si el saldo tiene más decimales que la escala del formato o
+     *                                  no cabe en 64 bits
+     */
+    public void cuenta(long id, String nombre, BigDecimal saldo, Long bancoId) throws IOException {
+        long sinEscala;
+        try {
+            sinEscala = saldo.setScale(ESCALA, RoundingMode.UNNECESSARY).unscaledValue().longValueExact();
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException("Saldo no representable en la instantánea: cuenta " + id + " saldo " + saldo, e);
+        }
+        int indice = indice(nombre);
+        reservar(TAMANO_CUENTA);
+        buffer.put(CUENTA).putLong(id).putInt(indice).putLong(sinEscala).putLong(bancoId == null ? 0 : bancoId);
+        cuentas++;
+    }
+
+    /**
+     * @return el total de bytes escritos
+     */
+    public long terminar() throws IOException {
+        reservar(TAMANO_FIN);
+        buffer.put(FIN).putLong(cuentas).putLong(bancos);
+        vaciar();
+        return bytes;
+    }
+
+    public long cuentas() {
+        return cuentas;
+    }
+
+    public long bancos() {
+        return bancos;
+    }
+
+    private int indice(String nombre) throws IOException {
+        if (nombre == null) {
+            return SIN_NOMBRE;
+        }
+        Integer indice = diccionario.get(nombre);
+        if (indice != null) {
+            return indice;
+        }
+        byte[] utf8 = nombre.getBytes(StandardCharsets.UTF_8);
+        if (utf8.length > Short.MAX_VALUE) {
+            throw new IllegalArgumentException("Nombre demasiado largo para la instantánea: " + utf8.length + " bytes");
+        }
+        reservar(1 + Short.BYTES + utf8.length);
+        buffer.put(NOMBRE).putShort((short) utf8.length).put(utf8);
+        indice = diccionario.size();
+        diccionario.put(nombre, indice);
+        return indice;
+    }
+
+    private void reservar(int tamano) throws IOException {
+        if (buffer.remaining() < tamano) {
+            vaciar();
+        }
+    }
+
+    private void vaciar() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            bytes += canal.write(buffer);
+        }
+        buffer.clear();
+    }
+}
@@ -0,0 +1,39 @@
+package com.dieg0code.sprinboot_test.instantanea;
+
+/**
+ * Formato binario de una instantánea de cuentas (big endian), pensado para leerse y escribirse en
+ * streaming en una sola pasada:
+ * <pre>
+ * cabecera  int mágico "CTS1", short versión, short escala de los saldos
+ * 'N'       nombre nuevo del diccionario: short longitud, bytes UTF-8 (su índice es el siguiente libre)
+ * 'B'       banco: long id, int índice del nombre, int total de transferencias
+ * 'C'       cuenta: long id, int índice del nombre, long saldo sin escala, long banco (0 = sin banco)
+ * 'F'       fin: long cuentas, long bancos
+ * </pre>
+ * Los bancos van antes que las cuentas. Cada nombre se escribe una sola vez y después se referencia
+ * por índice ({@value #SIN_NOMBRE} si es nulo); el saldo ocupa siempre 8 bytes con la escala de la
+ * cabecera.
+ */
+final class FormatoInstantanea {
+
+    static final int MAGICO = 0x43545331;
+    static final short VERSION = 1;
+    static final short ESCALA = 2;
+
+    static final int SIN_NOMBRE = -1;
+
+    static final byte NOMBRE = 'N';
+    static final byte BANCO = 'B';
+    static final byte CUENTA = 'C';
+    static final byte FIN = 'F';
+
+    static final int TAMANO_CABECERA = Integer.BYTES + 2 * Short.BYTES;
+    static final int TAMANO_BANCO = 1 + Long.BYTES + 2 * Integer.BYTES;
+    static final int TAMANO_CUENTA = 1 + 3 * Long.BYTES + Integer.BYTES;
+    static final int TAMANO_FIN = 1 + 2 * Long.BYTES;
+
+    static final int TAMANO_BUFFER = 1 << 20;
+
+    private FormatoInstantanea() {
+    }
+}
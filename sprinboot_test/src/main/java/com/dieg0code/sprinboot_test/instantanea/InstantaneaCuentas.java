@@ -0,0 +1,268 @@
+package com.dieg0code.sprinboot_test.instantanea;
+
+import com.dieg0code.sprinboot_test.models.ResumenInstantanea;
+import com.dieg0code.sprinboot_test.models.TipoEntidad;
+import com.dieg0code.sprinboot_test.services.BusInvalidacion;
+import com.dieg0code.sprinboot_test.services.FiltroCuentas;
+import com.dieg0code.sprinboot_test.services.RankingSaldos;
+import com.dieg0code.sprinboot_test.services.ResumenBancoService;
+import jakarta.persistence.EntityManagerFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Exporta e importa el estado de las cuentas (cuentas, bancos y contadores de transferencias) en el
+ * formato binario de {@link FormatoInstantanea}, para clonar un entorno sin pasar por el JSON de
+ * {@code /api/cuentas}.
+ * <p>
+ * La exportación lee con JDBC en streaming dentro de una transacción de solo lectura y escribe en
+ * un archivo; así la transacción no queda abierta mientras un cliente lento descarga, y el archivo
+ * se envía después con {@link FileChannel#transferTo}. La importación reemplaza las filas en una
+ * sola transacción con batches JDBC. La instantánea no incluye el historial de movimientos: al
+ * importar se vacían las tablas que dependen de las cuentas anteriores y los contadores de
+ * transferencias quedan en cero, igual que las transferencias registradas, para que la
+ * conciliación no los reporte. Al confirmar se reinician las identidades de cuentas y bancos (en
+ * H2 ese DDL confirmaría la transacción abierta), se reconstruyen los resúmenes de los bancos, el
+ * filtro y el ranking de cuentas, y las demás instancias reciben la invalidación de todas las
+ * cuentas y bancos, antes y después de importar.
+ */
+@Service
+public class InstantaneaCuentas {
+
+    private static final Logger log = LoggerFactory.getLogger(InstantaneaCuentas.class);
+
+    private static final int TAMANO_LOTE = 1000;
+
+    private static final String SQL_BANCOS = """
+            SELECT b.id, b.nombre, COALESCE(c.total_transferencias, 0) FROM bancos b
+            LEFT JOIN contadores_bancos c ON c.banco_id = b.id
+            ORDER BY b.id
+            """;
+    private static final String SQL_CUENTAS = "SELECT id, nombre, saldo, banco_id FROM cuentas ORDER BY id";
+
+    private static final String SQL_INSERTAR_BANCO = "INSERT INTO bancos (id, nombre) VALUES (?, ?)";
+    private static final String SQL_INSERTAR_CONTADOR = "INSERT INTO contadores_bancos (banco_id, total_transferencias) VALUES (?, ?)";
+    private static final String SQL_INSERTAR_CUENTA = "INSERT INTO cuentas (id, nombre, saldo, banco_id, version) VALUES (?, ?, ?, ?, ?)";
+    private static final String SQL_MAX_VERSION = "SELECT COALESCE(MAX(version), 0) FROM cuentas";
+    // Primero las que dependen de las cuentas: sin el historial, sus filas apuntarían a cuentas reemplazadas
+    private static final List<String> TABLAS = List.of(
+            "movimientos", "saldo_checkpoints", "cuentas_archivadas", "outbox_eventos", "transferencias_programadas",
+            "interes_lotes", "cuentas", "contadores_bancos", "resumen_bancos", "bancos");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate lectura;
+    private final TransactionTemplate escritura;
+    private final EntityManagerFactory entityManagerFactory;
+    private final ResumenBancoService resumenService;
+    private final FiltroCuentas filtroCuentas;
+    private final RankingSaldos rankingSaldos;
+    private final ObjectProvider<BusInvalidacion> busInvalidacion;
+
+    public InstantaneaCuentas(DataSource dataSource,
+                              PlatformTransactionManager transactionManager,
+                              EntityManagerFactory entityManagerFactory,
+                              ResumenBancoService resumenService,
+                              FiltroCuentas filtroCuentas,
+                              RankingSaldos rankingSaldos,
+                              ObjectProvider<BusInvalidacion> busInvalidacion) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(1000);
+        this.lectura = new TransactionTemplate(transactionManager);
+        this.lectura.setReadOnly(true);
+        this.escritura = new TransactionTemplate(transactionManager);
+        this.entityManagerFactory = entityManagerFactory;
+        this.resumenService = resumenService;
+        this.filtroCuentas = filtroCuentas;
+        this.rankingSaldos = rankingSaldos;
+        this.busInvalidacion = busInvalidacion;
+    }
+
+    /**
+     * Escribe la instantánea en {@code archivo}, reemplazando su contenido.
+     */
+    public ResumenInstantanea exportar(Path archivo) throws IOException {
+        long inicio = System.nanoTime();
+
+        try (FileChannel canal = FileChannel.open(archivo, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            EscritorInstantanea escritor = new EscritorInstantanea(canal);
+            try {
+                lectura.executeWithoutResult(estado -> {
+                    jdbcTemplate.query(SQL_BANCOS, rs -> {
+                        try {
+                            escritor.banco(rs.getLong(1), rs.getString(2), rs.getInt(3));
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                    });
+                    jdbcTemplate.query(SQL_CUENTAS, rs -> {
+                        try {
+                            escritor.cuenta(rs.getLong(1), rs.getString(2), rs.getBigDecimal(3), rs.getObject(4, Long.class));
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                    });
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            long bytes = escritor.terminar();
+
+            long duracionMs = (System.nanoTime() - inicio) / 1_000_000;
+            log.info("Instantánea exportada: {} cuentas, {} bancos, {} bytes en {} ms",
+                    escritor.cuentas(), escritor.bancos(), bytes, duracionMs);
+            return new ResumenInstantanea(escritor.cuentas(), escritor.bancos(), bytes, duracionMs);
+        }
+    }
+
+    /**
+     * Copia una instantánea exportada a {@code destino}. Hacia un socket o un archivo la copia la hace
+     * el sistema operativo sin pasar por el heap; hacia otros canales la JDK usa un buffer directo.
+     */
+    public void enviar(Path archivo, WritableByteChannel destino) throws IOException {
+        try (FileChannel canal = FileChannel.open(archivo, StandardOpenOption.READ)) {
+            long tamano = canal.size();
+            long posicion = 0;
+            while (posicion < tamano) {
+                posicion += canal.transferTo(posicion, tamano - posicion, destino);
+            }
+        }
+    }
+
+    /**
+     * Reemplaza cuentas y bancos por los de la instantánea, borra el historial de las cuentas
+     * anteriores y deja los contadores de transferencias en cero. Si la instantánea es inválida o
+     * está cortada no se cambia nada.
+     */
+    public ResumenInstantanea importar(ReadableByteChannel origen) throws IOException {
+        long inicio = System.nanoTime();
+        List<Long> bancos = new ArrayList<>();
+
+        long[] totales;
+        try {
+            totales = escritura.execute(estado -> {
+                // Las cuentas y bancos que desaparecen también se invalidan en las demás instancias
+                Set<Long> cuentasInvalidadas = new LinkedHashSet<>(jdbcTemplate.queryForList("SELECT id FROM cuentas", Long.class));
+                Set<Long> bancosInvalidados = new LinkedHashSet<>(jdbcTemplate.queryForList("SELECT id FROM bancos", Long.class));
+                // Las cuentas importadas quedan más nuevas que cualquier saldo ya notificado
+                Long maxVersion = jdbcTemplate.queryForObject(SQL_MAX_VERSION, Long.class);
+
+                for (String tabla : TABLAS) {
+                    jdbcTemplate.update("DELETE FROM " + tabla);
+                }
+                Carga carga = new Carga(bancos, cuentasInvalidadas, maxVersion == null ? 1 : maxVersion + 1);
+                long bytes;
+                try {
+                    bytes = new LectorInstantanea(origen).leer(carga);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                carga.vaciar();
+
+                bancosInvalidados.addAll(bancos);
+                // Sin el bus (una sola instancia) no hay otras cachés que avisar
+                busInvalidacion.ifAvailable(bus -> {
+                    bus.registrarTodos(TipoEntidad.CUENTA, cuentasInvalidadas);
+                    bus.registrarTodos(TipoEntidad.BANCO, bancosInvalidados);
+                });
+                return new long[]{carga.cuentas, bytes, carga.maxCuenta, carga.maxBanco};
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+
+        // Los ids se insertaron explícitos: las identidades siguen desde el mayor. Va fuera de la
+        // transacción porque el DDL la confirmaría a mitad de la importación; un alta concurrente
+        // antes del reinicio falla por id duplicado en vez de mezclarse con la importación
+        jdbcTemplate.execute("ALTER TABLE cuentas ALTER COLUMN id RESTART WITH " + (totales[2] + 1));
+        jdbcTemplate.execute("ALTER TABLE bancos ALTER COLUMN id RESTART WITH " + (totales[3] + 1));
+
+        entityManagerFactory.getCache().evictAll();
+        for (Long bancoId : bancos) {
+            resumenService.reconstruir(bancoId);
+        }
+        // Con todos los ids nuevos: el filtro anterior rechazaría las cuentas importadas
+        filtroCuentas.reconstruir();
+        rankingSaldos.reconstruir();
+
+        long duracionMs = (System.nanoTime() - inicio) / 1_000_000;
+        log.info("Instantánea importada: {} cuentas, {} bancos, {} bytes en {} ms",
+                totales[0], bancos.size(), totales[1], duracionMs);
+        return new ResumenInstantanea(totales[0], bancos.size(), totales[1], duracionMs);
+    }
+
+    // Acumula filas y las inserta en batches de TAMANO_LOTE
+    private class Carga implements LectorInstantanea.Destino {
+
+        private final List<Long> bancos;
+        private final Set<Long> cuentaIds;
+        private final long version;
+        private final List<Object[]> filasBancos = new ArrayList<>();
+        private final List<Object[]> filasContadores = new ArrayList<>();
+        private final List<Object[]> filasCuentas = new ArrayList<>(TAMANO_LOTE);
+        private long cuentas;
+        private long maxCuenta;
+        private long maxBanco;
+
+        private Carga(List<Long> bancos, Set<Long> cuentaIds, long version) {
+            this.bancos = bancos;
+            this.cuentaIds = cuentaIds;
+            this.version = version;
+        }
+
+        @Override
+        public void banco(long id, String nombre, int totalTransferencias) {
+            bancos.add(id);
+            filasBancos.add(new Object[]{id, nombre});
+            // Sin el historial no hay transferencias registradas que respalden el contador exportado
+            filasContadores.add(new Object[]{id, 0});
+            maxBanco = Math.max(maxBanco, id);
+        }
+
+        @Override
+        public void cuenta(long id, String nombre, BigDecimal saldo, Long bancoId) {
+            if (!filasBancos.isEmpty()) {
+                vaciar();
+            }
+            filasCuentas.add(new Object[]{id, nombre, saldo, bancoId, version});
+            cuentaIds.add(id);
+            cuentas++;
+            maxCuenta = Math.max(maxCuenta, id);
+            if (filasCuentas.size() == TAMANO_LOTE) {
+                vaciar();
+            }
+        }
+
+        private void vaciar() {
+            if (!filasBancos.isEmpty()) {
+                jdbcTemplate.batchUpdate(SQL_INSERTAR_BANCO, filasBancos);
+                jdbcTemplate.batchUpdate(SQL_INSERTAR_CONTADOR, filasContadores);
+                filasBancos.clear();
+                filasContadores.clear();
+            }
+            if (!filasCuentas.isEmpty()) {
+                jdbcTemplate.batchUpdate(SQL_INSERTAR_CUENTA, filasCuentas);
+                filasCuentas.clear();
+            }
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package com.dieg0code.sprinboot_test.instantanea;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.dieg0code.sprinboot_test.instantanea.FormatoInstantanea.*;
+
+/**
+ * Lee una instantánea ({@link FormatoInstantanea}) desde un canal con un buffer directo y entrega
+ * cada banco y cuenta a un {@link Destino}, sin cargar la instantánea completa en memoria (solo el
+ * diccionario de nombres).
+ */
+public class LectorInstantanea {
+
+    public interface Destino {
+
+        void banco(long id, String nombre, int totalTransferencias) throws IOException;
+
+        void cuenta(long id, String nombre, BigDecimal saldo, Long bancoId) throws IOException;
+    }
+
+    private final ReadableByteChannel canal;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(TAMANO_BUFFER);
+    private final List<String> diccionario = new ArrayList<>();
+    private long bytes;
+
+    public LectorInstantanea(ReadableByteChannel canal) {
+        this.canal = canal;
+        buffer.flip();
+    }
+
+    /**
+     * Lee la instantánea completa.
+     *
+     * @return el total de bytes leídos
+     * @throws IllegalStateException si el formato es inválido o el registro final no coincide con lo
+     *                               leído
+     * @throws EOFException          si la instantánea está cortada
+     */
+    public long leer(Destino destino) throws IOException {
+        asegurar(TAMANO_CABECERA);
+        if (buffer.getInt() != MAGICO) {
+            throw new IllegalStateException("No es una instantánea de cuentas");
+        }
+        short version = buffer.getShort();
+        short escala = buffer.getShort();
+        if (version != VERSION) {
+            throw new IllegalStateException("Versión de instantánea no soportada: " + version);
+        }
+
+        long cuentas = 0;
+        long bancos = 0;
+        while (true) {
+            asegurar(1);
+            byte tipo = buffer.get();
+            switch (tipo) {
+                case NOMBRE -> {
+                    asegurar(Short.BYTES);
+                    int longitud = buffer.getShort();
+                    if (longitud < 0) {
+                        throw new IllegalStateException("Longitud de nombre inválida: " + longitud);
+                    }
+                    asegurar(longitud);
+                    byte[] utf8 = new byte[longitud];
+                    buffer.get(utf8);
+                    diccionario.add(new String(utf8, StandardCharsets.UTF_8));
+                }
+                case BANCO -> {
+                    asegurar(TAMANO_BANCO - 1);
+                    destino.banco(buffer.getLong(), nombre(buffer.getInt()), buffer.getInt());
+                    bancos++;
+                }
+                case CUENTA -> {
+                    asegurar(TAMANO_CUENTA - 1);
+                    long id = buffer.getLong();
+                    String nombre = nombre(buffer.getInt());
+                    BigDecimal saldo = BigDecimal.valueOf(buffer.getLong(), escala);
+                    long bancoId = buffer.getLong();
+                    destino.cuenta(id, nombre, saldo, bancoId == 0 ? null : bancoId);
+                    cuentas++;
+                }
+                case FIN -> {
+                    asegurar(TAMANO_FIN - 1);
+                    if (buffer.getLong() != cuentas || buffer.getLong() != bancos) {
+                        throw new IllegalStateException("La instantánea no coincide con su registro final");
+                    }
+                    return bytes - buffer.remaining();
+                }
+                default -> throw new IllegalStateException("Registro desconocido en la instantánea: " + tipo);
+            }
+        }
+    }
+
+    private String nombre(int indice) {
+        if (indice == SIN_NOMBRE) {
+            return null;
+        }
+        if (indice < 0 || indice >= diccionario.size()) {
+            throw new IllegalStateException("Nombre fuera del diccionario: " + indice);
+        }
+        return diccionario.get(indice);
+    }
+
+    // Deja al menos "tamano" bytes por leer en el buffer
+    private void asegurar(int tamano) throws IOException {
+        if (buffer.remaining() >= tamano) {
+            return;
+        }
+        buffer.compact();
+        try {
+            while (buffer.position() < tamano) {
+                int leidos = canal.read(buffer);
+                if (leidos < 0) {
+                    throw new EOFException("Instantánea cortada");
+                }
+                bytes += leidos;
+            }
+        } finally {
+            buffer.flip();
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.dieg0code.sprinboot_test.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Obtención de las filas de cuentas que toca una transferencia. Su duración incluye la espera por
+ * los bloqueos de otras transacciones sobre esas filas.
+ */
+@Name("cuentas.BloqueoCuentas")
+@Label("Bloqueo de cuentas")
+@Description("Lectura y bloqueo de las cuentas de una transferencia")
+@Category({"Cuentas", "Transferencias"})
+@StackTrace(false)
+public class BloqueoCuentasEvent extends Event {
+
+    @Label("Cuenta")
+    @Description("Cuenta leída, o la cuenta origen cuando se bloquean varias en una consulta")
+    public long cuentaId;
+
+    @Label("Cuentas")
+    public int cuentas;
+}
@@ -0,0 +1,30 @@
+package com.dieg0code.sprinboot_test.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Fin de la transacción de una transferencia: el flush de Hibernate (los UPDATE e INSERT por JDBC)
+ * y el commit, o el rollback si no se confirmó.
+ */
+@Name("cuentas.CommitTransferencia")
+@Label("Commit de transferencia")
+@Description("Flush y commit de la transacción de una transferencia")
+@Category({"Cuentas", "Transferencias"})
+@StackTrace(false)
+public class CommitTransferenciaEvent extends Event {
+
+    @Label("Cuenta origen")
+    public long cuentaOrigenId;
+
+    @Label("Cuenta destino")
+    @Description("Cuenta destino, o -1 en una transferencia a varias cuentas")
+    public long cuentaDestinoId;
+
+    @Label("Confirmada")
+    public boolean confirmada;
+}
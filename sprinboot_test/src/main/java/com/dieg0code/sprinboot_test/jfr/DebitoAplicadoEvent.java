@@ -0,0 +1,23 @@
+package com.dieg0code.sprinboot_test.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Débito de la cuenta origen de una transferencia y su guardado en el contexto de persistencia.
+ */
+@Name("cuentas.DebitoAplicado")
+@Label("Débito aplicado")
+@Category({"Cuentas", "Transferencias"})
+@StackTrace(false)
+public class DebitoAplicadoEvent extends Event {
+
+    @Label("Cuenta origen")
+    public long cuentaOrigenId;
+
+    @Label("Monto")
+    public String monto;
+}
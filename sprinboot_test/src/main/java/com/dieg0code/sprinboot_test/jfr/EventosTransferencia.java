@@ -0,0 +1,73 @@
+package com.dieg0code.sprinboot_test.jfr;
+
+import org.springframework.core.Ordered;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+
+/**
+ * Registra los eventos JFR que dependen del ciclo de la transacción. Si ninguna grabación tiene
+ * habilitado el evento no se registra nada, por lo que el costo sin grabación es una comprobación.
+ */
+public final class EventosTransferencia {
+
+    /** Cuenta destino de los eventos de una transferencia a varias cuentas. */
+    public static final long VARIOS_DESTINOS = -1;
+
+    private EventosTransferencia() {
+    }
+
+    /**
+     * Mide el flush y el commit (o el rollback) de la transacción actual como un
+     * {@link CommitTransferenciaEvent}.
+     */
+    public static void registrarCommit(long cuentaOrigenId, long cuentaDestinoId) {
+        CommitTransferenciaEvent evento = new CommitTransferenciaEvent();
+        if (!evento.isEnabled() || !TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public int getOrder() {
+                // Empieza a medir antes que el resto de sincronizaciones, que también escriben al confirmar
+                return Ordered.HIGHEST_PRECEDENCE;
+            }
+
+            @Override
+            public void beforeCompletion() {
+                evento.begin();
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                evento.end();
+                if (evento.shouldCommit()) {
+                    evento.cuentaOrigenId = cuentaOrigenId;
+                    evento.cuentaDestinoId = cuentaDestinoId;
+                    evento.confirmada = status == STATUS_COMMITTED;
+                    evento.commit();
+                }
+            }
+        });
+    }
+
+    public static void terminarBloqueo(BloqueoCuentasEvent evento, long cuentaId, int cuentas) {
+        evento.end();
+        if (evento.shouldCommit()) {
+            evento.cuentaId = cuentaId;
+            evento.cuentas = cuentas;
+            evento.commit();
+        }
+    }
+
+    public static void terminarDebito(DebitoAplicadoEvent evento, long cuentaOrigenId, BigDecimal monto) {
+        evento.end();
+        if (evento.shouldCommit()) {
+            evento.cuentaOrigenId = cuentaOrigenId;
+            evento.monto = monto.toPlainString();
+            evento.commit();
+        }
+    }
+}
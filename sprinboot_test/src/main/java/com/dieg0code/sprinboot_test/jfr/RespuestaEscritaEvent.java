@@ -0,0 +1,30 @@
+package com.dieg0code.sprinboot_test.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Serialización y escritura de la respuesta de una transferencia, desde que el controlador devuelve
+ * el cuerpo hasta que la petición termina.
+ */
+@Name("cuentas.RespuestaEscrita")
+@Label("Respuesta escrita")
+@Description("Serialización JSON y escritura de la respuesta de una transferencia")
+@Category({"Cuentas", "Transferencias"})
+@StackTrace(false)
+public class RespuestaEscritaEvent extends Event {
+
+    @Label("Cuenta origen")
+    public long cuentaOrigenId;
+
+    @Label("Cuenta destino")
+    @Description("Cuenta destino, o -1 en una transferencia a varias cuentas")
+    public long cuentaDestinoId;
+
+    @Label("Estado HTTP")
+    public int estado;
+}
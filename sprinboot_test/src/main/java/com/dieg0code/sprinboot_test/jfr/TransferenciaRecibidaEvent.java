@@ -0,0 +1,36 @@
+package com.dieg0code.sprinboot_test.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Una solicitud de transferencia en el controlador, desde que llega hasta que el servicio responde
+ * (sin la escritura de la respuesta, que va en {@link RespuestaEscritaEvent}).
+ */
+@Name("cuentas.TransferenciaRecibida")
+@Label("Transferencia recibida")
+@Description("Solicitud de transferencia atendida por el controlador")
+@Category({"Cuentas", "Transferencias"})
+@StackTrace(false)
+public class TransferenciaRecibidaEvent extends Event {
+
+    @Label("Cuenta origen")
+    public long cuentaOrigenId;
+
+    @Label("Cuenta destino")
+    @Description("Cuenta destino, o -1 en una transferencia a varias cuentas")
+    public long cuentaDestinoId;
+
+    @Label("Destinos")
+    public int destinos;
+
+    @Label("Banco")
+    public long bancoId;
+
+    @Label("Resultado")
+    public String resultado;
+}
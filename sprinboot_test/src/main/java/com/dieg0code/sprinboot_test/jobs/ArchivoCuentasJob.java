@@ -0,0 +1,107 @@
+package com.dieg0code.sprinboot_test.jobs;
+
+import com.dieg0code.sprinboot_test.models.ReporteArchivo;
+import com.dieg0code.sprinboot_test.services.ArchivoCuentas;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Archiva las cuentas inactivas: saldo cero y sin movimientos desde hace
+ * {@code cuentas.archivo.inactividad-dias}. Las cuentas que nunca tuvieron movimientos no se tocan,
+ * porque pueden ser altas recientes.
+ * <p>
+ * Las candidatas se leen por id en orden (keyset) y cada lote se archiva en su propia transacción
+ * con {@link ArchivoCuentas#archivarInactivas}, que vuelve a comprobar la inactividad con las filas
+ * bloqueadas. Los lotes por segundo se limitan para que los bloqueos y las escrituras del job no
+ * demoren las transferencias en línea.
+ */
+@Component
+public class ArchivoCuentasJob {
+
+    private static final Logger log = LoggerFactory.getLogger(ArchivoCuentasJob.class);
+
+    private static final String SQL_CANDIDATAS = """
+            SELECT c.id FROM cuentas c
+            WHERE c.id > ? AND c.saldo = 0
+              AND (SELECT MAX(m.fecha) FROM movimientos m WHERE m.cuenta_id = c.id) < ?
+            ORDER BY c.id LIMIT ?
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate escritura;
+    private final ArchivoCuentas archivoCuentas;
+    private final Duration inactividad;
+    private final int tamanoLote;
+    private final double lotesPorSegundo;
+
+    public ArchivoCuentasJob(DataSource dataSource,
+                             PlatformTransactionManager transactionManager,
+                             ArchivoCuentas archivoCuentas,
+                             @Value("${cuentas.archivo.inactividad-dias:365}") long inactividadDias,
+                             @Value("${cuentas.archivo.tamano-lote:500}") int tamanoLote,
+                             @Value("${cuentas.archivo.lotes-por-segundo:10}") double lotesPorSegundo) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.escritura = new TransactionTemplate(transactionManager);
+        this.archivoCuentas = archivoCuentas;
+        this.inactividad = Duration.ofDays(inactividadDias);
+        this.tamanoLote = Math.min(tamanoLote, ArchivoCuentas.TAMANO_LOTE);
+        this.lotesPorSegundo = lotesPorSegundo;
+    }
+
+    @Scheduled(cron = "${cuentas.archivo.cron:0 30 4 * * *}")
+    public void programado() {
+        ejecutar();
+    }
+
+    public ReporteArchivo ejecutar() {
+        return ejecutar(Instant.now().minus(inactividad));
+    }
+
+    /**
+     * Archiva las cuentas con saldo cero cuyo último movimiento es anterior a {@code corte}.
+     */
+    public ReporteArchivo ejecutar(Instant corte) {
+        long inicio = System.nanoTime();
+        long intervaloNanos = lotesPorSegundo > 0 ? (long) (1_000_000_000L / lotesPorSegundo) : 0;
+        long siguienteLote = System.nanoTime();
+        Timestamp limite = Timestamp.from(corte);
+        long cursor = Long.MIN_VALUE;
+        long cuentas = 0;
+        int lotes = 0;
+
+        while (true) {
+            List<Long> ids = jdbcTemplate.queryForList(SQL_CANDIDATAS, Long.class, cursor, limite, tamanoLote);
+            if (ids.isEmpty()) {
+                break;
+            }
+            cursor = ids.get(ids.size() - 1);
+
+            long espera = siguienteLote - System.nanoTime();
+            if (espera > 0) {
+                LockSupport.parkNanos(espera);
+            }
+            siguienteLote = Math.max(siguienteLote, System.nanoTime()) + intervaloNanos;
+
+            List<Long> archivadas = escritura.execute(status -> archivoCuentas.archivarInactivas(ids, corte));
+            cuentas += archivadas.size();
+            lotes++;
+        }
+
+        long duracionMs = (System.nanoTime() - inicio) / 1_000_000;
+        log.info("Archivo de cuentas inactivas desde {}: {} lotes, {} cuentas en {} ms", corte, lotes, cuentas, duracionMs);
+        return new ReporteArchivo(lotes, cuentas, duracionMs);
+    }
+}
@@ -0,0 +1,280 @@
+package com.dieg0code.sprinboot_test.jobs;
+
+import com.dieg0code.sprinboot_test.models.ConciliacionRango;
+import com.dieg0code.sprinboot_test.models.Discrepancia;
+import com.dieg0code.sprinboot_test.models.ReporteConciliacion;
+import com.dieg0code.sprinboot_test.repositories.ConciliacionRangoRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Conciliación nocturna: verifica que el saldo de cada cuenta coincida con su último checkpoint
+ * más los movimientos posteriores, que los débitos y créditos de transferencias sumen cero, que
+ * el contador de transferencias de cada banco coincida con los débitos registrados y que el saldo
+ * total del resumen de cada banco coincida con la suma de sus cuentas.
+ * <p>
+ * El espacio de ids se divide en rangos que se procesan en paralelo en un {@link ForkJoinPool}, cada
+ * uno leyendo sus cuentas en streaming dentro de una transacción de solo lectura. El avance se
+ * guarda por rango, así una ejecución interrumpida se reanuda procesando solo lo pendiente.
+ * <p>
+ * Los totales (conservación, contadores y saldos por banco) se leen al final en una sola transacción
+ * REPEATABLE READ: cada rango ve otro momento del tráfico en línea y sumarlos compararía instantes
+ * distintos. Por eso el saldo total del reporte sale de esa lectura y no de los rangos. Esa lectura
+ * recorre todos los movimientos, también los de cuentas ya archivadas.
+ */
+@Component
+public class ConciliacionJob {
+
+    private static final Logger log = LoggerFactory.getLogger(ConciliacionJob.class);
+
+    private static final int MAX_DISCREPANCIAS_REPORTE = 1000;
+
+    private static final String SQL_CUENTAS = """
+            SELECT c.id, c.saldo, cp.saldo AS saldo_checkpoint,
+                   (SELECT COALESCE(SUM(m.monto), 0) FROM movimientos m
+                     WHERE m.cuenta_id = c.id AND m.fecha >= cp.fecha AND m.id > cp.movimiento_id) AS desde_checkpoint
+            FROM cuentas c
+            LEFT JOIN saldo_checkpoints cp ON cp.id = (SELECT MAX(x.id) FROM saldo_checkpoints x WHERE x.cuenta_id = c.id)
+            WHERE c.id BETWEEN ? AND ?
+            ORDER BY c.id
+            """;
+
+    // Neto de débitos y créditos de transferencias y cantidad de débitos, por banco, en un solo recorrido
+    private static final String SQL_TRANSFERENCIAS_POR_BANCO = """
+            SELECT m.banco_id, COALESCE(SUM(m.monto), 0) AS neto,
+                   SUM(CASE WHEN m.tipo = 'DEBITO' THEN 1 ELSE 0 END) AS debitos
+            FROM movimientos m
+            WHERE m.tipo IN ('DEBITO', 'CREDITO')
+            GROUP BY m.banco_id
+            """;
+
+    private static final String SQL_SALDOS_POR_BANCO = "SELECT banco_id, SUM(saldo) AS saldo FROM cuentas GROUP BY banco_id";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate lectura;
+    private final TransactionTemplate lecturaTotales;
+    private final ConciliacionRangoRepository rangoRepository;
+    private final int tamanoRango;
+    private final int paralelismo;
+
+    public ConciliacionJob(DataSource dataSource,
+                           PlatformTransactionManager transactionManager,
+                           ConciliacionRangoRepository rangoRepository,
+                           @Value("${cuentas.conciliacion.tamano-rango:10000}") int tamanoRango,
+                           @Value("${cuentas.conciliacion.paralelismo:4}") int paralelismo) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(1000);
+        this.lectura = new TransactionTemplate(transactionManager);
+        this.lectura.setReadOnly(true);
+        this.lecturaTotales = new TransactionTemplate(transactionManager);
+        this.lecturaTotales.setReadOnly(true);
+        this.lecturaTotales.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        this.rangoRepository = rangoRepository;
+        this.tamanoRango = tamanoRango;
+        this.paralelismo = paralelismo;
+    }
+
+    @Scheduled(cron = "${cuentas.conciliacion.cron:0 0 2 * * *}")
+    public void programado() {
+        ejecutar(LocalDate.now().toString());
+    }
+
+    /**
+     * Ejecuta la conciliación identificada por {@code ejecucion}; si ya existe y quedó a medias,
+     * continúa desde los rangos pendientes.
+     */
+    public ReporteConciliacion ejecutar(String ejecucion) {
+        long inicio = System.nanoTime();
+
+        List<ConciliacionRango> rangos = rangoRepository.findByEjecucionOrderByDesde(ejecucion);
+        if (rangos.isEmpty()) {
+            rangos = crearRangos(ejecucion);
+        }
+
+        List<ConciliacionRango> pendientes = rangos.stream().filter(r -> !r.isCompletado()).toList();
+        List<Discrepancia> discrepancias = Collections.synchronizedList(new ArrayList<>());
+        AtomicLong cuentasProcesadas = new AtomicLong();
+
+        log.info("Conciliación {}: {} rangos, {} pendientes, paralelismo {}", ejecucion, rangos.size(), pendientes.size(), paralelismo);
+
+        ForkJoinPool pool = new ForkJoinPool(paralelismo);
+        try {
+            pool.invoke(new ConciliarRangos(pendientes, discrepancias, cuentasProcesadas));
+        } finally {
+            pool.shutdown();
+        }
+
+        rangos = rangoRepository.findByEjecucionOrderByDesde(ejecucion);
+        Totales totales = lecturaTotales.execute(status -> verificarTotales());
+        List<Discrepancia> globales = totales.discrepancias();
+        globales.forEach(d -> log.warn("Discrepancia {}", d));
+
+        long totalDiscrepancias = globales.size();
+        long cuentas = 0;
+        for (ConciliacionRango rango : rangos) {
+            totalDiscrepancias += rango.getDiscrepancias();
+            cuentas += rango.getCuentas();
+        }
+
+        List<Discrepancia> reporte = new ArrayList<>(globales);
+        synchronized (discrepancias) {
+            reporte.addAll(discrepancias.subList(0, Math.min(discrepancias.size(), MAX_DISCREPANCIAS_REPORTE)));
+        }
+
+        long duracionMs = (System.nanoTime() - inicio) / 1_000_000;
+        double cuentasPorSegundo = duracionMs == 0 ? cuentasProcesadas.get() : cuentasProcesadas.get() * 1000.0 / duracionMs;
+
+        log.info("Conciliación {} terminada: {} cuentas ({} en esta ejecución) en {} ms, {} cuentas/s, {} discrepancias",
+                ejecucion, cuentas, cuentasProcesadas.get(), duracionMs, Math.round(cuentasPorSegundo), totalDiscrepancias);
+
+        return new ReporteConciliacion(ejecucion, rangos.size(), pendientes.size(), cuentas, totales.saldoTotal(),
+                totalDiscrepancias, reporte, duracionMs, cuentasPorSegundo);
+    }
+
+    private List<ConciliacionRango> crearRangos(String ejecucion) {
+        Map<String, Object> limites = jdbcTemplate.queryForList("SELECT MIN(id) AS minimo, MAX(id) AS maximo FROM cuentas").get(0);
+        List<ConciliacionRango> rangos = new ArrayList<>();
+
+        if (limites.get("minimo") != null) {
+            long minimo = ((Number) limites.get("minimo")).longValue();
+            long maximo = ((Number) limites.get("maximo")).longValue();
+            for (long desde = minimo; desde <= maximo; desde += tamanoRango) {
+                rangos.add(new ConciliacionRango(ejecucion, desde, Math.min(desde + tamanoRango - 1, maximo)));
+            }
+        }
+
+        return rangoRepository.saveAll(rangos);
+    }
+
+    private void conciliar(ConciliacionRango rango, List<Discrepancia> discrepancias, AtomicLong cuentasProcesadas) {
+        long[] cuentas = {0};
+        long[] encontradas = {0};
+
+        lectura.executeWithoutResult(status -> {
+            jdbcTemplate.query(SQL_CUENTAS, rs -> {
+                long id = rs.getLong("id");
+                BigDecimal saldo = rs.getBigDecimal("saldo");
+                BigDecimal saldoCheckpoint = rs.getBigDecimal("saldo_checkpoint");
+
+                cuentas[0]++;
+
+                // Sin checkpoint la cuenta nunca tuvo movimientos: no hay con qué comparar
+                if (saldoCheckpoint != null) {
+                    BigDecimal esperado = saldoCheckpoint.add(rs.getBigDecimal("desde_checkpoint"));
+                    if (esperado.compareTo(saldo) != 0) {
+                        encontradas[0]++;
+                        Discrepancia discrepancia = new Discrepancia("CUENTA", id, esperado, saldo);
+                        log.warn("Discrepancia {}", discrepancia);
+                        if (discrepancias.size() < MAX_DISCREPANCIAS_REPORTE) {
+                            discrepancias.add(discrepancia);
+                        }
+                    }
+                }
+            }, rango.getDesde(), rango.getHasta());
+        });
+
+        rango.setCuentas(cuentas[0]);
+        rango.setDiscrepancias(encontradas[0]);
+        rango.setCompletado(true);
+        rangoRepository.save(rango);
+
+        cuentasProcesadas.addAndGet(cuentas[0]);
+    }
+
+    // Todas las consultas corren en la misma transacción REPEATABLE READ: ven el mismo instante
+    private Totales verificarTotales() {
+        List<Discrepancia> discrepancias = new ArrayList<>();
+        BigDecimal[] netoTotal = {BigDecimal.ZERO};
+        Map<Long, Long> debitosPorBanco = new HashMap<>();
+
+        jdbcTemplate.query(SQL_TRANSFERENCIAS_POR_BANCO, rs -> {
+            netoTotal[0] = netoTotal[0].add(rs.getBigDecimal("neto"));
+            long bancoId = rs.getLong("banco_id");
+            if (!rs.wasNull()) {
+                debitosPorBanco.put(bancoId, rs.getLong("debitos"));
+            }
+        });
+        BigDecimal neto = netoTotal[0];
+
+        if (neto.signum() != 0) {
+            discrepancias.add(new Discrepancia("CONSERVACION", null, BigDecimal.ZERO, neto));
+        }
+
+        jdbcTemplate.query("SELECT banco_id, total_transferencias FROM contadores_bancos", rs -> {
+            long bancoId = rs.getLong("banco_id");
+            long esperado = debitosPorBanco.getOrDefault(bancoId, 0L);
+            long actual = rs.getLong("total_transferencias");
+            if (esperado != actual) {
+                discrepancias.add(new Discrepancia("BANCO", bancoId, BigDecimal.valueOf(esperado), BigDecimal.valueOf(actual)));
+            }
+        });
+
+        BigDecimal[] saldoTotal = {BigDecimal.ZERO};
+        Map<Long, BigDecimal> saldosPorBanco = new HashMap<>();
+        jdbcTemplate.query(SQL_SALDOS_POR_BANCO, rs -> {
+            BigDecimal saldo = rs.getBigDecimal("saldo");
+            saldoTotal[0] = saldoTotal[0].add(saldo);
+            long bancoId = rs.getLong("banco_id");
+            if (!rs.wasNull()) {
+                saldosPorBanco.put(bancoId, saldo);
+            }
+        });
+
+        jdbcTemplate.query("SELECT banco_id, saldo_total FROM resumen_bancos", rs -> {
+            long bancoId = rs.getLong("banco_id");
+            BigDecimal esperado = rs.getBigDecimal("saldo_total");
+            BigDecimal actual = saldosPorBanco.getOrDefault(bancoId, BigDecimal.ZERO);
+            if (esperado.compareTo(actual) != 0) {
+                discrepancias.add(new Discrepancia("SALDO", bancoId, esperado, actual));
+            }
+        });
+
+        return new Totales(discrepancias, saldoTotal[0]);
+    }
+
+    private record Totales(List<Discrepancia> discrepancias, BigDecimal saldoTotal) {
+    }
+
+    private class ConciliarRangos extends RecursiveAction {
+        private final List<ConciliacionRango> rangos;
+        private final List<Discrepancia> discrepancias;
+        private final AtomicLong cuentasProcesadas;
+
+        private ConciliarRangos(List<ConciliacionRango> rangos, List<Discrepancia> discrepancias, AtomicLong cuentasProcesadas) {
+            this.rangos = rangos;
+            this.discrepancias = discrepancias;
+            this.cuentasProcesadas = cuentasProcesadas;
+        }
+
+        @Override
+        protected void compute() {
+            if (rangos.size() <= 1) {
+                rangos.forEach(rango -> conciliar(rango, discrepancias, cuentasProcesadas));
+                return;
+            }
+
+            int mitad = rangos.size() / 2;
+            invokeAll(new ConciliarRangos(rangos.subList(0, mitad), discrepancias, cuentasProcesadas),
+                    new ConciliarRangos(rangos.subList(mitad, rangos.size()), discrepancias, cuentasProcesadas));
+        }
+    }
+}
@@ -0,0 +1,256 @@
+package com.dieg0code.sprinboot_test.jobs;
+
+import com.dieg0code.sprinboot_test.events.SaldoActualizadoEvent;
+import com.dieg0code.sprinboot_test.models.InteresLote;
+import com.dieg0code.sprinboot_test.models.Movimiento;
+import com.dieg0code.sprinboot_test.models.ReporteInteres;
+import com.dieg0code.sprinboot_test.models.TipoMovimiento;
+import com.dieg0code.sprinboot_test.repositories.InteresLoteRepository;
+import com.dieg0code.sprinboot_test.services.ResumenBancoService;
+import com.dieg0code.sprinboot_test.services.SaldoCheckpointService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.math.RoundingMode;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Abono mensual de intereses a todas las cuentas.
+ * <p>
+ * Las cuentas se leen por id en orden (keyset) y se agrupan en lotes. Cada lote se procesa en un
+ * pool acotado de hilos dentro de su propia transacción: bloquea sus filas, suma el interés con un
+ * batch JDBC de UPDATE, registra los movimientos INTERES (con sus checkpoints de saldo) y marca el
+ * lote en {@code interes_lotes}. Publica un {@link SaldoActualizadoEvent} por cuenta abonada, igual
+ * que una transferencia, para que ranking, streams y demás instancias vean el abono.
+ * Como la marca se confirma junto con los abonos, reiniciar el job salta los lotes ya aplicados.
+ * El ritmo de lotes por segundo se limita para que las transferencias en línea no esperen por
+ * los bloqueos del job.
+ */
+@Component
+public class InteresJob {
+
+    private static final Logger log = LoggerFactory.getLogger(InteresJob.class);
+
+    private static final String SQL_IDS = "SELECT id FROM cuentas WHERE id > ? AND id <= ? ORDER BY id LIMIT ?";
+    private static final String SQL_BLOQUEAR = "SELECT id, saldo, banco_id, version, movimientos_sin_checkpoint FROM cuentas WHERE id BETWEEN ? AND ? ORDER BY id FOR UPDATE";
+    private static final String SQL_ABONAR = "UPDATE cuentas SET saldo = saldo + ?, version = version + 1, movimientos_sin_checkpoint = ? WHERE id = ?";
+    private static final String SQL_MOVIMIENTO = "INSERT INTO movimientos (cuenta_id, tipo, monto, fecha) VALUES (?, 'INTERES', ?, ?)";
+    private static final String SQL_IDS_MOVIMIENTOS = "SELECT id, cuenta_id FROM movimientos WHERE cuenta_id IN (:ids) AND tipo = 'INTERES' AND fecha = :fecha";
+    private static final String SQL_LOTE = "INSERT INTO interes_lotes (periodo, desde, hasta, cuentas, total) VALUES (?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+    private final TransactionTemplate escritura;
+    private final InteresLoteRepository loteRepository;
+    private final ResumenBancoService resumenService;
+    private final SaldoCheckpointService checkpointService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final BigDecimal tasaMensual;
+    private final int tamanoLote;
+    private final int hilos;
+    private final double lotesPorSegundo;
+
+    public InteresJob(DataSource dataSource,
+                      PlatformTransactionManager transactionManager,
+                      InteresLoteRepository loteRepository,
+                      ResumenBancoService resumenService,
+                      SaldoCheckpointService checkpointService,
+                      ApplicationEventPublisher eventPublisher,
+                      @Value("${cuentas.interes.tasa-anual:0.02}") BigDecimal tasaAnual,
+                      @Value("${cuentas.interes.tamano-lote:500}") int tamanoLote,
+                      @Value("${cuentas.interes.hilos:4}") int hilos,
+                      @Value("${cuentas.interes.lotes-por-segundo:50}") double lotesPorSegundo) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.namedJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+        this.escritura = new TransactionTemplate(transactionManager);
+        this.loteRepository = loteRepository;
+        this.resumenService = resumenService;
+        this.checkpointService = checkpointService;
+        this.eventPublisher = eventPublisher;
+        this.tasaMensual = tasaAnual.divide(BigDecimal.valueOf(12), MathContext.DECIMAL64);
+        this.tamanoLote = tamanoLote;
+        this.hilos = hilos;
+        this.lotesPorSegundo = lotesPorSegundo;
+    }
+
+    @Scheduled(cron = "${cuentas.interes.cron:0 0 3 1 * *}")
+    public void programado() {
+        ejecutar(YearMonth.now().minusMonths(1));
+    }
+
+    public ReporteInteres ejecutar(YearMonth periodo) {
+        long inicio = System.nanoTime();
+        String clave = periodo.toString();
+
+        // Lotes ya aplicados en una ejecución anterior del mismo periodo: desde -> hasta
+        TreeMap<Long, Long> aplicados = new TreeMap<>();
+        for (InteresLote lote : loteRepository.findByPeriodoOrderByDesde(clave)) {
+            aplicados.put(lote.getDesde(), lote.getHasta());
+        }
+
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(hilos, hilos, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(hilos * 2), new ThreadPoolExecutor.CallerRunsPolicy());
+        List<Future<?>> pendientes = new ArrayList<>();
+        AtomicLong cuentas = new AtomicLong();
+        BigDecimal[] total = {BigDecimal.ZERO};
+        Object totalLock = new Object();
+        int lotes = 0;
+
+        long intervaloNanos = lotesPorSegundo > 0 ? (long) (1_000_000_000L / lotesPorSegundo) : 0;
+        long siguienteEnvio = System.nanoTime();
+        long cursor = Long.MIN_VALUE;
+
+        try {
+            while (true) {
+                Map.Entry<Long, Long> siguienteAplicado = aplicados.higherEntry(cursor);
+                long limite = siguienteAplicado == null ? Long.MAX_VALUE : siguienteAplicado.getKey() - 1;
+
+                List<Long> ids = jdbcTemplate.queryForList(SQL_IDS, Long.class, cursor, limite, tamanoLote);
+                if (ids.isEmpty()) {
+                    if (siguienteAplicado == null) {
+                        break;
+                    }
+                    cursor = siguienteAplicado.getValue();
+                    continue;
+                }
+
+                long desde = ids.get(0);
+                long hasta = ids.get(ids.size() - 1);
+                cursor = hasta;
+
+                // Limita el ritmo de lotes enviados al pool
+                long espera = siguienteEnvio - System.nanoTime();
+                if (espera > 0) {
+                    LockSupport.parkNanos(espera);
+                }
+                siguienteEnvio = Math.max(siguienteEnvio, System.nanoTime()) + intervaloNanos;
+
+                lotes++;
+                pendientes.add(pool.submit(() -> {
+                    BigDecimal abonado = abonar(clave, desde, hasta, cuentas);
+                    synchronized (totalLock) {
+                        total[0] = total[0].add(abonado);
+                    }
+                }));
+            }
+
+            for (Future<?> pendiente : pendientes) {
+                pendiente.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Abono de intereses interrumpido", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Falló un lote del abono de intereses; se puede reanudar", e.getCause());
+        } finally {
+            pool.shutdown();
+        }
+
+        long duracionMs = (System.nanoTime() - inicio) / 1_000_000;
+        double cuentasPorSegundo = duracionMs == 0 ? cuentas.get() : cuentas.get() * 1000.0 / duracionMs;
+
+        log.info("Intereses {}: {} lotes, {} cuentas, total {} en {} ms ({} cuentas/s)",
+                clave, lotes, cuentas.get(), total[0], duracionMs, Math.round(cuentasPorSegundo));
+
+        return new ReporteInteres(clave, lotes, cuentas.get(), total[0], duracionMs, cuentasPorSegundo);
+    }
+
+    private BigDecimal abonar(String periodo, long desde, long hasta, AtomicLong cuentas) {
+        return escritura.execute(status -> {
+            List<Abono> abonos = new ArrayList<>();
+            Instant fecha = Instant.now().truncatedTo(ChronoUnit.MICROS);
+            BigDecimal total = BigDecimal.ZERO;
+            Map<Long, BigDecimal> porBanco = new HashMap<>();
+
+            for (Map<String, Object> fila : jdbcTemplate.queryForList(SQL_BLOQUEAR, desde, hasta)) {
+                BigDecimal saldo = (BigDecimal) fila.get("saldo");
+                BigDecimal interes = saldo.multiply(tasaMensual).setScale(2, RoundingMode.HALF_EVEN);
+                if (interes.signum() <= 0) {
+                    continue;
+                }
+                Long id = ((Number) fila.get("id")).longValue();
+                Number sinCheckpoint = (Number) fila.get("movimientos_sin_checkpoint");
+                abonos.add(new Abono(new Movimiento(id, null, null, TipoMovimiento.INTERES, interes, fecha),
+                        saldo.add(interes), ((Number) fila.get("version")).longValue() + 1,
+                        sinCheckpoint == null ? null : sinCheckpoint.intValue()));
+                total = total.add(interes);
+
+                Number bancoId = (Number) fila.get("banco_id");
+                if (bancoId != null) {
+                    porBanco.merge(bancoId.longValue(), interes, BigDecimal::add);
+                }
+            }
+
+            Timestamp momento = Timestamp.from(fecha);
+            jdbcTemplate.batchUpdate(SQL_MOVIMIENTO, abonos.stream()
+                    .map(a -> new Object[]{a.movimiento.getCuentaId(), a.movimiento.getMonto(), momento})
+                    .toList());
+            asignarIdsParaCheckpoint(abonos, momento);
+
+            List<Object[]> actualizaciones = new ArrayList<>(abonos.size());
+            for (Abono abono : abonos) {
+                int sinCheckpoint = checkpointService.registrar(abono.movimiento.getCuentaId(), abono.sinCheckpoint,
+                        abono.movimiento, abono.saldo);
+                actualizaciones.add(new Object[]{abono.movimiento.getMonto(), sinCheckpoint, abono.movimiento.getCuentaId()});
+            }
+
+            jdbcTemplate.batchUpdate(SQL_ABONAR, actualizaciones);
+            jdbcTemplate.update(SQL_LOTE, periodo, desde, hasta, abonos.size(), total);
+            porBanco.forEach((bancoId, interes) -> resumenService.registrarCuenta(bancoId, 0, interes));
+
+            // Como una transferencia: invalidación a las demás instancias, ranking y streams de saldo
+            for (Abono abono : abonos) {
+                eventPublisher.publishEvent(new SaldoActualizadoEvent(abono.movimiento.getCuentaId(), abono.saldo, abono.version));
+            }
+
+            cuentas.addAndGet(abonos.size());
+            return total;
+        });
+    }
+
+    // El batch no devuelve las claves generadas: solo se leen las de los movimientos que cierran un checkpoint
+    private void asignarIdsParaCheckpoint(List<Abono> abonos, Timestamp fecha) {
+        Map<Long, Abono> sinId = new HashMap<>();
+        for (Abono abono : abonos) {
+            if (checkpointService.necesitaId(abono.sinCheckpoint)) {
+                sinId.put(abono.movimiento.getCuentaId(), abono);
+            }
+        }
+        if (sinId.isEmpty()) {
+            return;
+        }
+
+        namedJdbcTemplate.query(SQL_IDS_MOVIMIENTOS, Map.of("ids", sinId.keySet(), "fecha", fecha), rs -> {
+            sinId.get(rs.getLong("cuenta_id")).movimiento.setId(rs.getLong("id"));
+        });
+    }
+
+    private record Abono(Movimiento movimiento, BigDecimal saldo, long version, Integer sinCheckpoint) {
+    }
+}
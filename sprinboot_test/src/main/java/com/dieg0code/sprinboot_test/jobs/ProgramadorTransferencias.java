@@ -0,0 +1,210 @@
+package com.dieg0code.sprinboot_test.jobs;
+
+import com.dieg0code.sprinboot_test.config.Nodo;
+import com.dieg0code.sprinboot_test.models.EstadoTransferenciaProgramada;
+import com.dieg0code.sprinboot_test.models.ParticionProgramada;
+import com.dieg0code.sprinboot_test.models.Resultado;
+import com.dieg0code.sprinboot_test.repositories.ParticionProgramadaRepository;
+import com.dieg0code.sprinboot_test.repositories.TransferenciaProgramadaRepository;
+import com.dieg0code.sprinboot_test.services.TransferenciaProgramadaService;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Ejecuta las transferencias programadas que vencieron.
+ * <p>
+ * Las transferencias se reparten en particiones y cada instancia procesa solo las particiones que
+ * logró reclamar (un UPDATE condicional con vencimiento, al estilo SKIP LOCKED: si la partición
+ * tiene dueño vigente se salta). Cada instancia conserva y renueva a lo sumo su parte justa,
+ * {@code particiones / nodos} redondeado hacia arriba; las particiones libres por encima de esa parte
+ * se procesan en el ciclo y se devuelven al terminarlo, así una instancia que arranca después
+ * encuentra particiones libres y una sola instancia igual procesa todas. Las vencidas se leen por
+ * lotes y se ejecutan mediante
+ * {@link com.dieg0code.sprinboot_test.services.CuentaService#transferir} con un número acotado de
+ * hilos, dejando conexiones libres para las peticiones interactivas.
+ */
+@Component
+public class ProgramadorTransferencias {
+
+    private static final Logger log = LoggerFactory.getLogger(ProgramadorTransferencias.class);
+
+    private final ParticionProgramadaRepository particionRepository;
+    private final TransferenciaProgramadaRepository programadaRepository;
+    private final TransferenciaProgramadaService programadaService;
+    private final Nodo nodo;
+    private final int particiones;
+    private final int maxParticiones;
+    private final int tamanoLote;
+    private final Duration arriendo;
+    private final ExecutorService ejecutores;
+    // Solo las usa el hilo del @Scheduled: las particiones dentro de la parte justa y las tomadas de más
+    private final List<Integer> fijas = new ArrayList<>();
+    private final List<Integer> excedentes = new ArrayList<>();
+
+    public ProgramadorTransferencias(ParticionProgramadaRepository particionRepository,
+                                     TransferenciaProgramadaRepository programadaRepository,
+                                     TransferenciaProgramadaService programadaService,
+                                     Nodo nodo,
+                                     @Value("${cuentas.programadas.particiones:16}") int particiones,
+                                     @Value("${cuentas.programadas.nodos:2}") int nodos,
+                                     @Value("${cuentas.programadas.particiones-por-nodo:0}") int maxParticiones,
+                                     @Value("${cuentas.programadas.tamano-lote:200}") int tamanoLote,
+                                     @Value("${cuentas.programadas.concurrentes:4}") int concurrentes,
+                                     @Value("${cuentas.programadas.arriendo-ms:30000}") long arriendoMs) {
+        this.particionRepository = particionRepository;
+        this.programadaRepository = programadaRepository;
+        this.programadaService = programadaService;
+        this.nodo = nodo;
+        this.particiones = particiones;
+        // Sin un valor explícito, la parte justa según la cantidad de instancias esperada
+        this.maxParticiones = maxParticiones > 0 ? maxParticiones : (particiones + nodos - 1) / nodos;
+        this.tamanoLote = tamanoLote;
+        this.arriendo = Duration.ofMillis(arriendoMs);
+        this.ejecutores = Executors.newFixedThreadPool(concurrentes);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void crearParticiones() {
+        for (int particion = 0; particion < particiones; particion++) {
+            if (particionRepository.existsById(particion)) {
+                continue;
+            }
+            try {
+                particionRepository.save(new ParticionProgramada(particion));
+            } catch (DataIntegrityViolationException e) {
+                // Otra instancia la creó al mismo tiempo
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${cuentas.programadas.intervalo-ms:1000}")
+    public void procesar() {
+        List<Integer> propias = reclamarParticiones();
+        if (propias.isEmpty()) {
+            return;
+        }
+
+        // El ciclo termina antes de que venza el arriendo para renovarlo en el siguiente
+        Instant limite = Instant.now().plus(arriendo.dividedBy(2));
+
+        try {
+            while (Instant.now().isBefore(limite)) {
+                Instant ahora = Instant.now();
+                List<Long> ids = programadaRepository.findIdsVencidas(EstadoTransferenciaProgramada.PENDIENTE, propias,
+                        ahora, PageRequest.of(0, tamanoLote));
+                if (ids.isEmpty()) {
+                    return;
+                }
+
+                ejecutarLote(ids, ahora);
+
+                if (ids.size() < tamanoLote) {
+                    return;
+                }
+            }
+        } finally {
+            liberarExcedentes();
+        }
+    }
+
+    @PreDestroy
+    public void detener() {
+        ejecutores.shutdown();
+        try {
+            particionRepository.liberar(nodo.getId());
+        } catch (RuntimeException e) {
+            log.debug("No se pudieron liberar las particiones de {}", nodo.getId(), e);
+        }
+    }
+
+    private List<Integer> reclamarParticiones() {
+        Instant ahora = Instant.now();
+        Instant expira = ahora.plus(arriendo);
+
+        // Primero se renuevan las que ya eran parte de este nodo
+        List<Integer> anteriores = new ArrayList<>(fijas);
+        fijas.clear();
+        for (Integer particion : anteriores) {
+            if (particionRepository.reclamar(particion, nodo.getId(), expira, ahora) == 1) {
+                fijas.add(particion);
+            }
+        }
+
+        // Se parte de una posición al azar para que las instancias no compitan siempre por las mismas
+        int inicio = ThreadLocalRandom.current().nextInt(particiones);
+        for (int i = 0; i < particiones; i++) {
+            int particion = (inicio + i) % particiones;
+            if (!anteriores.contains(particion) && particionRepository.reclamar(particion, nodo.getId(), expira, ahora) == 1) {
+                (fijas.size() < maxParticiones ? fijas : excedentes).add(particion);
+            }
+        }
+
+        List<Integer> propias = new ArrayList<>(fijas);
+        propias.addAll(excedentes);
+        return propias;
+    }
+
+    private void liberarExcedentes() {
+        if (excedentes.isEmpty()) {
+            return;
+        }
+        try {
+            particionRepository.liberar(excedentes, nodo.getId());
+        } catch (RuntimeException e) {
+            // Si no se pudieron devolver, quedan libres cuando vence el arriendo
+            log.debug("No se pudieron liberar las particiones {} de {}", excedentes, nodo.getId(), e);
+        }
+        excedentes.clear();
+    }
+
+    private void ejecutarLote(List<Long> ids, Instant ahora) {
+        List<Future<?>> pendientes = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            pendientes.add(ejecutores.submit(() -> ejecutar(id, ahora)));
+        }
+
+        for (Future<?> pendiente : pendientes) {
+            try {
+                pendiente.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (ExecutionException e) {
+                log.error("Error inesperado ejecutando una transferencia programada", e.getCause());
+            }
+        }
+    }
+
+    private void ejecutar(Long id, Instant ahora) {
+        try {
+            if (programadaService.ejecutar(id, ahora) instanceof Resultado.Fallo<Boolean> fallo) {
+                log.warn("Falló la transferencia programada {}: {}", id, fallo.mensaje());
+                programadaService.registrarFallo(id, fallo.mensaje());
+            }
+        } catch (OptimisticLockingFailureException e) {
+            log.debug("La transferencia programada {} fue ejecutada por otra instancia", id);
+        } catch (RuntimeException e) {
+            log.warn("Falló la transferencia programada {}: {}", id, e.getMessage());
+            programadaService.registrarFallo(id, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.dieg0code.sprinboot_test.jobs;
+
+import com.dieg0code.sprinboot_test.config.Nodo;
+import com.dieg0code.sprinboot_test.events.DestinoEventos;
+import com.dieg0code.sprinboot_test.models.EventoOutbox;
+import com.dieg0code.sprinboot_test.services.OutboxService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Publica los eventos del outbox en el {@link DestinoEventos} configurado.
+ * <p>
+ * Cada lote se reclama con un arrendatario propio (nodo + secuencia), se publica fuera de toda
+ * transacción y se borra con un solo DELETE. Varias instancias pueden correr el relay a la vez: un
+ * evento lo publica quien tenga el arriendo vigente. Si el destino falla o la instancia cae antes
+ * de borrar, el lote se vuelve a publicar cuando vence el arriendo (entrega al menos una vez).
+ */
+@Component
+public class RelayOutbox {
+
+    private static final Logger log = LoggerFactory.getLogger(RelayOutbox.class);
+
+    private final OutboxService outboxService;
+    private final DestinoEventos destino;
+    private final Nodo nodo;
+    private final int tamanoLote;
+    private final Duration arriendo;
+    private final AtomicLong secuencia = new AtomicLong();
+
+    public RelayOutbox(OutboxService outboxService, DestinoEventos destino, Nodo nodo,
+                       @Value("${cuentas.outbox.tamano-lote:500}") int tamanoLote,
+                       @Value("${cuentas.outbox.arriendo-ms:30000}") long arriendoMs) {
+        this.outboxService = outboxService;
+        this.destino = destino;
+        this.nodo = nodo;
+        this.tamanoLote = tamanoLote;
+        this.arriendo = Duration.ofMillis(arriendoMs);
+    }
+
+    @Scheduled(fixedDelayString = "${cuentas.outbox.intervalo-ms:500}")
+    public void procesar() {
+        // Mientras haya lotes llenos se sigue sin esperar al siguiente ciclo, pero nunca más allá del arriendo
+        Instant limite = Instant.now().plus(arriendo.dividedBy(2));
+
+        while (Instant.now().isBefore(limite)) {
+            int publicados = publicarLote();
+            if (publicados < tamanoLote) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * @return cuántos eventos se publicaron, o 0 si no había pendientes o el destino falló
+     */
+    public int publicarLote() {
+        String arrendatario = nodo.getId() + "-" + secuencia.incrementAndGet();
+        List<EventoOutbox> eventos = outboxService.reclamar(arrendatario, tamanoLote, arriendo);
+        if (eventos.isEmpty()) {
+            return 0;
+        }
+
+        try {
+            destino.publicar(eventos);
+        } catch (RuntimeException e) {
+            log.warn("No se pudieron publicar {} eventos del outbox; se reintentarán al vencer el arriendo: {}",
+                    eventos.size(), e.getMessage());
+            return 0;
+        }
+
+        int borrados = outboxService.confirmar(arrendatario);
+        if (borrados < eventos.size()) {
+            log.debug("{} eventos del lote {} fueron reclamados por otro relay antes de confirmarlos",
+                    eventos.size() - borrados, arrendatario);
+        }
+
+        return eventos.size();
+    }
+}
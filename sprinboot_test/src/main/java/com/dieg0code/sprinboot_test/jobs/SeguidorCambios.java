@@ -0,0 +1,141 @@
+package com.dieg0code.sprinboot_test.jobs;
+
+import com.dieg0code.sprinboot_test.models.CambioEntidad;
+import com.dieg0code.sprinboot_test.repositories.CambioEntidadRepository;
+import com.dieg0code.sprinboot_test.services.BusInvalidacion;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lee {@code cambios_entidades} en orden de id y entrega los cambios nuevos a {@link BusInvalidacion}.
+ * <p>
+ * Los ids se asignan al insertar pero las transacciones confirman en cualquier orden, así que puede
+ * aparecer el id 12 antes que el 11. Los ids que faltan entre la última marca y el mayor leído se
+ * guardan como huecos y se vuelven a consultar durante {@code ventana-huecos-ms}; si no aparecen,
+ * corresponden a transacciones revertidas.
+ * <p>
+ * Corre en su propio hilo y no en el pool de {@code @Scheduled}: un job largo no retrasa la
+ * invalidación de las cachés de esta instancia. Existe solo junto con el bus, con
+ * {@code cuentas.invalidacion.habilitada=true}.
+ */
+@Component
+@ConditionalOnProperty(name = "cuentas.invalidacion.habilitada", havingValue = "true")
+public class SeguidorCambios {
+
+    private static final Logger log = LoggerFactory.getLogger(SeguidorCambios.class);
+
+    private static final int MAX_HUECOS = 10_000;
+
+    private final CambioEntidadRepository cambioRepository;
+    private final BusInvalidacion busInvalidacion;
+    private final int tamanoLote;
+    private final Duration ventanaHuecos;
+    private final Duration retencion;
+    private final long intervaloMs;
+    private final ScheduledExecutorService hilo = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "seguidor-cambios");
+        t.setDaemon(true);
+        return t;
+    });
+
+    // Solo lo usa el hilo del seguidor
+    private long marca = -1;
+    private final Map<Long, Instant> huecos = new LinkedHashMap<>();
+
+    public SeguidorCambios(CambioEntidadRepository cambioRepository, BusInvalidacion busInvalidacion,
+                           @Value("${cuentas.invalidacion.tamano-lote:1000}") int tamanoLote,
+                           @Value("${cuentas.invalidacion.ventana-huecos-ms:5000}") long ventanaHuecosMs,
+                           @Value("${cuentas.invalidacion.retencion-ms:600000}") long retencionMs,
+                           @Value("${cuentas.invalidacion.intervalo-ms:200}") long intervaloMs) {
+        this.cambioRepository = cambioRepository;
+        this.busInvalidacion = busInvalidacion;
+        this.tamanoLote = tamanoLote;
+        this.ventanaHuecos = Duration.ofMillis(ventanaHuecosMs);
+        this.retencion = Duration.ofMillis(retencionMs);
+        this.intervaloMs = intervaloMs;
+    }
+
+    // Los cambios anteriores al arranque no importan: las cachés se construyen desde la base de datos
+    @EventListener(ApplicationReadyEvent.class)
+    public void iniciar() {
+        marca = cambioRepository.findUltimoId();
+        hilo.scheduleWithFixedDelay(() -> {
+            try {
+                seguir();
+            } catch (RuntimeException e) {
+                // Sin esto el ejecutor cancela las siguientes ejecuciones
+                log.warn("No se pudieron leer los cambios de otras instancias", e);
+            }
+        }, intervaloMs, intervaloMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void cerrar() {
+        hilo.shutdownNow();
+    }
+
+    public void seguir() {
+        if (marca < 0) {
+            return;
+        }
+        Instant ahora = Instant.now();
+
+        if (!huecos.isEmpty()) {
+            List<CambioEntidad> tardios = cambioRepository.findByIdIn(new ArrayList<>(huecos.keySet()));
+            for (CambioEntidad cambio : tardios) {
+                huecos.remove(cambio.getId());
+            }
+            busInvalidacion.aplicar(tardios);
+
+            Iterator<Instant> vistos = huecos.values().iterator();
+            while (vistos.hasNext() && Duration.between(vistos.next(), ahora).compareTo(ventanaHuecos) > 0) {
+                vistos.remove();
+            }
+        }
+
+        List<CambioEntidad> cambios;
+        do {
+            cambios = cambioRepository.findDespues(marca, PageRequest.of(0, tamanoLote));
+            for (CambioEntidad cambio : cambios) {
+                for (long id = Math.max(marca + 1, cambio.getId() - MAX_HUECOS); id < cambio.getId(); id++) {
+                    huecos.put(id, ahora);
+                }
+                marca = cambio.getId();
+            }
+            busInvalidacion.aplicar(cambios);
+        } while (cambios.size() == tamanoLote);
+
+        if (huecos.size() > MAX_HUECOS) {
+            log.warn("Demasiados huecos en cambios_entidades ({}); se descartan los más antiguos", huecos.size());
+            Iterator<Long> ids = huecos.keySet().iterator();
+            while (huecos.size() > MAX_HUECOS) {
+                ids.next();
+                ids.remove();
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${cuentas.invalidacion.purga-ms:60000}")
+    public void purgar() {
+        cambioRepository.eliminarAnteriores(Instant.now().minus(retencion));
+    }
+}
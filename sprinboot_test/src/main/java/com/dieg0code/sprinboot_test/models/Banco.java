@@ -1,11 +1,16 @@
 package com.dieg0code.sprinboot_test.models;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.util.Objects;
 
+// Se lee en cada transferencia y casi nunca cambia; el contador de transferencias está en ContadorBanco
 @Entity
 @Table(name = "bancos")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "bancos")
 public class Banco {
 
     @Id
@@ -13,16 +18,12 @@ public class Banco {
     private  Long id;
     private String nombre;
 
-    @Column(name = "total_transferencias")
-    private int totalTransferencias;
-
     public Banco() {
     }
 
-    public Banco(Long id, String nombre, int totalTransferencias) {
+    public Banco(Long id, String nombre) {
         this.id = id;
         this.nombre = nombre;
-        this.totalTransferencias = totalTransferencias;
     }
 
     public Long getId() {
@@ -41,24 +42,16 @@ public class Banco {
         this.nombre = nombre;
     }
 
-    public int getTotalTransferencias() {
-        return totalTransferencias;
-    }
-
-    public void setTotalTransferencias(int totalTransferencias) {
-        this.totalTransferencias = totalTransferencias;
-    }
-
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
         if (o == null || getClass() != o.getClass()) return false;
         Banco banco = (Banco) o;
-        return totalTransferencias == banco.totalTransferencias && Objects.equals(id, banco.id) && Objects.equals(nombre, banco.nombre);
+        return Objects.equals(id, banco.id) && Objects.equals(nombre, banco.nombre);
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(id, nombre, totalTransferencias);
+        return Objects.hash(id, nombre);
     }
 }
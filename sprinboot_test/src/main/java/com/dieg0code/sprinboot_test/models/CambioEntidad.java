@@ -0,0 +1,98 @@
+package com.dieg0code.sprinboot_test.models;
+
+import jakarta.persistence.*;
+
+import java.time.Instant;
+import java.util.Objects;
+
+/**
+ * Registro de que una entidad cambió, escrito en la misma transacción que el cambio. Las demás
+ * instancias leen la tabla en orden de id y descartan esas entidades de sus cachés locales; el id
+ * del registro hace de versión: un cambio con id mayor es posterior.
+ */
+@Entity
+@Table(name = "cambios_entidades", indexes = {
+        @Index(name = "idx_cambios_entidades_fecha", columnList = "fecha")
+})
+public class CambioEntidad {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 10)
+    private TipoEntidad tipo;
+
+    @Column(name = "entidad_id", nullable = false)
+    private Long entidadId;
+
+    @Column(nullable = false, length = 64)
+    private String nodo;
+
+    @Column(nullable = false)
+    private Instant fecha;
+
+    public CambioEntidad() {
+    }
+
+    public CambioEntidad(TipoEntidad tipo, Long entidadId, String nodo, Instant fecha) {
+        this.tipo = tipo;
+        this.entidadId = entidadId;
+        this.nodo = nodo;
+        this.fecha = fecha;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public TipoEntidad getTipo() {
+        return tipo;
+    }
+
+    public void setTipo(TipoEntidad tipo) {
+        this.tipo = tipo;
+    }
+
+    public Long getEntidadId() {
+        return entidadId;
+    }
+
+    public void setEntidadId(Long entidadId) {
+        this.entidadId = entidadId;
+    }
+
+    public String getNodo() {
+        return nodo;
+    }
+
+    public void setNodo(String nodo) {
+        this.nodo = nodo;
+    }
+
+    public Instant getFecha() {
+        return fecha;
+    }
+
+    public void setFecha(Instant fecha) {
+        this.fecha = fecha;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        CambioEntidad that = (CambioEntidad) o;
+        return Objects.equals(id, that.id) && tipo == that.tipo && Objects.equals(entidadId, that.entidadId);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id, tipo, entidadId);
+    }
+}
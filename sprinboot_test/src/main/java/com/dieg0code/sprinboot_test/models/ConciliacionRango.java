@@ -0,0 +1,113 @@
+package com.dieg0code.sprinboot_test.models;
+
+import jakarta.persistence.*;
+
+import java.util.Objects;
+
+/**
+ * Progreso de una ejecución de la conciliación: un registro por rango de ids de cuentas.
+ * Al reanudar una ejecución interrumpida solo se procesan los rangos no completados.
+ */
+@Entity
+@Table(name = "conciliacion_rangos", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_conciliacion_rangos_ejecucion_desde", columnNames = {"ejecucion", "desde"})
+})
+public class ConciliacionRango {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, length = 40)
+    private String ejecucion;
+
+    @Column(nullable = false)
+    private Long desde;
+
+    @Column(nullable = false)
+    private Long hasta;
+
+    private boolean completado;
+
+    private long cuentas;
+
+    private long discrepancias;
+
+    public ConciliacionRango() {
+    }
+
+    public ConciliacionRango(String ejecucion, Long desde, Long hasta) {
+        this.ejecucion = ejecucion;
+        this.desde = desde;
+        this.hasta = hasta;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getEjecucion() {
+        return ejecucion;
+    }
+
+    public void setEjecucion(String ejecucion) {
+        this.ejecucion = ejecucion;
+    }
+
+    public Long getDesde() {
+        return desde;
+    }
+
+    public void setDesde(Long desde) {
+        this.desde = desde;
+    }
+
+    public Long getHasta() {
+        return hasta;
+    }
+
+    public void setHasta(Long hasta) {
+        this.hasta = hasta;
+    }
+
+    public boolean isCompletado() {
+        return completado;
+    }
+
+    public void setCompletado(boolean completado) {
+        this.completado = completado;
+    }
+
+    public long getCuentas() {
+        return cuentas;
+    }
+
+    public void setCuentas(long cuentas) {
+        this.cuentas = cuentas;
+    }
+
+    public long getDiscrepancias() {
+        return discrepancias;
+    }
+
+    public void setDiscrepancias(long discrepancias) {
+        this.discrepancias = discrepancias;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        ConciliacionRango that = (ConciliacionRango) o;
+        return Objects.equals(id, that.id) && Objects.equals(ejecucion, that.ejecucion) && Objects.equals(desde, that.desde) && Objects.equals(hasta, that.hasta);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id, ejecucion, desde, hasta);
+    }
+}
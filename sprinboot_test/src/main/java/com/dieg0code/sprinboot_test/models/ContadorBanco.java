@@ -0,0 +1,59 @@
+package com.dieg0code.sprinboot_test.models;
+
+import jakarta.persistence.*;
+
+import java.util.Objects;
+
+/**
+ * Contador de transferencias de un banco. Vive fuera de {@link Banco} porque cambia en cada
+ * transferencia: si fuera una columna de {@code bancos}, cada incremento invalidaría la caché de
+ * segundo nivel del banco.
+ */
+@Entity
+@Table(name = "contadores_bancos")
+public class ContadorBanco {
+
+    @Id
+    @Column(name = "banco_id")
+    private Long bancoId;
+
+    @Column(name = "total_transferencias", nullable = false)
+    private int totalTransferencias;
+
+    public ContadorBanco() {
+    }
+
+    public ContadorBanco(Long bancoId, int totalTransferencias) {
+        this.bancoId = bancoId;
+        this.totalTransferencias = totalTransferencias;
+    }
+
+    public Long getBancoId() {
+        return bancoId;
+    }
+
+    public void setBancoId(Long bancoId) {
+        this.bancoId = bancoId;
+    }
+
+    public int getTotalTransferencias() {
+        return totalTransferencias;
+    }
+
+    public void setTotalTransferencias(int totalTransferencias) {
+        this.totalTransferencias = totalTransferencias;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        ContadorBanco that = (ContadorBanco) o;
+        return totalTransferencias == that.totalTransferencias && Objects.equals(bancoId, that.bancoId);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(bancoId, totalTransferencias);
+    }
+}
@@ -1,14 +1,22 @@
 package com.dieg0code.sprinboot_test.models;
 
 import com.dieg0code.sprinboot_test.exceptions.DineroInsuficienteException;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import jakarta.persistence.*;
+import org.hibernate.annotations.ColumnDefault;
 
 
 import java.math.BigDecimal;
 import java.util.Objects;
 
 @Entity
-@Table(name = "cuentas")
+@Table(name = "cuentas", indexes = {
+        // Cubre las búsquedas por rango de saldo paginadas por (saldo, id) sin volver a la tabla
+        @Index(name = "idx_cuentas_saldo_id", columnList = "saldo, id, nombre")
+}, uniqueConstraints = {
+        @UniqueConstraint(name = "uk_cuentas_nombre", columnNames = "nombre")
+})
 public class Cuenta {
 
         @Id
@@ -17,6 +25,22 @@ public class Cuenta {
         private String nombre;
         private BigDecimal saldo;
 
+        @Column(name = "banco_id")
+        @JsonInclude(JsonInclude.Include.NON_NULL)
+        private Long bancoId;
+
+        // Sube con cada cambio de saldo, siempre con la fila bloqueada: ordena los cambios que llegan
+        // a los oyentes. No es @Version porque las escrituras ya bloquean la fila
+        @JsonIgnore
+        @ColumnDefault("0")
+        @Column(nullable = false)
+        private long version;
+
+        // Movimientos desde el último checkpoint de saldo; null mientras la cuenta no tenga ninguno
+        @JsonIgnore
+        @Column(name = "movimientos_sin_checkpoint")
+        private Integer movimientosSinCheckpoint;
+
     public Cuenta() {
     }
 
@@ -50,16 +74,45 @@ public class Cuenta {
         this.saldo = saldo;
     }
 
+    public Long getBancoId() {
+        return bancoId;
+    }
+
+    public void setBancoId(Long bancoId) {
+        this.bancoId = bancoId;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public void setVersion(long version) {
+        this.version = version;
+    }
+
+    public Integer getMovimientosSinCheckpoint() {
+        return movimientosSinCheckpoint;
+    }
+
+    public void setMovimientosSinCheckpoint(Integer movimientosSinCheckpoint) {
+        this.movimientosSinCheckpoint = movimientosSinCheckpoint;
+    }
+
+    public boolean puedeDebitar(BigDecimal monto){
+        return this.saldo.compareTo(monto) >= 0;
+    }
+
     public void debito(BigDecimal monto){
-        BigDecimal nuevoSaldo = this.saldo.subtract(monto);
-        if(nuevoSaldo.compareTo(BigDecimal.ZERO) < 0){
-            throw new DineroInsuficienteException("Dinero insuficiente");
+        if(!puedeDebitar(monto)){
+            throw DineroInsuficienteException.INSTANCIA;
         }
-        this.saldo = nuevoSaldo;
+        this.saldo = this.saldo.subtract(monto);
+        this.version++;
     }
 
     public void credito(BigDecimal monto){
         this.saldo = this.saldo.add(monto);
+        this.version++;
     }
 
     @Override
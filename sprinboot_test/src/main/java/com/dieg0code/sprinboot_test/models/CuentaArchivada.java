@@ -0,0 +1,84 @@
+package com.dieg0code.sprinboot_test.models;
+
+import jakarta.persistence.*;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Objects;
+
+/**
+ * Copia de una cuenta eliminada de {@code cuentas}, ya sea porque se cerró o porque quedó inactiva.
+ * Tiene su propio id: el de la cuenta puede repetirse si se archiva, se restaura desde una
+ * instantánea y se vuelve a archivar.
+ */
+@Entity
+@Table(name = "cuentas_archivadas", indexes = {
+        @Index(name = "idx_cuentas_archivadas_cuenta", columnList = "cuenta_id")
+})
+public class CuentaArchivada {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "cuenta_id", nullable = false)
+    private Long cuentaId;
+
+    private String nombre;
+
+    private BigDecimal saldo;
+
+    @Column(name = "banco_id")
+    private Long bancoId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 10)
+    private MotivoArchivo motivo;
+
+    @Column(nullable = false)
+    private Instant archivada;
+
+    public CuentaArchivada() {
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public Long getCuentaId() {
+        return cuentaId;
+    }
+
+    public String getNombre() {
+        return nombre;
+    }
+
+    public BigDecimal getSaldo() {
+        return saldo;
+    }
+
+    public Long getBancoId() {
+        return bancoId;
+    }
+
+    public MotivoArchivo getMotivo() {
+        return motivo;
+    }
+
+    public Instant getArchivada() {
+        return archivada;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        CuentaArchivada that = (CuentaArchivada) o;
+        return Objects.equals(id, that.id) && Objects.equals(cuentaId, that.cuentaId);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id, cuentaId);
+    }
+}
@@ -0,0 +1,6 @@
+package com.dieg0code.sprinboot_test.models;
+
+import java.math.BigDecimal;
+
+public record CuentaDTO(Long id, String nombre, BigDecimal saldo) {
+}
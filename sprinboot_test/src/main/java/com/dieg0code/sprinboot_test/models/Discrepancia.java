@@ -0,0 +1,12 @@
+package com.dieg0code.sprinboot_test.models;
+
+import java.math.BigDecimal;
+
+/**
+ * Diferencia encontrada por la conciliación. {@code tipo} es CUENTA (saldo distinto al que resulta
+ * de sus movimientos), BANCO (contador de transferencias distinto a las registradas), SALDO (el
+ * saldo total del resumen de un banco distinto a la suma de sus cuentas) o CONSERVACION (los
+ * débitos y créditos de transferencias no suman cero).
+ */
+public record Discrepancia(String tipo, Long id, BigDecimal esperado, BigDecimal actual) {
+}
@@ -0,0 +1,23 @@
+package com.dieg0code.sprinboot_test.models;
+
+import com.dieg0code.sprinboot_test.exceptions.DineroInsuficienteException;
+import com.dieg0code.sprinboot_test.exceptions.LimiteVelocidadExcedidoException;
+import com.dieg0code.sprinboot_test.exceptions.RecursoNoEncontradoException;
+import com.dieg0code.sprinboot_test.exceptions.SolicitudInvalidaException;
+
+public enum ErrorCuenta {
+    CUENTA_NO_ENCONTRADA,
+    BANCO_NO_ENCONTRADO,
+    DINERO_INSUFICIENTE,
+    LIMITE_VELOCIDAD,
+    DATOS_INVALIDOS;
+
+    public RuntimeException excepcion(String mensaje) {
+        return switch (this) {
+            case CUENTA_NO_ENCONTRADA, BANCO_NO_ENCONTRADO -> new RecursoNoEncontradoException(mensaje);
+            case DINERO_INSUFICIENTE -> DineroInsuficienteException.INSTANCIA;
+            case LIMITE_VELOCIDAD -> new LimiteVelocidadExcedidoException(mensaje);
+            case DATOS_INVALIDOS -> new SolicitudInvalidaException(mensaje);
+        };
+    }
+}
@@ -0,0 +1,8 @@
+package com.dieg0code.sprinboot_test.models;
+
+public enum EstadoTransferenciaProgramada {
+    PENDIENTE,
+    COMPLETADA,
+    FALLIDA,
+    CANCELADA
+}
@@ -0,0 +1,108 @@
+package com.dieg0code.sprinboot_test.models;
+
+import jakarta.persistence.*;
+
+import java.time.Instant;
+import java.util.Objects;
+
+/**
+ * Evento pendiente de publicar, escrito en la misma transacción que el cambio que lo origina. El
+ * relay lo reclama con un arriendo ({@code arrendatario}, {@code arriendoHasta}) y lo borra una vez
+ * publicado; si el relay cae, el arriendo vence y otro lo vuelve a tomar.
+ */
+@Entity
+@Table(name = "outbox_eventos", indexes = {
+        @Index(name = "idx_outbox_eventos_arriendo", columnList = "arriendo_hasta, id"),
+        @Index(name = "idx_outbox_eventos_arrendatario", columnList = "arrendatario")
+})
+public class EventoOutbox {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, length = 64)
+    private String tipo;
+
+    @Column(nullable = false, length = 2000)
+    private String payload;
+
+    @Column(nullable = false)
+    private Instant creado;
+
+    @Column(length = 96)
+    private String arrendatario;
+
+    @Column(name = "arriendo_hasta")
+    private Instant arriendoHasta;
+
+    public EventoOutbox() {
+    }
+
+    public EventoOutbox(String tipo, String payload, Instant creado) {
+        this.tipo = tipo;
+        this.payload = payload;
+        this.creado = creado;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getTipo() {
+        return tipo;
+    }
+
+    public void setTipo(String tipo) {
+        this.tipo = tipo;
+    }
+
+    public String getPayload() {
+        return payload;
+    }
+
+    public void setPayload(String payload) {
+        this.payload = payload;
+    }
+
+    public Instant getCreado() {
+        return creado;
+    }
+
+    public void setCreado(Instant creado) {
+        this.creado = creado;
+    }
+
+    public String getArrendatario() {
+        return arrendatario;
+    }
+
+    public void setArrendatario(String arrendatario) {
+        this.arrendatario = arrendatario;
+    }
+
+    public Instant getArriendoHasta() {
+        return arriendoHasta;
+    }
+
+    public void setArriendoHasta(Instant arriendoHasta) {
+        this.arriendoHasta = arriendoHasta;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        EventoOutbox that = (EventoOutbox) o;
+        return Objects.equals(id, that.id) && Objects.equals(tipo, that.tipo) && Objects.equals(payload, that.payload);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id, tipo, payload);
+    }
+}
@@ -0,0 +1,23 @@
+package com.dieg0code.sprinboot_test.models;
+
+import java.time.Instant;
+import java.time.ZoneOffset;
+
+public enum FrecuenciaTransferencia {
+    UNICA,
+    DIARIA,
+    SEMANAL,
+    MENSUAL;
+
+    /**
+     * Retorna la ejecución siguiente a {@code fecha}, o {@code null} si la transferencia no se repite.
+     */
+    public Instant siguiente(Instant fecha) {
+        return switch (this) {
+            case UNICA -> null;
+            case DIARIA -> fecha.atZone(ZoneOffset.UTC).plusDays(1).toInstant();
+            case SEMANAL -> fecha.atZone(ZoneOffset.UTC).plusWeeks(1).toInstant();
+            case MENSUAL -> fecha.atZone(ZoneOffset.UTC).plusMonths(1).toInstant();
+        };
+    }
+}
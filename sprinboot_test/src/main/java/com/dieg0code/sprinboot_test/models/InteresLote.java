@@ -0,0 +1,98 @@
+package com.dieg0code.sprinboot_test.models;
+
+import jakarta.persistence.*;
+
+import java.math.BigDecimal;
+import java.util.Objects;
+
+/**
+ * Lote de cuentas [desde, hasta] al que ya se le abonó el interés del periodo. Se inserta en la
+ * misma transacción que los abonos, así al reiniciar el job ningún lote se aplica dos veces.
+ */
+@Entity
+@Table(name = "interes_lotes", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_interes_lotes_periodo_desde", columnNames = {"periodo", "desde"})
+})
+public class InteresLote {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, length = 7)
+    private String periodo;
+
+    @Column(nullable = false)
+    private Long desde;
+
+    @Column(nullable = false)
+    private Long hasta;
+
+    private int cuentas;
+
+    private BigDecimal total;
+
+    public InteresLote() {
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getPeriodo() {
+        return periodo;
+    }
+
+    public void setPeriodo(String periodo) {
+        this.periodo = periodo;
+    }
+
+    public Long getDesde() {
+        return desde;
+    }
+
+    public void setDesde(Long desde) {
+        this.desde = desde;
+    }
+
+    public Long getHasta() {
+        return hasta;
+    }
+
+    public void setHasta(Long hasta) {
+        this.hasta = hasta;
+    }
+
+    public int getCuentas() {
+        return cuentas;
+    }
+
+    public void setCuentas(int cuentas) {
+        this.cuentas = cuentas;
+    }
+
+    public BigDecimal getTotal() {
+        return total;
+    }
+
+    public void setTotal(BigDecimal total) {
+        this.total = total;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        InteresLote that = (InteresLote) o;
+        return Objects.equals(id, that.id) && Objects.equals(periodo, that.periodo) && Objects.equals(desde, that.desde) && Objects.equals(hasta, that.hasta);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id, periodo, desde, hasta);
+    }
+}
@@ -0,0 +1,6 @@
+package com.dieg0code.sprinboot_test.models;
+
+public enum MotivoArchivo {
+    CERRADA,
+    INACTIVA
+}
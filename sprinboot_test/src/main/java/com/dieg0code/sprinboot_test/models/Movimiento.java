@@ -0,0 +1,127 @@
+package com.dieg0code.sprinboot_test.models;
+
+import jakarta.persistence.*;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Objects;
+
+/**
+ * Asiento de una transferencia en el historial de una cuenta. Cada transferencia genera dos:
+ * un débito (monto negativo) en la cuenta origen y un crédito en la cuenta destino.
+ * Los intereses y los cambios de saldo hechos al editar la cuenta quedan como un solo asiento
+ * sin contraparte ni banco.
+ * <p>
+ * El índice incluye todas las columnas que devuelve el historial, así una página se resuelve
+ * recorriendo solo el índice a partir de la posición (cuenta_id, fecha, id) del cursor.
+ */
+@Entity
+@Table(name = "movimientos", indexes = {
+        @Index(name = "idx_movimientos_cuenta_fecha_id", columnList = "cuenta_id, fecha, id, tipo, monto, contraparte_id, banco_id")
+})
+public class Movimiento {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "cuenta_id", nullable = false)
+    private Long cuentaId;
+
+    @Column(name = "contraparte_id")
+    private Long contraparteId;
+
+    @Column(name = "banco_id")
+    private Long bancoId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 10)
+    private TipoMovimiento tipo;
+
+    @Column(nullable = false)
+    private BigDecimal monto;
+
+    @Column(nullable = false)
+    private Instant fecha;
+
+    public Movimiento() {
+    }
+
+    public Movimiento(Long cuentaId, Long contraparteId, Long bancoId, TipoMovimiento tipo, BigDecimal monto, Instant fecha) {
+        this.cuentaId = cuentaId;
+        this.contraparteId = contraparteId;
+        this.bancoId = bancoId;
+        this.tipo = tipo;
+        this.monto = monto;
+        this.fecha = fecha;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getCuentaId() {
+        return cuentaId;
+    }
+
+    public void setCuentaId(Long cuentaId) {
+        this.cuentaId = cuentaId;
+    }
+
+    public Long getContraparteId() {
+        return contraparteId;
+    }
+
+    public void setContraparteId(Long contraparteId) {
+        this.contraparteId = contraparteId;
+    }
+
+    public Long getBancoId() {
+        return bancoId;
+    }
+
+    public void setBancoId(Long bancoId) {
+        this.bancoId = bancoId;
+    }
+
+    public TipoMovimiento getTipo() {
+        return tipo;
+    }
+
+    public void setTipo(TipoMovimiento tipo) {
+        this.tipo = tipo;
+    }
+
+    public BigDecimal getMonto() {
+        return monto;
+    }
+
+    public void setMonto(BigDecimal monto) {
+        this.monto = monto;
+    }
+
+    public Instant getFecha() {
+        return fecha;
+    }
+
+    public void setFecha(Instant fecha) {
+        this.fecha = fecha;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        Movimiento that = (Movimiento) o;
+        return Objects.equals(id, that.id) && Objects.equals(cuentaId, that.cuentaId) && tipo == that.tipo && Objects.equals(monto, that.monto) && Objects.equals(fecha, that.fecha);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id, cuentaId, tipo, monto, fecha);
+    }
+}
@@ -0,0 +1,7 @@
+package com.dieg0code.sprinboot_test.models;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+public record MovimientoDTO(Long id, TipoMovimiento tipo, Long contraparteId, Long bancoId, BigDecimal monto, Instant fecha) {
+}
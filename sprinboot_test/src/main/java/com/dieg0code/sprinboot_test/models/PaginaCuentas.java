@@ -0,0 +1,10 @@
+package com.dieg0code.sprinboot_test.models;
+
+import java.util.List;
+
+/**
+ * Página de cuentas ordenadas por saldo. {@code siguiente} es el cursor a enviar para pedir la
+ * página siguiente, o {@code null} si ya no hay más cuentas en el rango.
+ */
+public record PaginaCuentas(List<CuentaDTO> cuentas, String siguiente) {
+}
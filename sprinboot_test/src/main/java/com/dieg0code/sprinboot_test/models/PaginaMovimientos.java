@@ -0,0 +1,10 @@
+package com.dieg0code.sprinboot_test.models;
+
+import java.util.List;
+
+/**
+ * Página del historial de una cuenta. {@code siguiente} es el cursor a enviar para pedir la
+ * página siguiente, o {@code null} si ya no hay más movimientos.
+ */
+public record PaginaMovimientos(List<MovimientoDTO> movimientos, String siguiente) {
+}
@@ -0,0 +1,67 @@
+package com.dieg0code.sprinboot_test.models;
+
+import jakarta.persistence.*;
+
+import java.time.Instant;
+import java.util.Objects;
+
+/**
+ * Partición de las transferencias programadas y la instancia que la procesa. La propiedad se
+ * toma con un UPDATE condicional y vence en {@code expira} si el dueño deja de renovarla.
+ */
+@Entity
+@Table(name = "particiones_programadas")
+public class ParticionProgramada {
+
+    @Id
+    private Integer particion;
+
+    @Column(length = 64)
+    private String propietario;
+
+    private Instant expira;
+
+    public ParticionProgramada() {
+    }
+
+    public ParticionProgramada(Integer particion) {
+        this.particion = particion;
+    }
+
+    public Integer getParticion() {
+        return particion;
+    }
+
+    public void setParticion(Integer particion) {
+        this.particion = particion;
+    }
+
+    public String getPropietario() {
+        return propietario;
+    }
+
+    public void setPropietario(String propietario) {
+        this.propietario = propietario;
+    }
+
+    public Instant getExpira() {
+        return expira;
+    }
+
+    public void setExpira(Instant expira) {
+        this.expira = expira;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        ParticionProgramada that = (ParticionProgramada) o;
+        return Objects.equals(particion, that.particion) && Objects.equals(propietario, that.propietario) && Objects.equals(expira, that.expira);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(particion, propietario, expira);
+    }
+}
@@ -0,0 +1,15 @@
+package com.dieg0code.sprinboot_test.models;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+public record ReporteConciliacion(String ejecucion,
+                                  int rangos,
+                                  int rangosProcesados,
+                                  long cuentas,
+                                  BigDecimal saldoTotal,
+                                  long totalDiscrepancias,
+                                  List<Discrepancia> discrepancias,
+                                  long duracionMs,
+                                  double cuentasPorSegundo) {
+}
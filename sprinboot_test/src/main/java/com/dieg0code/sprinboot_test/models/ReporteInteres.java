@@ -0,0 +1,11 @@
+package com.dieg0code.sprinboot_test.models;
+
+import java.math.BigDecimal;
+
+public record ReporteInteres(String periodo,
+                             int lotes,
+                             long cuentas,
+                             BigDecimal totalInteres,
+                             long duracionMs,
+                             double cuentasPorSegundo) {
+}
@@ -0,0 +1,33 @@
+package com.dieg0code.sprinboot_test.models;
+
+/**
+ * Resultado de una operación que puede fallar por una regla de negocio. Los errores esperados
+ * (cuenta inexistente, dinero insuficiente, etc.) se devuelven como {@link Fallo} en lugar de
+ * lanzar una excepción.
+ */
+public sealed interface Resultado<T> {
+
+    record Exito<T>(T valor) implements Resultado<T> {
+    }
+
+    record Fallo<T>(ErrorCuenta error, String mensaje) implements Resultado<T> {
+    }
+
+    static <T> Resultado<T> exito(T valor) {
+        return new Exito<>(valor);
+    }
+
+    static <T> Resultado<T> fallo(ErrorCuenta error, String mensaje) {
+        return new Fallo<>(error, mensaje);
+    }
+
+    /**
+     * @return el valor, o lanza la excepción que corresponde al error
+     */
+    default T obtener() {
+        if (this instanceof Fallo<T> fallo) {
+            throw fallo.error().excepcion(fallo.mensaje());
+        }
+        return ((Exito<T>) this).valor();
+    }
+}
@@ -0,0 +1,80 @@
+package com.dieg0code.sprinboot_test.models;
+
+import jakarta.persistence.*;
+
+import java.math.BigDecimal;
+import java.util.Objects;
+
+/**
+ * Totales de un banco que se mantienen con deltas en la misma transacción que los cambios de
+ * cuentas y transferencias, para no calcularlos con SUM sobre toda la tabla.
+ */
+@Entity
+@Table(name = "resumen_bancos")
+public class ResumenBanco {
+
+    @Id
+    @Column(name = "banco_id")
+    private Long bancoId;
+
+    private long cuentas;
+
+    @Column(name = "saldo_total", nullable = false)
+    private BigDecimal saldoTotal;
+
+    private long transferencias;
+
+    @Column(nullable = false)
+    private BigDecimal volumen;
+
+    public ResumenBanco() {
+    }
+
+    public ResumenBanco(Long bancoId, long cuentas, BigDecimal saldoTotal, long transferencias, BigDecimal volumen) {
+        this.bancoId = bancoId;
+        this.cuentas = cuentas;
+        this.saldoTotal = saldoTotal;
+        this.transferencias = transferencias;
+        this.volumen = volumen;
+    }
+
+    public Long getBancoId() {
+        return bancoId;
+    }
+
+    public long getCuentas() {
+        return cuentas;
+    }
+
+    public BigDecimal getSaldoTotal() {
+        return saldoTotal;
+    }
+
+    public long getTransferencias() {
+        return transferencias;
+    }
+
+    public BigDecimal getVolumen() {
+        return volumen;
+    }
+
+    public void reemplazar(long cuentas, BigDecimal saldoTotal, long transferencias, BigDecimal volumen) {
+        this.cuentas = cuentas;
+        this.saldoTotal = saldoTotal;
+        this.transferencias = transferencias;
+        this.volumen = volumen;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        ResumenBanco that = (ResumenBanco) o;
+        return cuentas == that.cuentas && transferencias == that.transferencias && Objects.equals(bancoId, that.bancoId) && Objects.equals(saldoTotal, that.saldoTotal) && Objects.equals(volumen, that.volumen);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(bancoId, cuentas, saldoTotal, transferencias, volumen);
+    }
+}
@@ -0,0 +1,7 @@
+package com.dieg0code.sprinboot_test.models;
+
+public record ResumenInstantanea(long cuentas,
+                                 long bancos,
+                                 long bytes,
+                                 long duracionMs) {
+}
@@ -0,0 +1,97 @@
+package com.dieg0code.sprinboot_test.models;
+
+import jakarta.persistence.*;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Objects;
+
+/**
+ * Saldo de una cuenta justo después del movimiento {@code movimientoId}. El primer checkpoint de
+ * cada cuenta tiene {@code movimientoId = 0} y guarda el saldo previo a su primer movimiento.
+ */
+@Entity
+@Table(name = "saldo_checkpoints", indexes = {
+        @Index(name = "idx_saldo_checkpoints_cuenta_fecha", columnList = "cuenta_id, fecha, id")
+})
+public class SaldoCheckpoint {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "cuenta_id", nullable = false)
+    private Long cuentaId;
+
+    @Column(name = "movimiento_id", nullable = false)
+    private Long movimientoId;
+
+    @Column(nullable = false)
+    private Instant fecha;
+
+    @Column(nullable = false)
+    private BigDecimal saldo;
+
+    public SaldoCheckpoint() {
+    }
+
+    public SaldoCheckpoint(Long cuentaId, Long movimientoId, Instant fecha, BigDecimal saldo) {
+        this.cuentaId = cuentaId;
+        this.movimientoId = movimientoId;
+        this.fecha = fecha;
+        this.saldo = saldo;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getCuentaId() {
+        return cuentaId;
+    }
+
+    public void setCuentaId(Long cuentaId) {
+        this.cuentaId = cuentaId;
+    }
+
+    public Long getMovimientoId() {
+        return movimientoId;
+    }
+
+    public void setMovimientoId(Long movimientoId) {
+        this.movimientoId = movimientoId;
+    }
+
+    public Instant getFecha() {
+        return fecha;
+    }
+
+    public void setFecha(Instant fecha) {
+        this.fecha = fecha;
+    }
+
+    public BigDecimal getSaldo() {
+        return saldo;
+    }
+
+    public void setSaldo(BigDecimal saldo) {
+        this.saldo = saldo;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        SaldoCheckpoint that = (SaldoCheckpoint) o;
+        return Objects.equals(id, that.id) && Objects.equals(cuentaId, that.cuentaId) && Objects.equals(movimientoId, that.movimientoId) && Objects.equals(fecha, that.fecha) && Objects.equals(saldo, that.saldo);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id, cuentaId, movimientoId, fecha, saldo);
+    }
+}
@@ -0,0 +1,10 @@
+package com.dieg0code.sprinboot_test.models;
+
+import java.math.BigDecimal;
+
+/**
+ * Saldo de una cuenta junto con su {@code version}: de dos lecturas de la misma cuenta, la de mayor
+ * versión es la más reciente.
+ */
+public record SaldoVersionDTO(Long id, BigDecimal saldo, long version) {
+}
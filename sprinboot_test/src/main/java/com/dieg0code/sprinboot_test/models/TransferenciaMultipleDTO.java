@@ -0,0 +1,34 @@
+package com.dieg0code.sprinboot_test.models;
+
+import java.math.BigDecimal;
+import java.util.Map;
+
+public class TransferenciaMultipleDTO {
+    private Long cuentaOrigenId;
+    private Map<Long, BigDecimal> destinos;
+    private Long bancoId;
+
+    public Long getCuentaOrigenId() {
+        return cuentaOrigenId;
+    }
+
+    public void setCuentaOrigenId(Long cuentaOrigenId) {
+        this.cuentaOrigenId = cuentaOrigenId;
+    }
+
+    public Map<Long, BigDecimal> getDestinos() {
+        return destinos;
+    }
+
+    public void setDestinos(Map<Long, BigDecimal> destinos) {
+        this.destinos = destinos;
+    }
+
+    public Long getBancoId() {
+        return bancoId;
+    }
+
+    public void setBancoId(Long bancoId) {
+        this.bancoId = bancoId;
+    }
+}
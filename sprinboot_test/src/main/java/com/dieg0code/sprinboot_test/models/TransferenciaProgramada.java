@@ -0,0 +1,177 @@
+package com.dieg0code.sprinboot_test.models;
+
+import jakarta.persistence.*;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Objects;
+
+@Entity
+@Table(name = "transferencias_programadas", indexes = {
+        @Index(name = "idx_transferencias_programadas_vencidas", columnList = "estado, particion, proxima_ejecucion, id")
+})
+public class TransferenciaProgramada {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "cuenta_origen_id", nullable = false)
+    private Long cuentaOrigenId;
+
+    @Column(name = "cuenta_destino_id", nullable = false)
+    private Long cuentaDestinoId;
+
+    @Column(name = "banco_id", nullable = false)
+    private Long bancoId;
+
+    @Column(nullable = false)
+    private BigDecimal monto;
+
+    @Column(name = "proxima_ejecucion", nullable = false)
+    private Instant proximaEjecucion;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 10)
+    private FrecuenciaTransferencia frecuencia;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 10)
+    private EstadoTransferenciaProgramada estado;
+
+    @Column(nullable = false)
+    private int particion;
+
+    private int ejecuciones;
+
+    @Column(name = "ultimo_error")
+    private String ultimoError;
+
+    // Evita que dos instancias ejecuten la misma ocurrencia si una perdió su partición a mitad de camino
+    @Version
+    private Long version;
+
+    public TransferenciaProgramada() {
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getCuentaOrigenId() {
+        return cuentaOrigenId;
+    }
+
+    public void setCuentaOrigenId(Long cuentaOrigenId) {
+        this.cuentaOrigenId = cuentaOrigenId;
+    }
+
+    public Long getCuentaDestinoId() {
+        return cuentaDestinoId;
+    }
+
+    public void setCuentaDestinoId(Long cuentaDestinoId) {
+        this.cuentaDestinoId = cuentaDestinoId;
+    }
+
+    public Long getBancoId() {
+        return bancoId;
+    }
+
+    public void setBancoId(Long bancoId) {
+        this.bancoId = bancoId;
+    }
+
+    public BigDecimal getMonto() {
+        return monto;
+    }
+
+    public void setMonto(BigDecimal monto) {
+        this.monto = monto;
+    }
+
+    public Instant getProximaEjecucion() {
+        return proximaEjecucion;
+    }
+
+    public void setProximaEjecucion(Instant proximaEjecucion) {
+        this.proximaEjecucion = proximaEjecucion;
+    }
+
+    public FrecuenciaTransferencia getFrecuencia() {
+        return frecuencia;
+    }
+
+    public void setFrecuencia(FrecuenciaTransferencia frecuencia) {
+        this.frecuencia = frecuencia;
+    }
+
+    public EstadoTransferenciaProgramada getEstado() {
+        return estado;
+    }
+
+    public void setEstado(EstadoTransferenciaProgramada estado) {
+        this.estado = estado;
+    }
+
+    public int getParticion() {
+        return particion;
+    }
+
+    public void setParticion(int particion) {
+        this.particion = particion;
+    }
+
+    public int getEjecuciones() {
+        return ejecuciones;
+    }
+
+    public void setEjecuciones(int ejecuciones) {
+        this.ejecuciones = ejecuciones;
+    }
+
+    public String getUltimoError() {
+        return ultimoError;
+    }
+
+    public void setUltimoError(String ultimoError) {
+        this.ultimoError = ultimoError;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
+    /**
+     * Avanza a la siguiente ocurrencia, o deja la transferencia en {@code estadoFinal} si no se repite.
+     */
+    public void avanzar(EstadoTransferenciaProgramada estadoFinal) {
+        Instant siguiente = frecuencia.siguiente(proximaEjecucion);
+        if (siguiente == null) {
+            estado = estadoFinal;
+        } else {
+            proximaEjecucion = siguiente;
+        }
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        TransferenciaProgramada that = (TransferenciaProgramada) o;
+        return Objects.equals(id, that.id) && Objects.equals(cuentaOrigenId, that.cuentaOrigenId) && Objects.equals(cuentaDestinoId, that.cuentaDestinoId) && Objects.equals(monto, that.monto) && Objects.equals(proximaEjecucion, that.proximaEjecucion);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id, cuentaOrigenId, cuentaDestinoId, monto, proximaEjecucion);
+    }
+}
@@ -3,8 +3,6 @@ package com.dieg0code.sprinboot_test.repositories;
 import com.dieg0code.sprinboot_test.models.Banco;
 import org.springframework.data.jpa.repository.JpaRepository;
 
-import java.util.List;
-
 public interface BancoRepository extends JpaRepository<Banco, Long> {
     //List<Banco> findAll();
     //Banco findById(Long id);
@@ -0,0 +1,29 @@
+package com.dieg0code.sprinboot_test.repositories;
+
+import com.dieg0code.sprinboot_test.models.CambioEntidad;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+public interface CambioEntidadRepository extends JpaRepository<CambioEntidad, Long> {
+
+    @Query("SELECT c FROM CambioEntidad c WHERE c.id > ?1 ORDER BY c.id")
+    List<CambioEntidad> findDespues(Long id, Pageable pageable);
+
+    @Query("SELECT c FROM CambioEntidad c WHERE c.id IN ?1 ORDER BY c.id")
+    List<CambioEntidad> findByIdIn(Collection<Long> ids);
+
+    @Query("SELECT COALESCE(MAX(c.id), 0) FROM CambioEntidad c")
+    long findUltimoId();
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM CambioEntidad c WHERE c.fecha < ?1")
+    int eliminarAnteriores(Instant fecha);
+}
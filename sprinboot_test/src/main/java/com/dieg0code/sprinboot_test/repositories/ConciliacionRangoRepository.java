@@ -0,0 +1,10 @@
+package com.dieg0code.sprinboot_test.repositories;
+
+import com.dieg0code.sprinboot_test.models.ConciliacionRango;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.List;
+
+public interface ConciliacionRangoRepository extends JpaRepository<ConciliacionRango, Long> {
+    List<ConciliacionRango> findByEjecucionOrderByDesde(String ejecucion);
+}
@@ -0,0 +1,19 @@
+package com.dieg0code.sprinboot_test.repositories;
+
+import com.dieg0code.sprinboot_test.models.ContadorBanco;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.Optional;
+
+public interface ContadorBancoRepository extends JpaRepository<ContadorBanco, Long> {
+
+    // El incremento se hace en la base de datos: dos transferencias concurrentes no se pisan
+    @Modifying
+    @Query("UPDATE ContadorBanco c SET c.totalTransferencias = c.totalTransferencias + ?2 WHERE c.bancoId = ?1")
+    int sumarTransferencias(Long bancoId, int transferencias);
+
+    @Query("SELECT c.totalTransferencias FROM ContadorBanco c WHERE c.bancoId = ?1")
+    Optional<Integer> findTotalTransferenciasById(Long bancoId);
+}
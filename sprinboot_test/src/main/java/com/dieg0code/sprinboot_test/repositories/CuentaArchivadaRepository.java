@@ -0,0 +1,13 @@
+package com.dieg0code.sprinboot_test.repositories;
+
+import com.dieg0code.sprinboot_test.models.CuentaArchivada;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.List;
+
+public interface CuentaArchivadaRepository extends JpaRepository<CuentaArchivada, Long> {
+
+    @Query("SELECT a FROM CuentaArchivada a WHERE a.cuentaId = ?1 ORDER BY a.archivada")
+    List<CuentaArchivada> findByCuentaId(Long cuentaId);
+}
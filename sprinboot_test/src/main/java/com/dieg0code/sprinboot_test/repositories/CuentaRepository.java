@@ -1,13 +1,67 @@
 package com.dieg0code.sprinboot_test.repositories;
 
 import com.dieg0code.sprinboot_test.models.Cuenta;
+import com.dieg0code.sprinboot_test.models.CuentaDTO;
+import com.dieg0code.sprinboot_test.models.SaldoDTO;
+import com.dieg0code.sprinboot_test.models.SaldoVersionDTO;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 
+import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 public interface CuentaRepository extends JpaRepository<Cuenta, Long> {
     @Query("SELECT c FROM Cuenta c WHERE c.nombre = ?1")
     Optional<Cuenta> findByNombre(String nombre);
+
+    // Solo lee (id, saldo): no carga entidades en el contexto de persistencia
+    @Query("SELECT new com.dieg0code.sprinboot_test.models.SaldoDTO(c.id, c.saldo) FROM Cuenta c WHERE c.id IN ?1")
+    List<SaldoDTO> findSaldosByIdIn(Collection<Long> ids);
+
+    @Query("SELECT new com.dieg0code.sprinboot_test.models.SaldoVersionDTO(c.id, c.saldo, c.version) FROM Cuenta c WHERE c.id IN ?1")
+    List<SaldoVersionDTO> findSaldosVersionadosByIdIn(Collection<Long> ids);
+
+    @Query("SELECT c.saldo FROM Cuenta c WHERE c.id = ?1")
+    Optional<BigDecimal> findSaldoById(Long id);
+
+    @Query("SELECT new com.dieg0code.sprinboot_test.models.CuentaDTO(c.id, c.nombre, c.saldo) FROM Cuenta c WHERE c.id = ?1")
+    Optional<CuentaDTO> findDTOById(Long id);
+
+    @Query("SELECT new com.dieg0code.sprinboot_test.models.CuentaDTO(c.id, c.nombre, c.saldo) FROM Cuenta c ORDER BY c.id")
+    List<CuentaDTO> findAllDTO();
+
+    @Query("SELECT new com.dieg0code.sprinboot_test.models.SaldoDTO(c.id, c.saldo) FROM Cuenta c ORDER BY c.saldo DESC, c.id")
+    List<SaldoDTO> findTop(Pageable pageable);
+
+    // Rangos de saldo paginados por cursor (saldo, id) sobre idx_cuentas_saldo_id: desde <= saldo < hasta
+    @Query("SELECT new com.dieg0code.sprinboot_test.models.CuentaDTO(c.id, c.nombre, c.saldo) FROM Cuenta c " +
+            "WHERE c.saldo >= ?1 AND c.saldo < ?2 ORDER BY c.saldo, c.id")
+    List<CuentaDTO> findPorSaldo(BigDecimal desde, BigDecimal hasta, Pageable pageable);
+
+    @Query("SELECT new com.dieg0code.sprinboot_test.models.CuentaDTO(c.id, c.nombre, c.saldo) FROM Cuenta c " +
+            "WHERE c.saldo >= ?1 AND c.saldo < ?2 AND (c.saldo > ?3 OR (c.saldo = ?3 AND c.id > ?4)) ORDER BY c.saldo, c.id")
+    List<CuentaDTO> findPorSaldoDespues(BigDecimal desde, BigDecimal hasta, BigDecimal saldo, Long id, Pageable pageable);
+
+    @Query("SELECT new com.dieg0code.sprinboot_test.models.CuentaDTO(c.id, c.nombre, c.saldo) FROM Cuenta c " +
+            "WHERE c.saldo < ?1 ORDER BY c.saldo, c.id")
+    List<CuentaDTO> findBajoUmbral(BigDecimal hasta, Pageable pageable);
+
+    @Query("SELECT new com.dieg0code.sprinboot_test.models.CuentaDTO(c.id, c.nombre, c.saldo) FROM Cuenta c " +
+            "WHERE c.saldo < ?1 AND (c.saldo > ?2 OR (c.saldo = ?2 AND c.id > ?3)) ORDER BY c.saldo, c.id")
+    List<CuentaDTO> findBajoUmbralDespues(BigDecimal hasta, BigDecimal saldo, Long id, Pageable pageable);
+
+    // Las filas se bloquean en orden de id: dos operaciones que comparten cuentas no pueden bloquearse mutuamente
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT c FROM Cuenta c WHERE c.id IN ?1 ORDER BY c.id")
+    List<Cuenta> bloquearEnOrden(Collection<Long> ids);
+
+    long countByBancoId(Long bancoId);
+
+    @Query("SELECT COALESCE(SUM(c.saldo), 0) FROM Cuenta c WHERE c.bancoId = ?1")
+    BigDecimal sumarSaldosPorBanco(Long bancoId);
 }
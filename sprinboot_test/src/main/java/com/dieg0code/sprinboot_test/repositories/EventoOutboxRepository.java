@@ -0,0 +1,32 @@
+package com.dieg0code.sprinboot_test.repositories;
+
+import com.dieg0code.sprinboot_test.models.EventoOutbox;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+public interface EventoOutboxRepository extends JpaRepository<EventoOutbox, Long> {
+
+    // Candidatos sin arriendo vigente, los más antiguos primero (sobre idx_outbox_eventos_arriendo)
+    @Query("SELECT e.id FROM EventoOutbox e WHERE e.arriendoHasta IS NULL OR e.arriendoHasta < ?1 ORDER BY e.id")
+    List<Long> findIdsDisponibles(Instant ahora, Pageable pageable);
+
+    // Solo toma los candidatos que nadie reclamó entre la lectura y el UPDATE; retorna cuántos quedaron propios
+    @Modifying
+    @Query("UPDATE EventoOutbox e SET e.arrendatario = ?1, e.arriendoHasta = ?2 " +
+            "WHERE e.id IN ?3 AND (e.arriendoHasta IS NULL OR e.arriendoHasta < ?4)")
+    int reclamar(String arrendatario, Instant hasta, Collection<Long> ids, Instant ahora);
+
+    @Query("SELECT e FROM EventoOutbox e WHERE e.arrendatario = ?1 ORDER BY e.id")
+    List<EventoOutbox> findReclamados(String arrendatario);
+
+    // Un solo DELETE por lote; si el arriendo venció y otro relay lo reclamó, sus filas no se tocan
+    @Modifying
+    @Query("DELETE FROM EventoOutbox e WHERE e.arrendatario = ?1")
+    int eliminarReclamados(String arrendatario);
+}
@@ -0,0 +1,10 @@
+package com.dieg0code.sprinboot_test.repositories;
+
+import com.dieg0code.sprinboot_test.models.InteresLote;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.List;
+
+public interface InteresLoteRepository extends JpaRepository<InteresLote, Long> {
+    List<InteresLote> findByPeriodoOrderByDesde(String periodo);
+}
@@ -0,0 +1,32 @@
+package com.dieg0code.sprinboot_test.repositories;
+
+import com.dieg0code.sprinboot_test.models.Movimiento;
+import com.dieg0code.sprinboot_test.models.MovimientoDTO;
+import com.dieg0code.sprinboot_test.models.TipoMovimiento;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+
+public interface MovimientoRepository extends JpaRepository<Movimiento, Long> {
+
+    // Paginación por cursor (keyset): ambas consultas recorren idx_movimientos_cuenta_fecha_id
+    // desde la posición del cursor, sin OFFSET, así que el costo por página no depende del historial
+    @Query("SELECT new com.dieg0code.sprinboot_test.models.MovimientoDTO(m.id, m.tipo, m.contraparteId, m.bancoId, m.monto, m.fecha) " +
+            "FROM Movimiento m WHERE m.cuentaId = ?1 ORDER BY m.fecha DESC, m.id DESC")
+    List<MovimientoDTO> findUltimos(Long cuentaId, Pageable pageable);
+
+    @Query("SELECT new com.dieg0code.sprinboot_test.models.MovimientoDTO(m.id, m.tipo, m.contraparteId, m.bancoId, m.monto, m.fecha) " +
+            "FROM Movimiento m WHERE m.cuentaId = ?1 AND (m.fecha < ?2 OR (m.fecha = ?2 AND m.id < ?3)) ORDER BY m.fecha DESC, m.id DESC")
+    List<MovimientoDTO> findAnteriores(Long cuentaId, Instant fecha, Long id, Pageable pageable);
+
+    // Suma de los movimientos posteriores a un checkpoint; el rango de fecha acota el recorrido del índice
+    @Query("SELECT COALESCE(SUM(m.monto), 0) FROM Movimiento m WHERE m.cuentaId = ?1 AND m.fecha >= ?2 AND m.fecha <= ?3 AND m.id > ?4")
+    BigDecimal sumarEntre(Long cuentaId, Instant desde, Instant hasta, Long despuesDeId);
+
+    @Query("SELECT COALESCE(SUM(m.monto), 0) FROM Movimiento m WHERE m.bancoId = ?1 AND m.tipo = ?2")
+    BigDecimal sumarPorBancoYTipo(Long bancoId, TipoMovimiento tipo);
+}
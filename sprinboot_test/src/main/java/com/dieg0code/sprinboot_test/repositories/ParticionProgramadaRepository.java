@@ -0,0 +1,29 @@
+package com.dieg0code.sprinboot_test.repositories;
+
+import com.dieg0code.sprinboot_test.models.ParticionProgramada;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.Collection;
+
+public interface ParticionProgramadaRepository extends JpaRepository<ParticionProgramada, Integer> {
+    // Toma o renueva la partición si está libre, vencida o ya es de este nodo; retorna 1 si quedó como dueño
+    @Transactional
+    @Modifying
+    @Query("UPDATE ParticionProgramada p SET p.propietario = ?2, p.expira = ?3 " +
+            "WHERE p.particion = ?1 AND (p.propietario IS NULL OR p.propietario = ?2 OR p.expira < ?4)")
+    int reclamar(Integer particion, String propietario, Instant expira, Instant ahora);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE ParticionProgramada p SET p.propietario = NULL, p.expira = NULL WHERE p.propietario = ?1")
+    int liberar(String propietario);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE ParticionProgramada p SET p.propietario = NULL, p.expira = NULL WHERE p.particion IN ?1 AND p.propietario = ?2")
+    int liberar(Collection<Integer> particiones, String propietario);
+}
@@ -0,0 +1,27 @@
+package com.dieg0code.sprinboot_test.repositories;
+
+import com.dieg0code.sprinboot_test.models.ResumenBanco;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import java.math.BigDecimal;
+import java.util.Optional;
+
+public interface ResumenBancoRepository extends JpaRepository<ResumenBanco, Long> {
+
+    // Los deltas se suman en la base de datos: dos transacciones concurrentes no se pisan
+    @Modifying
+    @Query("UPDATE ResumenBanco r SET r.cuentas = r.cuentas + ?2, r.saldoTotal = r.saldoTotal + ?3 WHERE r.bancoId = ?1")
+    int sumarCuentas(Long bancoId, long cuentas, BigDecimal saldo);
+
+    @Modifying
+    @Query("UPDATE ResumenBanco r SET r.transferencias = r.transferencias + ?2, r.volumen = r.volumen + ?3 WHERE r.bancoId = ?1")
+    int sumarTransferencias(Long bancoId, long transferencias, BigDecimal volumen);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT r FROM ResumenBanco r WHERE r.bancoId = ?1")
+    Optional<ResumenBanco> bloquear(Long bancoId);
+}
@@ -0,0 +1,13 @@
+package com.dieg0code.sprinboot_test.repositories;
+
+import com.dieg0code.sprinboot_test.models.SaldoCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.time.Instant;
+import java.util.Optional;
+
+public interface SaldoCheckpointRepository extends JpaRepository<SaldoCheckpoint, Long> {
+    Optional<SaldoCheckpoint> findFirstByCuentaIdAndFechaLessThanEqualOrderByFechaDescIdDesc(Long cuentaId, Instant fecha);
+
+    boolean existsByCuentaId(Long cuentaId);
+}
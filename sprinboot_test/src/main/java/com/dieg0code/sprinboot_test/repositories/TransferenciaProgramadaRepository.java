@@ -0,0 +1,16 @@
+package com.dieg0code.sprinboot_test.repositories;
+
+import com.dieg0code.sprinboot_test.models.EstadoTransferenciaProgramada;
+import com.dieg0code.sprinboot_test.models.TransferenciaProgramada;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+public interface TransferenciaProgramadaRepository extends JpaRepository<TransferenciaProgramada, Long> {
+    @Query("SELECT t.id FROM TransferenciaProgramada t WHERE t.estado = ?1 AND t.particion IN ?2 AND t.proximaEjecucion <= ?3 ORDER BY t.proximaEjecucion, t.id")
+    List<Long> findIdsVencidas(EstadoTransferenciaProgramada estado, Collection<Integer> particiones, Instant hasta, Pageable pageable);
+}
@@ -0,0 +1,146 @@
+package com.dieg0code.sprinboot_test.services;
+
+import com.dieg0code.sprinboot_test.events.CuentaEliminadaEvent;
+import com.dieg0code.sprinboot_test.models.MotivoArchivo;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Mueve cuentas de {@code cuentas} a {@code cuentas_archivadas} por lotes: bloquea las filas del
+ * lote, las copia con un {@code INSERT ... SELECT} y las borra con un {@code DELETE}, tres
+ * sentencias por lote en lugar de un SELECT y un DELETE por cuenta. Así la tabla de cuentas solo
+ * tiene las que están en uso y sus índices caben en memoria, y las eliminadas conservan su último
+ * estado.
+ * <p>
+ * Los métodos deben llamarse dentro de una transacción; el resumen del banco, el filtro de cuentas
+ * y los eventos de baja se actualizan en ella.
+ */
+@Component
+public class ArchivoCuentas {
+
+    // Tamaño máximo de cada lista IN; algunos motores limitan a 1000 parámetros
+    public static final int TAMANO_LOTE = 1000;
+
+    private static final String SQL_BLOQUEAR = "SELECT id, saldo, banco_id FROM cuentas WHERE id IN (:ids) ORDER BY id FOR UPDATE";
+    private static final String SQL_ACTIVAS = "SELECT DISTINCT cuenta_id FROM movimientos WHERE cuenta_id IN (:ids) AND fecha >= :corte";
+    private static final String SQL_ARCHIVAR = """
+            INSERT INTO cuentas_archivadas (cuenta_id, nombre, saldo, banco_id, motivo, archivada)
+            SELECT id, nombre, saldo, banco_id, :motivo, :fecha FROM cuentas WHERE id IN (:ids)
+            """;
+    private static final String SQL_ELIMINAR = "DELETE FROM cuentas WHERE id IN (:ids)";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final ResumenBancoService resumenService;
+    private final FiltroCuentas filtroCuentas;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public ArchivoCuentas(DataSource dataSource, ResumenBancoService resumenService, FiltroCuentas filtroCuentas,
+                          ApplicationEventPublisher eventPublisher) {
+        this.jdbcTemplate = new NamedParameterJdbcTemplate(dataSource);
+        this.resumenService = resumenService;
+        this.filtroCuentas = filtroCuentas;
+        this.eventPublisher = eventPublisher;
+    }
+
+    /**
+     * Archiva las cuentas indicadas que existan, con cualquier saldo.
+     *
+     * @return los ids archivados
+     */
+    public List<Long> archivar(Collection<Long> ids, MotivoArchivo motivo) {
+        List<Long> archivadas = new ArrayList<>(ids.size());
+        for (List<Long> lote : lotes(ids)) {
+            List<Fila> filas = bloquear(lote);
+            archivadas.addAll(mover(filas, motivo));
+        }
+        return archivadas;
+    }
+
+    /**
+     * Archiva las cuentas indicadas que, ya bloqueadas, siguen con saldo cero y sin movimientos
+     * desde {@code corte}. Las que cambiaron desde que se eligieron se dejan.
+     *
+     * @return los ids archivados
+     */
+    public List<Long> archivarInactivas(Collection<Long> ids, Instant corte) {
+        List<Long> archivadas = new ArrayList<>(ids.size());
+        for (List<Long> lote : lotes(ids)) {
+            List<Fila> filas = bloquear(lote);
+            if (filas.isEmpty()) {
+                continue;
+            }
+            Set<Long> activas = new HashSet<>(jdbcTemplate.queryForList(SQL_ACTIVAS,
+                    Map.of("ids", lote, "corte", Timestamp.from(corte)), Long.class));
+            filas.removeIf(fila -> fila.saldo().signum() != 0 || activas.contains(fila.id()));
+            archivadas.addAll(mover(filas, MotivoArchivo.INACTIVA));
+        }
+        return archivadas;
+    }
+
+    private List<Fila> bloquear(List<Long> ids) {
+        return jdbcTemplate.query(SQL_BLOQUEAR, Map.of("ids", ids), (rs, n) ->
+                new Fila(rs.getLong("id"), Objects.requireNonNullElse(rs.getBigDecimal("saldo"), BigDecimal.ZERO),
+                        rs.getObject("banco_id", Long.class)));
+    }
+
+    private List<Long> mover(List<Fila> filas, MotivoArchivo motivo) {
+        if (filas.isEmpty()) {
+            return List.of();
+        }
+        List<Long> ids = new ArrayList<>(filas.size());
+        Map<Long, BigDecimal> saldoPorBanco = new HashMap<>();
+        Map<Long, Long> cuentasPorBanco = new HashMap<>();
+        for (Fila fila : filas) {
+            ids.add(fila.id());
+            if (fila.bancoId() != null) {
+                saldoPorBanco.merge(fila.bancoId(), fila.saldo(), BigDecimal::add);
+                cuentasPorBanco.merge(fila.bancoId(), 1L, Long::sum);
+            }
+        }
+
+        Timestamp fecha = Timestamp.from(Instant.now().truncatedTo(ChronoUnit.MICROS));
+        int copiadas = jdbcTemplate.update(SQL_ARCHIVAR, Map.of("ids", ids, "motivo", motivo.name(), "fecha", fecha));
+        int eliminadas = jdbcTemplate.update(SQL_ELIMINAR, Map.of("ids", ids));
+        // Las filas están bloqueadas: si no coinciden, algo las borró por fuera; se revierte todo
+        if (copiadas != ids.size() || eliminadas != ids.size()) {
+            throw new IllegalStateException("Archivo inconsistente: " + ids.size() + " bloqueadas, "
+                    + copiadas + " copiadas, " + eliminadas + " eliminadas");
+        }
+
+        cuentasPorBanco.forEach((bancoId, cuentas) ->
+                resumenService.registrarCuenta(bancoId, -cuentas, saldoPorBanco.get(bancoId).negate()));
+        for (Long id : ids) {
+            filtroCuentas.eliminar(id);
+            eventPublisher.publishEvent(new CuentaEliminadaEvent(id));
+        }
+        return ids;
+    }
+
+    private static List<List<Long>> lotes(Collection<Long> ids) {
+        List<Long> distintos = new ArrayList<>(new LinkedHashSet<>(ids));
+        List<List<Long>> lotes = new ArrayList<>();
+        for (int i = 0; i < distintos.size(); i += TAMANO_LOTE) {
+            lotes.add(distintos.subList(i, Math.min(i + TAMANO_LOTE, distintos.size())));
+        }
+        return lotes;
+    }
+
+    private record Fila(long id, BigDecimal saldo, Long bancoId) {
+    }
+}
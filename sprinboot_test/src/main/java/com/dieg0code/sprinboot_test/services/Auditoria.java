@@ -0,0 +1,30 @@
+package com.dieg0code.sprinboot_test.services;
+
+import com.dieg0code.sprinboot_test.events.CuentaEliminadaEvent;
+import com.dieg0code.sprinboot_test.events.SaldoActualizadoEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Deja en el log {@code auditoria} cada cambio de saldo y cada baja de cuenta confirmados. En el
+ * perfil {@code produccion} ese log va a su propio archivo y nunca descarta líneas (ver
+ * {@code logback-spring.xml}).
+ */
+@Component
+public class Auditoria {
+
+    private static final Logger auditoria = LoggerFactory.getLogger("auditoria");
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onSaldoActualizado(SaldoActualizadoEvent event) {
+        auditoria.info("saldo cuenta={} saldo={}", event.cuentaId(), event.saldo());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onCuentaEliminada(CuentaEliminadaEvent event) {
+        auditoria.info("baja cuenta={}", event.cuentaId());
+    }
+}
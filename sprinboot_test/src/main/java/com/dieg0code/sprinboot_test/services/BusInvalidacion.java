@@ -0,0 +1,187 @@
+package com.dieg0code.sprinboot_test.services;
+
+import com.dieg0code.sprinboot_test.config.Nodo;
+import com.dieg0code.sprinboot_test.events.CambioRemotoEvent;
+import com.dieg0code.sprinboot_test.events.CuentaEliminadaEvent;
+import com.dieg0code.sprinboot_test.events.SaldoActualizadoEvent;
+import com.dieg0code.sprinboot_test.models.Banco;
+import com.dieg0code.sprinboot_test.models.CambioEntidad;
+import com.dieg0code.sprinboot_test.models.Cuenta;
+import com.dieg0code.sprinboot_test.models.SaldoVersionDTO;
+import com.dieg0code.sprinboot_test.models.TipoEntidad;
+import com.dieg0code.sprinboot_test.repositories.CambioEntidadRepository;
+import com.dieg0code.sprinboot_test.repositories.CuentaRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.persistence.Cache;
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Mantiene coherentes las cachés locales cuando varias instancias comparten la base de datos.
+ * <p>
+ * Los cambios de cuentas y bancos se acumulan por transacción y se escriben en
+ * {@code cambios_entidades} justo antes del commit, así que el registro existe si y solo si el
+ * cambio se confirmó. {@link com.dieg0code.sprinboot_test.jobs.SeguidorCambios} lee la tabla y llama
+ * a {@link #aplicar}, que descarta las entidades de la caché de segundo nivel y avisa a las cachés
+ * en memoria con un {@link CambioRemotoEvent}.
+ * <p>
+ * Con una sola instancia no hay a quién avisar: solo existe con
+ * {@code cuentas.invalidacion.habilitada=true} (lo activa el perfil multinodo), así cada
+ * transferencia no paga las filas extra en {@code cambios_entidades} ni el sondeo del seguidor.
+ */
+@Service
+@ConditionalOnProperty(name = "cuentas.invalidacion.habilitada", havingValue = "true")
+public class BusInvalidacion {
+
+    private final CambioEntidadRepository cambioRepository;
+    private final CuentaRepository cuentaRepository;
+    private final EntityManagerFactory entityManagerFactory;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Nodo nodo;
+    private final Timer latencia;
+    private final Counter aplicados;
+
+    public BusInvalidacion(CambioEntidadRepository cambioRepository, CuentaRepository cuentaRepository,
+                           EntityManagerFactory entityManagerFactory, ApplicationEventPublisher eventPublisher,
+                           Nodo nodo, MeterRegistry meterRegistry) {
+        this.cambioRepository = cambioRepository;
+        this.cuentaRepository = cuentaRepository;
+        this.entityManagerFactory = entityManagerFactory;
+        this.eventPublisher = eventPublisher;
+        this.nodo = nodo;
+        this.latencia = meterRegistry.timer("cuentas.invalidacion.latencia");
+        this.aplicados = meterRegistry.counter("cuentas.invalidacion.aplicados");
+    }
+
+    @EventListener
+    public void onSaldoActualizado(SaldoActualizadoEvent event) {
+        registrar(TipoEntidad.CUENTA, event.cuentaId());
+    }
+
+    @EventListener
+    public void onCuentaEliminada(CuentaEliminadaEvent event) {
+        registrar(TipoEntidad.CUENTA, event.cuentaId());
+    }
+
+    public void registrar(TipoEntidad tipo, Long id) {
+        registrarTodos(tipo, List.of(id));
+    }
+
+    /**
+     * Anota que las entidades cambiaron. Dentro de una transacción el registro se escribe al
+     * confirmarla (una sola vez por entidad); sin transacción se escribe de inmediato.
+     */
+    public void registrarTodos(TipoEntidad tipo, Collection<Long> ids) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            guardar(tipo, ids);
+            return;
+        }
+
+        Pendientes pendientes = null;
+        for (TransactionSynchronization sincronizacion : TransactionSynchronizationManager.getSynchronizations()) {
+            if (sincronizacion instanceof Pendientes propios && propios.bus() == this) {
+                pendientes = propios;
+                break;
+            }
+        }
+        if (pendientes == null) {
+            pendientes = new Pendientes();
+            TransactionSynchronizationManager.registerSynchronization(pendientes);
+        }
+        for (Long id : ids) {
+            pendientes.claves.add(new Clave(tipo, id));
+        }
+    }
+
+    /**
+     * Aplica los cambios confirmados por otras instancias; los de esta instancia se ignoran porque
+     * sus cachés ya se actualizaron al confirmar.
+     */
+    public void aplicar(List<CambioEntidad> cambios) {
+        Instant ahora = Instant.now();
+        Set<Long> cuentas = new LinkedHashSet<>();
+        Set<Long> bancos = new LinkedHashSet<>();
+
+        for (CambioEntidad cambio : cambios) {
+            if (nodo.getId().equals(cambio.getNodo())) {
+                continue;
+            }
+            latencia.record(Duration.between(cambio.getFecha(), ahora));
+            (cambio.getTipo() == TipoEntidad.CUENTA ? cuentas : bancos).add(cambio.getEntidadId());
+        }
+        if (cuentas.isEmpty() && bancos.isEmpty()) {
+            return;
+        }
+
+        Cache cache = entityManagerFactory.getCache();
+        for (Long id : bancos) {
+            cache.evict(Banco.class, id);
+            eventPublisher.publishEvent(new CambioRemotoEvent(TipoEntidad.BANCO, id, null, 0));
+        }
+
+        if (!cuentas.isEmpty()) {
+            Map<Long, SaldoVersionDTO> saldos = new HashMap<>(cuentas.size() * 4 / 3 + 1);
+            for (SaldoVersionDTO saldo : cuentaRepository.findSaldosVersionadosByIdIn(cuentas)) {
+                saldos.put(saldo.id(), saldo);
+            }
+            for (Long id : cuentas) {
+                cache.evict(Cuenta.class, id);
+                SaldoVersionDTO saldo = saldos.get(id);
+                eventPublisher.publishEvent(saldo == null
+                        ? new CambioRemotoEvent(TipoEntidad.CUENTA, id, null, 0)
+                        : new CambioRemotoEvent(TipoEntidad.CUENTA, id, saldo.saldo(), saldo.version()));
+            }
+        }
+
+        aplicados.increment(cuentas.size() + bancos.size());
+    }
+
+    private void guardar(TipoEntidad tipo, Collection<Long> ids) {
+        Instant fecha = Instant.now();
+        List<CambioEntidad> cambios = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            cambios.add(new CambioEntidad(tipo, id, nodo.getId(), fecha));
+        }
+        cambioRepository.saveAll(cambios);
+    }
+
+    private record Clave(TipoEntidad tipo, Long id) {
+    }
+
+    private class Pendientes implements TransactionSynchronization {
+
+        private final Set<Clave> claves = new LinkedHashSet<>();
+
+        BusInvalidacion bus() {
+            return BusInvalidacion.this;
+        }
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            Instant fecha = Instant.now();
+            List<CambioEntidad> cambios = new ArrayList<>(claves.size());
+            for (Clave clave : claves) {
+                cambios.add(new CambioEntidad(clave.tipo(), clave.id(), nodo.getId(), fecha));
+            }
+            cambioRepository.saveAll(cambios);
+        }
+    }
+}
@@ -0,0 +1,201 @@
+package com.dieg0code.sprinboot_test.services;
+
+import com.dieg0code.sprinboot_test.exceptions.LimiteVelocidadExcedidoException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.LongSupplier;
+
+/**
+ * Límite de transferencias y monto por cuenta de origen dentro de una ventana deslizante.
+ * <p>
+ * Cada cuenta tiene un anillo de buckets en memoria que se actualizan con CAS, por lo que la
+ * verificación no toca la base de datos ni toma locks. Los límites por defecto se pueden
+ * reemplazar por banco con {@code cuentas.velocidad.bancos.<id>.max-transferencias} y
+ * {@code cuentas.velocidad.bancos.<id>.max-monto}. Los contadores son locales a cada instancia.
+ */
+@Component
+public class ControlVelocidad {
+
+    private final Environment environment;
+    private final LongSupplier reloj;
+    private final int buckets;
+    private final long anchoBucketMs;
+    private final Limite limitePorDefecto;
+    private final Map<Long, Limite> limitesPorBanco = new ConcurrentHashMap<>();
+    private final Map<Long, Ventana> ventanas = new ConcurrentHashMap<>();
+
+    @Autowired
+    public ControlVelocidad(Environment environment,
+                            @Value("${cuentas.velocidad.ventana-ms:60000}") long ventanaMs,
+                            @Value("${cuentas.velocidad.buckets:12}") int buckets,
+                            @Value("${cuentas.velocidad.max-transferencias:100}") int maxTransferencias,
+                            @Value("${cuentas.velocidad.max-monto:1000000}") BigDecimal maxMonto) {
+        this(environment, ventanaMs, buckets, maxTransferencias, maxMonto, System::currentTimeMillis);
+    }
+
+    ControlVelocidad(Environment environment, long ventanaMs, int buckets, int maxTransferencias,
+                     BigDecimal maxMonto, LongSupplier reloj) {
+        this.environment = environment;
+        this.reloj = reloj;
+        this.buckets = buckets;
+        this.anchoBucketMs = Math.max(1, ventanaMs / buckets);
+        this.limitePorDefecto = new Limite(maxTransferencias, centavos(maxMonto));
+    }
+
+    /**
+     * Registra la transferencia en la ventana de la cuenta de origen. El límite leído queda guardado
+     * por banco, así que {@code bancoId} tiene que ser de un banco que ya se verificó que existe.
+     *
+     * @throws LimiteVelocidadExcedidoException si con ella se supera el límite del banco
+     * @throws IllegalArgumentException         si falta el banco o el monto no es positivo: una
+     *                                          reserva negativa descontaría las anteriores
+     */
+    public Reserva reservar(Long cuentaOrigenId, Long bancoId, BigDecimal monto) {
+        if (bancoId == null || monto == null || monto.signum() <= 0) {
+            throw new IllegalArgumentException("Transferencia inválida para el límite de velocidad");
+        }
+        long periodo = reloj.getAsLong() / anchoBucketMs;
+        long centavos = centavos(monto);
+        Limite limite = limitesPorBanco.computeIfAbsent(bancoId, this::leerLimite);
+
+        Ventana ventana = null;
+        // La limpieza pudo retirar la ventana justo antes de agregar; en ese caso se agrega en una nueva
+        while (ventana == null || ventanas.get(cuentaOrigenId) != ventana) {
+            ventana = ventanas.computeIfAbsent(cuentaOrigenId, id -> new Ventana(buckets));
+            ventana.agregar(periodo, centavos);
+        }
+
+        // Se agrega antes de comparar: con transferencias concurrentes puede rechazarse de más, nunca admitirse de más
+        Reserva reserva = new Reserva(ventana, periodo, centavos);
+        if (ventana.transferencias(periodo) > limite.maxTransferencias()) {
+            liberar(reserva);
+            throw new LimiteVelocidadExcedidoException("La cuenta " + cuentaOrigenId + " superó el número de transferencias permitido");
+        }
+        if (ventana.centavos(periodo) > limite.maxCentavos()) {
+            liberar(reserva);
+            throw new LimiteVelocidadExcedidoException("La cuenta " + cuentaOrigenId + " superó el monto permitido");
+        }
+
+        return reserva;
+    }
+
+    /**
+     * Descuenta una reserva cuya transferencia no se completó.
+     */
+    public void liberar(Reserva reserva) {
+        reserva.ventana().descontar(reserva.periodo(), reserva.centavos());
+    }
+
+    @Scheduled(fixedDelayString = "${cuentas.velocidad.ventana-ms:60000}")
+    public void limpiar() {
+        long periodo = reloj.getAsLong() / anchoBucketMs;
+        ventanas.entrySet().removeIf(entrada -> entrada.getValue().inactiva(periodo));
+    }
+
+    int cuentasActivas() {
+        return ventanas.size();
+    }
+
+    private Limite leerLimite(Long bancoId) {
+        String prefijo = "cuentas.velocidad.bancos." + bancoId + ".";
+        Integer maxTransferencias = environment.getProperty(prefijo + "max-transferencias", Integer.class,
+                limitePorDefecto.maxTransferencias());
+        BigDecimal maxMonto = environment.getProperty(prefijo + "max-monto", BigDecimal.class);
+
+        return new Limite(maxTransferencias, maxMonto == null ? limitePorDefecto.maxCentavos() : centavos(maxMonto));
+    }
+
+    private static long centavos(BigDecimal monto) {
+        return monto.movePointRight(2).setScale(0, RoundingMode.CEILING).longValueExact();
+    }
+
+    public record Reserva(Ventana ventana, long periodo, long centavos) {
+    }
+
+    private record Limite(int maxTransferencias, long maxCentavos) {
+    }
+
+    private record Bucket(long periodo, int transferencias, long centavos) {
+    }
+
+    static final class Ventana {
+
+        private final AtomicReferenceArray<Bucket> anillo;
+
+        Ventana(int buckets) {
+            this.anillo = new AtomicReferenceArray<>(buckets);
+        }
+
+        /**
+         * Suma al bucket del periodo, reiniciándolo si todavía guarda un periodo anterior.
+         */
+        void agregar(long periodo, long centavos) {
+            int posicion = (int) (periodo % anillo.length());
+            while (true) {
+                Bucket actual = anillo.get(posicion);
+                Bucket nuevo = actual == null || actual.periodo() < periodo
+                        ? new Bucket(periodo, 1, centavos)
+                        : new Bucket(actual.periodo(), actual.transferencias() + 1, actual.centavos() + centavos);
+                if (anillo.compareAndSet(posicion, actual, nuevo)) {
+                    return;
+                }
+            }
+        }
+
+        void descontar(long periodo, long centavos) {
+            int posicion = (int) (periodo % anillo.length());
+            while (true) {
+                Bucket actual = anillo.get(posicion);
+                // Si el bucket ya se reutilizó, la reserva quedó fuera de la ventana
+                if (actual == null || actual.periodo() != periodo) {
+                    return;
+                }
+                Bucket nuevo = new Bucket(periodo, actual.transferencias() - 1, actual.centavos() - centavos);
+                if (anillo.compareAndSet(posicion, actual, nuevo)) {
+                    return;
+                }
+            }
+        }
+
+        int transferencias(long periodo) {
+            int total = 0;
+            for (int i = 0; i < anillo.length(); i++) {
+                Bucket bucket = anillo.get(i);
+                if (bucket != null && bucket.periodo() > periodo - anillo.length()) {
+                    total += bucket.transferencias();
+                }
+            }
+            return total;
+        }
+
+        long centavos(long periodo) {
+            long total = 0;
+            for (int i = 0; i < anillo.length(); i++) {
+                Bucket bucket = anillo.get(i);
+                if (bucket != null && bucket.periodo() > periodo - anillo.length()) {
+                    total += bucket.centavos();
+                }
+            }
+            return total;
+        }
+
+        boolean inactiva(long periodo) {
+            for (int i = 0; i < anillo.length(); i++) {
+                Bucket bucket = anillo.get(i);
+                if (bucket != null && bucket.periodo() > periodo - anillo.length() && bucket.transferencias() > 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
@@ -1,22 +1,75 @@
 package com.dieg0code.sprinboot_test.services;
 
 import com.dieg0code.sprinboot_test.models.Cuenta;
+import com.dieg0code.sprinboot_test.models.CuentaDTO;
+import com.dieg0code.sprinboot_test.models.PaginaCuentas;
+import com.dieg0code.sprinboot_test.models.PaginaMovimientos;
+import com.dieg0code.sprinboot_test.models.Resultado;
+import com.dieg0code.sprinboot_test.models.SaldoDTO;
+import com.dieg0code.sprinboot_test.models.SaldoVersionDTO;
 
 import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 public interface CuentaService {
     List<Cuenta> findAll();
 
     Cuenta findById(Long id);
 
+    List<CuentaDTO> listar();
+
+    CuentaDTO detalle(Long id);
+
+    Resultado<CuentaDTO> buscar(Long id);
+
     Cuenta save(Cuenta cuenta);
 
     void deleteById(Long id);
 
+    /**
+     * Elimina (archiva) las cuentas indicadas en una sola transacción, hasta
+     * {@link ArchivoCuentas#TAMANO_LOTE} por llamada; los ids que no existen se ignoran.
+     *
+     * @return la cantidad de cuentas eliminadas
+     */
+    int deleteAllById(Collection<Long> ids);
+
     int revisarTotalTransferencias(Long bancoId);
 
     BigDecimal revisarSaldo(Long cuentaId);
 
+    Map<Long, BigDecimal> revisarSaldos(Collection<Long> cuentaIds);
+
+    /**
+     * Como {@link #revisarSaldos}, pero con la versión de cada cuenta para ordenar la lectura frente a
+     * los cambios que lleguen después.
+     */
+    List<SaldoVersionDTO> revisarSaldosVersionados(Collection<Long> cuentaIds);
+
+    List<SaldoDTO> top(int n);
+
+    BigDecimal revisarSaldoEn(Long cuentaId, Instant fecha);
+
     void transferir(Long cuentaOrigenId, Long cuentaDestinoId, BigDecimal monto, Long bancoId);
+
+    /**
+     * Igual que {@link #transferir}, pero los errores de negocio se devuelven como
+     * {@link Resultado.Fallo} (y la transacción se revierte) en lugar de lanzarse.
+     */
+    Resultado<Void> intentarTransferir(Long cuentaOrigenId, Long cuentaDestinoId, BigDecimal monto, Long bancoId);
+
+    /**
+     * Reparte un pago desde una cuenta hacia varias: el origen se debita una sola vez por el total y
+     * el contador del banco suma una transferencia por cada destino.
+     *
+     * @param destinos monto a acreditar por id de cuenta destino
+     */
+    void transferirMultiple(Long cuentaOrigenId, Map<Long, BigDecimal> destinos, Long bancoId);
+
+    PaginaMovimientos listarMovimientos(Long cuentaId, String cursor, int tamano);
+
+    PaginaCuentas buscarPorSaldo(BigDecimal desde, BigDecimal hasta, String cursor, int tamano);
 }
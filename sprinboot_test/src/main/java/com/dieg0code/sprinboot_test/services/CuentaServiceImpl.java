@@ -1,23 +1,88 @@
 package com.dieg0code.sprinboot_test.services;
 
-import com.dieg0code.sprinboot_test.models.Banco;
+import com.dieg0code.sprinboot_test.events.SaldoActualizadoEvent;
+import com.dieg0code.sprinboot_test.events.TransferenciaRealizadaEvent;
+import com.dieg0code.sprinboot_test.exceptions.LimiteVelocidadExcedidoException;
+import com.dieg0code.sprinboot_test.exceptions.RecursoNoEncontradoException;
+import com.dieg0code.sprinboot_test.exceptions.SolicitudInvalidaException;
+import com.dieg0code.sprinboot_test.jfr.BloqueoCuentasEvent;
+import com.dieg0code.sprinboot_test.jfr.DebitoAplicadoEvent;
+import com.dieg0code.sprinboot_test.jfr.EventosTransferencia;
 import com.dieg0code.sprinboot_test.models.Cuenta;
+import com.dieg0code.sprinboot_test.models.CuentaDTO;
+import com.dieg0code.sprinboot_test.models.ErrorCuenta;
+import com.dieg0code.sprinboot_test.models.MotivoArchivo;
+import com.dieg0code.sprinboot_test.models.Movimiento;
+import com.dieg0code.sprinboot_test.models.MovimientoDTO;
+import com.dieg0code.sprinboot_test.models.PaginaCuentas;
+import com.dieg0code.sprinboot_test.models.PaginaMovimientos;
+import com.dieg0code.sprinboot_test.models.Resultado;
+import com.dieg0code.sprinboot_test.models.SaldoDTO;
+import com.dieg0code.sprinboot_test.models.SaldoVersionDTO;
+import com.dieg0code.sprinboot_test.models.TipoMovimiento;
 import com.dieg0code.sprinboot_test.repositories.BancoRepository;
+import com.dieg0code.sprinboot_test.repositories.ContadorBancoRepository;
 import com.dieg0code.sprinboot_test.repositories.CuentaRepository;
+import com.dieg0code.sprinboot_test.repositories.MovimientoRepository;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 
 @Service
 public class CuentaServiceImpl implements CuentaService {
+    // Tamaño máximo de cada lista IN; algunos motores limitan a 1000 parámetros
+    private static final int TAMANO_LOTE_IN = 1000;
+    private static final int TAMANO_MAXIMO_PAGINA = 500;
+    private static final int TAMANO_MAXIMO_TOP = 100;
+
     private CuentaRepository cuentaRepository;
     private BancoRepository bancoRepository;
+    private MovimientoRepository movimientoRepository;
+    private SaldoCheckpointService checkpointService;
+    private ApplicationEventPublisher eventPublisher;
+    private ControlVelocidad controlVelocidad;
+    private ResumenBancoService resumenService;
+    private RankingSaldos rankingSaldos;
+    private FiltroCuentas filtroCuentas;
+    private OutboxService outboxService;
+    private ContadorBancoRepository contadorRepository;
+    private ArchivoCuentas archivoCuentas;
 
-    public CuentaServiceImpl(CuentaRepository cuentaRepository, BancoRepository bancoRepository) {
+    public CuentaServiceImpl(CuentaRepository cuentaRepository, BancoRepository bancoRepository,
+                             MovimientoRepository movimientoRepository, SaldoCheckpointService checkpointService,
+                             ApplicationEventPublisher eventPublisher, ControlVelocidad controlVelocidad,
+                             ResumenBancoService resumenService, RankingSaldos rankingSaldos,
+                             FiltroCuentas filtroCuentas, OutboxService outboxService,
+                             ContadorBancoRepository contadorRepository, ArchivoCuentas archivoCuentas) {
         this.cuentaRepository = cuentaRepository;
         this.bancoRepository = bancoRepository;
+        this.movimientoRepository = movimientoRepository;
+        this.checkpointService = checkpointService;
+        this.eventPublisher = eventPublisher;
+        this.controlVelocidad = controlVelocidad;
+        this.resumenService = resumenService;
+        this.rankingSaldos = rankingSaldos;
+        this.filtroCuentas = filtroCuentas;
+        this.outboxService = outboxService;
+        this.contadorRepository = contadorRepository;
+        this.archivoCuentas = archivoCuentas;
     }
 
     @Override
@@ -29,51 +94,482 @@ public class CuentaServiceImpl implements CuentaService {
     @Override
     @Transactional(readOnly = true)
     public Cuenta findById(Long id) {
-        return cuentaRepository.findById(id).orElseThrow();
+        verificarExistencia(id);
+        return cuentaRepository.findById(id).orElseThrow(() -> noEncontrada(id));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<CuentaDTO> listar() {
+        return cuentaRepository.findAllDTO();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CuentaDTO detalle(Long id) {
+        return buscar(id).obtener();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Resultado<CuentaDTO> buscar(Long id) {
+        if (!filtroCuentas.puedeExistir(id)) {
+            return Resultado.fallo(ErrorCuenta.CUENTA_NO_ENCONTRADA, "No existe la cuenta " + id);
+        }
+
+        CuentaDTO cuenta = cuentaRepository.findDTOById(id).orElse(null);
+        if (cuenta == null) {
+            filtroCuentas.registrarFalsoPositivo();
+            return Resultado.fallo(ErrorCuenta.CUENTA_NO_ENCONTRADA, "No existe la cuenta " + id);
+        }
+
+        return Resultado.exito(cuenta);
     }
 
     @Override
     @Transactional
     public Cuenta save(Cuenta cuenta) {
-        return cuentaRepository.save(cuenta);
+        // La fila de la cuenta se bloquea antes que la del resumen del banco, en el mismo orden que las
+        // transferencias, y el saldo anterior se lee con ese bloqueo
+        Cuenta anterior = cuenta.getId() == null ? null
+                : cuentaRepository.bloquearEnOrden(List.of(cuenta.getId())).stream().findFirst().orElse(null);
+        Long bancoAnterior = anterior == null ? null : anterior.getBancoId();
+        BigDecimal saldoAnterior = anterior == null ? BigDecimal.ZERO : anterior.getSaldo();
+
+        Cuenta guardada;
+        if (anterior == null) {
+            cuenta.setVersion(0);
+            cuenta.setMovimientosSinCheckpoint(null);
+            guardada = cuentaRepository.save(cuenta);
+        } else {
+            anterior.setNombre(cuenta.getNombre());
+            anterior.setSaldo(cuenta.getSaldo());
+            anterior.setBancoId(cuenta.getBancoId());
+            anterior.setVersion(anterior.getVersion() + 1);
+            guardada = cuentaRepository.save(anterior);
+
+            // Un cambio de saldo fuera de una transferencia queda en el historial como ajuste, así el
+            // saldo en una fecha pasada y la conciliación lo incluyen
+            BigDecimal diferencia = guardada.getSaldo().subtract(saldoAnterior);
+            if (diferencia.signum() != 0) {
+                Instant fecha = Instant.now().truncatedTo(ChronoUnit.MICROS);
+                Movimiento ajuste = movimientoRepository.save(new Movimiento(guardada.getId(), null, null, TipoMovimiento.AJUSTE, diferencia, fecha));
+                checkpointService.registrar(guardada, ajuste, guardada.getSaldo());
+            }
+        }
+        filtroCuentas.agregar(guardada.getId());
+
+        if (anterior != null && Objects.equals(bancoAnterior, guardada.getBancoId())) {
+            resumenService.registrarCuenta(bancoAnterior, 0, guardada.getSaldo().subtract(saldoAnterior));
+        } else {
+            if (anterior != null) {
+                resumenService.registrarCuenta(bancoAnterior, -1, saldoAnterior.negate());
+            }
+            resumenService.registrarCuenta(guardada.getBancoId(), 1, guardada.getSaldo());
+        }
+        eventPublisher.publishEvent(new SaldoActualizadoEvent(guardada.getId(), guardada.getSaldo(), guardada.getVersion()));
+
+        return guardada;
     }
 
+    // La cuenta se copia a cuentas_archivadas antes de borrarla; ArchivoCuentas publica la baja
     @Override
     @Transactional
     public void deleteById(Long id) {
-        cuentaRepository.deleteById(id);
+        archivoCuentas.archivar(List.of(id), MotivoArchivo.CERRADA);
+    }
+
+    @Override
+    @Transactional
+    public int deleteAllById(Collection<Long> ids) {
+        // Todos los lotes van en una transacción: sin tope, una solicitud bloquearía cuentas sin límite hasta confirmar
+        if (ids.size() > ArchivoCuentas.TAMANO_LOTE) {
+            throw new SolicitudInvalidaException("No se pueden eliminar más de " + ArchivoCuentas.TAMANO_LOTE + " cuentas a la vez");
+        }
+        return archivoCuentas.archivar(ids, MotivoArchivo.CERRADA).size();
     }
 
     @Override
     @Transactional(readOnly = true)
     public int revisarTotalTransferencias(Long bancoId) {
-        Banco banco = bancoRepository.findById(bancoId).orElseThrow();
-
-        return banco.getTotalTransferencias();
+        return contadorRepository.findTotalTransferenciasById(bancoId)
+                .orElseThrow(() -> new RecursoNoEncontradoException("No existe el banco " + bancoId));
     }
 
     @Override
     @Transactional(readOnly = true)
     public BigDecimal revisarSaldo(Long cuentaId) {
-        Cuenta cuenta = cuentaRepository.findById(cuentaId).orElseThrow();
+        verificarExistencia(cuentaId);
+        return cuentaRepository.findSaldoById(cuentaId).orElseThrow(() -> noEncontrada(cuentaId));
+    }
 
-        return cuenta.getSaldo();
+    @Override
+    @Transactional(readOnly = true)
+    public Map<Long, BigDecimal> revisarSaldos(Collection<Long> cuentaIds) {
+        List<Long> ids = new ArrayList<>(new LinkedHashSet<>(cuentaIds));
+        Map<Long, BigDecimal> saldos = new HashMap<>(ids.size() * 4 / 3 + 1);
+
+        for (int desde = 0; desde < ids.size(); desde += TAMANO_LOTE_IN) {
+            List<Long> lote = ids.subList(desde, Math.min(desde + TAMANO_LOTE_IN, ids.size()));
+            for (SaldoDTO saldo : cuentaRepository.findSaldosByIdIn(lote)) {
+                saldos.put(saldo.id(), saldo.saldo());
+            }
+        }
+
+        return saldos;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<SaldoVersionDTO> revisarSaldosVersionados(Collection<Long> cuentaIds) {
+        List<Long> ids = new ArrayList<>(new LinkedHashSet<>(cuentaIds));
+        List<SaldoVersionDTO> saldos = new ArrayList<>(ids.size());
+
+        for (int desde = 0; desde < ids.size(); desde += TAMANO_LOTE_IN) {
+            saldos.addAll(cuentaRepository.findSaldosVersionadosByIdIn(ids.subList(desde, Math.min(desde + TAMANO_LOTE_IN, ids.size()))));
+        }
+
+        return saldos;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<SaldoDTO> top(int n) {
+        if (n < 1 || n > TAMANO_MAXIMO_TOP) {
+            throw new SolicitudInvalidaException("n debe estar entre 1 y " + TAMANO_MAXIMO_TOP);
+        }
+
+        // Mientras el ranking en memoria no esté listo o no pueda asegurar las n posiciones, se consulta la tabla
+        return rankingSaldos.top(n).orElseGet(() -> cuentaRepository.findTop(PageRequest.of(0, n)));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public BigDecimal revisarSaldoEn(Long cuentaId, Instant fecha) {
+        return checkpointService.saldoEn(cuentaId, fecha).orElseGet(() -> revisarSaldo(cuentaId));
     }
 
     @Override
     @Transactional
     public void transferir(Long cuentaOrigenId, Long cuentaDestinoId, BigDecimal monto, Long bancoId) {
-        Banco banco = bancoRepository.findById(bancoId).orElseThrow();
-        int totalTransferencias = banco.getTotalTransferencias();
-        banco.setTotalTransferencias(++totalTransferencias);
-        bancoRepository.save(banco);
+        intentarTransferir(cuentaOrigenId, cuentaDestinoId, monto, bancoId).obtener();
+    }
+
+    @Override
+    @Transactional
+    public Resultado<Void> intentarTransferir(Long cuentaOrigenId, Long cuentaDestinoId, BigDecimal monto, Long bancoId) {
+        if (monto == null || monto.signum() <= 0) {
+            return fallo(ErrorCuenta.DATOS_INVALIDOS, "El monto debe ser mayor a cero");
+        }
+        if (bancoId == null) {
+            return fallo(ErrorCuenta.DATOS_INVALIDOS, "Debe indicar el banco");
+        }
+
+        // Los ids que el filtro descarta no llegan a la base de datos
+        if (!filtroCuentas.puedeExistir(cuentaOrigenId)) {
+            return fallo(ErrorCuenta.CUENTA_NO_ENCONTRADA, "No existe la cuenta " + cuentaOrigenId);
+        }
+        if (!filtroCuentas.puedeExistir(cuentaDestinoId)) {
+            return fallo(ErrorCuenta.CUENTA_NO_ENCONTRADA, "No existe la cuenta " + cuentaDestinoId);
+        }
+
+        EventosTransferencia.registrarCommit(cuentaOrigenId, cuentaDestinoId);
+
+        // El banco sale de la caché de segundo nivel; el límite de velocidad solo se lee para bancos que existen
+        if (bancoRepository.findById(bancoId).isEmpty()) {
+            return fallo(ErrorCuenta.BANCO_NO_ENCONTRADO, "No existe el banco " + bancoId);
+        }
 
-        Cuenta cuentaOrigen = cuentaRepository.findById(cuentaOrigenId).orElseThrow();
+        // Se rechaza antes de bloquear las cuentas; si la transacción no confirma, la reserva se devuelve
+        ControlVelocidad.Reserva reserva;
+        try {
+            reserva = controlVelocidad.reservar(cuentaOrigenId, bancoId, monto);
+        } catch (LimiteVelocidadExcedidoException e) {
+            return fallo(ErrorCuenta.LIMITE_VELOCIDAD, e.getMessage());
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) {
+                        controlVelocidad.liberar(reserva);
+                    }
+                }
+            });
+        }
+
+        // Origen y destino se bloquean en una consulta, en orden de id: sin el bloqueo dos transferencias
+        // concurrentes leen el mismo saldo y una pisa a la otra, y con otro orden podrían bloquearse mutuamente
+        BloqueoCuentasEvent eventoBloqueo = new BloqueoCuentasEvent();
+        eventoBloqueo.begin();
+        Map<Long, Cuenta> cuentas = new HashMap<>(4);
+        for (Cuenta cuenta : cuentaRepository.bloquearEnOrden(List.of(cuentaOrigenId, cuentaDestinoId))) {
+            cuentas.put(cuenta.getId(), cuenta);
+        }
+        EventosTransferencia.terminarBloqueo(eventoBloqueo, cuentaOrigenId, 2);
+        Cuenta cuentaOrigen = cuentas.get(cuentaOrigenId);
+        Cuenta cuentaDestino = cuentas.get(cuentaDestinoId);
+        if (cuentaOrigen == null || cuentaDestino == null) {
+            filtroCuentas.registrarFalsoPositivo();
+            Long faltante = cuentaOrigen == null ? cuentaOrigenId : cuentaDestinoId;
+            return fallo(ErrorCuenta.CUENTA_NO_ENCONTRADA, "No existe la cuenta " + faltante);
+        }
+
+        // El contador se incrementa en su propia tabla, después de las cuentas como en transferirMultiple
+        if (contadorRepository.sumarTransferencias(bancoId, 1) == 0) {
+            return fallo(ErrorCuenta.BANCO_NO_ENCONTRADO, "No existe el banco " + bancoId);
+        }
+        if (!cuentaOrigen.puedeDebitar(monto)) {
+            return fallo(ErrorCuenta.DINERO_INSUFICIENTE, "Dinero insuficiente");
+        }
+        DebitoAplicadoEvent eventoDebito = new DebitoAplicadoEvent();
+        eventoDebito.begin();
         cuentaOrigen.debito(monto);
         cuentaRepository.save(cuentaOrigen);
+        EventosTransferencia.terminarDebito(eventoDebito, cuentaOrigenId, monto);
 
-        Cuenta cuentaDestino = cuentaRepository.findById(cuentaDestinoId).orElseThrow();
         cuentaDestino.credito(monto);
         cuentaRepository.save(cuentaDestino);
+
+        Instant fecha = Instant.now().truncatedTo(ChronoUnit.MICROS);
+        Movimiento debito = new Movimiento(cuentaOrigenId, cuentaDestinoId, bancoId, TipoMovimiento.DEBITO, monto.negate(), fecha);
+        Movimiento credito = new Movimiento(cuentaDestinoId, cuentaOrigenId, bancoId, TipoMovimiento.CREDITO, monto, fecha);
+        movimientoRepository.saveAll(List.of(debito, credito));
+        outboxService.registrar(new TransferenciaRealizadaEvent(cuentaOrigenId, cuentaDestinoId, monto, bancoId, fecha));
+
+        resumenService.registrarTransferencia(bancoId, monto);
+        if (!Objects.equals(cuentaOrigen.getBancoId(), cuentaDestino.getBancoId())) {
+            resumenService.registrarCuenta(cuentaOrigen.getBancoId(), 0, monto.negate());
+            resumenService.registrarCuenta(cuentaDestino.getBancoId(), 0, monto);
+        }
+
+        checkpointService.registrar(cuentaOrigen, debito, cuentaOrigen.getSaldo());
+        checkpointService.registrar(cuentaDestino, credito, cuentaDestino.getSaldo());
+
+        // Los oyentes reciben los eventos solo cuando la transacción hace commit
+        eventPublisher.publishEvent(new SaldoActualizadoEvent(cuentaOrigenId, cuentaOrigen.getSaldo(), cuentaOrigen.getVersion()));
+        eventPublisher.publishEvent(new SaldoActualizadoEvent(cuentaDestinoId, cuentaDestino.getSaldo(), cuentaDestino.getVersion()));
+
+        return Resultado.exito(null);
+    }
+
+    @Override
+    @Transactional
+    public void transferirMultiple(Long cuentaOrigenId, Map<Long, BigDecimal> destinos, Long bancoId) {
+        if (destinos == null || destinos.isEmpty()) {
+            throw new SolicitudInvalidaException("Debe indicar al menos una cuenta destino");
+        }
+        if (destinos.size() > TAMANO_LOTE_IN) {
+            throw new SolicitudInvalidaException("No se puede transferir a más de " + TAMANO_LOTE_IN + " cuentas a la vez");
+        }
+        if (bancoId == null) {
+            throw new SolicitudInvalidaException("Debe indicar el banco");
+        }
+        if (destinos.containsKey(cuentaOrigenId)) {
+            throw new SolicitudInvalidaException("La cuenta origen no puede ser también destino");
+        }
+        BigDecimal total = BigDecimal.ZERO;
+        for (BigDecimal monto : destinos.values()) {
+            if (monto == null || monto.signum() <= 0) {
+                throw new SolicitudInvalidaException("El monto debe ser mayor a cero");
+            }
+            total = total.add(monto);
+        }
+
+        verificarExistencia(cuentaOrigenId);
+        destinos.keySet().forEach(this::verificarExistencia);
+        EventosTransferencia.registrarCommit(cuentaOrigenId, EventosTransferencia.VARIOS_DESTINOS);
+
+        // Una sola consulta bloquea origen y destinos, siempre en el mismo orden
+        List<Long> ids = new ArrayList<>(destinos.size() + 1);
+        ids.add(cuentaOrigenId);
+        ids.addAll(destinos.keySet());
+        Map<Long, Cuenta> cuentas = new HashMap<>(ids.size() * 4 / 3 + 1);
+        BloqueoCuentasEvent eventoBloqueo = new BloqueoCuentasEvent();
+        eventoBloqueo.begin();
+        for (Cuenta cuenta : cuentaRepository.bloquearEnOrden(ids)) {
+            cuentas.put(cuenta.getId(), cuenta);
+        }
+        EventosTransferencia.terminarBloqueo(eventoBloqueo, cuentaOrigenId, ids.size());
+        for (Long id : ids) {
+            if (!cuentas.containsKey(id)) {
+                throw noEncontrada(id);
+            }
+        }
+
+        Cuenta cuentaOrigen = cuentas.get(cuentaOrigenId);
+        BigDecimal saldoOrigen = cuentaOrigen.getSaldo();
+        DebitoAplicadoEvent eventoDebito = new DebitoAplicadoEvent();
+        eventoDebito.begin();
+        cuentaOrigen.debito(total);
+        EventosTransferencia.terminarDebito(eventoDebito, cuentaOrigenId, total);
+
+        if (bancoRepository.findById(bancoId).isEmpty()) {
+            throw new RecursoNoEncontradoException("No existe el banco " + bancoId);
+        }
+
+        // El límite de velocidad cuenta el pago como un solo débito del origen por el total
+        ControlVelocidad.Reserva reserva = controlVelocidad.reservar(cuentaOrigenId, bancoId, total);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) {
+                        controlVelocidad.liberar(reserva);
+                    }
+                }
+            });
+        }
+
+        if (contadorRepository.sumarTransferencias(bancoId, destinos.size()) == 0) {
+            throw new RecursoNoEncontradoException("No existe el banco " + bancoId);
+        }
+
+        // Las cuentas están administradas: los créditos se envían como un lote de UPDATE al hacer flush
+        destinos.forEach((id, monto) -> cuentas.get(id).credito(monto));
+        cuentaRepository.saveAll(cuentas.values());
+
+        Instant fecha = Instant.now().truncatedTo(ChronoUnit.MICROS);
+        List<Movimiento> debitos = new ArrayList<>(destinos.size());
+        List<Movimiento> creditos = new ArrayList<>(destinos.size());
+        List<TransferenciaRealizadaEvent> realizadas = new ArrayList<>(destinos.size());
+        Map<Long, BigDecimal> deltasPorBanco = new HashMap<>();
+        destinos.forEach((id, monto) -> {
+            Cuenta cuentaDestino = cuentas.get(id);
+            debitos.add(new Movimiento(cuentaOrigenId, id, bancoId, TipoMovimiento.DEBITO, monto.negate(), fecha));
+            creditos.add(new Movimiento(id, cuentaOrigenId, bancoId, TipoMovimiento.CREDITO, monto, fecha));
+            realizadas.add(new TransferenciaRealizadaEvent(cuentaOrigenId, id, monto, bancoId, fecha));
+            if (cuentaOrigen.getBancoId() != null) {
+                deltasPorBanco.merge(cuentaOrigen.getBancoId(), monto.negate(), BigDecimal::add);
+            }
+            if (cuentaDestino.getBancoId() != null) {
+                deltasPorBanco.merge(cuentaDestino.getBancoId(), monto, BigDecimal::add);
+            }
+        });
+        movimientoRepository.saveAll(debitos);
+        movimientoRepository.saveAll(creditos);
+        outboxService.registrarTodos(realizadas);
+
+        // Un delta por banco; los que se compensan dentro del mismo banco quedan en cero y no se escriben
+        resumenService.registrarTransferencias(bancoId, destinos.size(), total);
+        deltasPorBanco.forEach((id, delta) -> resumenService.registrarCuenta(id, 0, delta));
+
+        for (Movimiento debito : debitos) {
+            saldoOrigen = saldoOrigen.add(debito.getMonto());
+            checkpointService.registrar(cuentaOrigen, debito, saldoOrigen);
+        }
+        for (Movimiento credito : creditos) {
+            Cuenta cuentaDestino = cuentas.get(credito.getCuentaId());
+            checkpointService.registrar(cuentaDestino, credito, cuentaDestino.getSaldo());
+        }
+
+        eventPublisher.publishEvent(new SaldoActualizadoEvent(cuentaOrigenId, cuentaOrigen.getSaldo(), cuentaOrigen.getVersion()));
+        for (Long id : destinos.keySet()) {
+            Cuenta cuentaDestino = cuentas.get(id);
+            eventPublisher.publishEvent(new SaldoActualizadoEvent(id, cuentaDestino.getSaldo(), cuentaDestino.getVersion()));
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public PaginaMovimientos listarMovimientos(Long cuentaId, String cursor, int tamano) {
+        if (tamano < 1 || tamano > TAMANO_MAXIMO_PAGINA) {
+            throw new SolicitudInvalidaException("El tamaño de página debe estar entre 1 y " + TAMANO_MAXIMO_PAGINA);
+        }
+
+        // Se pide un elemento extra para saber si existe una página siguiente sin hacer un COUNT
+        PageRequest limite = PageRequest.of(0, tamano + 1);
+        List<MovimientoDTO> movimientos;
+
+        if (cursor == null || cursor.isBlank()) {
+            movimientos = movimientoRepository.findUltimos(cuentaId, limite);
+        } else {
+            String[] posicion = decodificarCursor(cursor);
+            Instant fecha;
+            try {
+                fecha = Instant.parse(posicion[0]);
+            } catch (DateTimeParseException e) {
+                throw new SolicitudInvalidaException("Cursor inválido", e);
+            }
+            movimientos = movimientoRepository.findAnteriores(cuentaId, fecha, Long.valueOf(posicion[1]), limite);
+        }
+
+        if (movimientos.size() <= tamano) {
+            return new PaginaMovimientos(movimientos, null);
+        }
+
+        List<MovimientoDTO> pagina = movimientos.subList(0, tamano);
+        MovimientoDTO ultimo = pagina.get(tamano - 1);
+
+        return new PaginaMovimientos(new ArrayList<>(pagina), codificarCursor(ultimo.fecha(), ultimo.id()));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public PaginaCuentas buscarPorSaldo(BigDecimal desde, BigDecimal hasta, String cursor, int tamano) {
+        if (tamano < 1 || tamano > TAMANO_MAXIMO_PAGINA) {
+            throw new SolicitudInvalidaException("El tamaño de página debe estar entre 1 y " + TAMANO_MAXIMO_PAGINA);
+        }
+        if (hasta == null) {
+            throw new SolicitudInvalidaException("Falta el límite superior del saldo");
+        }
+
+        PageRequest limite = PageRequest.of(0, tamano + 1);
+        List<CuentaDTO> cuentas;
+
+        if (cursor == null || cursor.isBlank()) {
+            cuentas = desde == null
+                    ? cuentaRepository.findBajoUmbral(hasta, limite)
+                    : cuentaRepository.findPorSaldo(desde, hasta, limite);
+        } else {
+            String[] posicion = decodificarCursor(cursor);
+            BigDecimal saldo = new BigDecimal(posicion[0]);
+            Long id = Long.valueOf(posicion[1]);
+            cuentas = desde == null
+                    ? cuentaRepository.findBajoUmbralDespues(hasta, saldo, id, limite)
+                    : cuentaRepository.findPorSaldoDespues(desde, hasta, saldo, id, limite);
+        }
+
+        if (cuentas.size() <= tamano) {
+            return new PaginaCuentas(cuentas, null);
+        }
+
+        List<CuentaDTO> pagina = cuentas.subList(0, tamano);
+        CuentaDTO ultima = pagina.get(tamano - 1);
+
+        return new PaginaCuentas(new ArrayList<>(pagina), codificarCursor(ultima.saldo().toPlainString(), ultima.id()));
+    }
+
+    // Los ids que el filtro descarta no llegan a la base de datos
+    private void verificarExistencia(Long cuentaId) {
+        if (!filtroCuentas.puedeExistir(cuentaId)) {
+            throw new RecursoNoEncontradoException("No existe la cuenta " + cuentaId);
+        }
+    }
+
+    private RecursoNoEncontradoException noEncontrada(Long cuentaId) {
+        filtroCuentas.registrarFalsoPositivo();
+        return new RecursoNoEncontradoException("No existe la cuenta " + cuentaId);
+    }
+
+    // El fallo se devuelve en lugar de lanzarse, así que hay que revertir lo hecho a mano
+    private static <T> Resultado<T> fallo(ErrorCuenta error, String mensaje) {
+        Transacciones.marcarRollback();
+        return Resultado.fallo(error, mensaje);
+    }
+
+    private static String codificarCursor(Object valor, Long id) {
+        String posicion = valor + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(posicion.getBytes(StandardCharsets.UTF_8));
+    }
+
+    // Solo valida la forma "valor|id"; cada consulta convierte el valor a su tipo
+    private static String[] decodificarCursor(String cursor) {
+        String[] posicion = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\\|");
+        if (posicion.length != 2) {
+            throw new SolicitudInvalidaException("Cursor inválido");
+        }
+        Long.valueOf(posicion[1]);
+        return posicion;
     }
 }
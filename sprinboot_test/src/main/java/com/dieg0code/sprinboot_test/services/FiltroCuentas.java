@@ -0,0 +1,286 @@
+package com.dieg0code.sprinboot_test.services;
+
+import com.dieg0code.sprinboot_test.events.CambioRemotoEvent;
+import com.dieg0code.sprinboot_test.models.TipoEntidad;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Filtro de Bloom con los ids de cuentas existentes: si responde que un id no existe, no existe,
+ * y la consulta se rechaza sin ir a la base de datos.
+ * <p>
+ * Las altas se agregan antes del commit; si la transacción se revierte solo queda un falso
+ * positivo. Como una reconstrucción no ve las altas todavía sin confirmar, las de los últimos
+ * {@code ventanaAltasMs} se recuerdan y se agregan a cada filtro nuevo antes de publicarlo. Un filtro de Bloom no admite bajas, así que las cuentas eliminadas siguen dentro hasta
+ * que el filtro se reconstruye, lo que ocurre cuando las bajas o las altas pasan de cierto umbral.
+ * Mientras no se termina de construir, todos los ids se dejan pasar.
+ */
+@Component
+public class FiltroCuentas {
+
+    private static final Logger log = LoggerFactory.getLogger(FiltroCuentas.class);
+
+    private static final String SQL_CONTAR = "SELECT COUNT(*) FROM cuentas";
+    private static final String SQL_IDS = "SELECT id FROM cuentas";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final long capacidadMinima;
+    private final double tasaObjetivo;
+    private final ExecutorService reconstructor = Executors.newSingleThreadExecutor();
+    private final AtomicBoolean reconstruccionPendiente = new AtomicBoolean();
+    private final Object lock = new Object();
+
+    private final long ventanaAltasNanos;
+
+    private volatile Filtro filtro;
+    // Altas recientes por id, con su System.nanoTime(), en orden de llegada
+    private final LinkedHashMap<Long, Long> altasRecientes = new LinkedHashMap<>();
+    // System.nanoTime() del inicio de la reconstrucción en curso; sus altas no se olvidan hasta terminar
+    private Long reconstruyendoDesde;
+
+    private final AtomicLong eliminadas = new AtomicLong();
+    private final AtomicLong descartadas = new AtomicLong();
+    private final AtomicLong falsosPositivos = new AtomicLong();
+
+    public FiltroCuentas(DataSource dataSource, MeterRegistry meterRegistry,
+                         @Value("${cuentas.filtro.capacidad:1000000}") long capacidadMinima,
+                         @Value("${cuentas.filtro.tasa-falsos-positivos:0.01}") double tasaObjetivo,
+                         @Value("${cuentas.filtro.ventana-altas-ms:600000}") long ventanaAltasMs) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(10000);
+        this.capacidadMinima = capacidadMinima;
+        this.tasaObjetivo = tasaObjetivo;
+        this.ventanaAltasNanos = TimeUnit.MILLISECONDS.toNanos(ventanaAltasMs);
+
+        Gauge.builder("cuentas.filtro.falsos_positivos", this, FiltroCuentas::tasaFalsosPositivos)
+                .description("Fracción de ids inexistentes que el filtro dejó pasar a la base de datos")
+                .register(meterRegistry);
+        Gauge.builder("cuentas.filtro.falsos_positivos.estimado", this, FiltroCuentas::tasaEstimada)
+                .description("Tasa de falsos positivos esperada según el llenado del filtro")
+                .register(meterRegistry);
+    }
+
+    /**
+     * @return {@code false} solo si la cuenta seguro no existe
+     */
+    public boolean puedeExistir(Long id) {
+        Filtro actual = filtro;
+        if (actual == null || id == null || actual.contiene(id)) {
+            return true;
+        }
+        descartadas.incrementAndGet();
+        return false;
+    }
+
+    public void agregar(Long id) {
+        synchronized (lock) {
+            Filtro actual = filtro;
+            if (actual != null && actual.agregar(id) > actual.capacidad()) {
+                reconstruirEnSegundoPlano();
+            }
+            long ahora = System.nanoTime();
+            altasRecientes.remove(id);
+            altasRecientes.put(id, ahora);
+            olvidarAltasAnteriores((reconstruyendoDesde == null ? ahora : reconstruyendoDesde) - ventanaAltasNanos);
+        }
+    }
+
+    public void eliminar(Long id) {
+        Filtro actual = filtro;
+        if (actual != null && eliminadas.incrementAndGet() > actual.elementos() / 10) {
+            reconstruirEnSegundoPlano();
+        }
+    }
+
+    /**
+     * Registra un id que el filtro dejó pasar y la base de datos no encontró.
+     */
+    public void registrarFalsoPositivo() {
+        if (filtro != null) {
+            falsosPositivos.incrementAndGet();
+        }
+    }
+
+    public double tasaFalsosPositivos() {
+        long fp = falsosPositivos.get();
+        long negativos = fp + descartadas.get();
+        return negativos == 0 ? 0 : (double) fp / negativos;
+    }
+
+    public double tasaEstimada() {
+        Filtro actual = filtro;
+        return actual == null ? 0 : actual.tasaEstimada();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void iniciar() {
+        reconstruirEnSegundoPlano();
+    }
+
+    // Las altas de otras instancias; sin esto el filtro rechazaría sus cuentas nuevas
+    @EventListener
+    public void onCambioRemoto(CambioRemotoEvent event) {
+        if (event.tipo() != TipoEntidad.CUENTA) {
+            return;
+        }
+        if (event.saldo() != null) {
+            agregar(event.entidadId());
+        } else {
+            eliminar(event.entidadId());
+        }
+    }
+
+    @PreDestroy
+    public void cerrar() {
+        reconstructor.shutdownNow();
+    }
+
+    /**
+     * Construye un filtro nuevo desde la tabla y lo publica; devuelve al terminar. Las
+     * reconstrucciones no se solapan.
+     */
+    public synchronized void reconstruir() {
+        long inicio = System.nanoTime();
+        synchronized (lock) {
+            reconstruyendoDesde = inicio;
+        }
+
+        Filtro nuevo;
+        try {
+            Long total = jdbcTemplate.queryForObject(SQL_CONTAR, Long.class);
+            // Espacio para que la tabla crezca al doble antes de la siguiente reconstrucción
+            nuevo = new Filtro(Math.max(capacidadMinima, 2 * (total == null ? 0 : total)), tasaObjetivo);
+            jdbcTemplate.query(SQL_IDS, rs -> {
+                nuevo.agregar(rs.getLong(1));
+            });
+        } catch (RuntimeException e) {
+            synchronized (lock) {
+                reconstruyendoDesde = null;
+            }
+            throw e;
+        }
+
+        synchronized (lock) {
+            reconstruyendoDesde = null;
+            // Las altas desde una ventana antes del recorrido: pudieron confirmarse después de leer la tabla
+            olvidarAltasAnteriores(inicio - ventanaAltasNanos);
+            for (Long id : altasRecientes.keySet()) {
+                nuevo.agregar(id);
+            }
+            filtro = nuevo;
+            eliminadas.set(0);
+        }
+        log.info("Filtro de cuentas construido: {} ids, {} bits", nuevo.elementos(), nuevo.bits());
+    }
+
+    private void olvidarAltasAnteriores(long limite) {
+        Iterator<Long> fechas = altasRecientes.values().iterator();
+        while (fechas.hasNext() && fechas.next() - limite < 0) {
+            fechas.remove();
+        }
+    }
+
+    private void reconstruirEnSegundoPlano() {
+        if (!reconstruccionPendiente.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            reconstructor.execute(() -> {
+                try {
+                    reconstruir();
+                } catch (RuntimeException e) {
+                    log.warn("No se pudo construir el filtro de cuentas", e);
+                } finally {
+                    reconstruccionPendiente.set(false);
+                }
+            });
+        } catch (RuntimeException e) {
+            reconstruccionPendiente.set(false);
+        }
+    }
+
+    static final class Filtro {
+
+        private final AtomicLongArray palabras;
+        private final long bits;
+        private final int hashes;
+        private final long capacidad;
+        private final AtomicLong elementos = new AtomicLong();
+
+        Filtro(long capacidad, double tasaObjetivo) {
+            // m = -n ln p / (ln 2)^2, k = m/n ln 2
+            long m = (long) Math.ceil(-capacidad * Math.log(tasaObjetivo) / (Math.log(2) * Math.log(2)));
+            this.palabras = new AtomicLongArray((int) ((m + 63) / 64));
+            this.bits = palabras.length() * 64L;
+            this.hashes = Math.max(1, (int) Math.round((double) bits / capacidad * Math.log(2)));
+            this.capacidad = capacidad;
+        }
+
+        /**
+         * @return el número de elementos agregados hasta ahora
+         */
+        long agregar(long id) {
+            long h1 = mezclar(id);
+            long h2 = mezclar(h1) | 1;
+            for (int i = 0; i < hashes; i++) {
+                long bit = Math.floorMod(h1 + i * h2, bits);
+                long mascara = 1L << bit;
+                palabras.getAndAccumulate((int) (bit >>> 6), mascara, (a, b) -> a | b);
+            }
+            return elementos.incrementAndGet();
+        }
+
+        boolean contiene(long id) {
+            long h1 = mezclar(id);
+            long h2 = mezclar(h1) | 1;
+            for (int i = 0; i < hashes; i++) {
+                long bit = Math.floorMod(h1 + i * h2, bits);
+                if ((palabras.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        double tasaEstimada() {
+            return Math.pow(1 - Math.exp(-hashes * (double) elementos.get() / bits), hashes);
+        }
+
+        long elementos() {
+            return elementos.get();
+        }
+
+        long capacidad() {
+            return capacidad;
+        }
+
+        long bits() {
+            return bits;
+        }
+
+        // Finalizador de SplitMix64: los ids consecutivos quedan bien repartidos
+        private static long mezclar(long x) {
+            x = (x ^ (x >>> 30)) * 0xbf58476d1ce4e5b9L;
+            x = (x ^ (x >>> 27)) * 0x94d049bb133111ebL;
+            return x ^ (x >>> 31);
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package com.dieg0code.sprinboot_test.services;
+
+import com.dieg0code.sprinboot_test.exceptions.SolicitudInvalidaException;
+import com.dieg0code.sprinboot_test.jfr.BloqueoCuentasEvent;
+import com.dieg0code.sprinboot_test.jfr.CommitTransferenciaEvent;
+import com.dieg0code.sprinboot_test.jfr.DebitoAplicadoEvent;
+import com.dieg0code.sprinboot_test.jfr.RespuestaEscritaEvent;
+import com.dieg0code.sprinboot_test.jfr.TransferenciaRecibidaEvent;
+import jdk.jfr.Event;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * Controla una grabación JFR de la aplicación con los eventos de transferencia. Hay a lo sumo una
+ * grabación: se inicia, se puede volcar mientras corre y se detiene; la siguiente descarta la anterior.
+ * <p>
+ * La grabación habilita solo los eventos de transferencia. Las configuraciones del JDK registran
+ * además las variables de entorno y las propiedades del sistema, que incluyen credenciales y no
+ * deben salir por HTTP. Fuera de una grabación esos eventos quedan deshabilitados y solo cuestan
+ * la comprobación de {@code shouldCommit()}. Solo existe con {@code cuentas.perfilado.habilitado=true}.
+ */
+@Service
+@ConditionalOnProperty(name = "cuentas.perfilado.habilitado", havingValue = "true")
+public class GrabacionJfr {
+
+    static final List<Class<? extends Event>> EVENTOS = List.of(
+            TransferenciaRecibidaEvent.class, BloqueoCuentasEvent.class, DebitoAplicadoEvent.class,
+            CommitTransferenciaEvent.class, RespuestaEscritaEvent.class);
+
+    // Tope del búfer en disco: la grabación descarta lo más antiguo en lugar de crecer sin límite
+    private static final long TAMANO_MAXIMO = 256L * 1024 * 1024;
+
+    private Recording grabacion;
+
+    /**
+     * Inicia una grabación que se detiene sola al cumplir {@code duracion}. Los eventos de
+     * transferencia más cortos que {@code umbral} no se registran.
+     *
+     * @return {@code false} si ya hay una grabación en curso
+     */
+    public synchronized boolean iniciar(Duration duracion, Duration umbral) {
+        if (duracion.isNegative() || duracion.isZero()) {
+            throw new SolicitudInvalidaException("La duración debe ser mayor a cero");
+        }
+        if (umbral.isNegative()) {
+            throw new SolicitudInvalidaException("El umbral no puede ser negativo");
+        }
+        if (grabacion != null && grabacion.getState() == RecordingState.RUNNING) {
+            return false;
+        }
+        if (grabacion != null) {
+            grabacion.close();
+        }
+
+        Recording nueva = new Recording();
+        for (Class<? extends Event> evento : EVENTOS) {
+            nueva.enable(evento).withThreshold(umbral);
+        }
+        nueva.setName("cuentas");
+        nueva.setToDisk(true);
+        nueva.setMaxSize(TAMANO_MAXIMO);
+        nueva.setDuration(duracion);
+        nueva.start();
+        grabacion = nueva;
+        return true;
+    }
+
+    /**
+     * Detiene la grabación en curso; sus datos se pueden seguir volcando hasta que se inicie otra.
+     *
+     * @return {@code false} si no había una grabación en curso
+     */
+    public synchronized boolean detener() {
+        if (grabacion == null || grabacion.getState() != RecordingState.RUNNING) {
+            return false;
+        }
+        grabacion.stop();
+        return true;
+    }
+
+    /**
+     * Vuelca la grabación actual en formato {@code .jfr} a un archivo temporal, para abrirlo con JDK
+     * Mission Control o {@code jfr print}. No la detiene. El archivo puede pesar hasta el tope de la
+     * grabación, así que no se carga en memoria: quien llama lo lee y lo borra.
+     */
+    public synchronized Path volcar() {
+        if (grabacion == null) {
+            throw new NoSuchElementException("No hay una grabación JFR");
+        }
+        Path archivo = null;
+        try {
+            archivo = Files.createTempFile("cuentas-", ".jfr");
+            grabacion.dump(archivo);
+            return archivo;
+        } catch (IOException e) {
+            borrar(archivo);
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public static void borrar(Path archivo) {
+        if (archivo == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(archivo);
+        } catch (IOException ignorada) {
+            // El archivo temporal queda en el directorio temporal del sistema
+        }
+    }
+
+    public synchronized String estado() {
+        return grabacion == null ? "SIN_GRABACION" : grabacion.getState().name();
+    }
+}
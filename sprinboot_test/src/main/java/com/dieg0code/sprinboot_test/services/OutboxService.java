@@ -0,0 +1,93 @@
+package com.dieg0code.sprinboot_test.services;
+
+import com.dieg0code.sprinboot_test.models.EventoOutbox;
+import com.dieg0code.sprinboot_test.repositories.EventoOutboxRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Escribe y reclama los eventos del outbox.
+ * <p>
+ * Para reclamar un lote se leen los ids disponibles y se toman con un UPDATE condicional; si otro
+ * relay ganó esas filas entre la lectura y el UPDATE, se vuelve a leer, y como las filas ya
+ * reclamadas no vuelven a salir, la siguiente lectura trae el lote siguiente.
+ */
+@Service
+public class OutboxService {
+
+    private static final int INTENTOS_RECLAMO = 3;
+
+    private final EventoOutboxRepository outboxRepository;
+    private final ObjectMapper objectMapper;
+
+    public OutboxService(EventoOutboxRepository outboxRepository, ObjectMapper objectMapper) {
+        this.outboxRepository = outboxRepository;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Registra el evento en la transacción en curso: se publica solo si esa transacción hace commit.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void registrar(Object evento) {
+        outboxRepository.save(crear(evento, Instant.now()));
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void registrarTodos(Collection<?> eventos) {
+        Instant creado = Instant.now();
+        List<EventoOutbox> filas = new ArrayList<>(eventos.size());
+        for (Object evento : eventos) {
+            filas.add(crear(evento, creado));
+        }
+        outboxRepository.saveAll(filas);
+    }
+
+    /**
+     * Reclama hasta {@code tamanoLote} eventos a nombre de {@code arrendatario} por {@code arriendo}.
+     *
+     * @return los eventos reclamados en orden de id, o una lista vacía si no hay pendientes
+     */
+    @Transactional
+    public List<EventoOutbox> reclamar(String arrendatario, int tamanoLote, Duration arriendo) {
+        for (int intento = 0; intento < INTENTOS_RECLAMO; intento++) {
+            Instant ahora = Instant.now();
+            List<Long> ids = outboxRepository.findIdsDisponibles(ahora, PageRequest.of(0, tamanoLote));
+            if (ids.isEmpty()) {
+                return List.of();
+            }
+            if (outboxRepository.reclamar(arrendatario, ahora.plus(arriendo), ids, ahora) > 0) {
+                return outboxRepository.findReclamados(arrendatario);
+            }
+        }
+
+        return List.of();
+    }
+
+    /**
+     * Borra los eventos publicados del lote. Retorna cuántos borró: menos de los reclamados si el
+     * arriendo venció y otro relay tomó parte del lote.
+     */
+    @Transactional
+    public int confirmar(String arrendatario) {
+        return outboxRepository.eliminarReclamados(arrendatario);
+    }
+
+    private EventoOutbox crear(Object evento, Instant creado) {
+        try {
+            return new EventoOutbox(evento.getClass().getSimpleName(), objectMapper.writeValueAsString(evento), creado);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("No se pudo serializar el evento " + evento, e);
+        }
+    }
+}
@@ -0,0 +1,321 @@
+package com.dieg0code.sprinboot_test.services;
+
+import com.dieg0code.sprinboot_test.events.CambioRemotoEvent;
+import com.dieg0code.sprinboot_test.events.CuentaEliminadaEvent;
+import com.dieg0code.sprinboot_test.events.SaldoActualizadoEvent;
+import com.dieg0code.sprinboot_test.models.SaldoDTO;
+import com.dieg0code.sprinboot_test.models.TipoEntidad;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Cuentas con mayor saldo, mantenidas en memoria a partir de los cambios confirmados.
+ * <p>
+ * Se guardan más cuentas de las que se pueden pedir ({@code capacidad}) y una cota superior (saldo
+ * e id) de cualquier cuenta que quedó fuera. Una posición es segura mientras ordene antes que esa
+ * cota; si una cuenta del ranking baja tanto que ya no alcanzan las posiciones seguras, la consulta
+ * cae a la base de datos y el ranking se reconstruye en segundo plano.
+ * <p>
+ * Los cambios llegan con la versión de la cuenta y uno más viejo que el último aplicado se descarta,
+ * así dos eventos entregados fuera de orden no dejan un saldo atrasado.
+ */
+@Component
+public class RankingSaldos {
+
+    private static final Logger log = LoggerFactory.getLogger(RankingSaldos.class);
+
+    private static final String SQL_CUENTAS = "SELECT id, saldo, version FROM cuentas";
+    private static final String SQL_RELEER = "SELECT id, saldo, version FROM cuentas WHERE id IN (:ids)";
+    private static final int TAMANO_LOTE_IN = 1000;
+    // Rondas de relectura de las cuentas que cambiaron durante la reconstrucción
+    private static final int MAX_RELECTURAS = 5;
+    // Versión de una cuenta eliminada: ningún cambio posterior la supera
+    static final long ELIMINADA = Long.MAX_VALUE;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+    private final int capacidad;
+    private final ExecutorService reconstructor = Executors.newSingleThreadExecutor();
+    private final AtomicBoolean reconstruccionPendiente = new AtomicBoolean();
+    private final Object lock = new Object();
+
+    private Top top;
+    // Cuentas que cambiaron mientras se recorre la tabla; se vuelven a leer al terminar
+    private Set<Long> pendientes;
+
+    public RankingSaldos(DataSource dataSource, @Value("${cuentas.ranking.capacidad:200}") int capacidad) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(1000);
+        this.namedJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+        this.capacidad = capacidad;
+    }
+
+    /**
+     * @return las {@code n} cuentas con mayor saldo, o vacío si el ranking no puede asegurarlas
+     */
+    public Optional<List<SaldoDTO>> top(int n) {
+        synchronized (lock) {
+            if (top != null) {
+                List<SaldoDTO> seguras = top.seguras(n);
+                if (seguras != null) {
+                    return Optional.of(seguras);
+                }
+            }
+        }
+
+        reconstruirEnSegundoPlano();
+        return Optional.empty();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void iniciar() {
+        reconstruirEnSegundoPlano();
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onSaldoActualizado(SaldoActualizadoEvent event) {
+        aplicar(event.cuentaId(), event.saldo(), event.version());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onCuentaEliminada(CuentaEliminadaEvent event) {
+        aplicar(event.cuentaId(), null, ELIMINADA);
+    }
+
+    @EventListener
+    public void onCambioRemoto(CambioRemotoEvent event) {
+        if (event.tipo() == TipoEntidad.CUENTA) {
+            aplicar(event.entidadId(), event.saldo(), event.saldo() == null ? ELIMINADA : event.version());
+        }
+    }
+
+    @PreDestroy
+    public void cerrar() {
+        reconstructor.shutdownNow();
+    }
+
+    /**
+     * Construye un ranking nuevo desde la tabla y lo publica; devuelve al terminar. Las
+     * reconstrucciones no se solapan.
+     */
+    public synchronized void reconstruir() {
+        synchronized (lock) {
+            pendientes = new HashSet<>();
+        }
+
+        Top nuevo = new Top(capacidad);
+        try {
+            jdbcTemplate.query(SQL_CUENTAS, rs -> {
+                nuevo.aplicar(rs.getLong("id"), rs.getBigDecimal("saldo"), rs.getLong("version"));
+            });
+
+            // Un evento pudo llegar antes o después de que el recorrido leyera su fila: esas cuentas se
+            // releen, y los cambios que lleguen mientras tanto se releen en la ronda siguiente
+            for (int ronda = 0; ronda < MAX_RELECTURAS; ronda++) {
+                Set<Long> cambiadas;
+                synchronized (lock) {
+                    if (pendientes.isEmpty()) {
+                        break;
+                    }
+                    cambiadas = pendientes;
+                    pendientes = new HashSet<>();
+                }
+                releer(nuevo, cambiadas);
+            }
+        } catch (RuntimeException e) {
+            synchronized (lock) {
+                pendientes = null;
+            }
+            throw e;
+        }
+
+        synchronized (lock) {
+            try {
+                // Las últimas se releen sin soltar el lock: ningún cambio queda entre la lectura y el reemplazo
+                releer(nuevo, pendientes);
+                top = nuevo;
+            } finally {
+                pendientes = null;
+            }
+        }
+    }
+
+    private void releer(Top nuevo, Set<Long> ids) {
+        List<Long> lista = new ArrayList<>(ids);
+        for (int i = 0; i < lista.size(); i += TAMANO_LOTE_IN) {
+            List<Long> lote = lista.subList(i, Math.min(i + TAMANO_LOTE_IN, lista.size()));
+            Set<Long> faltantes = new HashSet<>(lote);
+            namedJdbcTemplate.query(SQL_RELEER, Map.of("ids", lote), rs -> {
+                long id = rs.getLong("id");
+                faltantes.remove(id);
+                nuevo.aplicar(id, rs.getBigDecimal("saldo"), rs.getLong("version"));
+            });
+            for (Long id : faltantes) {
+                nuevo.aplicar(id, null, ELIMINADA);
+            }
+        }
+    }
+
+    private void aplicar(Long id, BigDecimal saldo, long version) {
+        synchronized (lock) {
+            if (pendientes != null) {
+                pendientes.add(id);
+            }
+            if (top != null) {
+                top.aplicar(id, saldo, version);
+            }
+        }
+    }
+
+    private void reconstruirEnSegundoPlano() {
+        if (!reconstruccionPendiente.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            reconstructor.execute(() -> {
+                try {
+                    reconstruir();
+                } catch (RuntimeException e) {
+                    log.warn("No se pudo reconstruir el ranking de saldos", e);
+                } finally {
+                    reconstruccionPendiente.set(false);
+                }
+            });
+        } catch (RuntimeException e) {
+            reconstruccionPendiente.set(false);
+        }
+    }
+
+    /**
+     * Ranking acotado: cada cambio cuesta O(log capacidad).
+     */
+    static final class Top {
+
+        private static final Comparator<SaldoDTO> ORDEN =
+                Comparator.comparing(SaldoDTO::saldo).reversed().thenComparing(SaldoDTO::id);
+        // Versiones recordadas de cuentas fuera del ranking
+        private static final int MAX_VERSIONES_FUERA = 10_000;
+
+        private final int capacidad;
+        private final TreeSet<SaldoDTO> ranking = new TreeSet<>(ORDEN);
+        private final Map<Long, SaldoDTO> miembros = new HashMap<>();
+        private final Map<Long, Long> versiones = new HashMap<>();
+        private final Map<Long, Long> versionesFuera = new LinkedHashMap<>(16, 0.75f, false) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Long> eldest) {
+                return size() > MAX_VERSIONES_FUERA;
+            }
+        };
+        // Mayor posición posible de una cuenta fuera del ranking; null si no quedó ninguna fuera
+        private SaldoDTO cota;
+
+        Top(int capacidad) {
+            this.capacidad = capacidad;
+        }
+
+        /**
+         * Aplica el cambio si su versión es más nueva que la última aplicada a la cuenta. Un saldo
+         * null es una baja.
+         */
+        void aplicar(Long id, BigDecimal saldo, long version) {
+            Long conocida = miembros.containsKey(id) ? versiones.get(id) : versionesFuera.get(id);
+            if (conocida != null && conocida >= version) {
+                return;
+            }
+
+            if (saldo == null) {
+                eliminar(id);
+            } else {
+                actualizar(id, saldo);
+            }
+
+            if (miembros.containsKey(id)) {
+                versiones.put(id, version);
+                versionesFuera.remove(id);
+            } else {
+                versionesFuera.put(id, version);
+            }
+        }
+
+        void actualizar(Long id, BigDecimal saldo) {
+            SaldoDTO entrada = new SaldoDTO(id, saldo);
+            SaldoDTO anterior = miembros.remove(id);
+            if (anterior != null) {
+                ranking.remove(anterior);
+            }
+
+            if (anterior == null && ranking.size() >= capacidad && ORDEN.compare(entrada, ranking.last()) > 0) {
+                subirCota(entrada);
+                return;
+            }
+
+            ranking.add(entrada);
+            miembros.put(id, entrada);
+            if (ranking.size() > capacidad) {
+                SaldoDTO desplazada = ranking.pollLast();
+                miembros.remove(desplazada.id());
+                Long version = versiones.remove(desplazada.id());
+                if (version != null) {
+                    versionesFuera.put(desplazada.id(), version);
+                }
+                subirCota(desplazada);
+            }
+        }
+
+        void eliminar(Long id) {
+            SaldoDTO anterior = miembros.remove(id);
+            if (anterior != null) {
+                ranking.remove(anterior);
+                versiones.remove(id);
+            }
+        }
+
+        /**
+         * @return las primeras {@code n} posiciones, o {@code null} si alguna podría estar ocupada por
+         * una cuenta que quedó fuera del ranking
+         */
+        List<SaldoDTO> seguras(int n) {
+            List<SaldoDTO> resultado = new ArrayList<>(Math.min(n, ranking.size()));
+            for (SaldoDTO entrada : ranking) {
+                // Con el mismo saldo que la cota, la cuenta de fuera puede ordenar antes por id
+                if (resultado.size() == n || (cota != null && ORDEN.compare(entrada, cota) >= 0)) {
+                    break;
+                }
+                resultado.add(entrada);
+            }
+
+            return resultado.size() == n || cota == null ? resultado : null;
+        }
+
+        private void subirCota(SaldoDTO fuera) {
+            if (cota == null || ORDEN.compare(fuera, cota) < 0) {
+                cota = fuera;
+            }
+        }
+    }
+}
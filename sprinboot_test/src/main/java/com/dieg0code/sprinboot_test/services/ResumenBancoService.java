@@ -0,0 +1,113 @@
+package com.dieg0code.sprinboot_test.services;
+
+import com.dieg0code.sprinboot_test.models.Banco;
+import com.dieg0code.sprinboot_test.models.ContadorBanco;
+import com.dieg0code.sprinboot_test.models.ResumenBanco;
+import com.dieg0code.sprinboot_test.models.TipoMovimiento;
+import com.dieg0code.sprinboot_test.repositories.BancoRepository;
+import com.dieg0code.sprinboot_test.repositories.ContadorBancoRepository;
+import com.dieg0code.sprinboot_test.repositories.CuentaRepository;
+import com.dieg0code.sprinboot_test.repositories.MovimientoRepository;
+import com.dieg0code.sprinboot_test.repositories.ResumenBancoRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+
+/**
+ * Mantiene {@link ResumenBanco} con deltas. Los métodos {@code registrar*} se llaman dentro de la
+ * transacción que cambia los datos, así que el resumen se confirma o se revierte junto con ellos.
+ */
+@Service
+public class ResumenBancoService {
+
+    private static final Logger log = LoggerFactory.getLogger(ResumenBancoService.class);
+
+    private final ResumenBancoRepository resumenRepository;
+    private final BancoRepository bancoRepository;
+    private final ContadorBancoRepository contadorRepository;
+    private final CuentaRepository cuentaRepository;
+    private final MovimientoRepository movimientoRepository;
+
+    public ResumenBancoService(ResumenBancoRepository resumenRepository, BancoRepository bancoRepository,
+                               ContadorBancoRepository contadorRepository, CuentaRepository cuentaRepository,
+                               MovimientoRepository movimientoRepository) {
+        this.resumenRepository = resumenRepository;
+        this.bancoRepository = bancoRepository;
+        this.contadorRepository = contadorRepository;
+        this.cuentaRepository = cuentaRepository;
+        this.movimientoRepository = movimientoRepository;
+    }
+
+    @Transactional
+    public void registrarCuenta(Long bancoId, long cuentas, BigDecimal saldo) {
+        if (bancoId == null || (cuentas == 0 && saldo.signum() == 0)) {
+            return;
+        }
+        if (resumenRepository.sumarCuentas(bancoId, cuentas, saldo) == 0) {
+            log.warn("El banco {} no tiene resumen; se debe reconstruir", bancoId);
+        }
+    }
+
+    @Transactional
+    public void registrarTransferencia(Long bancoId, BigDecimal monto) {
+        registrarTransferencias(bancoId, 1, monto);
+    }
+
+    @Transactional
+    public void registrarTransferencias(Long bancoId, long transferencias, BigDecimal volumen) {
+        if (resumenRepository.sumarTransferencias(bancoId, transferencias, volumen) == 0) {
+            log.warn("El banco {} no tiene resumen; se debe reconstruir", bancoId);
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public ResumenBanco findById(Long bancoId) {
+        return resumenRepository.findById(bancoId).orElseThrow();
+    }
+
+    /**
+     * Recalcula el resumen de un banco desde cuentas y movimientos.
+     * <p>
+     * Se bloquea primero la fila del resumen: las transacciones que están por sumar un delta esperan
+     * y lo aplican sobre el valor reconstruido, y las que ya lo sumaron se confirman antes de que se
+     * lean los datos. Las cuentas nuevas que se abren mientras corre pueden no quedar contadas, por
+     * lo que conviene ejecutarlo sin altas de cuentas en curso.
+     */
+    @Transactional
+    public ResumenBanco reconstruir(Long bancoId) {
+        bancoRepository.findById(bancoId).orElseThrow();
+        ResumenBanco resumen = resumenRepository.bloquear(bancoId).orElse(null);
+
+        long cuentas = cuentaRepository.countByBancoId(bancoId);
+        BigDecimal saldoTotal = cuentaRepository.sumarSaldosPorBanco(bancoId);
+        // El contador del banco incluye las transferencias anteriores al historial de movimientos
+        long transferencias = contadorRepository.findTotalTransferenciasById(bancoId).orElse(0);
+        BigDecimal volumen = movimientoRepository.sumarPorBancoYTipo(bancoId, TipoMovimiento.DEBITO).negate();
+
+        if (resumen == null) {
+            return resumenRepository.save(new ResumenBanco(bancoId, cuentas, saldoTotal, transferencias, volumen));
+        }
+        resumen.reemplazar(cuentas, saldoTotal, transferencias, volumen);
+
+        return resumen;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void crearFaltantes() {
+        for (Banco banco : bancoRepository.findAll()) {
+            // Bancos creados sin contador de transferencias; sin él sus transferencias se rechazan
+            if (!contadorRepository.existsById(banco.getId())) {
+                contadorRepository.save(new ContadorBanco(banco.getId(), 0));
+            }
+            if (!resumenRepository.existsById(banco.getId())) {
+                reconstruir(banco.getId());
+            }
+        }
+    }
+}
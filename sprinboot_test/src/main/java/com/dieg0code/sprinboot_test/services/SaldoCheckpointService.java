@@ -0,0 +1,102 @@
+package com.dieg0code.sprinboot_test.services;
+
+import com.dieg0code.sprinboot_test.exceptions.RecursoNoEncontradoException;
+import com.dieg0code.sprinboot_test.models.Cuenta;
+import com.dieg0code.sprinboot_test.models.Movimiento;
+import com.dieg0code.sprinboot_test.models.SaldoCheckpoint;
+import com.dieg0code.sprinboot_test.repositories.MovimientoRepository;
+import com.dieg0code.sprinboot_test.repositories.SaldoCheckpointRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Optional;
+
+/**
+ * Mantiene checkpoints periódicos del saldo de cada cuenta para responder el saldo en una fecha
+ * pasada sin recorrer todo el historial: se parte del último checkpoint anterior a la fecha y se
+ * suman los movimientos posteriores, que nunca son más que {@code intervalo}. No hay checkpoints
+ * antes del primer movimiento, así que esas fechas no tienen saldo.
+ */
+@Service
+public class SaldoCheckpointService {
+
+    private final SaldoCheckpointRepository checkpointRepository;
+    private final MovimientoRepository movimientoRepository;
+    private final int intervalo;
+
+    public SaldoCheckpointService(SaldoCheckpointRepository checkpointRepository,
+                                  MovimientoRepository movimientoRepository,
+                                  @Value("${cuentas.checkpoint.intervalo:100}") int intervalo) {
+        this.checkpointRepository = checkpointRepository;
+        this.movimientoRepository = movimientoRepository;
+        this.intervalo = intervalo;
+    }
+
+    /**
+     * Se llama después de guardar un movimiento, dentro de la misma transacción y con la cuenta
+     * bloqueada. El contador de movimientos desde el último checkpoint vive en la fila de la cuenta,
+     * que el llamador ya actualiza: solo se escribe algo más cuando toca guardar un checkpoint.
+     *
+     * @param saldoResultante saldo de la cuenta luego de aplicar el movimiento
+     */
+    @Transactional
+    public void registrar(Cuenta cuenta, Movimiento movimiento, BigDecimal saldoResultante) {
+        cuenta.setMovimientosSinCheckpoint(registrar(cuenta.getId(), cuenta.getMovimientosSinCheckpoint(), movimiento, saldoResultante));
+    }
+
+    /**
+     * Variante para quien actualiza la cuenta por SQL: recibe el contador leído de la fila bloqueada y
+     * devuelve el que hay que guardar en ella. El movimiento necesita id solo si
+     * {@link #necesitaId} lo indica.
+     */
+    @Transactional
+    public int registrar(Long cuentaId, Integer sinCheckpoint, Movimiento movimiento, BigDecimal saldoResultante) {
+        int contador = sinCheckpoint == null ? 0 : sinCheckpoint;
+
+        if (sinCheckpoint == null) {
+            BigDecimal saldoPrevio = saldoResultante.subtract(movimiento.getMonto());
+            checkpointRepository.save(new SaldoCheckpoint(cuentaId, 0L, movimiento.getFecha(), saldoPrevio));
+        }
+
+        contador++;
+        if (contador >= intervalo) {
+            checkpointRepository.save(new SaldoCheckpoint(cuentaId, movimiento.getId(), movimiento.getFecha(), saldoResultante));
+            contador = 0;
+        }
+        return contador;
+    }
+
+    /**
+     * @return si el próximo movimiento de una cuenta con este contador guardará un checkpoint con su id
+     */
+    public boolean necesitaId(Integer sinCheckpoint) {
+        return (sinCheckpoint == null ? 0 : sinCheckpoint) + 1 >= intervalo;
+    }
+
+    /**
+     * Retorna el saldo de la cuenta en la fecha indicada, o vacío si la cuenta no tiene movimientos
+     * registrados (su saldo nunca cambió por una transferencia).
+     *
+     * @throws RecursoNoEncontradoException si la fecha es anterior al primer movimiento: no se sabe si
+     *                                      la cuenta ya existía
+     */
+    @Transactional(readOnly = true)
+    public Optional<BigDecimal> saldoEn(Long cuentaId, Instant fecha) {
+        Optional<SaldoCheckpoint> anterior = checkpointRepository.findFirstByCuentaIdAndFechaLessThanEqualOrderByFechaDescIdDesc(cuentaId, fecha);
+
+        if (anterior.isEmpty()) {
+            if (checkpointRepository.existsByCuentaId(cuentaId)) {
+                throw new RecursoNoEncontradoException("No hay saldo de la cuenta " + cuentaId + " antes de su primer movimiento");
+            }
+            return Optional.empty();
+        }
+
+        SaldoCheckpoint checkpoint = anterior.get();
+        BigDecimal desdeCheckpoint = movimientoRepository.sumarEntre(cuentaId, checkpoint.getFecha(), fecha, checkpoint.getMovimientoId());
+
+        return Optional.of(checkpoint.getSaldo().add(desdeCheckpoint));
+    }
+}
@@ -0,0 +1,275 @@
+package com.dieg0code.sprinboot_test.services;
+
+import com.dieg0code.sprinboot_test.events.CambioRemotoEvent;
+import com.dieg0code.sprinboot_test.events.SaldoActualizadoEvent;
+import com.dieg0code.sprinboot_test.exceptions.SolicitudInvalidaException;
+import com.dieg0code.sprinboot_test.models.SaldoDTO;
+import com.dieg0code.sprinboot_test.models.SaldoVersionDTO;
+import com.dieg0code.sprinboot_test.models.TipoEntidad;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Reparte por SSE los cambios de saldo confirmados a los clientes suscritos.
+ * <p>
+ * Cada suscriptor guarda solo el último saldo pendiente por cuenta, así que su buffer está acotado
+ * por las cuentas a las que se suscribió y un cliente lento recibe los cambios coalescidos en vez
+ * de acumularlos. Un suscriptor tiene como máximo una tarea de envío en cola. Los saldos llevan la
+ * versión de la cuenta: uno más viejo que el último conocido (el inicial incluido) se descarta.
+ * <p>
+ * {@code SseEmitter.send} bloquea mientras el cliente no lee. Un envío que tarda más que
+ * {@code envioTimeoutMs} deja al suscriptor fuera y el pool suma un hilo mientras ese envío siga
+ * bloqueado, así un cliente lento no detiene el reparto a los demás. Los hilos extra tienen un tope
+ * ({@code cuentas.stream.max-hilos-bloqueados}): pasado el tope el suscriptor igual queda fuera, pero
+ * su envío ocupa uno de los hilos normales hasta que el contenedor corte la escritura.
+ */
+@Component
+public class SaldoNotificador {
+
+    private static final long SIN_ENVIO = 0;
+    // El vigilante marcó el envío en curso como bloqueado y sumó un hilo al pool
+    private static final long BLOQUEADO = -1;
+    // Bloqueado con el tope de hilos extra alcanzado: no se sumó hilo
+    private static final long BLOQUEADO_SIN_HILO = -2;
+
+    private final Map<Long, Set<Suscriptor>> suscriptoresPorCuenta = new ConcurrentHashMap<>();
+    private final Set<Suscriptor> suscriptores = ConcurrentHashMap.newKeySet();
+    private final ThreadPoolExecutor envios;
+    private final ScheduledExecutorService vigilante = Executors.newSingleThreadScheduledExecutor();
+    private final long timeoutMs;
+    private final long envioTimeoutNanos;
+    private final int maxCuentas;
+    private final int maxHilosBloqueados;
+    // Protegido por this, igual que el tamaño del pool
+    private int hilosBloqueados;
+
+    public SaldoNotificador(@Value("${cuentas.stream.hilos:4}") int hilos,
+                            @Value("${cuentas.stream.timeout-ms:1800000}") long timeoutMs,
+                            @Value("${cuentas.stream.max-cuentas:1000}") int maxCuentas,
+                            @Value("${cuentas.stream.envio-timeout-ms:5000}") long envioTimeoutMs,
+                            @Value("${cuentas.stream.max-hilos-bloqueados:16}") int maxHilosBloqueados) {
+        this.envios = new ThreadPoolExecutor(hilos, hilos, 60, TimeUnit.SECONDS, new LinkedBlockingQueue<>());
+        this.timeoutMs = timeoutMs;
+        this.envioTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(envioTimeoutMs);
+        this.maxCuentas = maxCuentas;
+        this.maxHilosBloqueados = maxHilosBloqueados;
+
+        long periodo = Math.max(envioTimeoutMs / 2, 1);
+        vigilante.scheduleWithFixedDelay(this::vigilarEnvios, periodo, periodo, TimeUnit.MILLISECONDS);
+    }
+
+    public int getMaxCuentas() {
+        return maxCuentas;
+    }
+
+    public SseEmitter suscribir(Collection<SaldoVersionDTO> saldosIniciales) {
+        if (saldosIniciales.size() > maxCuentas) {
+            throw new SolicitudInvalidaException("No se puede suscribir a más de " + maxCuentas + " cuentas");
+        }
+
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        Suscriptor suscriptor = new Suscriptor(emitter, saldosIniciales.stream().map(SaldoVersionDTO::id).toList());
+
+        suscriptores.add(suscriptor);
+        for (Long cuentaId : suscriptor.cuentas) {
+            suscriptoresPorCuenta.computeIfAbsent(cuentaId, id -> ConcurrentHashMap.newKeySet()).add(suscriptor);
+        }
+
+        emitter.onCompletion(() -> cancelar(suscriptor));
+        emitter.onTimeout(() -> cancelar(suscriptor));
+        emitter.onError(e -> cancelar(suscriptor));
+
+        // Un cambio confirmado después de la lectura inicial pudo llegar ya: no se pisa con el inicial
+        saldosIniciales.forEach(suscriptor::encolar);
+
+        return emitter;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onSaldoActualizado(SaldoActualizadoEvent event) {
+        Set<Suscriptor> interesados = suscriptoresPorCuenta.get(event.cuentaId());
+        if (interesados == null) {
+            return;
+        }
+
+        SaldoVersionDTO saldo = new SaldoVersionDTO(event.cuentaId(), event.saldo(), event.version());
+        for (Suscriptor suscriptor : interesados) {
+            suscriptor.encolar(saldo);
+        }
+    }
+
+    @EventListener
+    public void onCambioRemoto(CambioRemotoEvent event) {
+        if (event.tipo() == TipoEntidad.CUENTA && event.saldo() != null) {
+            onSaldoActualizado(new SaldoActualizadoEvent(event.entidadId(), event.saldo(), event.version()));
+        }
+    }
+
+    public int totalSuscriptores() {
+        return suscriptores.size();
+    }
+
+    @PreDestroy
+    public void cerrar() {
+        vigilante.shutdownNow();
+        envios.shutdownNow();
+    }
+
+    private void cancelar(Suscriptor suscriptor) {
+        if (!suscriptor.activo.compareAndSet(true, false)) {
+            return;
+        }
+
+        suscriptores.remove(suscriptor);
+        for (Long cuentaId : suscriptor.cuentas) {
+            suscriptoresPorCuenta.computeIfPresent(cuentaId, (id, set) -> {
+                set.remove(suscriptor);
+                return set.isEmpty() ? null : set;
+            });
+        }
+    }
+
+    // El emitter no se puede cerrar desde aquí (send y complete comparten su monitor): se deja de
+    // enviarle y el hilo bloqueado se libera cuando el contenedor corta la escritura
+    private void vigilarEnvios() {
+        long ahora = System.nanoTime();
+        for (Suscriptor suscriptor : suscriptores) {
+            long desde = suscriptor.envioDesde.get();
+            if (desde > SIN_ENVIO && ahora - desde > envioTimeoutNanos) {
+                // Se decide bajo el monitor del pool para no pasar el tope
+                synchronized (this) {
+                    long marca = hilosBloqueados < maxHilosBloqueados ? BLOQUEADO : BLOQUEADO_SIN_HILO;
+                    if (suscriptor.envioDesde.compareAndSet(desde, marca)) {
+                        cancelar(suscriptor);
+                        if (marca == BLOQUEADO) {
+                            sumarHilos(1);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    int hilosBloqueados() {
+        synchronized (this) {
+            return hilosBloqueados;
+        }
+    }
+
+    // El envío que bloquea cuando el cliente no lee; aparte para poder simularlo en los tests
+    void enviar(SseEmitter emitter, SaldoDTO saldo) throws IOException {
+        emitter.send(SseEmitter.event()
+                .name("saldo")
+                .id(String.valueOf(saldo.id()))
+                .data(saldo));
+    }
+
+    private synchronized void sumarHilos(int delta) {
+        hilosBloqueados += delta;
+        int hilos = envios.getCorePoolSize() + delta;
+        if (delta > 0) {
+            envios.setMaximumPoolSize(hilos);
+            envios.setCorePoolSize(hilos);
+        } else {
+            envios.setCorePoolSize(hilos);
+            envios.setMaximumPoolSize(hilos);
+        }
+    }
+
+    private final class Suscriptor {
+        private final SseEmitter emitter;
+        private final Set<Long> cuentas;
+        // Último saldo conocido por cuenta, enviado o no; decide qué versión gana
+        private final Map<Long, SaldoVersionDTO> ultimos = new ConcurrentHashMap<>();
+        private final Set<Long> pendientes = ConcurrentHashMap.newKeySet();
+        private final AtomicBoolean programado = new AtomicBoolean();
+        private final AtomicBoolean activo = new AtomicBoolean(true);
+        // System.nanoTime() del envío en curso, SIN_ENVIO o BLOQUEADO
+        private final AtomicLong envioDesde = new AtomicLong(SIN_ENVIO);
+
+        private Suscriptor(SseEmitter emitter, Collection<Long> cuentas) {
+            this.emitter = emitter;
+            this.cuentas = Set.copyOf(cuentas);
+        }
+
+        private void encolar(SaldoVersionDTO saldo) {
+            if (!activo.get()) {
+                return;
+            }
+
+            // Solo avanza la versión: un saldo sin enviar se reemplaza por el más nuevo y uno atrasado se descarta
+            SaldoVersionDTO vigente = ultimos.merge(saldo.id(), saldo, (actual, nuevo) -> nuevo.version() > actual.version() ? nuevo : actual);
+            if (vigente != saldo) {
+                return;
+            }
+            pendientes.add(saldo.id());
+
+            if (programado.compareAndSet(false, true)) {
+                try {
+                    envios.execute(this::vaciar);
+                } catch (RejectedExecutionException e) {
+                    programado.set(false);
+                }
+            }
+        }
+
+        private void vaciar() {
+            try {
+                Iterator<Long> it = pendientes.iterator();
+                while (it.hasNext() && activo.get()) {
+                    Long cuentaId = it.next();
+                    it.remove();
+                    SaldoVersionDTO saldo = ultimos.get(cuentaId);
+
+                    envioDesde.set(System.nanoTime());
+                    try {
+                        enviar(emitter, new SaldoDTO(cuentaId, saldo.saldo()));
+                    } finally {
+                        long marca = envioDesde.getAndSet(SIN_ENVIO);
+                        if (marca == BLOQUEADO) {
+                            sumarHilos(-1);
+                        }
+                        if (marca == BLOQUEADO || marca == BLOQUEADO_SIN_HILO) {
+                            // Ya estaba fuera: se cierra el stream y el cliente puede volver a suscribirse
+                            emitter.complete();
+                        }
+                    }
+                }
+            } catch (IOException | IllegalStateException e) {
+                cancelar(this);
+                emitter.completeWithError(e);
+            } finally {
+                programado.set(false);
+            }
+
+            // Un cambio pudo llegar entre el último envío y liberar la marca
+            if (activo.get() && !pendientes.isEmpty() && programado.compareAndSet(false, true)) {
+                try {
+                    envios.execute(this::vaciar);
+                } catch (RejectedExecutionException e) {
+                    programado.set(false);
+                }
+            }
+        }
+    }
+}
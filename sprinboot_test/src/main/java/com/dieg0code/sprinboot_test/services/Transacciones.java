@@ -0,0 +1,20 @@
+package com.dieg0code.sprinboot_test.services;
+
+import org.springframework.transaction.interceptor.TransactionAspectSupport;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+final class Transacciones {
+
+    private Transacciones() {
+    }
+
+    /**
+     * Marca la transacción actual para rollback cuando un fallo se devuelve como
+     * {@link com.dieg0code.sprinboot_test.models.Resultado} en lugar de lanzarse.
+     */
+    static void marcarRollback() {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.dieg0code.sprinboot_test.services;
+
+import com.dieg0code.sprinboot_test.exceptions.SolicitudInvalidaException;
+import com.dieg0code.sprinboot_test.models.EstadoTransferenciaProgramada;
+import com.dieg0code.sprinboot_test.models.FrecuenciaTransferencia;
+import com.dieg0code.sprinboot_test.models.Resultado;
+import com.dieg0code.sprinboot_test.models.TransferenciaProgramada;
+import com.dieg0code.sprinboot_test.repositories.TransferenciaProgramadaRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.concurrent.ThreadLocalRandom;
+
+@Service
+public class TransferenciaProgramadaService {
+
+    private final TransferenciaProgramadaRepository programadaRepository;
+    private final CuentaService cuentaService;
+    private final int particiones;
+
+    public TransferenciaProgramadaService(TransferenciaProgramadaRepository programadaRepository,
+                                          CuentaService cuentaService,
+                                          @Value("${cuentas.programadas.particiones:16}") int particiones) {
+        this.programadaRepository = programadaRepository;
+        this.cuentaService = cuentaService;
+        this.particiones = particiones;
+    }
+
+    @Transactional
+    public TransferenciaProgramada programar(TransferenciaProgramada transferencia) {
+        if (transferencia.getMonto() == null || transferencia.getMonto().compareTo(BigDecimal.ZERO) <= 0) {
+            throw new SolicitudInvalidaException("El monto debe ser mayor a cero");
+        }
+        if (transferencia.getProximaEjecucion() == null) {
+            throw new SolicitudInvalidaException("Falta la fecha de ejecución");
+        }
+        if (transferencia.getFrecuencia() == null) {
+            transferencia.setFrecuencia(FrecuenciaTransferencia.UNICA);
+        }
+
+        transferencia.setId(null);
+        transferencia.setVersion(null);
+        transferencia.setEstado(EstadoTransferenciaProgramada.PENDIENTE);
+        transferencia.setEjecuciones(0);
+        transferencia.setUltimoError(null);
+        // Partición al azar: una nómina desde una sola cuenta se reparte entre todas las instancias
+        transferencia.setParticion(ThreadLocalRandom.current().nextInt(particiones));
+
+        return programadaRepository.save(transferencia);
+    }
+
+    @Transactional(readOnly = true)
+    public TransferenciaProgramada findById(Long id) {
+        return programadaRepository.findById(id).orElseThrow();
+    }
+
+    @Transactional
+    public TransferenciaProgramada cancelar(Long id) {
+        TransferenciaProgramada transferencia = programadaRepository.findById(id).orElseThrow();
+        if (transferencia.getEstado() == EstadoTransferenciaProgramada.PENDIENTE) {
+            transferencia.setEstado(EstadoTransferenciaProgramada.CANCELADA);
+        }
+
+        return transferencia;
+    }
+
+    /**
+     * Ejecuta la ocurrencia vencida y avanza la programación en la misma transacción. Si otra
+     * instancia ya la ejecutó, el control de versión hace fallar el commit y la transferencia
+     * también se revierte.
+     *
+     * @return {@code false} si la transferencia ya no estaba pendiente o aún no vence, o un
+     * {@link Resultado.Fallo} si la transferencia fue rechazada (la transacción queda marcada
+     * para rollback)
+     */
+    @Transactional
+    public Resultado<Boolean> ejecutar(Long id, Instant ahora) {
+        TransferenciaProgramada transferencia = programadaRepository.findById(id).orElse(null);
+        if (transferencia == null
+                || transferencia.getEstado() != EstadoTransferenciaProgramada.PENDIENTE
+                || transferencia.getProximaEjecucion().isAfter(ahora)) {
+            return Resultado.exito(false);
+        }
+
+        Resultado<Void> resultado = cuentaService.intentarTransferir(transferencia.getCuentaOrigenId(),
+                transferencia.getCuentaDestinoId(), transferencia.getMonto(), transferencia.getBancoId());
+        if (resultado instanceof Resultado.Fallo<Void> fallo) {
+            Transacciones.marcarRollback();
+            return Resultado.fallo(fallo.error(), fallo.mensaje());
+        }
+
+        transferencia.setEjecuciones(transferencia.getEjecuciones() + 1);
+        transferencia.setUltimoError(null);
+        transferencia.avanzar(EstadoTransferenciaProgramada.COMPLETADA);
+
+        return Resultado.exito(true);
+    }
+
+    /**
+     * Registra el fallo de una ocurrencia: una transferencia única queda FALLIDA y una recurrente
+     * pasa a su siguiente ocurrencia.
+     */
+    @Transactional
+    public void registrarFallo(Long id, String error) {
+        programadaRepository.findById(id).ifPresent(transferencia -> {
+            transferencia.setUltimoError(error != null && error.length() > 255 ? error.substring(0, 255) : error);
+            transferencia.avanzar(EstadoTransferenciaProgramada.FALLIDA);
+        });
+    }
+}
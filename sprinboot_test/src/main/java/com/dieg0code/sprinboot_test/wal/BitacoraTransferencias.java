@@ -0,0 +1,456 @@
+package com.dieg0code.sprinboot_test.wal;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+/**
+ * Bitácora de escritura anticipada (write-ahead log) de transferencias: un archivo de solo anexado,
+ * mapeado en memoria y dividido en segmentos, con registros binarios de tamaño fijo
+ * ({@link RegistroBitacora}).
+ * <p>
+ * {@link #registrar} devuelve cuando el registro ya está en disco, por lo que un servicio puede
+ * confirmar la transferencia al cliente y aplicarla a la base de datos después, en lotes. Las
+ * escrituras de varios hilos se agrupan: un hilo sincronizador hace un solo {@code force} (msync)
+ * por todos los registros escritos desde el anterior, opcionalmente esperando
+ * {@code cuentas.wal.espera-grupo-us} para juntar más.
+ * <p>
+ * Cuando el servicio confirma en la base de datos las transferencias hasta una secuencia llama a
+ * {@link #confirmarHasta}: se guarda el punto de control y se borran los segmentos ya aplicados. Al
+ * abrir la bitácora se recorren los segmentos, se descarta la cola cortada por una caída (CRC
+ * inválido o secuencia discontinua) y los registros posteriores al punto de control quedan en
+ * {@link #pendientes()} para que el servicio los vuelva a aplicar.
+ */
+@Component
+@ConditionalOnProperty(name = "cuentas.wal.habilitada", havingValue = "true")
+public class BitacoraTransferencias implements Closeable {
+
+    private static final Logger log = LoggerFactory.getLogger(BitacoraTransferencias.class);
+
+    private static final String PREFIJO = "wal-";
+    private static final String SUFIJO = ".log";
+    private static final String PUNTO_CONTROL = "punto-control";
+
+    private final Path directorio;
+    private final int tamanoSegmento;
+    private final long esperaGrupoNanos;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition hayEscritos = lock.newCondition();
+    private final Condition hayPersistidos = lock.newCondition();
+    private final List<Segmento> segmentos = new ArrayList<>();
+    private final List<RegistroBitacora> pendientes;
+    private final Thread sincronizador;
+    // Serializa las escrituras del punto de control, sin bloquear a registrar mientras hace fsync
+    private final Object confirmacion = new Object();
+
+    // Protegidos por lock
+    private Segmento actual;
+    private long siguienteSecuencia;
+    private long escrita;
+    private long persistida;
+    private int posicionPersistida;
+    private long sincronizaciones;
+    private boolean cerrada;
+    // Primer fallo de un force: la bitácora deja de aceptar registros
+    private IOException error;
+
+    // Protegida por confirmacion
+    private long confirmada;
+
+    public BitacoraTransferencias(@Value("${cuentas.wal.directorio:./data/wal}") Path directorio,
+                                  @Value("${cuentas.wal.tamano-segmento:67108864}") int tamanoSegmento,
+                                  @Value("${cuentas.wal.espera-grupo-us:0}") long esperaGrupoUs) throws IOException {
+        if (tamanoSegmento < RegistroBitacora.TAMANO || tamanoSegmento % RegistroBitacora.TAMANO != 0) {
+            throw new IllegalArgumentException("El tamaño de segmento debe ser un múltiplo de " + RegistroBitacora.TAMANO);
+        }
+        this.directorio = directorio;
+        this.tamanoSegmento = tamanoSegmento;
+        this.esperaGrupoNanos = TimeUnit.MICROSECONDS.toNanos(esperaGrupoUs);
+
+        Files.createDirectories(directorio);
+        this.pendientes = recuperar();
+
+        this.sincronizador = new Thread(this::sincronizar, "wal-sincronizador");
+        this.sincronizador.setDaemon(true);
+        this.sincronizador.start();
+    }
+
+    /**
+     * Anexa una transferencia y espera a que esté en disco.
+     *
+     * @return la secuencia asignada al registro
+     * @throws IllegalStateException si la bitácora está cerrada, falló una sincronización o se
+     *                               interrumpió la espera (el registro puede haber quedado escrito)
+     */
+    public long registrar(long cuentaOrigenId, long cuentaDestinoId, BigDecimal monto, long bancoId) {
+        Instant fecha = Instant.now().truncatedTo(ChronoUnit.MICROS);
+
+        lock.lock();
+        try {
+            verificarAbierta();
+            if (actual.posicion + RegistroBitacora.TAMANO > tamanoSegmento) {
+                rotar();
+            }
+
+            long secuencia = siguienteSecuencia;
+            new RegistroBitacora(secuencia, cuentaOrigenId, cuentaDestinoId, bancoId, monto, fecha)
+                    .escribir(actual.mapa, actual.posicion);
+            siguienteSecuencia++;
+            actual.posicion += RegistroBitacora.TAMANO;
+            escrita = secuencia;
+            hayEscritos.signal();
+
+            while (persistida < secuencia) {
+                verificarAbierta();
+                hayPersistidos.await();
+            }
+            return secuencia;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Se interrumpió la espera de la bitácora", e);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Guarda que las transferencias hasta {@code secuencia} ya están aplicadas en la base de datos y
+     * borra los segmentos que solo contienen registros hasta ahí. Una secuencia que no supera la ya
+     * confirmada se ignora: el punto de control solo avanza.
+     */
+    public void confirmarHasta(long secuencia) throws IOException {
+        synchronized (confirmacion) {
+            if (secuencia <= confirmada) {
+                return;
+            }
+            Path temporal = directorio.resolve(PUNTO_CONTROL + ".tmp");
+            try (FileChannel canal = FileChannel.open(temporal, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING)) {
+                canal.write(ByteBuffer.allocate(Long.BYTES).putLong(0, secuencia));
+                canal.force(true);
+            }
+            Files.move(temporal, directorio.resolve(PUNTO_CONTROL), StandardCopyOption.ATOMIC_MOVE);
+            confirmada = secuencia;
+        }
+
+        lock.lock();
+        try {
+            pendientes.removeIf(registro -> registro.secuencia() <= secuencia);
+            // Un segmento está aplicado si el siguiente empieza después de la secuencia confirmada
+            while (segmentos.size() > 1 && segmentos.get(1).primeraSecuencia <= secuencia + 1) {
+                Segmento aplicado = segmentos.remove(0);
+                aplicado.canal.close();
+                Files.deleteIfExists(aplicado.archivo);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return los registros recuperados al abrir que siguen sin confirmar, en orden de secuencia
+     */
+    public List<RegistroBitacora> pendientes() {
+        lock.lock();
+        try {
+            return List.copyOf(pendientes);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return el número de {@code force} hechos por el sincronizador; junto con las secuencias
+     * asignadas da el tamaño medio de los grupos
+     */
+    public long sincronizaciones() {
+        lock.lock();
+        try {
+            return sincronizaciones;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    @PreDestroy
+    public void close() throws IOException {
+        lock.lock();
+        try {
+            if (cerrada) {
+                return;
+            }
+            cerrada = true;
+            hayEscritos.signalAll();
+            hayPersistidos.signalAll();
+        } finally {
+            lock.unlock();
+        }
+
+        try {
+            sincronizador.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        lock.lock();
+        try {
+            actual.mapa.force();
+            for (Segmento segmento : segmentos) {
+                segmento.canal.close();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void sincronizar() {
+        while (true) {
+            Segmento segmento;
+            int desde;
+            int hasta;
+            long hastaSecuencia;
+
+            lock.lock();
+            try {
+                while (escrita == persistida && !cerrada) {
+                    hayEscritos.awaitUninterruptibly();
+                }
+                if (cerrada) {
+                    return;
+                }
+            } finally {
+                lock.unlock();
+            }
+
+            // Deja que otros hilos escriban antes del force para que entren en el mismo grupo
+            if (esperaGrupoNanos > 0) {
+                LockSupport.parkNanos(esperaGrupoNanos);
+            }
+
+            lock.lock();
+            try {
+                segmento = actual;
+                desde = posicionPersistida;
+                hasta = actual.posicion;
+                hastaSecuencia = escrita;
+            } finally {
+                lock.unlock();
+            }
+
+            // Sin lock: mientras tanto los demás hilos siguen escribiendo detrás de "hasta"
+            try {
+                segmento.mapa.force(desde, hasta - desde);
+            } catch (UncheckedIOException e) {
+                fallar(e.getCause());
+                return;
+            } catch (RuntimeException e) {
+                fallar(new IOException(e));
+                return;
+            }
+
+            lock.lock();
+            try {
+                persistida = Math.max(persistida, hastaSecuencia);
+                if (segmento == actual) {
+                    posicionPersistida = Math.max(posicionPersistida, hasta);
+                }
+                sincronizaciones++;
+                hayPersistidos.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    // Sin un sincronizador que los despierte, los hilos que esperan ven el error y lanzan
+    private void fallar(IOException e) {
+        log.error("Falló la sincronización de la bitácora; no se aceptan más registros", e);
+        lock.lock();
+        try {
+            if (error == null) {
+                error = e;
+            }
+            hayPersistidos.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Con lock. El segmento lleno se sincroniza entero antes de pasar al siguiente.
+    private void rotar() throws IOException {
+        try {
+            actual.mapa.force();
+        } catch (UncheckedIOException e) {
+            error = e.getCause();
+            hayPersistidos.signalAll();
+            throw e.getCause();
+        }
+        persistida = escrita;
+        hayPersistidos.signalAll();
+
+        actual = crearSegmento(siguienteSecuencia);
+        segmentos.add(actual);
+        posicionPersistida = 0;
+    }
+
+    private void verificarAbierta() {
+        if (cerrada) {
+            throw new IllegalStateException("La bitácora está cerrada");
+        }
+        if (error != null) {
+            throw new IllegalStateException("Falló una sincronización de la bitácora", error);
+        }
+    }
+
+    private List<RegistroBitacora> recuperar() throws IOException {
+        confirmada = leerPuntoControl();
+        List<Path> archivos;
+        try (Stream<Path> listado = Files.list(directorio)) {
+            archivos = listado.filter(p -> p.getFileName().toString().startsWith(PREFIJO)
+                            && p.getFileName().toString().endsWith(SUFIJO))
+                    .sorted()
+                    .toList();
+        }
+
+        List<RegistroBitacora> recuperados = new ArrayList<>();
+        long esperada = -1;
+        for (int i = 0; i < archivos.size(); i++) {
+            Segmento segmento = abrirSegmento(archivos.get(i));
+            if (esperada >= 0 && segmento.primeraSecuencia != esperada) {
+                throw new IllegalStateException("Falta un segmento de la bitácora antes de " + archivos.get(i));
+            }
+            esperada = segmento.primeraSecuencia;
+
+            int posicion = 0;
+            while (posicion + RegistroBitacora.TAMANO <= tamanoSegmento) {
+                RegistroBitacora registro = RegistroBitacora.leer(segmento.mapa, posicion);
+                if (registro == null || registro.secuencia() != esperada) {
+                    break;
+                }
+                if (registro.secuencia() > confirmada) {
+                    recuperados.add(registro);
+                }
+                esperada++;
+                posicion += RegistroBitacora.TAMANO;
+            }
+            segmento.posicion = posicion;
+            segmentos.add(segmento);
+
+            boolean ultimo = i == archivos.size() - 1;
+            if (posicion + RegistroBitacora.TAMANO <= tamanoSegmento && !ultimo) {
+                throw new IllegalStateException("Registro inválido en medio de la bitácora: " + archivos.get(i) + " posición " + posicion);
+            }
+            if (ultimo) {
+                // Borra la cola cortada o vieja para que no se confunda con registros nuevos
+                limpiarDesde(segmento, posicion);
+            }
+        }
+
+        siguienteSecuencia = esperada >= 0 ? esperada : confirmada + 1;
+        escrita = siguienteSecuencia - 1;
+        persistida = escrita;
+
+        if (segmentos.isEmpty()) {
+            segmentos.add(crearSegmento(siguienteSecuencia));
+        }
+        actual = segmentos.get(segmentos.size() - 1);
+        posicionPersistida = actual.posicion;
+
+        if (!recuperados.isEmpty()) {
+            log.info("Bitácora: {} transferencias sin confirmar desde la secuencia {}", recuperados.size(),
+                    recuperados.get(0).secuencia());
+        }
+        return Collections.synchronizedList(recuperados);
+    }
+
+    private void limpiarDesde(Segmento segmento, int posicion) {
+        byte[] ceros = new byte[RegistroBitacora.TAMANO];
+        for (int i = posicion; i + RegistroBitacora.TAMANO <= tamanoSegmento; i += RegistroBitacora.TAMANO) {
+            if (segmento.mapa.getInt(i) == 0) {
+                break;
+            }
+            segmento.mapa.put(i, ceros);
+        }
+        segmento.mapa.force();
+    }
+
+    private long leerPuntoControl() throws IOException {
+        Path archivo = directorio.resolve(PUNTO_CONTROL);
+        if (!Files.exists(archivo)) {
+            return 0;
+        }
+        return ByteBuffer.wrap(Files.readAllBytes(archivo)).getLong();
+    }
+
+    private Segmento crearSegmento(long primeraSecuencia) throws IOException {
+        Path archivo = directorio.resolve(String.format("%s%020d%s", PREFIJO, primeraSecuencia, SUFIJO));
+        FileChannel canal = FileChannel.open(archivo, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        MappedByteBuffer mapa = canal.map(FileChannel.MapMode.READ_WRITE, 0, tamanoSegmento);
+        // El tamaño del archivo y su entrada en el directorio también tienen que sobrevivir a una caída
+        canal.force(true);
+        sincronizarDirectorio();
+        return new Segmento(archivo, canal, mapa, primeraSecuencia);
+    }
+
+    private Segmento abrirSegmento(Path archivo) throws IOException {
+        String nombre = archivo.getFileName().toString();
+        long primeraSecuencia = Long.parseLong(nombre.substring(PREFIJO.length(), nombre.length() - SUFIJO.length()));
+        FileChannel canal = FileChannel.open(archivo, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        MappedByteBuffer mapa = canal.map(FileChannel.MapMode.READ_WRITE, 0, tamanoSegmento);
+        return new Segmento(archivo, canal, mapa, primeraSecuencia);
+    }
+
+    private void sincronizarDirectorio() {
+        try (FileChannel canal = FileChannel.open(directorio, StandardOpenOption.READ)) {
+            canal.force(true);
+        } catch (IOException e) {
+            // Algunos sistemas (Windows) no permiten abrir un directorio
+            log.debug("No se pudo sincronizar el directorio de la bitácora", e);
+        }
+    }
+
+    private static class Segmento {
+        private final Path archivo;
+        private final FileChannel canal;
+        private final MappedByteBuffer mapa;
+        private final long primeraSecuencia;
+        private int posicion;
+
+        private Segmento(Path archivo, FileChannel canal, MappedByteBuffer mapa, long primeraSecuencia) {
+            this.archivo = archivo;
+            this.canal = canal;
+            this.mapa = mapa;
+            this.primeraSecuencia = primeraSecuencia;
+        }
+    }
+}
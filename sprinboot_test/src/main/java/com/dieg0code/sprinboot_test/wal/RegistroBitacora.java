@@ -0,0 +1,78 @@
+package com.dieg0code.sprinboot_test.wal;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.zip.CRC32C;
+
+/**
+ * Una transferencia en la bitácora, con formato binario de tamaño fijo ({@value #TAMANO} bytes,
+ * big endian):
+ * <pre>
+ *  0  int   mágico "TRF1"
+ *  4  long  secuencia
+ * 12  long  cuenta origen
+ * 20  long  cuenta destino
+ * 28  long  banco
+ * 36  long  monto sin escala (unscaled value)
+ * 44  int   escala del monto
+ * 48  long  fecha en microsegundos desde la época
+ * 56  int   reservado
+ * 60  int   CRC32C de los bytes 0..59
+ * </pre>
+ * Un registro con mágico cero es espacio sin escribir; uno con CRC inválido, una escritura cortada.
+ */
+public record RegistroBitacora(long secuencia, long cuentaOrigenId, long cuentaDestinoId, long bancoId,
+                               BigDecimal monto, Instant fecha) {
+
+    public static final int TAMANO = 64;
+
+    static final int MAGICO = 0x54524631;
+    private static final int POSICION_CRC = 60;
+
+    /**
+     * Codifica el registro en {@code destino} a partir de {@code posicion}, sin mover su posición.
+     *
+     * @throws IllegalArgumentException si el monto no cabe en 64 bits sin escala
+     */
+    void escribir(ByteBuffer destino, int posicion) {
+        long sinEscala;
+        try {
+            sinEscala = monto.unscaledValue().longValueExact();
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException("Monto fuera de rango para la bitácora: " + monto, e);
+        }
+
+        destino.putInt(posicion, MAGICO);
+        destino.putLong(posicion + 4, secuencia);
+        destino.putLong(posicion + 12, cuentaOrigenId);
+        destino.putLong(posicion + 20, cuentaDestinoId);
+        destino.putLong(posicion + 28, bancoId);
+        destino.putLong(posicion + 36, sinEscala);
+        destino.putInt(posicion + 44, monto.scale());
+        destino.putLong(posicion + 48, ChronoUnit.MICROS.between(Instant.EPOCH, fecha));
+        destino.putInt(posicion + 56, 0);
+        destino.putInt(posicion + POSICION_CRC, crc(destino, posicion));
+    }
+
+    /**
+     * @return el registro en {@code posicion}, o {@code null} si ahí no hay un registro completo y válido
+     */
+    static RegistroBitacora leer(ByteBuffer origen, int posicion) {
+        if (origen.getInt(posicion) != MAGICO || origen.getInt(posicion + POSICION_CRC) != crc(origen, posicion)) {
+            return null;
+        }
+        BigDecimal monto = new BigDecimal(BigInteger.valueOf(origen.getLong(posicion + 36)), origen.getInt(posicion + 44));
+        Instant fecha = Instant.EPOCH.plus(origen.getLong(posicion + 48), ChronoUnit.MICROS);
+        return new RegistroBitacora(origen.getLong(posicion + 4), origen.getLong(posicion + 12),
+                origen.getLong(posicion + 20), origen.getLong(posicion + 28), monto, fecha);
+    }
+
+    private static int crc(ByteBuffer buffer, int posicion) {
+        CRC32C crc = new CRC32C();
+        crc.update(buffer.slice(posicion, POSICION_CRC));
+        return (int) crc.getValue();
+    }
+}
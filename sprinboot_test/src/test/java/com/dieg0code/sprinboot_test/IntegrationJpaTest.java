@@ -1,12 +1,25 @@
 package com.dieg0code.sprinboot_test;
 
+import com.dieg0code.sprinboot_test.models.Banco;
 import com.dieg0code.sprinboot_test.models.Cuenta;
+import com.dieg0code.sprinboot_test.models.CuentaDTO;
+import com.dieg0code.sprinboot_test.models.Movimiento;
+import com.dieg0code.sprinboot_test.models.MovimientoDTO;
+import com.dieg0code.sprinboot_test.models.SaldoDTO;
+import com.dieg0code.sprinboot_test.models.TipoMovimiento;
+import com.dieg0code.sprinboot_test.repositories.BancoRepository;
+import com.dieg0code.sprinboot_test.repositories.ContadorBancoRepository;
 import com.dieg0code.sprinboot_test.repositories.CuentaRepository;
+import com.dieg0code.sprinboot_test.repositories.MovimientoRepository;
+import jakarta.persistence.EntityManagerFactory;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
 
 import java.math.BigDecimal;
+import java.time.Instant;
 import java.util.List;
 import java.util.NoSuchElementException;
 import java.util.Optional;
@@ -18,6 +31,18 @@ public class IntegrationJpaTest {
     @Autowired
     CuentaRepository cuentaRepository;
 
+    @Autowired
+    MovimientoRepository movimientoRepository;
+
+    @Autowired
+    BancoRepository bancoRepository;
+
+    @Autowired
+    ContadorBancoRepository contadorRepository;
+
+    @Autowired
+    EntityManagerFactory entityManagerFactory;
+
     @Test
     void findByIdTest() {
         Optional<Cuenta> cuenta = cuentaRepository.findById(1L);
@@ -85,4 +110,96 @@ public class IntegrationJpaTest {
         assertThrows(NoSuchElementException.class, () -> cuentaRepository.findById(2L).orElseThrow());
         assertEquals(1, cuentaRepository.findAll().size());
     }
+
+    @Test
+    void findSaldosByIdInTest() {
+        List<SaldoDTO> saldos = cuentaRepository.findSaldosByIdIn(List.of(1L, 2L, 99L));
+        assertEquals(2, saldos.size());
+        assertTrue(saldos.stream().anyMatch(s -> s.id() == 1L && "1000.00".equals(s.saldo().toPlainString())));
+        assertTrue(saldos.stream().anyMatch(s -> s.id() == 2L && "2000.00".equals(s.saldo().toPlainString())));
+    }
+
+    @Test
+    void findSaldoByIdTest() {
+        Optional<BigDecimal> saldo = cuentaRepository.findSaldoById(1L);
+        assertTrue(saldo.isPresent());
+        assertEquals("1000.00", saldo.orElseThrow().toPlainString());
+        assertFalse(cuentaRepository.findSaldoById(99L).isPresent());
+    }
+
+    @Test
+    void findAllDTOTest() {
+        List<CuentaDTO> cuentas = cuentaRepository.findAllDTO();
+        assertEquals(2, cuentas.size());
+        assertEquals("Diego", cuentas.get(0).nombre());
+        assertEquals("Pedro", cuentas.get(1).nombre());
+    }
+
+    @Test
+    void movimientosKeysetTest() {
+        // Given
+        Instant fecha = Instant.parse("2024-01-01T10:00:00Z");
+        movimientoRepository.save(new Movimiento(1L, 2L, 1L, TipoMovimiento.DEBITO, new BigDecimal("-100"), fecha));
+        movimientoRepository.save(new Movimiento(1L, 2L, 1L, TipoMovimiento.DEBITO, new BigDecimal("-200"), fecha.plusSeconds(60)));
+        movimientoRepository.save(new Movimiento(1L, 2L, 1L, TipoMovimiento.DEBITO, new BigDecimal("-300"), fecha.plusSeconds(60)));
+        movimientoRepository.save(new Movimiento(2L, 1L, 1L, TipoMovimiento.CREDITO, new BigDecimal("300"), fecha.plusSeconds(60)));
+
+        // When
+        List<MovimientoDTO> primera = movimientoRepository.findUltimos(1L, PageRequest.of(0, 2));
+        MovimientoDTO ultimo = primera.get(1);
+        List<MovimientoDTO> segunda = movimientoRepository.findAnteriores(1L, ultimo.fecha(), ultimo.id(), PageRequest.of(0, 2));
+
+        // Then
+        assertEquals(2, primera.size());
+        assertEquals("-300", primera.get(0).monto().toPlainString());
+        assertEquals("-200", primera.get(1).monto().toPlainString());
+        assertEquals(1, segunda.size());
+        assertEquals("-100", segunda.get(0).monto().toPlainString());
+    }
+
+    @Test
+    void porSaldoKeysetTest() {
+        // Given
+        cuentaRepository.save(new Cuenta(null, "Ana", new BigDecimal("1500")));
+        cuentaRepository.save(new Cuenta(null, "Bea", new BigDecimal("1500")));
+        cuentaRepository.save(new Cuenta(null, "Carla", new BigDecimal("2500")));
+        BigDecimal desde = new BigDecimal("1000");
+        BigDecimal hasta = new BigDecimal("2000");
+
+        // When
+        List<CuentaDTO> primera = cuentaRepository.findPorSaldo(desde, hasta, PageRequest.of(0, 2));
+        CuentaDTO ultima = primera.get(1);
+        List<CuentaDTO> segunda = cuentaRepository.findPorSaldoDespues(desde, hasta, ultima.saldo(), ultima.id(), PageRequest.of(0, 2));
+        List<CuentaDTO> bajoUmbral = cuentaRepository.findBajoUmbral(new BigDecimal("1500"), PageRequest.of(0, 10));
+
+        // Then
+        assertEquals(List.of("Diego", "Ana"), primera.stream().map(CuentaDTO::nombre).toList());
+        assertEquals(List.of("Bea"), segunda.stream().map(CuentaDTO::nombre).toList());
+        assertEquals(List.of("Diego"), bajoUmbral.stream().map(CuentaDTO::nombre).toList());
+    }
+
+    @Test
+    void nombreUnicoTest() {
+        // Given
+        Cuenta duplicada = new Cuenta(null, "Diego", new BigDecimal("500"));
+
+        // When / Then
+        assertThrows(DataIntegrityViolationException.class, () -> cuentaRepository.saveAndFlush(duplicada));
+    }
+
+    @Test
+    void bancoEnCacheDeSegundoNivelTest() {
+        // Given
+        entityManagerFactory.getCache().evict(Banco.class);
+
+        // When
+        bancoRepository.findById(1L).orElseThrow();
+        int actualizados = contadorRepository.sumarTransferencias(1L, 3);
+
+        // Then
+        assertEquals(1, actualizados);
+        assertEquals(3, contadorRepository.findTotalTransferenciasById(1L).orElseThrow());
+        // Incrementar el contador no invalida la región de bancos
+        assertTrue(entityManagerFactory.getCache().contains(Banco.class, 1L));
+    }
 }
@@ -7,9 +7,11 @@ import com.dieg0code.sprinboot_test.exceptions.DineroInsuficienteException;
 import com.dieg0code.sprinboot_test.models.Banco;
 import com.dieg0code.sprinboot_test.models.Cuenta;
 import com.dieg0code.sprinboot_test.repositories.BancoRepository;
+import com.dieg0code.sprinboot_test.repositories.ContadorBancoRepository;
 import com.dieg0code.sprinboot_test.repositories.CuentaRepository;
 import com.dieg0code.sprinboot_test.services.CuentaService;
 import com.dieg0code.sprinboot_test.services.CuentaServiceImpl;
+import com.dieg0code.sprinboot_test.services.FiltroCuentas;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
@@ -22,6 +24,9 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 import java.math.BigDecimal;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
 
 @SpringBootTest
 class SprinbootTestApplicationTests {
@@ -30,9 +35,13 @@ class SprinbootTestApplicationTests {
 	CuentaRepository cuentaRepository;
 	@MockBean
 	BancoRepository bancoRepository;
+	@MockBean
+	ContadorBancoRepository contadorRepository;
 
 	@Autowired
 	CuentaService cuentaService;
+	@Autowired
+	FiltroCuentas filtroCuentas;
 
 	@BeforeEach
 	void setUp() {
@@ -43,9 +52,20 @@ class SprinbootTestApplicationTests {
 
 	@Test
 	void contextLoads() {
-		when(cuentaRepository.findById(1L)).thenReturn(Data.crearCuenta001());
-		when(cuentaRepository.findById(2L)).thenReturn(Data.crearCuenta002());
-		when(bancoRepository.findById(1L)).thenReturn(Data.crearBanco());
+		Cuenta cuentaOrigen = Data.crearCuenta001().orElseThrow();
+		Cuenta cuentaDestino = Data.crearCuenta002().orElseThrow();
+		Banco banco = Data.crearBanco().orElseThrow();
+		AtomicInteger contador = new AtomicInteger();
+
+		when(cuentaRepository.bloquearEnOrden(List.of(1L, 2L))).thenReturn(List.of(cuentaOrigen, cuentaDestino));
+		when(bancoRepository.findById(1L)).thenReturn(Optional.of(banco));
+		when(cuentaRepository.findSaldoById(1L)).then(invocation -> Optional.of(cuentaOrigen.getSaldo()));
+		when(cuentaRepository.findSaldoById(2L)).then(invocation -> Optional.of(cuentaDestino.getSaldo()));
+		when(contadorRepository.sumarTransferencias(eq(1L), anyInt())).then(invocation -> {
+			contador.addAndGet(invocation.getArgument(1));
+			return 1;
+		});
+		when(contadorRepository.findTotalTransferenciasById(1L)).then(invocation -> Optional.of(contador.get()));
 
 		BigDecimal saldoOrigen = cuentaService.revisarSaldo(1L);
 		BigDecimal saldoDestino = cuentaService.revisarSaldo(2L);
@@ -66,17 +86,64 @@ class SprinbootTestApplicationTests {
 		int total = cuentaService.revisarTotalTransferencias(1L);
 		assertEquals(2, total);
 
-		verify(cuentaRepository, times(4)).findById(1L);
-		verify(cuentaRepository, times(3)).findById(2L);
+		verify(cuentaRepository, times(2)).bloquearEnOrden(List.of(1L, 2L));
+		verify(cuentaRepository, never()).findById(anyLong());
+		verify(cuentaRepository, times(2)).findSaldoById(1L);
+		verify(cuentaRepository, times(2)).findSaldoById(2L);
 
 		verify(cuentaRepository, times(2)).save(any(Cuenta.class));
 
-		verify(bancoRepository, times(3)).findById(1L);
-		verify(bancoRepository, times(2)).save(any(Banco.class));
+		verify(bancoRepository, times(2)).findById(1L);
+		verify(contadorRepository, times(2)).sumarTransferencias(1L, 1);
+		verify(contadorRepository, times(1)).findTotalTransferenciasById(1L);
+		verify(bancoRepository, never()).save(any(Banco.class));
 
 		verify(cuentaRepository, never()).findAll();
 	}
 
+	@Test
+	void transferirMultipleTest() {
+		// Given
+		Cuenta cuentaOrigen = Data.crearCuenta002().orElseThrow();
+		Cuenta cuentaDestino1 = Data.crearCuenta001().orElseThrow();
+		Cuenta cuentaDestino3 = new Cuenta(3L, "Pepe", new BigDecimal("3000"));
+		Banco banco = Data.crearBanco().orElseThrow();
+		filtroCuentas.agregar(3L);
+
+		when(cuentaRepository.bloquearEnOrden(anyCollection())).thenReturn(List.of(cuentaDestino1, cuentaOrigen, cuentaDestino3));
+		when(bancoRepository.findById(1L)).thenReturn(Optional.of(banco));
+		when(contadorRepository.sumarTransferencias(1L, 2)).thenReturn(1);
+
+		// When
+		cuentaService.transferirMultiple(2L, Map.of(1L, new BigDecimal("100"), 3L, new BigDecimal("300")), 1L);
+
+		// Then
+		assertEquals("1600", cuentaOrigen.getSaldo().toPlainString());
+		assertEquals("1100", cuentaDestino1.getSaldo().toPlainString());
+		assertEquals("3300", cuentaDestino3.getSaldo().toPlainString());
+
+		verify(cuentaRepository).bloquearEnOrden(argThat(ids -> ids.size() == 3 && ids.containsAll(List.of(1L, 2L, 3L))));
+		verify(cuentaRepository, never()).findById(anyLong());
+		verify(contadorRepository, times(1)).sumarTransferencias(1L, 2);
+		verify(bancoRepository, never()).save(any(Banco.class));
+	}
+
+	@Test
+	void transferirMultipleDineroInsuficienteTest() {
+		// Given
+		Cuenta cuentaOrigen = Data.crearCuenta001().orElseThrow();
+		Cuenta cuentaDestino = Data.crearCuenta002().orElseThrow();
+		when(cuentaRepository.bloquearEnOrden(anyCollection())).thenReturn(List.of(cuentaOrigen, cuentaDestino));
+
+		// When
+		assertThrows(DineroInsuficienteException.class,
+				() -> cuentaService.transferirMultiple(1L, Map.of(2L, new BigDecimal("1200")), 1L));
+
+		// Then
+		assertEquals("1000", cuentaOrigen.getSaldo().toPlainString());
+		verify(contadorRepository, never()).sumarTransferencias(anyLong(), anyInt());
+	}
+
 	@Test
 	void contextLoad2() {
 		when(cuentaRepository.findById(1L)).thenReturn(Data.crearCuenta001());
@@ -0,0 +1,112 @@
+package com.dieg0code.sprinboot_test.benchmarks;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Mide el arranque de la aplicación en un proceso aparte: el tiempo desde que se lanza la JVM hasta
+ * que responde la primera petición a {@code /api/cuentas}, y la memoria residente (RSS) en ese
+ * momento, leída de {@code /proc} (solo Linux).
+ * <p>
+ * Compara el jar ejecutable de Spring Boot con el arranque rápido (AOT, AppCDS y perfil
+ * {@code rapido}). Antes hay que construir ambos desde {@code sprinboot_test}:
+ * <pre>
+ * mvn package -DskipTests                      # target/sprinboot_test-0.0.1-SNAPSHOT.jar
+ * mvn -Parranque-rapido package -DskipTests    # target/cds, target/lib y target/cuentas.jsa
+ * </pre>
+ *
+ * <p>No es un test: se ejecuta a mano desde {@code sprinboot_test} con
+ * {@code java ... ArranqueBenchmark [repeticiones] [puerto]}.
+ */
+public class ArranqueBenchmark {
+
+    static final String MAIN = "com.dieg0code.sprinboot_test.SprinbootTestApplication";
+    static final Duration LIMITE = Duration.ofMinutes(2);
+
+    public static void main(String[] args) throws Exception {
+        int repeticiones = args.length > 0 ? Integer.parseInt(args[0]) : 5;
+        int puerto = args.length > 1 ? Integer.parseInt(args[1]) : 18080;
+        String java = Path.of(System.getProperty("java.home"), "bin", "java").toString();
+
+        List<String> normal = List.of(java, "-Dserver.port=" + puerto,
+                "-jar", "target/sprinboot_test-0.0.1-SNAPSHOT.jar");
+        List<String> rapido = List.of(java, "-Dserver.port=" + puerto,
+                "-XX:SharedArchiveFile=target/cuentas.jsa", "-Xshare:auto",
+                "-Dspring.aot.enabled=true", "-Dspring.profiles.active=rapido",
+                "-cp", "target/cds/sprinboot_test-0.0.1-SNAPSHOT-cds.jar" + File.pathSeparator + "target/lib/*", MAIN);
+
+        medir("jar ejecutable", normal, repeticiones, puerto);
+        medir("aot + appcds", rapido, repeticiones, puerto);
+    }
+
+    private static void medir(String nombre, List<String> comando, int repeticiones, int puerto) throws Exception {
+        long[] milisegundos = new long[repeticiones];
+        long[] rssKb = new long[repeticiones];
+
+        for (int i = 0; i < repeticiones; i++) {
+            long inicio = System.nanoTime();
+            Process proceso = new ProcessBuilder(comando)
+                    .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                    .redirectError(ProcessBuilder.Redirect.DISCARD)
+                    .start();
+            try {
+                esperarPrimeraRespuesta(proceso, puerto);
+                milisegundos[i] = (System.nanoTime() - inicio) / 1_000_000;
+                rssKb[i] = rssKb(proceso.pid());
+            } finally {
+                proceso.destroy();
+                proceso.waitFor();
+            }
+        }
+
+        Arrays.sort(milisegundos);
+        Arrays.sort(rssKb);
+        System.out.printf("%-16s primera petición: mediana %5d ms (mín %5d)   RSS: mediana %7d KB%n",
+                nombre, milisegundos[repeticiones / 2], milisegundos[0], rssKb[repeticiones / 2]);
+    }
+
+    private static void esperarPrimeraRespuesta(Process proceso, int puerto) throws Exception {
+        HttpClient cliente = HttpClient.newBuilder().connectTimeout(Duration.ofMillis(200)).build();
+        HttpRequest peticion = HttpRequest.newBuilder(URI.create("http://localhost:" + puerto + "/api/cuentas")).build();
+        long limite = System.nanoTime() + LIMITE.toNanos();
+
+        while (System.nanoTime() < limite) {
+            if (!proceso.isAlive()) {
+                throw new IllegalStateException("La aplicación terminó con código " + proceso.exitValue());
+            }
+            try {
+                if (cliente.send(peticion, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                    return;
+                }
+            } catch (ConnectException e) {
+                // Todavía no escucha
+            }
+            Thread.sleep(5);
+        }
+        throw new IllegalStateException("La aplicación no respondió en " + LIMITE);
+    }
+
+    // VmRSS de /proc/<pid>/status, en KB; -1 fuera de Linux
+    private static long rssKb(long pid) throws IOException {
+        Path status = Path.of("/proc", String.valueOf(pid), "status");
+        if (!Files.exists(status)) {
+            return -1;
+        }
+        for (String linea : Files.readAllLines(status)) {
+            if (linea.startsWith("VmRSS:")) {
+                return Long.parseLong(linea.replaceAll("\\D", ""));
+            }
+        }
+        return -1;
+    }
+}
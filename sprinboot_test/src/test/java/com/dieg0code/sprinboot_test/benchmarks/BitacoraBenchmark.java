@@ -0,0 +1,63 @@
+package com.dieg0code.sprinboot_test.benchmarks;
+
+import com.dieg0code.sprinboot_test.wal.BitacoraTransferencias;
+
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Benchmark de la bitácora de transferencias: registros por segundo con distinto número de hilos y
+ * distinta espera de grupo, y cuántos registros entran en cada {@code force} (msync). Cada
+ * {@link BitacoraTransferencias#registrar} espera a que su registro esté en disco, así que con un
+ * solo hilo el resultado es la latencia de un msync del dispositivo.
+ * <p>
+ * Escribe en un directorio temporal; para medir el disco real conviene pasar un directorio en él.
+ *
+ * <p>No es un test: se ejecuta a mano con
+ * {@code java ... BitacoraBenchmark [registros por hilo] [directorio]}.
+ */
+public class BitacoraBenchmark {
+
+    static final int[] HILOS = {1, 4, 16, 64};
+    static final long[] ESPERAS_US = {0, 100, 1000};
+
+    public static void main(String[] args) throws Exception {
+        int porHilo = args.length > 0 ? Integer.parseInt(args[0]) : 2_000;
+        Path base = args.length > 1 ? Path.of(args[1]) : Files.createTempDirectory("cuentas-wal");
+
+        for (long esperaUs : ESPERAS_US) {
+            for (int hilos : HILOS) {
+                medir(Files.createTempDirectory(base, "wal"), hilos, esperaUs, porHilo);
+            }
+        }
+    }
+
+    private static void medir(Path directorio, int hilos, long esperaUs, int porHilo) throws Exception {
+        ExecutorService ejecutor = Executors.newFixedThreadPool(hilos);
+        try (BitacoraTransferencias bitacora = new BitacoraTransferencias(directorio, 64 * 1024 * 1024, esperaUs)) {
+            long inicio = System.nanoTime();
+            Future<?>[] tareas = new Future<?>[hilos];
+            for (int h = 0; h < hilos; h++) {
+                tareas[h] = ejecutor.submit(() -> {
+                    for (int i = 0; i < porHilo; i++) {
+                        bitacora.registrar(1L, 2L, BigDecimal.ONE, 1L);
+                    }
+                });
+            }
+            for (Future<?> tarea : tareas) {
+                tarea.get();
+            }
+            double segundos = (System.nanoTime() - inicio) / 1e9;
+
+            long registros = (long) hilos * porHilo;
+            System.out.printf("espera %4d us  %2d hilos: %9.0f registros/s  %6.1f registros por msync%n",
+                    esperaUs, hilos, registros / segundos, (double) registros / bitacora.sincronizaciones());
+        } finally {
+            ejecutor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.dieg0code.sprinboot_test.benchmarks;
+
+import com.dieg0code.sprinboot_test.config.RegistroConsultasLentas;
+
+import javax.sql.DataSource;
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+
+/**
+ * Benchmark del costo propio de {@link RegistroConsultasLentas}: la misma secuencia de JDBC que una
+ * actualización de saldo ({@code prepareStatement}, dos parámetros, {@code executeUpdate},
+ * {@code close}) contra un driver falso que no hace nada, directo y a través de los proxies del
+ * registro. La diferencia es lo que el registro suma a cada sentencia, en tiempo y en bytes asignados.
+ * <p>
+ * {@link RegistroBenchmark} mide el efecto sobre transferencias completas con la base de datos.
+ *
+ * <p>No es un test: se ejecuta a mano con {@code java ... ConsultasLentasBenchmark [sentencias]}.
+ */
+public class ConsultasLentasBenchmark {
+
+    static final String SQL = "UPDATE cuentas SET saldo = ? WHERE id = ?";
+
+    public static void main(String[] args) throws Exception {
+        int sentencias = args.length > 0 ? Integer.parseInt(args[0]) : 5_000_000;
+
+        DataSource directo = driverFalso();
+        // Umbral inalcanzable: se mide el proxy, no la escritura del log
+        DataSource envuelto = (DataSource) new RegistroConsultasLentas(100_000, 5)
+                .postProcessAfterInitialization(directo, "dataSource");
+
+        // La primera ronda es de calentamiento
+        for (int ronda = 0; ronda < 3; ronda++) {
+            medir("directo ", directo, sentencias);
+            medir("envuelto", envuelto, sentencias);
+        }
+    }
+
+    private static void medir(String nombre, DataSource dataSource, int sentencias) throws Exception {
+        com.sun.management.ThreadMXBean hilos = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long hilo = Thread.currentThread().getId();
+        Connection conexion = dataSource.getConnection();
+
+        long bytesInicio = hilos.getThreadAllocatedBytes(hilo);
+        long inicio = System.nanoTime();
+        long filas = 0;
+        for (int i = 0; i < sentencias; i++) {
+            PreparedStatement sentencia = conexion.prepareStatement(SQL);
+            sentencia.setBigDecimal(1, BigDecimal.TEN);
+            sentencia.setLong(2, i);
+            filas += sentencia.executeUpdate();
+            sentencia.close();
+        }
+        long nanos = System.nanoTime() - inicio;
+        long bytes = hilos.getThreadAllocatedBytes(hilo) - bytesInicio;
+
+        System.err.printf("%s: %6.1f ns/sentencia, %4d B/sentencia (%d filas)%n",
+                nombre, (double) nanos / sentencias, bytes / sentencias, filas);
+    }
+
+    private static DataSource driverFalso() {
+        PreparedStatement sentencia = falso(PreparedStatement.class, "executeUpdate", 1);
+        Connection conexion = falso(Connection.class, "prepareStatement", sentencia);
+        return falso(DataSource.class, "getConnection", conexion);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T falso(Class<T> tipo, String metodo, Object resultado) {
+        return (T) Proxy.newProxyInstance(ConsultasLentasBenchmark.class.getClassLoader(), new Class<?>[]{tipo},
+                (proxy, method, args) -> method.getName().equals(metodo) ? resultado : null);
+    }
+}
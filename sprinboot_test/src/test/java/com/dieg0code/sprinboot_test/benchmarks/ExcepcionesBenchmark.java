@@ -0,0 +1,74 @@
+package com.dieg0code.sprinboot_test.benchmarks;
+
+import com.dieg0code.sprinboot_test.exceptions.DineroInsuficienteException;
+import com.dieg0code.sprinboot_test.models.ErrorCuenta;
+import com.dieg0code.sprinboot_test.models.Resultado;
+
+/**
+ * Microbenchmark del camino de fallo de una transferencia con dinero insuficiente. Compara la
+ * excepción con stack trace (como era antes), la excepción preasignada sin stack trace y el
+ * {@link Resultado}. El fallo se produce a {@link #PROFUNDIDAD} llamadas de profundidad para
+ * simular la pila de Spring (filtros, proxies, aspectos) sobre el servicio.
+ *
+ * <p>No es un test: se ejecuta a mano con {@code java ... ExcepcionesBenchmark [iteraciones]}.
+ */
+public class ExcepcionesBenchmark {
+
+    static final int PROFUNDIDAD = 64;
+
+    static volatile Object sumidero;
+
+    public static void main(String[] args) {
+        int iteraciones = args.length > 0 ? Integer.parseInt(args[0]) : 200_000;
+
+        for (int ronda = 0; ronda < 3; ronda++) {
+            medir("excepción con stack trace", iteraciones, ExcepcionesBenchmark::conStackTrace);
+            medir("excepción preasignada", iteraciones, ExcepcionesBenchmark::preasignada);
+            medir("resultado", iteraciones, ExcepcionesBenchmark::resultado);
+            System.out.println();
+        }
+    }
+
+    private static void medir(String nombre, int iteraciones, Runnable fallo) {
+        long inicio = System.nanoTime();
+        for (int i = 0; i < iteraciones; i++) {
+            fallo.run();
+        }
+        long nanos = System.nanoTime() - inicio;
+        System.out.printf("%-28s %8.1f ns/op%n", nombre, (double) nanos / iteraciones);
+    }
+
+    private static void conStackTrace() {
+        try {
+            lanzar(PROFUNDIDAD, true);
+        } catch (RuntimeException e) {
+            sumidero = e;
+        }
+    }
+
+    private static void preasignada() {
+        try {
+            lanzar(PROFUNDIDAD, false);
+        } catch (RuntimeException e) {
+            sumidero = e;
+        }
+    }
+
+    private static void resultado() {
+        sumidero = devolver(PROFUNDIDAD);
+    }
+
+    private static void lanzar(int profundidad, boolean conStackTrace) {
+        if (profundidad == 0) {
+            throw conStackTrace ? new RuntimeException("Dinero insuficiente") : DineroInsuficienteException.INSTANCIA;
+        }
+        lanzar(profundidad - 1, conStackTrace);
+    }
+
+    private static Resultado<Void> devolver(int profundidad) {
+        if (profundidad == 0) {
+            return Resultado.fallo(ErrorCuenta.DINERO_INSUFICIENTE, "Dinero insuficiente");
+        }
+        return devolver(profundidad - 1);
+    }
+}
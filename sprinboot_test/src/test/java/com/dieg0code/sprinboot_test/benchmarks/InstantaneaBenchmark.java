@@ -0,0 +1,107 @@
+package com.dieg0code.sprinboot_test.benchmarks;
+
+import com.dieg0code.sprinboot_test.instantanea.EscritorInstantanea;
+import com.dieg0code.sprinboot_test.instantanea.LectorInstantanea;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Benchmark del formato de instantáneas sin base de datos: escribe N cuentas sintéticas en un
+ * archivo, lo copia con {@link FileChannel#transferTo} (el mismo camino que la descarga HTTP) y lo
+ * vuelve a leer. Compara el tamaño con el del JSON de {@code GET /api/cuentas} para las mismas
+ * cuentas.
+ * <p>
+ * Mide solo el formato y la E/S; la exportación e importación reales suman la lectura JDBC y los
+ * batches de INSERT.
+ *
+ * <p>No es un test: se ejecuta a mano con {@code java ... InstantaneaBenchmark [cuentas]}.
+ */
+public class InstantaneaBenchmark {
+
+    static volatile long sumidero;
+
+    public static void main(String[] args) throws Exception {
+        int cuentas = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        Path directorio = Files.createTempDirectory("cuentas-instantanea");
+        Path archivo = directorio.resolve("cuentas.cts");
+        Path copia = directorio.resolve("copia.cts");
+
+        try {
+            for (int ronda = 0; ronda < 3; ronda++) {
+                long inicio = System.nanoTime();
+                long bytes = escribir(archivo, cuentas);
+                long escritura = System.nanoTime() - inicio;
+
+                inicio = System.nanoTime();
+                copiar(archivo, copia);
+                long copiado = System.nanoTime() - inicio;
+
+                inicio = System.nanoTime();
+                leer(copia);
+                long lectura = System.nanoTime() - inicio;
+
+                System.out.printf("%d cuentas, %d bytes (%.1f por cuenta, JSON ~%d bytes)%n",
+                        cuentas, bytes, (double) bytes / cuentas, tamanoJson(cuentas));
+                System.out.printf("  escritura %6d ms   transferTo %6d ms   lectura %6d ms%n",
+                        escritura / 1_000_000, copiado / 1_000_000, lectura / 1_000_000);
+            }
+        } finally {
+            Files.deleteIfExists(archivo);
+            Files.deleteIfExists(copia);
+            Files.deleteIfExists(directorio);
+        }
+    }
+
+    private static long escribir(Path archivo, int cuentas) throws IOException {
+        try (FileChannel canal = FileChannel.open(archivo, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            EscritorInstantanea escritor = new EscritorInstantanea(canal);
+            escritor.banco(1L, "Banco 1", 0);
+            for (int i = 1; i <= cuentas; i++) {
+                escritor.cuenta(i, "Cuenta " + i, BigDecimal.valueOf(i % 100_000, 2), 1L);
+            }
+            return escritor.terminar();
+        }
+    }
+
+    private static void copiar(Path origen, Path destino) throws IOException {
+        try (FileChannel entrada = FileChannel.open(origen, StandardOpenOption.READ);
+             FileChannel salida = FileChannel.open(destino, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                     StandardOpenOption.TRUNCATE_EXISTING)) {
+            long posicion = 0;
+            while (posicion < entrada.size()) {
+                posicion += entrada.transferTo(posicion, entrada.size() - posicion, salida);
+            }
+        }
+    }
+
+    private static void leer(Path archivo) throws IOException {
+        try (FileChannel canal = FileChannel.open(archivo, StandardOpenOption.READ)) {
+            new LectorInstantanea(canal).leer(new LectorInstantanea.Destino() {
+                @Override
+                public void banco(long id, String nombre, int totalTransferencias) {
+                    sumidero += id;
+                }
+
+                @Override
+                public void cuenta(long id, String nombre, BigDecimal saldo, Long bancoId) {
+                    sumidero += id + nombre.length() + saldo.signum();
+                }
+            });
+        }
+    }
+
+    // Tamaño de [{"id":1,"nombre":"Cuenta 1","saldo":0.01}, ...] como lo serializa Jackson
+    private static long tamanoJson(int cuentas) {
+        long total = 2;
+        for (int i = 1; i <= cuentas; i++) {
+            total += ("{\"id\":" + i + ",\"nombre\":\"Cuenta " + i + "\",\"saldo\":" + BigDecimal.valueOf(i % 100_000, 2) + "}").length() + 1;
+        }
+        return total - 1;
+    }
+}
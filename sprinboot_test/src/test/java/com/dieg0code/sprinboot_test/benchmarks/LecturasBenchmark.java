@@ -0,0 +1,83 @@
+package com.dieg0code.sprinboot_test.benchmarks;
+
+import com.dieg0code.sprinboot_test.SprinbootTestApplication;
+import com.dieg0code.sprinboot_test.repositories.BancoRepository;
+import com.dieg0code.sprinboot_test.repositories.CuentaRepository;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.function.IntConsumer;
+import java.util.stream.Stream;
+
+/**
+ * Benchmark de los caminos de lectura de una transferencia: el banco por id, el saldo de una cuenta
+ * y los saldos de un lote de cuentas con un IN de tamaño variable. Cada lectura corre en su propia
+ * transacción de solo lectura, como en el servicio, para que el contexto de persistencia no oculte
+ * el efecto de la caché de segundo nivel.
+ * <p>
+ * Levanta la aplicación dos veces sobre una base en memoria: sin cachés (segundo nivel, planes de
+ * consulta y relleno de IN desactivados) y con la configuración de {@code application.properties}.
+ *
+ * <p>No es un test: se ejecuta a mano con {@code java ... LecturasBenchmark [iteraciones]}.
+ */
+public class LecturasBenchmark {
+
+    static final List<String> COMUNES = List.of(
+            "--spring.main.web-application-type=none",
+            "--spring.main.banner-mode=off",
+            "--logging.level.root=WARN",
+            "--logging.level.org.hibernate.SQL=WARN");
+
+    static final List<String> SIN_CACHE = List.of(
+            "--spring.jpa.properties.hibernate.cache.use_second_level_cache=false",
+            "--spring.jpa.properties.jakarta.persistence.sharedCache.mode=NONE",
+            "--spring.jpa.properties.hibernate.query.plan_cache_enabled=false",
+            "--spring.jpa.properties.hibernate.query.in_clause_parameter_padding=false");
+
+    static final List<List<Long>> LOTES = List.of(
+            List.of(1L), List.of(1L, 2L), List.of(1L, 2L, 3L), List.of(1L, 2L, 3L, 4L, 5L),
+            List.of(1L, 2L, 3L, 4L, 5L, 6L, 7L));
+
+    static volatile Object sumidero;
+
+    public static void main(String[] args) {
+        int iteraciones = args.length > 0 ? Integer.parseInt(args[0]) : 50_000;
+
+        medirConfiguracion("sin cachés", SIN_CACHE, iteraciones);
+        medirConfiguracion("con cachés", List.of(), iteraciones);
+    }
+
+    private static void medirConfiguracion(String nombre, List<String> propiedades, int iteraciones) {
+        String[] argumentos = Stream.concat(COMUNES.stream(), propiedades.stream()).toArray(String[]::new);
+
+        try (ConfigurableApplicationContext contexto = SpringApplication.run(SprinbootTestApplication.class, argumentos)) {
+            BancoRepository bancoRepository = contexto.getBean(BancoRepository.class);
+            CuentaRepository cuentaRepository = contexto.getBean(CuentaRepository.class);
+            TransactionTemplate lectura = new TransactionTemplate(contexto.getBean(PlatformTransactionManager.class));
+            lectura.setReadOnly(true);
+
+            System.out.println(nombre);
+            for (int ronda = 0; ronda < 3; ronda++) {
+                medir("banco por id", iteraciones, i -> lectura.executeWithoutResult(
+                        estado -> sumidero = bancoRepository.findById(1L)));
+                medir("saldo por id", iteraciones, i -> lectura.executeWithoutResult(
+                        estado -> sumidero = cuentaRepository.findSaldoById(1L)));
+                medir("saldos por lote (IN)", iteraciones, i -> lectura.executeWithoutResult(
+                        estado -> sumidero = cuentaRepository.findSaldosByIdIn(LOTES.get(i % LOTES.size()))));
+                System.out.println();
+            }
+        }
+    }
+
+    private static void medir(String nombre, int iteraciones, IntConsumer lectura) {
+        long inicio = System.nanoTime();
+        for (int i = 0; i < iteraciones; i++) {
+            lectura.accept(i);
+        }
+        long nanos = System.nanoTime() - inicio;
+        System.out.printf("  %-24s %8.1f ns/op%n", nombre, (double) nanos / iteraciones);
+    }
+}
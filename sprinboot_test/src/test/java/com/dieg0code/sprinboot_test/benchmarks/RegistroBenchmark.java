@@ -0,0 +1,86 @@
+package com.dieg0code.sprinboot_test.benchmarks;
+
+import com.dieg0code.sprinboot_test.SprinbootTestApplication;
+import com.dieg0code.sprinboot_test.services.CuentaService;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+
+/**
+ * Benchmark del costo del log sobre las transferencias: levanta la aplicación con la configuración
+ * de desarrollo (cada sentencia SQL en DEBUG, escrita en la consola de forma síncrona) y con el
+ * perfil {@code produccion} (log asíncrono a archivo y solo las sentencias lentas), y mide
+ * transferencias por segundo con varios hilos entre las dos cuentas de {@code import.sql}.
+ * <p>
+ * La consola cuenta en el resultado: para comparar con un destino realista conviene redirigir la
+ * salida estándar a un archivo.
+ *
+ * <p>No es un test: se ejecuta a mano con {@code java ... RegistroBenchmark [transferencias] [hilos]}.
+ */
+public class RegistroBenchmark {
+
+    static final List<String> COMUNES = List.of(
+            "--spring.main.web-application-type=none",
+            "--spring.main.banner-mode=off",
+            // Sin límite de velocidad para que ninguna transferencia se rechace
+            "--cuentas.velocidad.max-transferencias=1000000000",
+            "--cuentas.velocidad.max-monto=1000000000");
+
+    public static void main(String[] args) throws Exception {
+        int transferencias = args.length > 0 ? Integer.parseInt(args[0]) : 20_000;
+        int hilos = args.length > 1 ? Integer.parseInt(args[1]) : 4;
+
+        Path logs = Files.createTempDirectory("cuentas-logs");
+        double desarrollo = medir(List.of(), transferencias, hilos);
+        double produccion = medir(List.of("--spring.profiles.active=produccion", "--logging.file.path=" + logs),
+                transferencias, hilos);
+
+        System.err.printf("desarrollo: %8.0f transferencias/s%n", desarrollo);
+        System.err.printf("produccion: %8.0f transferencias/s (%+.0f%%)%n", produccion, (produccion / desarrollo - 1) * 100);
+    }
+
+    private static double medir(List<String> propiedades, int transferencias, int hilos) throws Exception {
+        String[] argumentos = Stream.concat(COMUNES.stream(), propiedades.stream()).toArray(String[]::new);
+
+        try (ConfigurableApplicationContext contexto = SpringApplication.run(SprinbootTestApplication.class, argumentos)) {
+            CuentaService cuentaService = contexto.getBean(CuentaService.class);
+            ExecutorService ejecutor = Executors.newFixedThreadPool(hilos);
+            try {
+                // Calentamiento
+                ejecutar(cuentaService, ejecutor, transferencias / 4, hilos);
+
+                long inicio = System.nanoTime();
+                ejecutar(cuentaService, ejecutor, transferencias, hilos);
+                return transferencias / ((System.nanoTime() - inicio) / 1e9);
+            } finally {
+                ejecutor.shutdownNow();
+            }
+        }
+    }
+
+    // Cada hilo alterna el sentido de la transferencia para que los saldos no se agoten
+    private static void ejecutar(CuentaService cuentaService, ExecutorService ejecutor, int transferencias, int hilos)
+            throws Exception {
+        Future<?>[] tareas = new Future<?>[hilos];
+        for (int h = 0; h < hilos; h++) {
+            int porHilo = transferencias / hilos;
+            tareas[h] = ejecutor.submit(() -> {
+                for (int i = 0; i < porHilo; i++) {
+                    long origen = i % 2 == 0 ? 1L : 2L;
+                    cuentaService.transferir(origen, 3L - origen, BigDecimal.ONE, 1L);
+                }
+            });
+        }
+        for (Future<?> tarea : tareas) {
+            tarea.get();
+        }
+    }
+}
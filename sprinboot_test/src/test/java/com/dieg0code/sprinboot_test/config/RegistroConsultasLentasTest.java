@@ -0,0 +1,102 @@
+package com.dieg0code.sprinboot_test.config;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.boot.test.system.CapturedOutput;
+import org.springframework.boot.test.system.OutputCaptureExtension;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(OutputCaptureExtension.class)
+class RegistroConsultasLentasTest {
+
+    static final String SQL = "UPDATE cuentas SET saldo = ? WHERE id = ?";
+
+    @Test
+    void sentenciaLentaTest(CapturedOutput salida) throws Exception {
+        // Given
+        DataSource dataSource = dataSourceConEjecucionDe(30);
+        DataSource envuelto = (DataSource) new RegistroConsultasLentas(10, 5).postProcessAfterInitialization(dataSource, "dataSource");
+
+        // When
+        try (PreparedStatement sentencia = envuelto.getConnection().prepareStatement(SQL)) {
+            sentencia.setLong(1, 500L);
+            sentencia.setLong(2, 1L);
+            sentencia.setQueryTimeout(5);
+            sentencia.executeUpdate();
+        }
+
+        // Then
+        assertTrue(salida.getOut().contains("2 parámetros: " + SQL));
+    }
+
+    @Test
+    void loteCuentaParametrosPorFilaTest(CapturedOutput salida) throws Exception {
+        // Given
+        DataSource dataSource = dataSourceConEjecucionDe(30);
+        DataSource envuelto = (DataSource) new RegistroConsultasLentas(10, 5).postProcessAfterInitialization(dataSource, "dataSource");
+
+        // When
+        try (PreparedStatement sentencia = envuelto.getConnection().prepareStatement(SQL)) {
+            for (long id = 1; id <= 3; id++) {
+                sentencia.setLong(1, 500L);
+                sentencia.setLong(2, id);
+                sentencia.addBatch();
+            }
+            sentencia.executeBatch();
+        }
+
+        // Then
+        assertTrue(salida.getOut().contains("2 parámetros por fila, lote de 3: " + SQL));
+    }
+
+    @Test
+    void sentenciaRapidaTest(CapturedOutput salida) throws Exception {
+        // Given
+        DataSource dataSource = dataSourceConEjecucionDe(0);
+        DataSource envuelto = (DataSource) new RegistroConsultasLentas(10_000, 5).postProcessAfterInitialization(dataSource, "dataSource");
+
+        // When
+        try (PreparedStatement sentencia = envuelto.getConnection().prepareStatement(SQL)) {
+            sentencia.setLong(1, 500L);
+            sentencia.executeUpdate();
+        }
+
+        // Then
+        assertFalse(salida.getOut().contains("SQL lenta"));
+    }
+
+    @Test
+    void sinUmbralNoEnvuelveTest() {
+        // Given
+        DataSource dataSource = mock(DataSource.class);
+
+        // When
+        Object resultado = new RegistroConsultasLentas(-1, 5).postProcessAfterInitialization(dataSource, "dataSource");
+
+        // Then
+        assertSame(dataSource, resultado);
+    }
+
+    private static DataSource dataSourceConEjecucionDe(long milisegundos) throws Exception {
+        DataSource dataSource = mock(DataSource.class);
+        Connection conexion = mock(Connection.class);
+        PreparedStatement sentencia = mock(PreparedStatement.class);
+        when(dataSource.getConnection()).thenReturn(conexion);
+        when(conexion.prepareStatement(SQL)).thenReturn(sentencia);
+        when(sentencia.executeUpdate()).then(invocation -> {
+            Thread.sleep(milisegundos);
+            return 1;
+        });
+        when(sentencia.executeBatch()).then(invocation -> {
+            Thread.sleep(milisegundos);
+            return new int[]{1, 1, 1};
+        });
+        return dataSource;
+    }
+}
@@ -1,8 +1,19 @@
 package com.dieg0code.sprinboot_test.controllers;
 
 import com.dieg0code.sprinboot_test.Data;
+import com.dieg0code.sprinboot_test.exceptions.DineroInsuficienteException;
+import com.dieg0code.sprinboot_test.exceptions.LimiteVelocidadExcedidoException;
+import com.dieg0code.sprinboot_test.exceptions.RecursoNoEncontradoException;
+import com.dieg0code.sprinboot_test.exceptions.SolicitudInvalidaException;
 import com.dieg0code.sprinboot_test.models.Cuenta;
+import com.dieg0code.sprinboot_test.models.CuentaDTO;
+import com.dieg0code.sprinboot_test.models.MovimientoDTO;
+import com.dieg0code.sprinboot_test.models.PaginaCuentas;
+import com.dieg0code.sprinboot_test.models.PaginaMovimientos;
+import com.dieg0code.sprinboot_test.models.SaldoDTO;
+import com.dieg0code.sprinboot_test.models.TipoMovimiento;
 import com.dieg0code.sprinboot_test.models.TransactionDTO;
+import com.dieg0code.sprinboot_test.models.TransferenciaMultipleDTO;
 import com.dieg0code.sprinboot_test.services.CuentaService;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -15,6 +26,7 @@ import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
 import java.math.BigDecimal;
+import java.time.Instant;
 import java.time.LocalDate;
 import java.util.Arrays;
 import java.util.HashMap;
@@ -49,7 +61,7 @@ class CuentaControllerTest {
     @Test
     void detailsTest() throws Exception {
         //Given
-        when(cuentaService.findById(1L)).thenReturn(Data.crearCuenta001().orElseThrow());
+        when(cuentaService.detalle(1L)).thenReturn(new CuentaDTO(1L, "Diego", new BigDecimal("1000")));
 
         // When
         mockMvc.perform(get("/api/cuentas/1").contentType(MediaType.APPLICATION_JSON))
@@ -59,7 +71,8 @@ class CuentaControllerTest {
                 .andExpect(jsonPath("$.nombre").value("Diego"))
                 .andExpect(jsonPath("$.saldo").value("1000"));
 
-        verify(cuentaService, times(1)).findById(1L);
+        verify(cuentaService, times(1)).detalle(1L);
+        verify(cuentaService, never()).findById(any());
     }
 
     @Test
@@ -93,11 +106,83 @@ class CuentaControllerTest {
         verify(cuentaService, times(1)).transferir(dto.getCuentaOrigenId(), dto.getCuentaDestinoId(), dto.getMonto(), dto.getBancoId());
     }
 
+    @Test
+    void transferirLimiteExcedidoTest() throws Exception {
+        // Given
+        TransactionDTO dto = new TransactionDTO();
+        dto.setCuentaOrigenId(1L);
+        dto.setCuentaDestinoId(2L);
+        dto.setMonto(new BigDecimal("100"));
+        dto.setBancoId(1L);
+        doThrow(new LimiteVelocidadExcedidoException("La cuenta 1 superó el monto permitido"))
+                .when(cuentaService).transferir(1L, 2L, new BigDecimal("100"), 1L);
+
+        // When
+        mockMvc.perform(post("/api/cuentas/transferir")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(dto)))
+                // Then
+                .andExpect(status().isTooManyRequests())
+                .andExpect(jsonPath("$.message").value("La cuenta 1 superó el monto permitido"));
+    }
+
+    @Test
+    void transferirDineroInsuficienteTest() throws Exception {
+        // Given
+        TransactionDTO dto = new TransactionDTO();
+        dto.setCuentaOrigenId(1L);
+        dto.setCuentaDestinoId(2L);
+        dto.setMonto(new BigDecimal("5000"));
+        dto.setBancoId(1L);
+        doThrow(DineroInsuficienteException.INSTANCIA)
+                .when(cuentaService).transferir(1L, 2L, new BigDecimal("5000"), 1L);
+
+        // When
+        mockMvc.perform(post("/api/cuentas/transferir")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(dto)))
+                // Then
+                .andExpect(status().isUnprocessableEntity())
+                .andExpect(jsonPath("$.message").value(DineroInsuficienteException.INSTANCIA.getMessage()));
+    }
+
+    @Test
+    void transferirMultipleTest() throws Exception {
+        // Given
+        TransferenciaMultipleDTO dto = new TransferenciaMultipleDTO();
+        dto.setCuentaOrigenId(1L);
+        dto.setDestinos(Map.of(2L, new BigDecimal("100"), 3L, new BigDecimal("50")));
+        dto.setBancoId(1L);
+
+        // When
+        mockMvc.perform(post("/api/cuentas/transferir-multiple")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(dto)))
+                // Then
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("OK"))
+                .andExpect(jsonPath("$.transaction.destinos.3").value(50));
+
+        verify(cuentaService).transferirMultiple(1L, Map.of(2L, new BigDecimal("100"), 3L, new BigDecimal("50")), 1L);
+    }
+
+    @Test
+    void detailsNoEncontradaTest() throws Exception {
+        // Given
+        when(cuentaService.detalle(99L)).thenThrow(new RecursoNoEncontradoException("La cuenta 99 no existe"));
+
+        // When
+        mockMvc.perform(get("/api/cuentas/99"))
+                // Then
+                .andExpect(status().isNotFound())
+                .andExpect(content().string(""));
+    }
+
     @Test
     void listarTest() throws Exception {
         // Given
-        List<Cuenta> cuentas = Arrays.asList(Data.crearCuenta001().orElseThrow(), Data.crearCuenta002().orElseThrow());
-        when(cuentaService.findAll()).thenReturn(cuentas);
+        List<CuentaDTO> cuentas = Arrays.asList(new CuentaDTO(1L, "Diego", new BigDecimal("1000")), new CuentaDTO(2L, "John", new BigDecimal("2000")));
+        when(cuentaService.listar()).thenReturn(cuentas);
 
         // When
         mockMvc.perform(get("/api/cuentas").contentType(MediaType.APPLICATION_JSON))
@@ -110,6 +195,9 @@ class CuentaControllerTest {
                 .andExpect(jsonPath("$[1].saldo").value("2000"))
                 .andExpect(jsonPath("$", hasSize(2)))
                 .andExpect(content().json(objectMapper.writeValueAsString(cuentas)));
+
+        verify(cuentaService).listar();
+        verify(cuentaService, never()).findAll();
     }
 
     @Test
@@ -135,4 +223,125 @@ class CuentaControllerTest {
 
         verify(cuentaService, times(1)).save(any());
     }
-}
\ No newline at end of file
+
+    @Test
+    void topTest() throws Exception {
+        // Given
+        List<SaldoDTO> top = List.of(new SaldoDTO(2L, new BigDecimal("2000")), new SaldoDTO(1L, new BigDecimal("1000")));
+        when(cuentaService.top(2)).thenReturn(top);
+
+        // When
+        mockMvc.perform(get("/api/cuentas/top").param("n", "2"))
+                // Then
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].id").value(2))
+                .andExpect(jsonPath("$[1].saldo").value(1000));
+
+        verify(cuentaService).top(2);
+    }
+
+    @Test
+    void porSaldoTest() throws Exception {
+        // Given
+        PaginaCuentas pagina = new PaginaCuentas(List.of(new CuentaDTO(1L, "Diego", new BigDecimal("1000"))), "c2lndWllbnRl");
+        when(cuentaService.buscarPorSaldo(new BigDecimal("500"), new BigDecimal("1500"), null, 1)).thenReturn(pagina);
+
+        // When
+        mockMvc.perform(get("/api/cuentas/por-saldo").param("desde", "500").param("hasta", "1500").param("tamano", "1"))
+                // Then
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.cuentas", hasSize(1)))
+                .andExpect(jsonPath("$.cuentas[0].nombre").value("Diego"))
+                .andExpect(jsonPath("$.siguiente").value("c2lndWllbnRl"));
+    }
+
+    @Test
+    void saldosTest() throws Exception {
+        // Given
+        Map<Long, BigDecimal> saldos = new HashMap<>();
+        saldos.put(1L, new BigDecimal("1000"));
+        saldos.put(2L, new BigDecimal("2000"));
+        when(cuentaService.revisarSaldos(List.of(1L, 2L))).thenReturn(saldos);
+
+        // When
+        mockMvc.perform(get("/api/cuentas/saldos").param("ids", "1,2"))
+                // Then
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.1").value(1000))
+                .andExpect(jsonPath("$.2").value(2000));
+
+        verify(cuentaService).revisarSaldos(List.of(1L, 2L));
+    }
+
+    @Test
+    void saldosPostTest() throws Exception {
+        // Given
+        when(cuentaService.revisarSaldos(List.of(1L, 3L))).thenReturn(Map.of(1L, new BigDecimal("1000")));
+
+        // When
+        mockMvc.perform(post("/api/cuentas/saldos")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(List.of(1L, 3L))))
+                // Then
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.1").value(1000))
+                .andExpect(jsonPath("$.3").doesNotExist());
+    }
+
+    @Test
+    void movimientosTest() throws Exception {
+        // Given
+        MovimientoDTO movimiento = new MovimientoDTO(10L, TipoMovimiento.DEBITO, 2L, 1L, new BigDecimal("-100"), Instant.parse("2024-01-01T10:00:00Z"));
+        when(cuentaService.listarMovimientos(1L, "abc", 1)).thenReturn(new PaginaMovimientos(List.of(movimiento), "def"));
+
+        // When
+        mockMvc.perform(get("/api/cuentas/1/movimientos").param("cursor", "abc").param("tamano", "1"))
+                // Then
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.movimientos", hasSize(1)))
+                .andExpect(jsonPath("$.movimientos[0].tipo").value("DEBITO"))
+                .andExpect(jsonPath("$.movimientos[0].monto").value(-100))
+                .andExpect(jsonPath("$.siguiente").value("def"));
+    }
+
+    @Test
+    void movimientosCursorInvalidoTest() throws Exception {
+        // Given
+        when(cuentaService.listarMovimientos(1L, "xx", 50)).thenThrow(new SolicitudInvalidaException("Cursor inválido"));
+
+        // When
+        mockMvc.perform(get("/api/cuentas/1/movimientos").param("cursor", "xx"))
+                // Then
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Cursor inválido"));
+    }
+
+    @Test
+    void solicitudInvalidaSinMensajeTest() throws Exception {
+        // Given
+        when(cuentaService.listarMovimientos(1L, "xx", 50)).thenThrow(new SolicitudInvalidaException(null));
+
+        // When
+        mockMvc.perform(get("/api/cuentas/1/movimientos").param("cursor", "xx"))
+                // Then
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("SolicitudInvalidaException"));
+    }
+
+    @Test
+    void saldoEnTest() throws Exception {
+        // Given
+        Instant fecha = Instant.parse("2024-01-31T23:59:59Z");
+        when(cuentaService.revisarSaldoEn(1L, fecha)).thenReturn(new BigDecimal("750"));
+
+        // When
+        mockMvc.perform(get("/api/cuentas/1/saldo").param("fecha", "2024-01-31T23:59:59Z"))
+                // Then
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.cuentaId").value(1))
+                .andExpect(jsonPath("$.fecha").value("2024-01-31T23:59:59Z"))
+                .andExpect(jsonPath("$.saldo").value(750));
+    }
+}
@@ -0,0 +1,123 @@
+package com.dieg0code.sprinboot_test.instantanea;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.channels.Channels;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InstantaneaFormatoTest {
+
+    @Test
+    void escribirYLeerTest() throws Exception {
+        // Given
+        ByteArrayOutputStream salida = new ByteArrayOutputStream();
+        EscritorInstantanea escritor = new EscritorInstantanea(Channels.newChannel(salida));
+        escritor.banco(1L, "Banco 1", 7);
+        escritor.cuenta(1L, "Diego", new BigDecimal("1000"), 1L);
+        escritor.cuenta(2L, "Pedro", new BigDecimal("-0.5"), null);
+        escritor.cuenta(3L, null, BigDecimal.ZERO, 1L);
+        long bytes = escritor.terminar();
+
+        // When
+        List<String> leidos = new ArrayList<>();
+        long bytesLeidos = new LectorInstantanea(Channels.newChannel(new ByteArrayInputStream(salida.toByteArray())))
+                .leer(new Registro(leidos));
+
+        // Then
+        assertEquals(salida.size(), bytes);
+        assertEquals(bytes, bytesLeidos);
+        assertEquals(List.of("banco 1 Banco 1 7", "cuenta 1 Diego 1000.00 1", "cuenta 2 Pedro -0.50 null",
+                "cuenta 3 null 0.00 1"), leidos);
+    }
+
+    @Test
+    void nombresRepetidosSeEscribenUnaVezTest() throws Exception {
+        // Given
+        ByteArrayOutputStream unico = new ByteArrayOutputStream();
+        EscritorInstantanea escritor = new EscritorInstantanea(Channels.newChannel(unico));
+        escritor.cuenta(1L, "Cuenta compartida", BigDecimal.ONE, 1L);
+        long conUnNombre = escritor.terminar();
+
+        // When
+        ByteArrayOutputStream repetido = new ByteArrayOutputStream();
+        escritor = new EscritorInstantanea(Channels.newChannel(repetido));
+        escritor.cuenta(1L, "Cuenta compartida", BigDecimal.ONE, 1L);
+        escritor.cuenta(2L, "Cuenta compartida", BigDecimal.ONE, 1L);
+        long conDosCuentas = escritor.terminar();
+
+        // Then
+        assertEquals(FormatoInstantanea.TAMANO_CUENTA, conDosCuentas - conUnNombre);
+    }
+
+    @Test
+    void saldoConMasDecimalesQueLaEscalaTest() throws Exception {
+        // Given
+        EscritorInstantanea escritor = new EscritorInstantanea(Channels.newChannel(new ByteArrayOutputStream()));
+
+        // When / Then
+        assertThrows(IllegalArgumentException.class, () -> escritor.cuenta(1L, "Diego", new BigDecimal("0.001"), 1L));
+    }
+
+    @Test
+    void instantaneaCortadaTest() throws Exception {
+        // Given
+        ByteArrayOutputStream salida = new ByteArrayOutputStream();
+        EscritorInstantanea escritor = new EscritorInstantanea(Channels.newChannel(salida));
+        escritor.cuenta(1L, "Diego", BigDecimal.TEN, 1L);
+        escritor.terminar();
+        byte[] cortada = Arrays.copyOf(salida.toByteArray(), salida.size() - 3);
+
+        // When / Then
+        LectorInstantanea lector = new LectorInstantanea(Channels.newChannel(new ByteArrayInputStream(cortada)));
+        assertThrows(EOFException.class, () -> lector.leer(new Registro(new ArrayList<>())));
+    }
+
+    @Test
+    void longitudDeNombreNegativaTest() throws Exception {
+        // Given
+        ByteArrayOutputStream salida = new ByteArrayOutputStream();
+        EscritorInstantanea escritor = new EscritorInstantanea(Channels.newChannel(salida));
+        escritor.cuenta(1L, "Diego", BigDecimal.TEN, 1L);
+        escritor.terminar();
+        byte[] invalida = salida.toByteArray();
+        // La longitud del primer nombre, justo después de la cabecera y del tipo de registro
+        invalida[FormatoInstantanea.TAMANO_CABECERA + 1] = (byte) 0xff;
+        invalida[FormatoInstantanea.TAMANO_CABECERA + 2] = (byte) 0xff;
+
+        // When / Then
+        LectorInstantanea lector = new LectorInstantanea(Channels.newChannel(new ByteArrayInputStream(invalida)));
+        assertThrows(IllegalStateException.class, () -> lector.leer(new Registro(new ArrayList<>())));
+    }
+
+    @Test
+    void bancoDespuesDeCuentasTest() throws Exception {
+        // Given
+        EscritorInstantanea escritor = new EscritorInstantanea(Channels.newChannel(new ByteArrayOutputStream()));
+        escritor.cuenta(1L, "Diego", BigDecimal.TEN, 1L);
+
+        // When / Then
+        assertThrows(IllegalStateException.class, () -> escritor.banco(1L, "Banco 1", 0));
+    }
+
+    private record Registro(List<String> leidos) implements LectorInstantanea.Destino {
+
+        @Override
+        public void banco(long id, String nombre, int totalTransferencias) throws IOException {
+            leidos.add("banco " + id + " " + nombre + " " + totalTransferencias);
+        }
+
+        @Override
+        public void cuenta(long id, String nombre, BigDecimal saldo, Long bancoId) throws IOException {
+            leidos.add("cuenta " + id + " " + nombre + " " + saldo + " " + bancoId);
+        }
+    }
+}
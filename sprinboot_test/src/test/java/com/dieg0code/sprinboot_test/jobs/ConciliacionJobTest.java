@@ -0,0 +1,173 @@
+package com.dieg0code.sprinboot_test.jobs;
+
+import com.dieg0code.sprinboot_test.models.ConciliacionRango;
+import com.dieg0code.sprinboot_test.models.Cuenta;
+import com.dieg0code.sprinboot_test.models.Discrepancia;
+import com.dieg0code.sprinboot_test.models.ReporteConciliacion;
+import com.dieg0code.sprinboot_test.repositories.ConciliacionRangoRepository;
+import com.dieg0code.sprinboot_test.services.CuentaService;
+import com.dieg0code.sprinboot_test.services.ResumenBancoService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Corre contra la base de datos real: la conciliación lee en sus propias transacciones desde los
+ * hilos del pool, así que los datos de cada test se confirman y se restauran al terminar. Con
+ * rangos de una cuenta, las dos cuentas iniciales quedan en dos rangos.
+ */
+@SpringBootTest(properties = {
+        "cuentas.conciliacion.tamano-rango=1",
+        "cuentas.conciliacion.paralelismo=2"
+})
+class ConciliacionJobTest {
+
+    @Autowired
+    ConciliacionJob conciliacionJob;
+
+    @Autowired
+    ConciliacionRangoRepository rangoRepository;
+
+    @Autowired
+    CuentaService cuentaService;
+
+    @Autowired
+    ResumenBancoService resumenService;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM movimientos");
+        jdbcTemplate.update("DELETE FROM saldo_checkpoints");
+        jdbcTemplate.update("DELETE FROM conciliacion_rangos");
+        jdbcTemplate.update("UPDATE cuentas SET saldo = CASE id WHEN 1 THEN 1000 ELSE 2000 END, movimientos_sin_checkpoint = NULL");
+        jdbcTemplate.update("UPDATE contadores_bancos SET total_transferencias = 0");
+        resumenService.reconstruir(1L);
+    }
+
+    @Test
+    void crearRangosTest() {
+        // Given
+        cuentaService.transferir(1L, 2L, new BigDecimal("100"), 1L);
+
+        // When
+        ReporteConciliacion reporte = conciliacionJob.ejecutar("nueva");
+
+        // Then
+        List<ConciliacionRango> rangos = rangoRepository.findByEjecucionOrderByDesde("nueva");
+        assertEquals(2, rangos.size());
+        assertEquals(1L, rangos.get(0).getDesde());
+        assertEquals(2L, rangos.get(1).getHasta());
+        assertTrue(rangos.stream().allMatch(ConciliacionRango::isCompletado));
+        assertEquals(2, reporte.rangos());
+        assertEquals(2, reporte.rangosProcesados());
+        assertEquals(2, reporte.cuentas());
+        assertEquals(0, reporte.totalDiscrepancias());
+        assertEquals(0, new BigDecimal("3000").compareTo(reporte.saldoTotal()));
+    }
+
+    @Test
+    void reanudarEjecucionTest() {
+        // Given
+        // El primer rango ya quedó hecho: aunque su cuenta tenga ahora una discrepancia, no se vuelve a leer
+        ConciliacionRango hecho = new ConciliacionRango("parcial", 1L, 1L);
+        hecho.setCuentas(1);
+        hecho.setCompletado(true);
+        rangoRepository.saveAll(List.of(hecho, new ConciliacionRango("parcial", 2L, 2L)));
+        checkpoint(1L, "900");
+
+        // When
+        ReporteConciliacion reporte = conciliacionJob.ejecutar("parcial");
+
+        // Then
+        assertEquals(2, reporte.rangos());
+        assertEquals(1, reporte.rangosProcesados());
+        assertEquals(2, reporte.cuentas());
+        assertEquals(0, reporte.totalDiscrepancias());
+        assertTrue(rangoRepository.findByEjecucionOrderByDesde("parcial").stream().allMatch(ConciliacionRango::isCompletado));
+    }
+
+    @Test
+    void ajusteDeSaldoSinDiscrepanciasTest() {
+        // Given
+        cuentaService.transferir(1L, 2L, new BigDecimal("100"), 1L);
+        Cuenta cuenta = new Cuenta(1L, "Diego", new BigDecimal("1500"));
+        cuenta.setBancoId(1L);
+        cuentaService.save(cuenta);
+
+        // When
+        ReporteConciliacion reporte = conciliacionJob.ejecutar("ajuste");
+
+        // Then
+        assertEquals(0, reporte.totalDiscrepancias());
+        assertEquals(0, new BigDecimal("3600").compareTo(reporte.saldoTotal()));
+    }
+
+    @Test
+    void discrepanciaCuentaTest() {
+        // Given
+        checkpoint(1L, "900");
+
+        // When
+        ReporteConciliacion reporte = conciliacionJob.ejecutar("cuenta");
+
+        // Then
+        assertEquals(1, reporte.totalDiscrepancias());
+        assertDiscrepancia(reporte, "CUENTA", 1L, "900", "1000");
+    }
+
+    @Test
+    void discrepanciaConservacionYBancoTest() {
+        // Given
+        // Un débito sin su crédito y sin contar en el contador del banco
+        jdbcTemplate.update("INSERT INTO movimientos (cuenta_id, contraparte_id, banco_id, tipo, monto, fecha) VALUES (1, 2, 1, 'DEBITO', -100, ?)",
+                Timestamp.from(Instant.now()));
+
+        // When
+        ReporteConciliacion reporte = conciliacionJob.ejecutar("conservacion");
+
+        // Then
+        assertEquals(2, reporte.totalDiscrepancias());
+        assertDiscrepancia(reporte, "CONSERVACION", null, "0", "-100");
+        assertDiscrepancia(reporte, "BANCO", 1L, "1", "0");
+    }
+
+    @Test
+    void discrepanciaSaldoBancoTest() {
+        // Given
+        jdbcTemplate.update("UPDATE resumen_bancos SET saldo_total = 2500 WHERE banco_id = 1");
+
+        // When
+        ReporteConciliacion reporte = conciliacionJob.ejecutar("saldo");
+
+        // Then
+        assertEquals(1, reporte.totalDiscrepancias());
+        assertDiscrepancia(reporte, "SALDO", 1L, "2500", "3000");
+    }
+
+    private void checkpoint(Long cuentaId, String saldo) {
+        jdbcTemplate.update("INSERT INTO saldo_checkpoints (cuenta_id, movimiento_id, fecha, saldo) VALUES (?, 0, ?, ?)",
+                cuentaId, Timestamp.from(Instant.now()), new BigDecimal(saldo));
+    }
+
+    private static void assertDiscrepancia(ReporteConciliacion reporte, String tipo, Long id, String esperado, String actual) {
+        Discrepancia discrepancia = reporte.discrepancias().stream()
+                .filter(d -> d.tipo().equals(tipo))
+                .findFirst()
+                .orElseThrow();
+        assertEquals(id, discrepancia.id());
+        assertEquals(0, new BigDecimal(esperado).compareTo(discrepancia.esperado()));
+        assertEquals(0, new BigDecimal(actual).compareTo(discrepancia.actual()));
+    }
+}
@@ -0,0 +1,147 @@
+package com.dieg0code.sprinboot_test.jobs;
+
+import com.dieg0code.sprinboot_test.models.InteresLote;
+import com.dieg0code.sprinboot_test.models.ReporteInteres;
+import com.dieg0code.sprinboot_test.repositories.InteresLoteRepository;
+import com.dieg0code.sprinboot_test.services.ResumenBancoService;
+import com.dieg0code.sprinboot_test.services.SaldoCheckpointService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Corre contra la base de datos real: cada lote se abona en su propia transacción desde el pool del
+ * job. A las dos cuentas iniciales (1000 y 2000) se suman tres de 100; con una tasa mensual del 1%
+ * y lotes de dos cuentas quedan tres lotes. Con un checkpoint por movimiento cada abono necesita el
+ * id de su movimiento.
+ */
+@SpringBootTest(properties = {
+        "cuentas.interes.tasa-anual=0.12",
+        "cuentas.interes.tamano-lote=2",
+        "cuentas.interes.hilos=2",
+        "cuentas.interes.lotes-por-segundo=0",
+        "cuentas.checkpoint.intervalo=1"
+})
+class InteresJobTest {
+
+    static final YearMonth PERIODO = YearMonth.of(2024, 1);
+
+    @Autowired
+    InteresJob interesJob;
+
+    @Autowired
+    InteresLoteRepository loteRepository;
+
+    @Autowired
+    SaldoCheckpointService checkpointService;
+
+    @Autowired
+    ResumenBancoService resumenService;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    List<Long> ids;
+
+    @BeforeEach
+    void setUp() {
+        for (int i = 0; i < 3; i++) {
+            jdbcTemplate.update("INSERT INTO cuentas (nombre, saldo, version) VALUES (?, 100, 0)", "Interes " + i);
+        }
+        ids = jdbcTemplate.queryForList("SELECT id FROM cuentas ORDER BY id", Long.class);
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM movimientos");
+        jdbcTemplate.update("DELETE FROM saldo_checkpoints");
+        jdbcTemplate.update("DELETE FROM interes_lotes");
+        jdbcTemplate.update("DELETE FROM cuentas WHERE id > 2");
+        jdbcTemplate.update("UPDATE cuentas SET saldo = CASE id WHEN 1 THEN 1000 ELSE 2000 END, movimientos_sin_checkpoint = NULL");
+        resumenService.reconstruir(1L);
+    }
+
+    @Test
+    void lotesPorKeysetTest() {
+        // When
+        ReporteInteres reporte = interesJob.ejecutar(PERIODO);
+
+        // Then
+        assertEquals(3, reporte.lotes());
+        assertEquals(5, reporte.cuentas());
+        assertEquals(0, new BigDecimal("33").compareTo(reporte.totalInteres()));
+
+        List<InteresLote> lotes = loteRepository.findByPeriodoOrderByDesde("2024-01");
+        assertEquals(3, lotes.size());
+        assertEquals(List.of(ids.get(0), ids.get(2), ids.get(4)), lotes.stream().map(InteresLote::getDesde).toList());
+        assertEquals(List.of(ids.get(1), ids.get(3), ids.get(4)), lotes.stream().map(InteresLote::getHasta).toList());
+
+        assertSaldo(ids.get(0), "1010");
+        assertSaldo(ids.get(1), "2020");
+        assertSaldo(ids.get(4), "101");
+        // El resumen del banco incluye el interés de sus dos cuentas
+        assertEquals(0, new BigDecimal("3030").compareTo(resumenService.findById(1L).getSaldoTotal()));
+    }
+
+    @Test
+    void reanudarSaltaLotesAplicadosTest() {
+        // Given
+        // Una ejecución anterior alcanzó a confirmar el primer lote
+        jdbcTemplate.update("INSERT INTO interes_lotes (periodo, desde, hasta, cuentas, total) VALUES ('2024-01', ?, ?, 2, 30)",
+                ids.get(0), ids.get(1));
+
+        // When
+        ReporteInteres reporte = interesJob.ejecutar(PERIODO);
+        ReporteInteres repetido = interesJob.ejecutar(PERIODO);
+
+        // Then
+        assertEquals(2, reporte.lotes());
+        assertEquals(3, reporte.cuentas());
+        assertEquals(0, repetido.lotes());
+        assertEquals(0, repetido.cuentas());
+        assertSaldo(ids.get(0), "1000");
+        assertSaldo(ids.get(1), "2000");
+        assertSaldo(ids.get(2), "101");
+        assertSaldo(ids.get(4), "101");
+        assertEquals(3, loteRepository.findByPeriodoOrderByDesde("2024-01").size());
+    }
+
+    @Test
+    void movimientosYCheckpointsTest() {
+        // When
+        interesJob.ejecutar(PERIODO);
+
+        // Then
+        Map<String, Object> movimiento = jdbcTemplate.queryForMap(
+                "SELECT id, tipo, monto, contraparte_id FROM movimientos WHERE cuenta_id = ?", ids.get(0));
+        assertEquals("INTERES", movimiento.get("tipo"));
+        assertEquals(0, new BigDecimal("10").compareTo((BigDecimal) movimiento.get("monto")));
+        assertNull(movimiento.get("contraparte_id"));
+        assertEquals(5, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM movimientos WHERE tipo = 'INTERES'", Integer.class));
+
+        // Checkpoint inicial con el saldo previo y otro que cierra en el movimiento de interés
+        BigDecimal saldoCheckpoint = jdbcTemplate.queryForObject(
+                "SELECT saldo FROM saldo_checkpoints WHERE cuenta_id = ? AND movimiento_id = ?",
+                BigDecimal.class, ids.get(0), ((Number) movimiento.get("id")).longValue());
+        assertEquals(0, new BigDecimal("1010").compareTo(saldoCheckpoint));
+        assertEquals(2, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM saldo_checkpoints WHERE cuenta_id = ?", Integer.class, ids.get(0)));
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT movimientos_sin_checkpoint FROM cuentas WHERE id = ?", Integer.class, ids.get(0)));
+        assertEquals(0, new BigDecimal("1010").compareTo(checkpointService.saldoEn(ids.get(0), Instant.now()).orElseThrow()));
+    }
+
+    private void assertSaldo(Long id, String esperado) {
+        BigDecimal saldo = jdbcTemplate.queryForObject("SELECT saldo FROM cuentas WHERE id = ?", BigDecimal.class, id);
+        assertEquals(0, new BigDecimal(esperado).compareTo(saldo));
+    }
+}
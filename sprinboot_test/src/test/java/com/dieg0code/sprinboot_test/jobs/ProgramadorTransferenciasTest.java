@@ -0,0 +1,66 @@
+package com.dieg0code.sprinboot_test.jobs;
+
+import com.dieg0code.sprinboot_test.config.Nodo;
+import com.dieg0code.sprinboot_test.models.EstadoTransferenciaProgramada;
+import com.dieg0code.sprinboot_test.repositories.ParticionProgramadaRepository;
+import com.dieg0code.sprinboot_test.repositories.TransferenciaProgramadaRepository;
+import com.dieg0code.sprinboot_test.services.TransferenciaProgramadaService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collection;
+
+import static org.mockito.Mockito.*;
+
+class ProgramadorTransferenciasTest {
+
+    ParticionProgramadaRepository particionRepository;
+    TransferenciaProgramadaRepository programadaRepository;
+    ProgramadorTransferencias programador;
+
+    @BeforeEach
+    void setUp() {
+        particionRepository = mock(ParticionProgramadaRepository.class);
+        programadaRepository = mock(TransferenciaProgramadaRepository.class);
+        // 16 particiones y dos nodos esperados: la parte justa es 8
+        programador = new ProgramadorTransferencias(particionRepository, programadaRepository,
+                mock(TransferenciaProgramadaService.class), new Nodo("a"), 16, 2, 0, 200, 1, 30000);
+    }
+
+    @AfterEach
+    void tearDown() {
+        programador.detener();
+    }
+
+    @Test
+    void nodoSoloDevuelveExcedentesTest() {
+        // Given
+        when(particionRepository.reclamar(any(), any(), any(), any())).thenReturn(1);
+
+        // When
+        programador.procesar();
+
+        // Then
+        // Procesa las 16, pero al terminar el ciclo devuelve las 8 que exceden su parte
+        verify(programadaRepository).findIdsVencidas(eq(EstadoTransferenciaProgramada.PENDIENTE),
+                argThat((Collection<Integer> particiones) -> particiones.size() == 16), any(), any());
+        verify(particionRepository).liberar(argThat((Collection<Integer> particiones) -> particiones.size() == 8), eq("a"));
+    }
+
+    @Test
+    void otroNodoConSuParteTest() {
+        // Given
+        // Las particiones 8 a 15 tienen otro dueño vigente
+        when(particionRepository.reclamar(argThat((Integer particion) -> particion < 8), any(), any(), any())).thenReturn(1);
+
+        // When
+        programador.procesar();
+        programador.procesar();
+
+        // Then
+        verify(programadaRepository, times(2)).findIdsVencidas(eq(EstadoTransferenciaProgramada.PENDIENTE),
+                argThat((Collection<Integer> particiones) -> particiones.size() == 8), any(), any());
+        verify(particionRepository, never()).liberar(anyCollection(), any());
+    }
+}
@@ -0,0 +1,85 @@
+package com.dieg0code.sprinboot_test.jobs;
+
+import com.dieg0code.sprinboot_test.models.CambioEntidad;
+import com.dieg0code.sprinboot_test.models.TipoEntidad;
+import com.dieg0code.sprinboot_test.repositories.CambioEntidadRepository;
+import com.dieg0code.sprinboot_test.services.BusInvalidacion;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.*;
+
+class SeguidorCambiosTest {
+
+    CambioEntidadRepository cambioRepository;
+    BusInvalidacion busInvalidacion;
+    SeguidorCambios seguidor;
+
+    @BeforeEach
+    void setUp() {
+        cambioRepository = mock(CambioEntidadRepository.class);
+        busInvalidacion = mock(BusInvalidacion.class);
+        // El hilo propio no corre durante el test: seguir() se llama a mano
+        seguidor = new SeguidorCambios(cambioRepository, busInvalidacion, 100, 5000, 600000, 3_600_000);
+        when(cambioRepository.findUltimoId()).thenReturn(0L);
+        seguidor.iniciar();
+    }
+
+    @AfterEach
+    void tearDown() {
+        seguidor.cerrar();
+    }
+
+    @Test
+    void huecoConfirmadoTardeTest() {
+        // Given
+        CambioEntidad cambio1 = cambio(1L);
+        CambioEntidad cambio2 = cambio(2L);
+        CambioEntidad cambio3 = cambio(3L);
+        when(cambioRepository.findDespues(eq(0L), any())).thenReturn(List.of(cambio1, cambio3));
+        when(cambioRepository.findDespues(eq(3L), any())).thenReturn(List.of());
+        when(cambioRepository.findByIdIn(List.of(2L))).thenReturn(List.of(cambio2));
+
+        // When
+        seguidor.seguir();
+        seguidor.seguir();
+
+        // Then
+        verify(busInvalidacion).aplicar(List.of(cambio1, cambio3));
+        verify(busInvalidacion).aplicar(List.of(cambio2));
+    }
+
+    @Test
+    void latenciaAcotadaTest() {
+        // Given
+        SeguidorCambios rapido = new SeguidorCambios(cambioRepository, busInvalidacion, 100, 5000, 600000, 20);
+        CambioEntidad cambio1 = cambio(1L);
+        when(cambioRepository.findDespues(eq(0L), any())).thenReturn(List.of(cambio1));
+        when(cambioRepository.findDespues(eq(1L), any())).thenReturn(List.of());
+
+        // When
+        long inicio = System.nanoTime();
+        rapido.iniciar();
+
+        // Then
+        try {
+            // Sin depender del pool de @Scheduled: el cambio se aplica dentro de unos pocos intervalos
+            verify(busInvalidacion, timeout(500)).aplicar(List.of(cambio1));
+            assertTrue(System.nanoTime() - inicio < TimeUnit.MILLISECONDS.toNanos(500));
+        } finally {
+            rapido.cerrar();
+        }
+    }
+
+    private CambioEntidad cambio(Long id) {
+        CambioEntidad cambio = new CambioEntidad(TipoEntidad.CUENTA, id, "otro-nodo", Instant.now());
+        cambio.setId(id);
+        return cambio;
+    }
+}
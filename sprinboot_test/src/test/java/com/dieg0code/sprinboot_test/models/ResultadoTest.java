@@ -0,0 +1,52 @@
+package com.dieg0code.sprinboot_test.models;
+
+import com.dieg0code.sprinboot_test.exceptions.DineroInsuficienteException;
+import com.dieg0code.sprinboot_test.exceptions.RecursoNoEncontradoException;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ResultadoTest {
+
+    @Test
+    void obtenerExitoTest() {
+        // Given
+        Resultado<String> resultado = Resultado.exito("ok");
+
+        // When
+        String valor = resultado.obtener();
+
+        // Then
+        assertEquals("ok", valor);
+    }
+
+    @Test
+    void obtenerFalloLanzaSinStackTraceTest() {
+        // Given
+        Resultado<Void> resultado = Resultado.fallo(ErrorCuenta.CUENTA_NO_ENCONTRADA, "La cuenta 9 no existe");
+
+        // When
+        RecursoNoEncontradoException exception = assertThrows(RecursoNoEncontradoException.class, resultado::obtener);
+
+        // Then
+        assertEquals("La cuenta 9 no existe", exception.getMessage());
+        assertEquals(0, exception.getStackTrace().length);
+    }
+
+    @Test
+    void debitoInsuficienteReutilizaInstanciaTest() {
+        // Given
+        Cuenta cuenta = new Cuenta(1L, "Diego", new BigDecimal("100"));
+
+        // When
+        DineroInsuficienteException exception = assertThrows(DineroInsuficienteException.class,
+                () -> cuenta.debito(new BigDecimal("500")));
+
+        // Then
+        assertSame(DineroInsuficienteException.INSTANCIA, exception);
+        assertEquals(0, exception.getStackTrace().length);
+        assertEquals(new BigDecimal("100"), cuenta.getSaldo());
+    }
+}
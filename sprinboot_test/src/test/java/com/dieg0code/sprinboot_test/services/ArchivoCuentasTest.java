@@ -0,0 +1,98 @@
+package com.dieg0code.sprinboot_test.services;
+
+import com.dieg0code.sprinboot_test.jobs.ArchivoCuentasJob;
+import com.dieg0code.sprinboot_test.models.Cuenta;
+import com.dieg0code.sprinboot_test.models.CuentaArchivada;
+import com.dieg0code.sprinboot_test.models.MotivoArchivo;
+import com.dieg0code.sprinboot_test.models.Movimiento;
+import com.dieg0code.sprinboot_test.models.ReporteArchivo;
+import com.dieg0code.sprinboot_test.models.TipoMovimiento;
+import com.dieg0code.sprinboot_test.repositories.CuentaArchivadaRepository;
+import com.dieg0code.sprinboot_test.repositories.CuentaRepository;
+import com.dieg0code.sprinboot_test.repositories.MovimientoRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@DataJpaTest
+@Import({ArchivoCuentas.class, ArchivoCuentasJob.class, ResumenBancoService.class})
+class ArchivoCuentasTest {
+
+    @Autowired
+    ArchivoCuentas archivoCuentas;
+
+    @Autowired
+    ArchivoCuentasJob archivoJob;
+
+    @Autowired
+    CuentaRepository cuentaRepository;
+
+    @Autowired
+    CuentaArchivadaRepository archivadaRepository;
+
+    @Autowired
+    MovimientoRepository movimientoRepository;
+
+    @Autowired
+    EntityManager entityManager;
+
+    @MockBean
+    FiltroCuentas filtroCuentas;
+
+    @Test
+    void archivarCuentasCerradasTest() {
+        // When
+        List<Long> archivadas = archivoCuentas.archivar(List.of(1L, 99L, 1L), MotivoArchivo.CERRADA);
+
+        // Then
+        assertEquals(List.of(1L), archivadas);
+        assertTrue(cuentaRepository.findById(1L).isEmpty());
+        List<CuentaArchivada> archivo = archivadaRepository.findByCuentaId(1L);
+        assertEquals(1, archivo.size());
+        assertEquals("Diego", archivo.get(0).getNombre());
+        assertEquals("1000.00", archivo.get(0).getSaldo().toPlainString());
+        assertEquals(1L, archivo.get(0).getBancoId());
+        assertEquals(MotivoArchivo.CERRADA, archivo.get(0).getMotivo());
+        verify(filtroCuentas).eliminar(1L);
+    }
+
+    @Test
+    void archivarCuentasInactivasTest() {
+        // Given
+        Instant hace90Dias = Instant.now().minus(Duration.ofDays(90));
+        Long inactiva = crearCuenta("Inactiva", hace90Dias);
+        Long reciente = crearCuenta("Reciente", Instant.now());
+        Long sinMovimientos = cuentaRepository.save(new Cuenta(null, "Nueva", BigDecimal.ZERO)).getId();
+        entityManager.flush();
+        entityManager.clear();
+
+        // When
+        ReporteArchivo reporte = archivoJob.ejecutar(Instant.now().minus(Duration.ofDays(30)));
+
+        // Then
+        assertEquals(1, reporte.cuentas());
+        assertTrue(cuentaRepository.findById(inactiva).isEmpty());
+        assertEquals(MotivoArchivo.INACTIVA, archivadaRepository.findByCuentaId(inactiva).get(0).getMotivo());
+        assertTrue(cuentaRepository.findById(reciente).isPresent());
+        assertTrue(cuentaRepository.findById(sinMovimientos).isPresent());
+        assertTrue(cuentaRepository.findById(1L).isPresent());
+    }
+
+    // Cuenta con saldo cero cuyo último movimiento fue en "fecha"
+    private Long crearCuenta(String nombre, Instant fecha) {
+        Long id = cuentaRepository.save(new Cuenta(null, nombre, BigDecimal.ZERO)).getId();
+        movimientoRepository.save(new Movimiento(id, 1L, 1L, TipoMovimiento.DEBITO, new BigDecimal("-10"), fecha));
+        return id;
+    }
+}
@@ -0,0 +1,98 @@
+package com.dieg0code.sprinboot_test.services;
+
+import com.dieg0code.sprinboot_test.config.Nodo;
+import com.dieg0code.sprinboot_test.events.CambioRemotoEvent;
+import com.dieg0code.sprinboot_test.models.CambioEntidad;
+import com.dieg0code.sprinboot_test.models.TipoEntidad;
+import com.dieg0code.sprinboot_test.repositories.CambioEntidadRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.event.ApplicationEvents;
+import org.springframework.test.context.event.RecordApplicationEvents;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@Import({BusInvalidacion.class, Nodo.class, SimpleMeterRegistry.class})
+@TestPropertySource(properties = "cuentas.invalidacion.habilitada=true")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@RecordApplicationEvents
+class BusInvalidacionTest {
+
+    @Autowired
+    BusInvalidacion busInvalidacion;
+
+    @Autowired
+    CambioEntidadRepository cambioRepository;
+
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    @Autowired
+    Nodo nodo;
+
+    @Autowired
+    ApplicationEvents events;
+
+    @AfterEach
+    void tearDown() {
+        cambioRepository.deleteAll();
+    }
+
+    @Test
+    void registrarAlConfirmarTest() {
+        // When
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            busInvalidacion.registrar(TipoEntidad.CUENTA, 1L);
+            busInvalidacion.registrar(TipoEntidad.CUENTA, 1L);
+            busInvalidacion.registrar(TipoEntidad.BANCO, 1L);
+            assertEquals(0, cambioRepository.count());
+        });
+
+        // Then
+        List<CambioEntidad> cambios = cambioRepository.findAll();
+        assertEquals(2, cambios.size());
+        assertTrue(cambios.stream().allMatch(cambio -> nodo.getId().equals(cambio.getNodo())));
+    }
+
+    @Test
+    void registrarRevertidoTest() {
+        // When
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            busInvalidacion.registrar(TipoEntidad.CUENTA, 1L);
+            status.setRollbackOnly();
+        });
+
+        // Then
+        assertEquals(0, cambioRepository.count());
+    }
+
+    @Test
+    void aplicarSoloRemotosTest() {
+        // Given
+        CambioEntidad remoto = new CambioEntidad(TipoEntidad.CUENTA, 1L, "otro-nodo", Instant.now());
+        CambioEntidad propio = new CambioEntidad(TipoEntidad.CUENTA, 2L, nodo.getId(), Instant.now());
+
+        // When
+        busInvalidacion.aplicar(List.of(remoto, propio));
+
+        // Then
+        List<CambioRemotoEvent> recibidos = events.stream(CambioRemotoEvent.class).toList();
+        assertEquals(1, recibidos.size());
+        assertEquals(1L, recibidos.get(0).entidadId());
+        assertEquals(0, new BigDecimal("1000").compareTo(recibidos.get(0).saldo()));
+    }
+}
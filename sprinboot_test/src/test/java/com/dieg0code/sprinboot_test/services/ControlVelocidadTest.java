@@ -0,0 +1,107 @@
+package com.dieg0code.sprinboot_test.services;
+
+import com.dieg0code.sprinboot_test.exceptions.LimiteVelocidadExcedidoException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.math.BigDecimal;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ControlVelocidadTest {
+
+    AtomicLong ahora = new AtomicLong(1_000_000);
+    ControlVelocidad controlVelocidad;
+
+    @BeforeEach
+    void setUp() {
+        // Ventana de 60 segundos; el banco 2 tiene límites más estrictos
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("cuentas.velocidad.bancos.2.max-transferencias", "1")
+                .withProperty("cuentas.velocidad.bancos.2.max-monto", "50");
+        controlVelocidad = new ControlVelocidad(environment, 60_000, 6, 3, new BigDecimal("1000"), ahora::get);
+    }
+
+    @Test
+    void maxTransferenciasTest() {
+        // Given
+        controlVelocidad.reservar(1L, 1L, new BigDecimal("10"));
+        controlVelocidad.reservar(1L, 1L, new BigDecimal("10"));
+        controlVelocidad.reservar(1L, 1L, new BigDecimal("10"));
+
+        // When
+        LimiteVelocidadExcedidoException exception = assertThrows(LimiteVelocidadExcedidoException.class,
+                () -> controlVelocidad.reservar(1L, 1L, new BigDecimal("10")));
+
+        // Then
+        assertEquals("La cuenta 1 superó el número de transferencias permitido", exception.getMessage());
+        assertDoesNotThrow(() -> controlVelocidad.reservar(2L, 1L, new BigDecimal("10")));
+    }
+
+    @Test
+    void ventanaDeslizanteTest() {
+        // Given
+        controlVelocidad.reservar(1L, 1L, new BigDecimal("600"));
+        ahora.addAndGet(30_000);
+        controlVelocidad.reservar(1L, 1L, new BigDecimal("300"));
+
+        // When / Then
+        assertThrows(LimiteVelocidadExcedidoException.class, () -> controlVelocidad.reservar(1L, 1L, new BigDecimal("200")));
+
+        // La primera reserva sale de la ventana
+        ahora.addAndGet(30_000);
+        assertDoesNotThrow(() -> controlVelocidad.reservar(1L, 1L, new BigDecimal("200")));
+    }
+
+    @Test
+    void liberarTest() {
+        // Given
+        ControlVelocidad.Reserva reserva = controlVelocidad.reservar(1L, 1L, new BigDecimal("1000"));
+
+        // When
+        controlVelocidad.liberar(reserva);
+
+        // Then
+        assertDoesNotThrow(() -> controlVelocidad.reservar(1L, 1L, new BigDecimal("1000")));
+    }
+
+    @Test
+    void limitePorBancoTest() {
+        // Given
+        controlVelocidad.reservar(1L, 2L, new BigDecimal("40"));
+
+        // When / Then
+        assertThrows(LimiteVelocidadExcedidoException.class, () -> controlVelocidad.reservar(1L, 2L, new BigDecimal("5")));
+        assertThrows(LimiteVelocidadExcedidoException.class, () -> controlVelocidad.reservar(3L, 2L, new BigDecimal("51")));
+    }
+
+    @Test
+    void reservaInvalidaTest() {
+        // Given
+        controlVelocidad.reservar(1L, 1L, new BigDecimal("900"));
+
+        // When / Then
+        // Un monto negativo no puede descontar lo ya reservado, y sin banco no se lee ningún límite
+        assertThrows(IllegalArgumentException.class, () -> controlVelocidad.reservar(1L, 1L, new BigDecimal("-500")));
+        assertThrows(IllegalArgumentException.class, () -> controlVelocidad.reservar(1L, 1L, BigDecimal.ZERO));
+        assertThrows(IllegalArgumentException.class, () -> controlVelocidad.reservar(1L, null, new BigDecimal("10")));
+        assertThrows(LimiteVelocidadExcedidoException.class, () -> controlVelocidad.reservar(1L, 1L, new BigDecimal("200")));
+    }
+
+    @Test
+    void limpiarTest() {
+        // Given
+        controlVelocidad.reservar(1L, 1L, new BigDecimal("10"));
+        ahora.addAndGet(30_000);
+        controlVelocidad.reservar(2L, 1L, new BigDecimal("10"));
+
+        // When
+        ahora.addAndGet(40_000);
+        controlVelocidad.limpiar();
+
+        // Then
+        assertEquals(1, controlVelocidad.cuentasActivas());
+    }
+}
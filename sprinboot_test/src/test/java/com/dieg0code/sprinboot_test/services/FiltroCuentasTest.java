@@ -0,0 +1,47 @@
+package com.dieg0code.sprinboot_test.services;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FiltroCuentasTest {
+
+    @Test
+    void sinFalsosNegativosTest() {
+        // Given
+        FiltroCuentas.Filtro filtro = new FiltroCuentas.Filtro(10_000, 0.01);
+
+        // When
+        for (long id = 1; id <= 10_000; id++) {
+            filtro.agregar(id);
+        }
+
+        // Then
+        for (long id = 1; id <= 10_000; id++) {
+            assertTrue(filtro.contiene(id));
+        }
+        assertEquals(10_000, filtro.elementos());
+    }
+
+    @Test
+    void tasaFalsosPositivosTest() {
+        // Given
+        FiltroCuentas.Filtro filtro = new FiltroCuentas.Filtro(10_000, 0.01);
+        for (long id = 1; id <= 10_000; id++) {
+            filtro.agregar(id);
+        }
+
+        // When
+        int falsosPositivos = 0;
+        for (long id = 1_000_001; id <= 1_100_000; id++) {
+            if (filtro.contiene(id)) {
+                falsosPositivos++;
+            }
+        }
+
+        // Then
+        double tasa = falsosPositivos / 100_000.0;
+        assertTrue(tasa < 0.02, "Tasa de falsos positivos: " + tasa);
+        assertEquals(0.01, filtro.tasaEstimada(), 0.005);
+    }
+}
@@ -0,0 +1,92 @@
+package com.dieg0code.sprinboot_test.services;
+
+import com.dieg0code.sprinboot_test.jfr.DebitoAplicadoEvent;
+import com.dieg0code.sprinboot_test.jfr.EventosTransferencia;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GrabacionJfrTest {
+
+    GrabacionJfr grabacionJfr = new GrabacionJfr();
+
+    @AfterEach
+    void tearDown() {
+        grabacionJfr.detener();
+    }
+
+    @Test
+    void volcarIncluyeEventosDeTransferenciaTest() throws Exception {
+        // Given
+        assertTrue(grabacionJfr.iniciar(Duration.ofMinutes(1), Duration.ZERO));
+        DebitoAplicadoEvent evento = new DebitoAplicadoEvent();
+        evento.begin();
+        EventosTransferencia.terminarDebito(evento, 7L, new BigDecimal("150.50"));
+
+        // When
+        assertTrue(grabacionJfr.detener());
+        Path archivo = grabacionJfr.volcar();
+
+        // Then
+        List<RecordedEvent> debitos = RecordingFile.readAllEvents(archivo).stream()
+                .filter(e -> e.getEventType().getName().equals("cuentas.DebitoAplicado"))
+                .toList();
+        assertEquals(1, debitos.size());
+        assertEquals(7L, debitos.get(0).getLong("cuentaOrigenId"));
+        assertEquals("150.50", debitos.get(0).getString("monto"));
+        assertEquals("STOPPED", grabacionJfr.estado());
+        GrabacionJfr.borrar(archivo);
+    }
+
+    @Test
+    void volcarSinEntornoDelProcesoTest() throws Exception {
+        // Given
+        assertTrue(grabacionJfr.iniciar(Duration.ofMinutes(1), Duration.ZERO));
+
+        // When
+        assertTrue(grabacionJfr.detener());
+        Path archivo = grabacionJfr.volcar();
+
+        // Then
+        // Las variables de entorno y las propiedades del sistema pueden traer credenciales
+        List<String> tipos = RecordingFile.readAllEvents(archivo).stream()
+                .map(e -> e.getEventType().getName())
+                .toList();
+        assertFalse(tipos.contains("jdk.InitialEnvironmentVariable"));
+        assertFalse(tipos.contains("jdk.InitialSystemProperty"));
+        GrabacionJfr.borrar(archivo);
+    }
+
+    @Test
+    void iniciarConGrabacionEnCursoTest() {
+        // Given
+        assertTrue(grabacionJfr.iniciar(Duration.ofMinutes(1), Duration.ZERO));
+
+        // When
+        boolean iniciada = grabacionJfr.iniciar(Duration.ofMinutes(1), Duration.ZERO);
+
+        // Then
+        assertFalse(iniciada);
+        assertEquals("RUNNING", grabacionJfr.estado());
+    }
+
+    @Test
+    void sinGrabacionTest() {
+        // Given
+        DebitoAplicadoEvent evento = new DebitoAplicadoEvent();
+
+        // When / Then
+        assertFalse(evento.isEnabled());
+        assertFalse(grabacionJfr.detener());
+        assertThrows(NoSuchElementException.class, grabacionJfr::volcar);
+    }
+}
@@ -0,0 +1,72 @@
+package com.dieg0code.sprinboot_test.services;
+
+import com.dieg0code.sprinboot_test.events.TransferenciaRealizadaEvent;
+import com.dieg0code.sprinboot_test.models.EventoOutbox;
+import com.dieg0code.sprinboot_test.repositories.EventoOutboxRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@Import({OutboxService.class, JacksonAutoConfiguration.class})
+class OutboxServiceTest {
+
+    @Autowired
+    OutboxService outboxService;
+
+    @Autowired
+    EventoOutboxRepository outboxRepository;
+
+    @Test
+    void reclamarLotesDisjuntosTest() {
+        // Given
+        outboxService.registrarTodos(List.of(transferencia(1L), transferencia(2L), transferencia(3L)));
+
+        // When
+        List<EventoOutbox> loteA = outboxService.reclamar("relay-a", 2, Duration.ofSeconds(30));
+        List<EventoOutbox> loteB = outboxService.reclamar("relay-b", 2, Duration.ofSeconds(30));
+        List<EventoOutbox> loteC = outboxService.reclamar("relay-c", 2, Duration.ofSeconds(30));
+
+        // Then
+        assertEquals(2, loteA.size());
+        assertEquals(1, loteB.size());
+        assertTrue(loteC.isEmpty());
+        assertTrue(loteA.get(0).getId() < loteA.get(1).getId());
+        assertTrue(loteA.get(1).getId() < loteB.get(0).getId());
+        assertEquals("TransferenciaRealizadaEvent", loteA.get(0).getTipo());
+        assertTrue(loteA.get(0).getPayload().contains("\"cuentaDestinoId\":1"));
+
+        assertEquals(2, outboxService.confirmar("relay-a"));
+        assertEquals(1, outboxRepository.count());
+    }
+
+    @Test
+    void reclamarArriendoVencidoTest() {
+        // Given
+        outboxService.registrar(transferencia(1L));
+        outboxService.reclamar("relay-a", 10, Duration.ofSeconds(-1));
+
+        // When
+        List<EventoOutbox> lote = outboxService.reclamar("relay-b", 10, Duration.ofSeconds(30));
+
+        // Then
+        assertEquals(1, lote.size());
+        assertEquals(0, outboxService.confirmar("relay-a"));
+        assertEquals(1, outboxService.confirmar("relay-b"));
+        assertEquals(0, outboxRepository.count());
+    }
+
+    private TransferenciaRealizadaEvent transferencia(Long cuentaDestinoId) {
+        return new TransferenciaRealizadaEvent(2L, cuentaDestinoId, new BigDecimal("100"), 1L,
+                Instant.parse("2024-01-31T10:00:00Z"));
+    }
+}
@@ -0,0 +1,96 @@
+package com.dieg0code.sprinboot_test.services;
+
+import com.dieg0code.sprinboot_test.models.SaldoDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RankingSaldosTest {
+
+    RankingSaldos.Top top;
+
+    @BeforeEach
+    void setUp() {
+        // Capacidad 3 con 5 cuentas: quedan fuera las de 100 y 200
+        top = new RankingSaldos.Top(3);
+        for (long id = 1; id <= 5; id++) {
+            top.actualizar(id, BigDecimal.valueOf(id * 100));
+        }
+    }
+
+    @Test
+    void segurasTest() {
+        // When
+        List<SaldoDTO> top3 = top.seguras(3);
+
+        // Then
+        assertEquals(List.of(saldo(5L, 500), saldo(4L, 400), saldo(3L, 300)), top3);
+        assertEquals(List.of(saldo(5L, 500)), top.seguras(1));
+    }
+
+    @Test
+    void bajaBajoLaCotaTest() {
+        // When
+        top.actualizar(5L, new BigDecimal("150"));
+
+        // Then
+        assertEquals(List.of(saldo(4L, 400), saldo(3L, 300)), top.seguras(2));
+        // La cuenta 2 (200) podría superar a la de 150: no hay tercera posición segura
+        assertNull(top.seguras(3));
+    }
+
+    @Test
+    void entraCuentaDeFueraTest() {
+        // Given
+        top.actualizar(5L, new BigDecimal("150"));
+
+        // When
+        top.actualizar(1L, new BigDecimal("600"));
+
+        // Then
+        assertEquals(List.of(saldo(1L, 600), saldo(4L, 400), saldo(3L, 300)), top.seguras(3));
+    }
+
+    @Test
+    void eliminarTest() {
+        // When
+        top.eliminar(4L);
+
+        // Then
+        assertEquals(List.of(saldo(5L, 500), saldo(3L, 300)), top.seguras(2));
+        assertNull(top.seguras(3));
+    }
+
+    @Test
+    void empateConLaCotaTest() {
+        // When
+        top.actualizar(5L, new BigDecimal("200"));
+
+        // Then
+        // La cuenta 2 quedó fuera con el mismo saldo y ordena antes por id
+        assertEquals(List.of(saldo(4L, 400), saldo(3L, 300)), top.seguras(2));
+        assertNull(top.seguras(3));
+    }
+
+    @Test
+    void versionAtrasadaTest() {
+        // Given
+        top.aplicar(5L, new BigDecimal("600"), 2);
+        top.aplicar(4L, null, RankingSaldos.ELIMINADA);
+
+        // When
+        top.aplicar(5L, new BigDecimal("50"), 1);
+        top.aplicar(4L, new BigDecimal("700"), 3);
+
+        // Then
+        assertEquals(List.of(saldo(5L, 600), saldo(3L, 300)), top.seguras(2));
+    }
+
+    private SaldoDTO saldo(Long id, long saldo) {
+        return new SaldoDTO(id, BigDecimal.valueOf(saldo));
+    }
+}
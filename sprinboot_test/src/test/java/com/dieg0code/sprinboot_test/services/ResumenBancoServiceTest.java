@@ -0,0 +1,55 @@
+package com.dieg0code.sprinboot_test.services;
+
+import com.dieg0code.sprinboot_test.models.ResumenBanco;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@Import(ResumenBancoService.class)
+class ResumenBancoServiceTest {
+
+    @Autowired
+    ResumenBancoService resumenService;
+
+    @Autowired
+    EntityManager entityManager;
+
+    @Test
+    void reconstruirTest() {
+        // When
+        ResumenBanco resumen = resumenService.reconstruir(1L);
+
+        // Then
+        assertEquals(2, resumen.getCuentas());
+        assertEquals("3000.00", resumen.getSaldoTotal().toPlainString());
+        assertEquals(0, resumen.getTransferencias());
+        assertEquals(0, resumen.getVolumen().signum());
+    }
+
+    @Test
+    void registrarDeltasTest() {
+        // Given
+        resumenService.reconstruir(1L);
+        entityManager.flush();
+
+        // When
+        resumenService.registrarCuenta(1L, 1, new BigDecimal("500"));
+        resumenService.registrarTransferencia(1L, new BigDecimal("100"));
+        resumenService.registrarCuenta(null, 1, new BigDecimal("700"));
+        entityManager.clear();
+
+        // Then
+        ResumenBanco resumen = resumenService.findById(1L);
+        assertEquals(3, resumen.getCuentas());
+        assertEquals("3500.00", resumen.getSaldoTotal().toPlainString());
+        assertEquals(1, resumen.getTransferencias());
+        assertEquals("100.00", resumen.getVolumen().toPlainString());
+    }
+}
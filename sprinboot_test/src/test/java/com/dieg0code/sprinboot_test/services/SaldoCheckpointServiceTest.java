@@ -0,0 +1,78 @@
+package com.dieg0code.sprinboot_test.services;
+
+import com.dieg0code.sprinboot_test.exceptions.RecursoNoEncontradoException;
+import com.dieg0code.sprinboot_test.models.Cuenta;
+import com.dieg0code.sprinboot_test.models.Movimiento;
+import com.dieg0code.sprinboot_test.models.TipoMovimiento;
+import com.dieg0code.sprinboot_test.repositories.MovimientoRepository;
+import com.dieg0code.sprinboot_test.repositories.SaldoCheckpointRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@Import(SaldoCheckpointService.class)
+@TestPropertySource(properties = "cuentas.checkpoint.intervalo=2")
+class SaldoCheckpointServiceTest {
+
+    @Autowired
+    SaldoCheckpointService checkpointService;
+
+    @Autowired
+    SaldoCheckpointRepository checkpointRepository;
+
+    @Autowired
+    MovimientoRepository movimientoRepository;
+
+    Instant t1 = Instant.parse("2024-01-01T10:00:00Z");
+    Cuenta cuenta = new Cuenta(1L, "Diego", new BigDecimal("1000"));
+
+    @BeforeEach
+    void setUp() {
+        // Cuenta 1 parte con 1000: -100, -100, +50, -200
+        registrar(t1, "-100", "900");
+        registrar(t1.plusSeconds(60), "-100", "800");
+        registrar(t1.plusSeconds(120), "50", "850");
+        registrar(t1.plusSeconds(180), "-200", "650");
+    }
+
+    @Test
+    void checkpointsCadaIntervaloTest() {
+        // Checkpoint inicial + uno cada 2 movimientos; el contador queda en la cuenta
+        assertEquals(3, checkpointRepository.count());
+        assertEquals(0, cuenta.getMovimientosSinCheckpoint());
+    }
+
+    @Test
+    void saldoEnTest() {
+        assertEquals(0, new BigDecimal("900").compareTo(checkpointService.saldoEn(1L, t1).orElseThrow()));
+        assertEquals(0, new BigDecimal("850").compareTo(checkpointService.saldoEn(1L, t1.plusSeconds(150)).orElseThrow()));
+        assertEquals(0, new BigDecimal("650").compareTo(checkpointService.saldoEn(1L, t1.plusSeconds(3600)).orElseThrow()));
+    }
+
+    @Test
+    void saldoEnAntesDelPrimerMovimientoTest() {
+        // La cuenta pudo no existir todavía
+        assertThrows(RecursoNoEncontradoException.class, () -> checkpointService.saldoEn(1L, t1.minusSeconds(1)));
+    }
+
+    @Test
+    void saldoEnCuentaSinMovimientosTest() {
+        assertTrue(checkpointService.saldoEn(2L, t1).isEmpty());
+    }
+
+    private void registrar(Instant fecha, String monto, String saldoResultante) {
+        BigDecimal valor = new BigDecimal(monto);
+        TipoMovimiento tipo = valor.signum() < 0 ? TipoMovimiento.DEBITO : TipoMovimiento.CREDITO;
+        Movimiento movimiento = movimientoRepository.save(new Movimiento(1L, 2L, 1L, tipo, valor, fecha));
+        checkpointService.registrar(cuenta, movimiento, new BigDecimal(saldoResultante));
+    }
+}
@@ -0,0 +1,176 @@
+package com.dieg0code.sprinboot_test.services;
+
+import com.dieg0code.sprinboot_test.events.SaldoActualizadoEvent;
+import com.dieg0code.sprinboot_test.models.SaldoDTO;
+import com.dieg0code.sprinboot_test.models.SaldoVersionDTO;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SaldoNotificadorTest {
+
+    // Los envíos hechos por emitter, en orden
+    Map<SseEmitter, List<SaldoDTO>> enviados = new ConcurrentHashMap<>();
+    // Emitters cuyo envío queda bloqueado hasta liberar, como un cliente que no lee
+    Set<SseEmitter> lentos = ConcurrentHashMap.newKeySet();
+    Set<SseEmitter> bloqueados = ConcurrentHashMap.newKeySet();
+    CountDownLatch liberar = new CountDownLatch(1);
+
+    SaldoNotificador notificador;
+
+    @AfterEach
+    void tearDown() {
+        liberar.countDown();
+        notificador.cerrar();
+    }
+
+    @Test
+    void repartoPorCuentaTest() throws Exception {
+        // Given
+        notificador = crear(2, 5000, 4);
+        SseEmitter soloUno = notificador.suscribir(List.of(saldo(1L, 100, 1)));
+        SseEmitter ambas = notificador.suscribir(List.of(saldo(1L, 100, 1), saldo(2L, 200, 1)));
+        esperar(() -> enviados(soloUno).size() == 1 && enviados(ambas).size() == 2);
+
+        // When
+        notificador.onSaldoActualizado(new SaldoActualizadoEvent(2L, new BigDecimal("250"), 2));
+
+        // Then
+        esperar(() -> enviados(ambas).size() == 3);
+        assertEquals(new SaldoDTO(2L, new BigDecimal("250")), enviados(ambas).get(2));
+        assertEquals(List.of(new SaldoDTO(1L, new BigDecimal("100"))), enviados(soloUno));
+        assertEquals(2, notificador.totalSuscriptores());
+    }
+
+    @Test
+    void versionAtrasadaSeDescartaTest() throws Exception {
+        // Given
+        notificador = crear(2, 5000, 4);
+        SseEmitter emitter = notificador.suscribir(List.of(saldo(1L, 100, 5)));
+        esperar(() -> enviados(emitter).size() == 1);
+
+        // When
+        notificador.onSaldoActualizado(new SaldoActualizadoEvent(1L, new BigDecimal("50"), 3));
+        notificador.onSaldoActualizado(new SaldoActualizadoEvent(1L, new BigDecimal("70"), 6));
+
+        // Then
+        esperar(() -> enviados(emitter).size() == 2);
+        Thread.sleep(50);
+        assertEquals(List.of(new SaldoDTO(1L, new BigDecimal("100")), new SaldoDTO(1L, new BigDecimal("70"))),
+                enviados(emitter));
+    }
+
+    @Test
+    void cambiosSinEnviarSeCoalescenTest() throws Exception {
+        // Given
+        notificador = crear(1, 60_000, 4);
+        SseEmitter emitter = crearEmitterLento(saldo(1L, 100, 1));
+
+        // When
+        for (int version = 2; version <= 4; version++) {
+            notificador.onSaldoActualizado(new SaldoActualizadoEvent(1L, BigDecimal.valueOf(100L * version), version));
+        }
+        liberar.countDown();
+
+        // Then
+        esperar(() -> enviados(emitter).size() == 2);
+        Thread.sleep(50);
+        assertEquals(List.of(new SaldoDTO(1L, new BigDecimal("100")), new SaldoDTO(1L, new BigDecimal("400"))),
+                enviados(emitter));
+    }
+
+    @Test
+    void clienteLentoQuedaFueraTest() throws Exception {
+        // Given
+        notificador = crear(1, 50, 4);
+        crearEmitterLento(saldo(1L, 100, 1));
+
+        // When
+        SseEmitter rapido = notificador.suscribir(List.of(saldo(1L, 100, 1)));
+
+        // Then
+        // Con el único hilo bloqueado, el hilo extra hace el envío al cliente rápido
+        esperar(() -> enviados(rapido).size() == 1);
+        assertEquals(1, notificador.totalSuscriptores());
+        assertEquals(1, notificador.hilosBloqueados());
+
+        liberar.countDown();
+        esperar(() -> notificador.hilosBloqueados() == 0);
+    }
+
+    @Test
+    void topeDeHilosBloqueadosTest() throws Exception {
+        // Given
+        notificador = crear(2, 50, 1);
+        crearEmitterLento(saldo(1L, 100, 1));
+        crearEmitterLento(saldo(2L, 200, 1));
+
+        // When
+        esperar(() -> notificador.totalSuscriptores() == 0);
+
+        // Then
+        assertEquals(1, notificador.hilosBloqueados());
+    }
+
+    private SaldoNotificador crear(int hilos, long envioTimeoutMs, int maxHilosBloqueados) {
+        return new SaldoNotificador(hilos, 1_800_000, 10, envioTimeoutMs, maxHilosBloqueados) {
+            @Override
+            void enviar(SseEmitter emitter, SaldoDTO saldo) throws IOException {
+                boolean lento;
+                // Espera a que crearEmitterLento termine de marcar el emitter
+                synchronized (lentos) {
+                    lento = lentos.contains(emitter);
+                }
+                if (lento) {
+                    bloqueados.add(emitter);
+                    try {
+                        liberar.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new IOException(e);
+                    }
+                }
+                enviados(emitter).add(saldo);
+            }
+        };
+    }
+
+    // Suscribe un cliente que no lee y espera a que su primer envío quede bloqueado
+    private SseEmitter crearEmitterLento(SaldoVersionDTO inicial) throws InterruptedException {
+        SseEmitter[] emitter = new SseEmitter[1];
+        synchronized (lentos) {
+            emitter[0] = notificador.suscribir(List.of(inicial));
+            lentos.add(emitter[0]);
+        }
+        esperar(() -> bloqueados.contains(emitter[0]));
+        return emitter[0];
+    }
+
+    private List<SaldoDTO> enviados(SseEmitter emitter) {
+        return enviados.computeIfAbsent(emitter, e -> new CopyOnWriteArrayList<>());
+    }
+
+    private static SaldoVersionDTO saldo(Long id, long saldo, long version) {
+        return new SaldoVersionDTO(id, BigDecimal.valueOf(saldo), version);
+    }
+
+    private static void esperar(BooleanSupplier condicion) throws InterruptedException {
+        long limite = System.nanoTime() + 2_000_000_000L;
+        while (!condicion.getAsBoolean()) {
+            assertTrue(System.nanoTime() < limite, "La condición no se cumplió a tiempo");
+            Thread.sleep(5);
+        }
+    }
+}
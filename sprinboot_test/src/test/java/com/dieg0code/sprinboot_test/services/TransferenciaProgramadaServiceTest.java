@@ -0,0 +1,110 @@
+package com.dieg0code.sprinboot_test.services;
+
+import com.dieg0code.sprinboot_test.models.ErrorCuenta;
+import com.dieg0code.sprinboot_test.models.EstadoTransferenciaProgramada;
+import com.dieg0code.sprinboot_test.models.FrecuenciaTransferencia;
+import com.dieg0code.sprinboot_test.models.Resultado;
+import com.dieg0code.sprinboot_test.models.TransferenciaProgramada;
+import com.dieg0code.sprinboot_test.repositories.TransferenciaProgramadaRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class TransferenciaProgramadaServiceTest {
+
+    TransferenciaProgramadaRepository programadaRepository;
+    CuentaService cuentaService;
+    TransferenciaProgramadaService programadaService;
+
+    Instant ahora = Instant.parse("2024-01-31T10:00:00Z");
+
+    @BeforeEach
+    void setUp() {
+        programadaRepository = mock(TransferenciaProgramadaRepository.class);
+        cuentaService = mock(CuentaService.class);
+        programadaService = new TransferenciaProgramadaService(programadaRepository, cuentaService, 16);
+    }
+
+    @Test
+    void ejecutarMensualTest() {
+        // Given
+        TransferenciaProgramada transferencia = programada(FrecuenciaTransferencia.MENSUAL, ahora);
+        when(programadaRepository.findById(1L)).thenReturn(Optional.of(transferencia));
+        when(cuentaService.intentarTransferir(1L, 2L, new BigDecimal("100"), 1L)).thenReturn(Resultado.exito(null));
+
+        // When
+        Resultado<Boolean> resultado = programadaService.ejecutar(1L, ahora);
+
+        // Then
+        assertEquals(Resultado.exito(true), resultado);
+        verify(cuentaService).intentarTransferir(1L, 2L, new BigDecimal("100"), 1L);
+        assertEquals(EstadoTransferenciaProgramada.PENDIENTE, transferencia.getEstado());
+        assertEquals(Instant.parse("2024-02-29T10:00:00Z"), transferencia.getProximaEjecucion());
+        assertEquals(1, transferencia.getEjecuciones());
+    }
+
+    @Test
+    void ejecutarNoVencidaTest() {
+        // Given
+        TransferenciaProgramada transferencia = programada(FrecuenciaTransferencia.UNICA, ahora.plusSeconds(60));
+        when(programadaRepository.findById(1L)).thenReturn(Optional.of(transferencia));
+
+        // When
+        Resultado<Boolean> resultado = programadaService.ejecutar(1L, ahora);
+
+        // Then
+        assertEquals(Resultado.exito(false), resultado);
+        verify(cuentaService, never()).intentarTransferir(anyLong(), anyLong(), any(), anyLong());
+        assertEquals(0, transferencia.getEjecuciones());
+    }
+
+    @Test
+    void ejecutarRechazadaTest() {
+        // Given
+        TransferenciaProgramada transferencia = programada(FrecuenciaTransferencia.MENSUAL, ahora);
+        when(programadaRepository.findById(1L)).thenReturn(Optional.of(transferencia));
+        when(cuentaService.intentarTransferir(1L, 2L, new BigDecimal("100"), 1L))
+                .thenReturn(Resultado.fallo(ErrorCuenta.DINERO_INSUFICIENTE, "Dinero insuficiente"));
+
+        // When
+        Resultado<Boolean> resultado = programadaService.ejecutar(1L, ahora);
+
+        // Then
+        assertEquals(Resultado.fallo(ErrorCuenta.DINERO_INSUFICIENTE, "Dinero insuficiente"), resultado);
+        assertEquals(ahora, transferencia.getProximaEjecucion());
+        assertEquals(0, transferencia.getEjecuciones());
+    }
+
+    @Test
+    void registrarFalloUnicaTest() {
+        // Given
+        TransferenciaProgramada transferencia = programada(FrecuenciaTransferencia.UNICA, ahora);
+        when(programadaRepository.findById(1L)).thenReturn(Optional.of(transferencia));
+
+        // When
+        programadaService.registrarFallo(1L, "Dinero insuficiente");
+
+        // Then
+        assertEquals(EstadoTransferenciaProgramada.FALLIDA, transferencia.getEstado());
+        assertEquals("Dinero insuficiente", transferencia.getUltimoError());
+    }
+
+    private TransferenciaProgramada programada(FrecuenciaTransferencia frecuencia, Instant proximaEjecucion) {
+        TransferenciaProgramada transferencia = new TransferenciaProgramada();
+        transferencia.setId(1L);
+        transferencia.setCuentaOrigenId(1L);
+        transferencia.setCuentaDestinoId(2L);
+        transferencia.setBancoId(1L);
+        transferencia.setMonto(new BigDecimal("100"));
+        transferencia.setFrecuencia(frecuencia);
+        transferencia.setProximaEjecucion(proximaEjecucion);
+        transferencia.setEstado(EstadoTransferenciaProgramada.PENDIENTE);
+        return transferencia;
+    }
+}
@@ -0,0 +1,137 @@
+package com.dieg0code.sprinboot_test.services;
+
+import com.dieg0code.sprinboot_test.exceptions.DineroInsuficienteException;
+import com.dieg0code.sprinboot_test.exceptions.LimiteVelocidadExcedidoException;
+import com.dieg0code.sprinboot_test.models.Cuenta;
+import com.dieg0code.sprinboot_test.models.SaldoDTO;
+import com.dieg0code.sprinboot_test.repositories.ContadorBancoRepository;
+import com.dieg0code.sprinboot_test.repositories.CuentaRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Timeout;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.PessimisticLockingFailureException;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Transferencias aleatorias concurrentes entre un grupo pequeño de cuentas, para que los hilos
+ * compitan por las mismas filas. Al terminar el dinero total tiene que ser el mismo, ningún saldo
+ * puede quedar negativo y el contador del banco tiene que sumar exactamente las transferencias
+ * confirmadas. Bajo carga, el límite de velocidad y el tiempo de espera de los bloqueos también
+ * pueden rechazar transferencias: se cuentan como rechazos esperados y no cambian los invariantes.
+ */
+@SpringBootTest(properties = {
+        "cuentas.velocidad.max-transferencias=1000000000",
+        "cuentas.velocidad.max-monto=1000000000",
+        "logging.level.org.hibernate.SQL=WARN"
+})
+class TransferenciasConcurrentesTest {
+
+    static final int CUENTAS = 12;
+    static final long DURACION_MS = 2_000;
+    static final int MAX_POR_HILO = 2_000;
+
+    @Autowired
+    CuentaService cuentaService;
+
+    @Autowired
+    CuentaRepository cuentaRepository;
+
+    @Autowired
+    ContadorBancoRepository contadorRepository;
+
+    List<Long> ids = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        cuentaService.deleteAllById(ids);
+    }
+
+    @ParameterizedTest(name = "semilla {0}, {1} hilos")
+    @CsvSource({"1, 2", "7, 8", "42, 16"})
+    @Timeout(value = 60, unit = TimeUnit.SECONDS)
+    void transferenciasConcurrentesTest(long semilla, int hilos) throws Exception {
+        // Given
+        Random random = new Random(semilla);
+        BigDecimal totalInicial = BigDecimal.ZERO;
+        for (int i = 0; i < CUENTAS; i++) {
+            Cuenta cuenta = new Cuenta(null, "Estres " + semilla + "-" + hilos + "-" + i, BigDecimal.valueOf(random.nextInt(100_000), 2));
+            cuenta.setBancoId(1L);
+            ids.add(cuentaService.save(cuenta).getId());
+            totalInicial = totalInicial.add(cuenta.getSaldo());
+        }
+        int contadorInicial = contadorRepository.findTotalTransferenciasById(1L).orElseThrow();
+
+        // When
+        ExecutorService ejecutor = Executors.newFixedThreadPool(hilos);
+        long limite = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(DURACION_MS);
+        List<Future<int[]>> tareas = new ArrayList<>();
+        for (int h = 0; h < hilos; h++) {
+            Random aleatorio = new Random(semilla * 31 + h);
+            tareas.add(ejecutor.submit(() -> transferir(aleatorio, limite)));
+        }
+        int confirmadas = 0;
+        int rechazadas = 0;
+        int rechazadasPorCarga = 0;
+        try {
+            for (Future<int[]> tarea : tareas) {
+                int[] resultado = tarea.get();
+                confirmadas += resultado[0];
+                rechazadas += resultado[1];
+                rechazadasPorCarga += resultado[2];
+            }
+        } finally {
+            ejecutor.shutdownNow();
+        }
+
+        // Then
+        List<SaldoDTO> saldos = cuentaRepository.findSaldosByIdIn(ids);
+        BigDecimal totalFinal = saldos.stream().map(SaldoDTO::saldo).reduce(BigDecimal.ZERO, BigDecimal::add);
+        int contadorFinal = contadorRepository.findTotalTransferenciasById(1L).orElseThrow();
+
+        assertTrue(confirmadas > 0, "No se confirmó ninguna transferencia");
+        assertEquals(CUENTAS, saldos.size());
+        assertEquals(0, totalInicial.compareTo(totalFinal), "El dinero total cambió: " + totalInicial + " -> " + totalFinal);
+        assertTrue(saldos.stream().allMatch(s -> s.saldo().signum() >= 0), "Hay saldos negativos: " + saldos);
+        assertEquals(confirmadas, contadorFinal - contadorInicial,
+                "El contador no coincide con las transferencias confirmadas (" + rechazadas + " rechazadas por saldo, "
+                        + rechazadasPorCarga + " por carga)");
+    }
+
+    // Devuelve {confirmadas, rechazadas por saldo, rechazadas por carga}; cualquier otra excepción hace fallar el test
+    private int[] transferir(Random aleatorio, long limite) {
+        int confirmadas = 0;
+        int rechazadas = 0;
+        int rechazadasPorCarga = 0;
+        for (int i = 0; i < MAX_POR_HILO && System.nanoTime() < limite; i++) {
+            Long origen = ids.get(aleatorio.nextInt(CUENTAS));
+            Long destino = ids.get(aleatorio.nextInt(CUENTAS - 1));
+            if (destino.equals(origen)) {
+                destino = ids.get(CUENTAS - 1);
+            }
+            BigDecimal monto = BigDecimal.valueOf(aleatorio.nextInt(1, 20_000), 2);
+            try {
+                cuentaService.transferir(origen, destino, monto, 1L);
+                confirmadas++;
+            } catch (DineroInsuficienteException e) {
+                rechazadas++;
+            } catch (LimiteVelocidadExcedidoException | PessimisticLockingFailureException e) {
+                // La transacción se revierte entera: no mueve saldos ni el contador
+                rechazadasPorCarga++;
+            }
+        }
+        return new int[]{confirmadas, rechazadas, rechazadasPorCarga};
+    }
+}
@@ -0,0 +1,130 @@
+package com.dieg0code.sprinboot_test.wal;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BitacoraTransferenciasTest {
+
+    // Cuatro registros por segmento para forzar rotaciones
+    static final int SEGMENTO = 4 * RegistroBitacora.TAMANO;
+
+    @TempDir
+    Path directorio;
+
+    @Test
+    void registrarYRecuperarAlReabrirTest() throws Exception {
+        // Given
+        try (BitacoraTransferencias bitacora = new BitacoraTransferencias(directorio, SEGMENTO, 0)) {
+            assertEquals(1L, bitacora.registrar(1L, 2L, new BigDecimal("100.50"), 1L));
+            assertEquals(2L, bitacora.registrar(2L, 1L, new BigDecimal("-0.01"), 1L));
+        }
+
+        // When
+        try (BitacoraTransferencias bitacora = new BitacoraTransferencias(directorio, SEGMENTO, 0)) {
+
+            // Then
+            List<RegistroBitacora> pendientes = bitacora.pendientes();
+            assertEquals(2, pendientes.size());
+            assertEquals(1L, pendientes.get(0).secuencia());
+            assertEquals(2L, pendientes.get(0).cuentaDestinoId());
+            assertEquals(new BigDecimal("100.50"), pendientes.get(0).monto());
+            assertEquals(new BigDecimal("-0.01"), pendientes.get(1).monto());
+            assertEquals(3L, bitacora.registrar(1L, 2L, BigDecimal.TEN, 1L));
+        }
+    }
+
+    @Test
+    void descartarColaCortadaTest() throws Exception {
+        // Given
+        try (BitacoraTransferencias bitacora = new BitacoraTransferencias(directorio, SEGMENTO, 0)) {
+            bitacora.registrar(1L, 2L, BigDecimal.ONE, 1L);
+            bitacora.registrar(1L, 2L, BigDecimal.TEN, 1L);
+        }
+        Path segmento = segmentos().get(0);
+        try (FileChannel canal = FileChannel.open(segmento, StandardOpenOption.WRITE)) {
+            // Un byte cambiado en el monto del segundo registro, como una escritura a medias
+            canal.write(ByteBuffer.wrap(new byte[]{0x7f}), RegistroBitacora.TAMANO + 40);
+        }
+
+        // When
+        try (BitacoraTransferencias bitacora = new BitacoraTransferencias(directorio, SEGMENTO, 0)) {
+
+            // Then
+            assertEquals(1, bitacora.pendientes().size());
+            assertEquals(2L, bitacora.registrar(1L, 2L, BigDecimal.ONE, 1L));
+        }
+        try (BitacoraTransferencias bitacora = new BitacoraTransferencias(directorio, SEGMENTO, 0)) {
+            assertEquals(List.of(1L, 2L), bitacora.pendientes().stream().map(RegistroBitacora::secuencia).toList());
+        }
+    }
+
+    @Test
+    void rotarYConfirmarBorraSegmentosTest() throws Exception {
+        // Given
+        try (BitacoraTransferencias bitacora = new BitacoraTransferencias(directorio, SEGMENTO, 0)) {
+            for (int i = 0; i < 10; i++) {
+                bitacora.registrar(1L, 2L, BigDecimal.ONE, 1L);
+            }
+            assertEquals(3, segmentos().size());
+
+            // When
+            bitacora.confirmarHasta(8L);
+
+            // Then
+            assertEquals(1, segmentos().size());
+            assertTrue(segmentos().get(0).getFileName().toString().endsWith("00000000000000000009.log"));
+        }
+        try (BitacoraTransferencias bitacora = new BitacoraTransferencias(directorio, SEGMENTO, 0)) {
+            assertEquals(List.of(9L, 10L), bitacora.pendientes().stream().map(RegistroBitacora::secuencia).toList());
+            assertEquals(11L, bitacora.registrar(1L, 2L, BigDecimal.ONE, 1L));
+        }
+    }
+
+    @Test
+    void confirmarNoRetrocedeTest() throws Exception {
+        // Given
+        try (BitacoraTransferencias bitacora = new BitacoraTransferencias(directorio, SEGMENTO, 0)) {
+            for (int i = 0; i < 3; i++) {
+                bitacora.registrar(1L, 2L, BigDecimal.ONE, 1L);
+            }
+
+            // When
+            bitacora.confirmarHasta(2L);
+            bitacora.confirmarHasta(1L);
+        }
+
+        // Then
+        try (BitacoraTransferencias bitacora = new BitacoraTransferencias(directorio, SEGMENTO, 0)) {
+            assertEquals(List.of(3L), bitacora.pendientes().stream().map(RegistroBitacora::secuencia).toList());
+        }
+    }
+
+    @Test
+    void registrarEnBitacoraCerradaTest() throws Exception {
+        // Given
+        BitacoraTransferencias bitacora = new BitacoraTransferencias(directorio, SEGMENTO, 0);
+
+        // When
+        bitacora.close();
+
+        // Then
+        assertThrows(IllegalStateException.class, () -> bitacora.registrar(1L, 2L, BigDecimal.ONE, 1L));
+    }
+
+    private List<Path> segmentos() throws Exception {
+        try (Stream<Path> listado = Files.list(directorio)) {
+            return listado.filter(p -> p.getFileName().toString().endsWith(".log")).sorted().toList();
+        }
+    }
+}
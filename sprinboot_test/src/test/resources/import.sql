@@ -1,4 +1,5 @@
-INSERT INTO cuentas (nombre, saldo) VALUES ('Diego', 1000);
-INSERT INTO cuentas (nombre, saldo) VALUES ('Pedro', 2000);
+INSERT INTO cuentas (nombre, saldo, banco_id) VALUES ('Diego', 1000, 1);
+INSERT INTO cuentas (nombre, saldo, banco_id) VALUES ('Pedro', 2000, 1);
 
-INSERT INTO bancos (nombre, total_transferencias) VALUES ('Banco 1', 0);
\ No newline at end of file
+INSERT INTO bancos (nombre) VALUES ('Banco 1');
+INSERT INTO contadores_bancos (banco_id, total_transferencias) VALUES (1, 0);
\ No newline at end of file